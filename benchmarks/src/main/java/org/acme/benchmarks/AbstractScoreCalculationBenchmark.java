@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+
+/**
+ * Measures how many moves per second the score calculation of a {@link ConstraintProvider} can evaluate,
+ * the same way local search does: change a planning variable, calculate the score incrementally, undo the change.
+ * <p>
+ * With the {@code constraintName} parameter {@value #ALL_CONSTRAINTS}, all constraints are calculated together,
+ * as the solver does. With the name of a single constraint, only that constraint is calculated,
+ * so a regression can be traced back to the constraint that caused it.
+ * @param <Solution_> the solution type, the class with the
+ * {@link org.optaplanner.core.api.domain.solution.PlanningSolution} annotation
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public abstract class AbstractScoreCalculationBenchmark<Solution_> {
+
+    public static final String ALL_CONSTRAINTS = "ALL";
+
+    private InnerScoreDirector<Solution_, ?> scoreDirector;
+    private Random random;
+
+    protected abstract Class<Solution_> getSolutionClass();
+
+    /**
+     * @return never null, all genuine and shadow planning entity classes
+     */
+    protected abstract Class<?>[] getEntityClasses();
+
+    protected abstract Class<? extends ConstraintProvider> getConstraintProviderClass();
+
+    /**
+     * @return never null, {@value #ALL_CONSTRAINTS} or the name of a single constraint
+     */
+    protected abstract String getConstraintName();
+
+    /**
+     * @param random never null, use it for every random decision, so every fork builds the same dataset
+     * @return never null, with every planning variable of every movable entity initialized
+     * (unless {@link #initializeVariables(Object, Random)} initializes them)
+     * and the shadow variables consistent with them
+     */
+    protected abstract Solution_ buildSolution(Random random);
+
+    /**
+     * Called once the solution is the working solution, before any move.
+     * Override it to initialize the planning variables that shadow variables depend on,
+     * by calling {@link #changeVariable(Object, String, Function, BiConsumer, Object)},
+     * so the variable listeners calculate those shadow variables, as they do in the solver.
+     * @param solution never null, the working solution
+     * @param random never null
+     */
+    protected void initializeVariables(Solution_ solution, Random random) {
+        // Do nothing
+    }
+
+    /**
+     * Changes a planning variable of a random movable entity to a random value,
+     * by calling {@link #changeVariable(Object, String, Function, BiConsumer, Object)}.
+     * @param solution never null, the working solution
+     * @param random never null
+     * @return never null, undoes the change
+     */
+    protected abstract Runnable doRandomMove(Solution_ solution, Random random);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new Random(37);
+        Solution_ solution = buildSolution(random);
+        SolverConfig solverConfig = new SolverConfig()
+                .withSolutionClass(getSolutionClass())
+                .withEntityClasses(getEntityClasses());
+        String constraintName = getConstraintName();
+        if (constraintName.equals(ALL_CONSTRAINTS)) {
+            solverConfig.withConstraintProviderClass(getConstraintProviderClass());
+        } else {
+            SingleConstraintProvider.select(getConstraintProviderClass(), constraintName);
+            solverConfig.withConstraintProviderClass(SingleConstraintProvider.class);
+        }
+        SolverFactory<Solution_> solverFactory = SolverFactory.create(solverConfig);
+        // The public API doesn't expose incremental score calculation outside of a Solver
+        scoreDirector = ((DefaultSolverFactory<Solution_>) solverFactory).getScoreDirectorFactory()
+                .buildScoreDirector(false, false);
+        scoreDirector.setWorkingSolution(solution);
+        initializeVariables(solution, random);
+        scoreDirector.calculateScore();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scoreDirector.close();
+    }
+
+    @Benchmark
+    public Score<?> moveEvaluateUndo() {
+        Runnable undo = doRandomMove(scoreDirector.getWorkingSolution(), random);
+        // Returned, so the JIT compiler can't eliminate it
+        Score<?> score = scoreDirector.calculateScore();
+        undo.run();
+        return score;
+    }
+
+    /**
+     * @param entity never null, a movable planning entity
+     * @param variableName never null, the name of a genuine planning variable of that entity
+     * @param getter never null
+     * @param setter never null
+     * @param toValue sometimes null
+     * @param <Entity_> the planning entity type
+     * @param <Value_> the planning value type
+     * @return never null, changes the variable back to its original value
+     */
+    protected <Entity_, Value_> Runnable changeVariable(Entity_ entity, String variableName,
+            Function<Entity_, Value_> getter, BiConsumer<Entity_, Value_> setter, Value_ toValue) {
+        Value_ fromValue = getter.apply(entity);
+        setVariable(entity, variableName, setter, toValue);
+        return () -> setVariable(entity, variableName, setter, fromValue);
+    }
+
+    private <Entity_, Value_> void setVariable(Entity_ entity, String variableName,
+            BiConsumer<Entity_, Value_> setter, Value_ value) {
+        scoreDirector.beforeVariableChanged(entity, variableName);
+        setter.accept(entity, value);
+        scoreDirector.afterVariableChanged(entity, variableName);
+        scoreDirector.triggerVariableListeners();
+    }
+
+}
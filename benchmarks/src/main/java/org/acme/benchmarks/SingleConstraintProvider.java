@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.benchmarks;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.optaplanner.core.api.score.stream.Constraint;
+import org.optaplanner.core.api.score.stream.ConstraintFactory;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+
+/**
+ * Defines only the constraint {@link #select(Class, String) selected} from another {@link ConstraintProvider},
+ * so the score calculation speed of each constraint can be measured on its own.
+ * <p>
+ * A {@link org.optaplanner.core.config.solver.SolverConfig} references a ConstraintProvider by class, not by instance,
+ * so the selection is static. That's fine, because JMH runs every combination of parameters in a separate fork.
+ */
+public class SingleConstraintProvider implements ConstraintProvider {
+
+    private static Class<? extends ConstraintProvider> delegateClass = null;
+    private static String constraintName = null;
+
+    public static synchronized void select(Class<? extends ConstraintProvider> delegateClass, String constraintName) {
+        SingleConstraintProvider.delegateClass = delegateClass;
+        SingleConstraintProvider.constraintName = constraintName;
+    }
+
+    @Override
+    public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+        Class<? extends ConstraintProvider> selectedDelegateClass;
+        String selectedConstraintName;
+        synchronized (SingleConstraintProvider.class) {
+            selectedDelegateClass = delegateClass;
+            selectedConstraintName = constraintName;
+        }
+        if (selectedDelegateClass == null) {
+            throw new IllegalStateException("Call " + SingleConstraintProvider.class.getSimpleName()
+                    + ".select() before building the score director factory.");
+        }
+        ConstraintProvider delegate;
+        try {
+            delegate = selectedDelegateClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("The constraintProvider class (" + selectedDelegateClass
+                    + ") must have a public no-arg constructor.", e);
+        }
+        Constraint[] constraints = delegate.defineConstraints(constraintFactory);
+        Constraint[] selectedConstraints = Arrays.stream(constraints)
+                .filter(constraint -> constraint.getConstraintName().equals(selectedConstraintName))
+                .toArray(Constraint[]::new);
+        if (selectedConstraints.length == 0) {
+            throw new IllegalStateException("The constraintProvider class (" + selectedDelegateClass
+                    + ") has no constraint with the constraintName (" + selectedConstraintName + ").\n"
+                    + "Maybe use one of the existing constraintNames ("
+                    + Arrays.stream(constraints).map(Constraint::getConstraintName).collect(Collectors.joining(", "))
+                    + ").");
+        }
+        return selectedConstraints;
+    }
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.benchmarks.facilitylocation;
+
+import org.acme.facilitylocation.domain.Consumer;
+import org.acme.facilitylocation.domain.DistanceModel;
+import org.optaplanner.core.impl.heuristic.selector.common.nearby.NearbyDistanceMeter;
+
+/**
+ * Used by the nearby swap moves of the facility location {@code solverBenchmarkConfig.xml}.
+ * Two consumers can only swap facilities if each facility is in the nearby facilities of the other consumer,
+ * which is unlikely for consumers far apart, so those swaps are mostly not doable.
+ */
+public class ConsumerNearbyDistanceMeter implements NearbyDistanceMeter<Consumer, Consumer> {
+
+    @Override
+    public double getNearbyDistance(Consumer origin, Consumer destination) {
+        // Only the order of the nearest consumers matters, which the Euclidean distance approximates well enough
+        return DistanceModel.EUCLIDEAN.getDistance(origin.getLocation(), destination.getLocation());
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.benchmarks.facilitylocation;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.acme.facilitylocation.domain.DistanceModel;
+import org.acme.facilitylocation.domain.Location;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the cost of a single distance calculation of each {@link DistanceModel}
+ * with a textbook haversine formula that calculates the trigonometry of both locations every time.
+ * <p>
+ * This is the cost of every distance that isn't cached in the
+ * {@link org.acme.facilitylocation.domain.DistanceMatrix}, and of building that matrix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DistanceModelBenchmark {
+
+    public static final String NAIVE_HAVERSINE = "naiveHaversine";
+
+    private static final int LOCATION_COUNT = 1024;
+
+    @Param({"EUCLIDEAN", "GREAT_CIRCLE", NAIVE_HAVERSINE})
+    public String distanceModel;
+
+    private Location[] fromLocations;
+    private Location[] toLocations;
+    private DistanceModel resolvedDistanceModel;
+    private int i = 0;
+
+    @Setup
+    public void setup() {
+        resolvedDistanceModel = distanceModel.equals(NAIVE_HAVERSINE) ? null : DistanceModel.valueOf(distanceModel);
+        Random random = new Random(37);
+        fromLocations = new Location[LOCATION_COUNT];
+        toLocations = new Location[LOCATION_COUNT];
+        for (int j = 0; j < LOCATION_COUNT; j++) {
+            // The area of the demo data
+            fromLocations[j] = new Location(51.44 + random.nextDouble() * 0.12, -0.16 + random.nextDouble() * 0.15);
+            toLocations[j] = new Location(51.44 + random.nextDouble() * 0.12, -0.16 + random.nextDouble() * 0.15);
+        }
+    }
+
+    @Benchmark
+    public long distance() {
+        i = (i + 1) & (LOCATION_COUNT - 1);
+        Location from = fromLocations[i];
+        Location to = toLocations[i];
+        if (resolvedDistanceModel == null) {
+            return naiveHaversine(from, to);
+        }
+        return resolvedDistanceModel.getDistance(from, to);
+    }
+
+    private static long naiveHaversine(Location from, Location to) {
+        double latitudeDiff = Math.toRadians(to.latitude - from.latitude);
+        double longitudeDiff = Math.toRadians(to.longitude - from.longitude);
+        double latitudeDiffSin = Math.sin(latitudeDiff / 2);
+        double longitudeDiffSin = Math.sin(longitudeDiff / 2);
+        double a = latitudeDiffSin * latitudeDiffSin
+                + Math.cos(Math.toRadians(from.latitude)) * Math.cos(Math.toRadians(to.latitude))
+                * longitudeDiffSin * longitudeDiffSin;
+        return (long) Math.ceil(2 * Math.asin(Math.sqrt(a)) * DistanceModel.EARTH_RADIUS_METERS);
+    }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.benchmarks.facilitylocation;
+
+import org.acme.facilitylocation.bootstrap.DemoDataBuilder;
+import org.acme.facilitylocation.domain.FacilityLocationProblem;
+import org.acme.facilitylocation.domain.Location;
+
+/**
+ * Generates facility location problems of any size, with the same ratios as the demo data.
+ */
+public final class FacilityLocationGenerator {
+
+    /**
+     * @param consumerCount at least 2, the demo data has 60 consumers
+     * @return never null, no consumer is assigned yet
+     */
+    public static FacilityLocationProblem generate(int consumerCount) {
+        return DemoDataBuilder.builder()
+                .setCapacity(consumerCount * 75L)
+                .setDemand(consumerCount * 15L)
+                .setFacilityCount(consumerCount / 2)
+                .setConsumerCount(consumerCount)
+                .setSouthWestCorner(new Location(51.44, -0.16))
+                .setNorthEastCorner(new Location(51.56, -0.01))
+                .setAverageSetupCost(50_000)
+                .setSetupCostStandardDeviation(10_000)
+                .build();
+    }
+
+    private FacilityLocationGenerator() {
+    }
+
+}
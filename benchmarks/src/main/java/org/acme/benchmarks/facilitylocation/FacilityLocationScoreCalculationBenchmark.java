@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.benchmarks.facilitylocation;
+
+import java.util.List;
+import java.util.Random;
+
+import org.acme.benchmarks.AbstractScoreCalculationBenchmark;
+import org.acme.facilitylocation.domain.Consumer;
+import org.acme.facilitylocation.domain.Facility;
+import org.acme.facilitylocation.domain.FacilityLocationConstraintProvider;
+import org.acme.facilitylocation.domain.FacilityLocationProblem;
+import org.openjdk.jmh.annotations.Param;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+
+public class FacilityLocationScoreCalculationBenchmark
+        extends AbstractScoreCalculationBenchmark<FacilityLocationProblem> {
+
+    @Param({ALL_CONSTRAINTS, "facility capacity", "facility setup cost", "distance from facility"})
+    public String constraintName;
+
+    @Param({"60", "600", "6000"})
+    public int consumerCount;
+
+    @Override
+    protected Class<FacilityLocationProblem> getSolutionClass() {
+        return FacilityLocationProblem.class;
+    }
+
+    @Override
+    protected Class<?>[] getEntityClasses() {
+        return new Class<?>[] {Consumer.class, Facility.class};
+    }
+
+    @Override
+    protected Class<? extends ConstraintProvider> getConstraintProviderClass() {
+        return FacilityLocationConstraintProvider.class;
+    }
+
+    @Override
+    protected String getConstraintName() {
+        return constraintName;
+    }
+
+    @Override
+    protected FacilityLocationProblem buildSolution(Random random) {
+        // No consumer is assigned yet, so the shadow variables of the facilities are consistent
+        return FacilityLocationGenerator.generate(consumerCount);
+    }
+
+    @Override
+    protected void initializeVariables(FacilityLocationProblem problem, Random random) {
+        // Through the score director, so the shadow variables (Facility.consumers and usedCapacity) follow
+        for (Consumer consumer : problem.getConsumers()) {
+            List<Facility> facilityList = consumer.getNearbyFacilities();
+            changeVariable(consumer, "facility", Consumer::getFacility, Consumer::setFacility,
+                    facilityList.get(random.nextInt(facilityList.size())));
+        }
+    }
+
+    @Override
+    protected Runnable doRandomMove(FacilityLocationProblem problem, Random random) {
+        List<Consumer> consumerList = problem.getConsumers();
+        Consumer consumer = consumerList.get(random.nextInt(consumerList.size()));
+        // Like the solver, only within the value range of that consumer
+        List<Facility> facilityList = consumer.getNearbyFacilities();
+        return changeVariable(consumer, "facility", Consumer::getFacility, Consumer::setFacility,
+                facilityList.get(random.nextInt(facilityList.size())));
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.benchmarks.factoriolayout;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.acme.benchmarks.AbstractScoreCalculationBenchmark;
+import org.acme.factoriolayout.bootstrap.FactorioDataGenerator;
+import org.acme.factoriolayout.domain.Area;
+import org.acme.factoriolayout.domain.Assembly;
+import org.acme.factoriolayout.domain.FactorioLayout;
+import org.acme.factoriolayout.solver.FactorioConstraintProvider;
+import org.openjdk.jmh.annotations.Param;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+
+public class FactorioScoreCalculationBenchmark extends AbstractScoreCalculationBenchmark<FactorioLayout> {
+
+    @Param({ALL_CONSTRAINTS, "Area conflict", "Downstream y", "Manhattan distance", "Group recipes by Y",
+            "Front load assemblies", "Center assemblies"})
+    public String constraintName;
+
+    /**
+     * How many of each required science pack to produce per second.
+     */
+    @Param({"1", "4"})
+    public double requirementAmount;
+
+    private List<Assembly> movableAssemblyList;
+
+    @Override
+    protected Class<FactorioLayout> getSolutionClass() {
+        return FactorioLayout.class;
+    }
+
+    @Override
+    protected Class<?>[] getEntityClasses() {
+        return new Class<?>[] {Assembly.class};
+    }
+
+    @Override
+    protected Class<? extends ConstraintProvider> getConstraintProviderClass() {
+        return FactorioConstraintProvider.class;
+    }
+
+    @Override
+    protected String getConstraintName() {
+        return constraintName;
+    }
+
+    @Override
+    protected FactorioLayout buildSolution(Random random) {
+        FactorioLayout layout = new FactorioDataGenerator().buildLayout(requirementAmount);
+        List<Area> areaList = layout.getAreaList();
+        movableAssemblyList = layout.getAssemblyList().stream()
+                .filter(assembly -> !assembly.isPinned())
+                .collect(Collectors.toList());
+        for (Assembly assembly : movableAssemblyList) {
+            assembly.setArea(areaList.get(random.nextInt(areaList.size())));
+        }
+        return layout;
+    }
+
+    @Override
+    protected Runnable doRandomMove(FactorioLayout layout, Random random) {
+        List<Area> areaList = layout.getAreaList();
+        Assembly assembly = movableAssemblyList.get(random.nextInt(movableAssemblyList.size()));
+        return changeVariable(assembly, "area", Assembly::getArea, Assembly::setArea,
+                areaList.get(random.nextInt(areaList.size())));
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.benchmarks.maintenancescheduling;
+
+import static org.optaplanner.core.api.score.stream.Joiners.equal;
+import static org.optaplanner.core.api.score.stream.Joiners.filtering;
+import static org.optaplanner.core.api.score.stream.Joiners.lessThan;
+
+import org.acme.maintenancescheduling.domain.MaintenanceJob;
+import org.acme.maintenancescheduling.domain.MutuallyExclusiveJobs;
+import org.optaplanner.core.api.score.stream.Constraint;
+import org.optaplanner.core.api.score.stream.ConstraintFactory;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+
+/**
+ * The overlap constraints of the
+ * {@link org.acme.maintenancescheduling.solver.MaintenanceScheduleConstraintProvider}
+ * as they were before they joined on the time grain ranges and the mutually exclusive job memberships:
+ * they match every pair of jobs of the same crew or unit (or every pair of jobs at all)
+ * and calculate the overlap of each pair in a filter.
+ * Only used as the baseline of the {@link JobOverlapBenchmark}.
+ */
+public class FilteringOverlapConstraintProvider implements ConstraintProvider {
+
+    @Override
+    public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+        return new Constraint[] {
+                oneJobPerCrewPerPeriod(constraintFactory),
+                mutuallyExclusiveJobs(constraintFactory),
+                oneJobPerUnitPerPeriod(constraintFactory)
+        };
+    }
+
+    Constraint oneJobPerCrewPerPeriod(ConstraintFactory constraintFactory) {
+        return constraintFactory.fromUnfiltered(MaintenanceJob.class)
+                .filter(maintenanceJob -> maintenanceJob.getStartingTimeGrain() != null
+                        && maintenanceJob.getAssignedCrew() != null)
+                .join(MaintenanceJob.class,
+                        equal(MaintenanceJob::getAssignedCrew),
+                        lessThan(MaintenanceJob::getId),
+                        filtering((maintenanceJob, otherJob) -> maintenanceJob.calculateOverlap(otherJob) > 0))
+                .penalizeConfigurable("One job per crew per period", MaintenanceJob::calculateOverlap);
+    }
+
+    Constraint mutuallyExclusiveJobs(ConstraintFactory constraintFactory) {
+        return constraintFactory.fromUnfiltered(MaintenanceJob.class)
+                .filter(maintenanceJob -> maintenanceJob.getStartingTimeGrain() != null)
+                .join(MaintenanceJob.class,
+                        lessThan(MaintenanceJob::getId),
+                        filtering((maintenanceJob, otherJob) -> maintenanceJob.calculateOverlap(otherJob) > 0))
+                // Scans the mutexJobs list, as MutuallyExclusiveJobs.isMutuallyExclusive() did before its id set
+                .join(MutuallyExclusiveJobs.class,
+                        filtering((maintenanceJob, otherJob, mutexJobs)
+                                -> mutexJobs.getMutexJobs().contains(maintenanceJob)
+                                        && mutexJobs.getMutexJobs().contains(otherJob)))
+                .penalizeConfigurable("Mutually exclusive jobs cannot overlap",
+                        (maintenanceJob, otherJob, mutexJobs) -> maintenanceJob.calculateOverlap(otherJob));
+    }
+
+    Constraint oneJobPerUnitPerPeriod(ConstraintFactory constraintFactory) {
+        return constraintFactory.fromUnfiltered(MaintenanceJob.class)
+                .filter(maintenanceJob -> maintenanceJob.getStartingTimeGrain() != null)
+                .join(MaintenanceJob.class,
+                        equal(MaintenanceJob::getMaintainableUnit),
+                        lessThan(MaintenanceJob::getId),
+                        filtering((maintenanceJob, otherJob) -> maintenanceJob.calculateOverlap(otherJob) > 0))
+                .penalizeConfigurable("One job per unit per period", MaintenanceJob::calculateOverlap);
+    }
+
+}
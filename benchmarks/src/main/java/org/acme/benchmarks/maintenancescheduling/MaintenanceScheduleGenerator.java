@@ -0,0 +1,128 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.benchmarks.maintenancescheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.acme.maintenancescheduling.domain.MaintainableUnit;
+import org.acme.maintenancescheduling.domain.MaintenanceCrew;
+import org.acme.maintenancescheduling.domain.MaintenanceJob;
+import org.acme.maintenancescheduling.domain.MaintenanceSchedule;
+import org.acme.maintenancescheduling.domain.MutuallyExclusiveJobs;
+import org.acme.maintenancescheduling.domain.TimeGrain;
+
+/**
+ * Generates maintenance schedules of any size, in blocks.
+ * Each block has the units, crews, time grains and jobs of the SMALLEST demo data,
+ * shifted {@value #GRAINS_PER_BLOCK} time grains later than the previous block.
+ */
+public final class MaintenanceScheduleGenerator {
+
+    private static final int GRAINS_PER_BLOCK = 24;
+
+    /**
+     * @param blockCount at least 1
+     * @return never null, no job is assigned yet
+     */
+    public static MaintenanceSchedule generate(int blockCount) {
+        return generate(blockCount, MaintenanceJob::new, MaintenanceSchedule::new);
+    }
+
+    /**
+     * Like {@link #generate(int)}, but with a {@link TimeGrainRangeMaintenanceJob} per job,
+     * so the same dataset can be solved with per job ranges of starting time grains
+     * and with the whole horizon as an entity independent range of starting time grains.
+     * @param blockCount at least 1
+     * @return never null, no job is assigned yet
+     */
+    public static TimeGrainRangeMaintenanceSchedule generateWithTimeGrainRange(int blockCount) {
+        return generate(blockCount, TimeGrainRangeMaintenanceJob::new, TimeGrainRangeMaintenanceSchedule::new);
+    }
+
+    private static <Schedule_ extends MaintenanceSchedule> Schedule_ generate(int blockCount, JobFactory jobFactory,
+            ScheduleFactory<Schedule_> scheduleFactory) {
+        List<MaintainableUnit> maintainableUnitList = new ArrayList<>(blockCount * 9);
+        List<MaintenanceCrew> maintenanceCrewList = new ArrayList<>(blockCount * 3);
+        List<TimeGrain> timeGrainList = new ArrayList<>(blockCount * GRAINS_PER_BLOCK + 1);
+        List<MaintenanceJob> maintenanceJobList = new ArrayList<>(blockCount * 10);
+        List<MutuallyExclusiveJobs> mutuallyExclusiveJobsList = new ArrayList<>(blockCount * 3);
+        for (int i = 0; i <= blockCount * GRAINS_PER_BLOCK; i++) {
+            timeGrainList.add(new TimeGrain(i));
+        }
+        for (int block = 0; block < blockCount; block++) {
+            int unitOffset = maintainableUnitList.size();
+            int jobOffset = maintenanceJobList.size();
+            int ready = block * GRAINS_PER_BLOCK;
+            int deadline = ready + GRAINS_PER_BLOCK;
+            for (String unitType : new String[] {"Track", "Switch", "Yard"}) {
+                for (int i = 1; i <= 3; i++) {
+                    maintainableUnitList.add(new MaintainableUnit(unitType + " " + block + "-" + i));
+                }
+            }
+            for (int i = 1; i <= 3; i++) {
+                maintenanceCrewList.add(new MaintenanceCrew("Crew " + block + "-" + i));
+            }
+            for (int i = 0; i < 3; i++) {
+                maintenanceJobList.add(jobFactory.create("Bolt tightening " + block + "-" + i,
+                        maintainableUnitList.get(unitOffset + i), ready, deadline, 1, true));
+            }
+            for (int i = 0; i < 3; i++) {
+                maintenanceJobList.add(jobFactory.create("Switch replacement " + block + "-" + i,
+                        maintainableUnitList.get(unitOffset + 3 + i), ready + 8, deadline, 2, true));
+            }
+            for (int i = 0; i < 3; i++) {
+                maintenanceJobList.add(jobFactory.create("Yard repair " + block + "-" + i,
+                        maintainableUnitList.get(unitOffset + 6 + i), ready, deadline, 4, true));
+            }
+            maintenanceJobList.add(jobFactory.create("Track replacement " + block,
+                    maintainableUnitList.get(unitOffset), ready, deadline, 8, true));
+            for (int i = 0; i < 3; i++) {
+                mutuallyExclusiveJobsList.add(new MutuallyExclusiveJobs(maintenanceJobList.get(jobOffset + i * 3),
+                        maintenanceJobList.get(jobOffset + i * 3 + 1), maintenanceJobList.get(jobOffset + i * 3 + 2)));
+            }
+        }
+        long nextJobId = 0L;
+        for (MaintenanceJob maintenanceJob : maintenanceJobList) {
+            // The constraints use the id to match each pair of jobs only once
+            maintenanceJob.setId(nextJobId++);
+        }
+        return scheduleFactory.create(maintainableUnitList, mutuallyExclusiveJobsList, maintenanceCrewList,
+                timeGrainList, maintenanceJobList);
+    }
+
+    private MaintenanceScheduleGenerator() {
+    }
+
+    @FunctionalInterface
+    private interface JobFactory {
+
+        MaintenanceJob create(String jobName, MaintainableUnit maintainableUnit, int readyGrainIndex,
+                int deadlineGrainIndex, int durationInGrains, boolean critical);
+
+    }
+
+    @FunctionalInterface
+    private interface ScheduleFactory<Schedule_ extends MaintenanceSchedule> {
+
+        Schedule_ create(List<MaintainableUnit> maintainableUnitList,
+                List<MutuallyExclusiveJobs> mutuallyExclusiveJobsList, List<MaintenanceCrew> assignedCrewList,
+                List<TimeGrain> timeGrainList, List<MaintenanceJob> maintenanceJobList);
+
+    }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.benchmarks.maintenancescheduling;
+
+import org.optaplanner.benchmark.api.PlannerBenchmark;
+import org.optaplanner.benchmark.api.PlannerBenchmarkFactory;
+
+/**
+ * Runs every solver configuration of {@code solverBenchmarkConfig.xml}
+ * on 1x, 10x and 100x the size of the SMALLEST demo data
+ * and opens the benchmark report in a browser.
+ * <p>
+ * Run it with {@code java -cp benchmarks/target/benchmarks.jar} followed by the fully qualified name of this class.
+ */
+public class MaintenanceSchedulePlannerBenchmarkApp {
+
+    public static void main(String[] args) {
+        PlannerBenchmarkFactory benchmarkFactory = PlannerBenchmarkFactory.createFromXmlResource(
+                "org/acme/benchmarks/maintenancescheduling/solverBenchmarkConfig.xml");
+        PlannerBenchmark benchmark = benchmarkFactory.buildPlannerBenchmark(
+                MaintenanceScheduleGenerator.generate(1),
+                MaintenanceScheduleGenerator.generate(10),
+                MaintenanceScheduleGenerator.generate(100));
+        benchmark.benchmarkAndShowReportInBrowser();
+    }
+
+}
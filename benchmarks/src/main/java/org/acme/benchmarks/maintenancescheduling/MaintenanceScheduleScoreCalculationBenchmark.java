@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.benchmarks.maintenancescheduling;
+
+import java.util.List;
+import java.util.Random;
+
+import org.acme.benchmarks.AbstractScoreCalculationBenchmark;
+import org.acme.maintenancescheduling.domain.MaintenanceCrew;
+import org.acme.maintenancescheduling.domain.MaintenanceJob;
+import org.acme.maintenancescheduling.domain.MaintenanceSchedule;
+import org.acme.maintenancescheduling.domain.TimeGrain;
+import org.acme.maintenancescheduling.solver.MaintenanceScheduleConstraintProvider;
+import org.openjdk.jmh.annotations.Param;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+
+public class MaintenanceScheduleScoreCalculationBenchmark
+        extends AbstractScoreCalculationBenchmark<MaintenanceSchedule> {
+
+    @Param({ALL_CONSTRAINTS, "Jobs must start after ready time grain", "Jobs must finish before deadline",
+            "Assign all critical jobs", "One job per crew per period", "Mutually exclusive jobs cannot overlap",
+            "One job per unit per period", "Assign all non critical jobs"})
+    public String constraintName;
+
+    /**
+     * See {@link MaintenanceScheduleGenerator}.
+     */
+    @Param({"1", "10", "100"})
+    public int blockCount;
+
+    @Override
+    protected Class<MaintenanceSchedule> getSolutionClass() {
+        return MaintenanceSchedule.class;
+    }
+
+    @Override
+    protected Class<?>[] getEntityClasses() {
+        return new Class<?>[] {MaintenanceJob.class};
+    }
+
+    @Override
+    protected Class<? extends ConstraintProvider> getConstraintProviderClass() {
+        return MaintenanceScheduleConstraintProvider.class;
+    }
+
+    @Override
+    protected String getConstraintName() {
+        return constraintName;
+    }
+
+    @Override
+    protected MaintenanceSchedule buildSolution(Random random) {
+        MaintenanceSchedule schedule = MaintenanceScheduleGenerator.generate(blockCount);
+        List<TimeGrain> timeGrainList = schedule.getTimeGrainList();
+        List<MaintenanceCrew> crewList = schedule.getAssignedCrewList();
+        for (MaintenanceJob maintenanceJob : schedule.getMaintenanceJobList()) {
+            maintenanceJob.setStartingTimeGrain(timeGrainList.get(random.nextInt(timeGrainList.size())));
+            maintenanceJob.setAssignedCrew(crewList.get(random.nextInt(crewList.size())));
+        }
+        return schedule;
+    }
+
+    @Override
+    protected Runnable doRandomMove(MaintenanceSchedule schedule, Random random) {
+        MaintenanceJob maintenanceJob = schedule.getMaintenanceJobList()
+                .get(random.nextInt(schedule.getMaintenanceJobList().size()));
+        if (random.nextBoolean()) {
+            List<TimeGrain> timeGrainList = schedule.getTimeGrainList();
+            return changeVariable(maintenanceJob, "startingTimeGrain",
+                    MaintenanceJob::getStartingTimeGrain, MaintenanceJob::setStartingTimeGrain,
+                    timeGrainList.get(random.nextInt(timeGrainList.size())));
+        } else {
+            List<MaintenanceCrew> crewList = schedule.getAssignedCrewList();
+            return changeVariable(maintenanceJob, "assignedCrew",
+                    MaintenanceJob::getAssignedCrew, MaintenanceJob::setAssignedCrew,
+                    crewList.get(random.nextInt(crewList.size())));
+        }
+    }
+
+}
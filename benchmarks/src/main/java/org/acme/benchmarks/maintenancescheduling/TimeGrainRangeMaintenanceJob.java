@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.benchmarks.maintenancescheduling;
+
+import org.acme.maintenancescheduling.domain.MaintainableUnit;
+import org.acme.maintenancescheduling.domain.MaintenanceCrew;
+import org.acme.maintenancescheduling.domain.MaintenanceJob;
+import org.acme.maintenancescheduling.domain.TimeGrain;
+import org.optaplanner.core.api.domain.entity.PlanningEntity;
+import org.optaplanner.core.api.domain.variable.PlanningVariable;
+
+/**
+ * A {@link MaintenanceJob} that can start on any time grain of the horizon,
+ * from the entity independent {@code timeGrainRange} of the {@link TimeGrainRangeMaintenanceSchedule},
+ * when a solver configuration registers it as the entity class instead of {@link MaintenanceJob}.
+ * A solver configuration with the {@link MaintenanceJob} entity class
+ * uses the per job starting time grain range of this job instead.
+ * <p>
+ * OptaPlanner only reads the planning annotations declared on a registered entity class,
+ * so this class declares both planning variables again, on overriding getters.
+ * Only used by the {@link StartingTimeGrainRangeBenchmarkApp}.
+ */
+@PlanningEntity
+public class TimeGrainRangeMaintenanceJob extends MaintenanceJob {
+
+    public TimeGrainRangeMaintenanceJob() {
+    }
+
+    public TimeGrainRangeMaintenanceJob(String jobName, MaintainableUnit maintainableUnit, int readyGrainIndex,
+            int deadlineGrainIndex, int durationInGrains, boolean critical) {
+        super(jobName, maintainableUnit, readyGrainIndex, deadlineGrainIndex, durationInGrains, critical);
+    }
+
+    @PlanningVariable(valueRangeProviderRefs = "timeGrainRange")
+    @Override
+    public TimeGrain getStartingTimeGrain() {
+        return super.getStartingTimeGrain();
+    }
+
+    @PlanningVariable(valueRangeProviderRefs = "assignedCrewRange")
+    @Override
+    public MaintenanceCrew getAssignedCrew() {
+        return super.getAssignedCrew();
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.benchmarks.maintenancescheduling;
+
+import java.util.List;
+
+import org.acme.maintenancescheduling.domain.MaintainableUnit;
+import org.acme.maintenancescheduling.domain.MaintenanceCrew;
+import org.acme.maintenancescheduling.domain.MaintenanceJob;
+import org.acme.maintenancescheduling.domain.MaintenanceSchedule;
+import org.acme.maintenancescheduling.domain.MutuallyExclusiveJobs;
+import org.acme.maintenancescheduling.domain.TimeGrain;
+import org.optaplanner.core.api.domain.solution.PlanningSolution;
+import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
+
+/**
+ * A {@link MaintenanceSchedule} that also provides all of its time grains as an entity independent value range,
+ * as the schedule did before each job had its own range of starting time grains.
+ * Only a solver configuration with the {@link TimeGrainRangeMaintenanceJob} entity class uses that value range,
+ * one with the {@link MaintenanceJob} entity class ignores it.
+ * Only used by the {@link StartingTimeGrainRangeBenchmarkApp}.
+ */
+@PlanningSolution
+public class TimeGrainRangeMaintenanceSchedule extends MaintenanceSchedule {
+
+    public TimeGrainRangeMaintenanceSchedule() {
+    }
+
+    public TimeGrainRangeMaintenanceSchedule(List<MaintainableUnit> maintainableUnitList,
+            List<MutuallyExclusiveJobs> mutuallyExclusiveJobsList, List<MaintenanceCrew> assignedCrewList,
+            List<TimeGrain> timeGrainList, List<MaintenanceJob> maintenanceJobList) {
+        super(maintainableUnitList, mutuallyExclusiveJobsList, assignedCrewList, timeGrainList, maintenanceJobList);
+    }
+
+    @ValueRangeProvider(id = "timeGrainRange")
+    public List<TimeGrain> getTimeGrainRange() {
+        return getTimeGrainList();
+    }
+
+}
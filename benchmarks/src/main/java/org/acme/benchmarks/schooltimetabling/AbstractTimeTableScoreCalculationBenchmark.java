@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.benchmarks.schooltimetabling;
+
+import java.util.List;
+import java.util.Random;
+
+import org.acme.benchmarks.AbstractScoreCalculationBenchmark;
+import org.acme.schooltimetabling.domain.Lesson;
+import org.acme.schooltimetabling.domain.Room;
+import org.acme.schooltimetabling.domain.TimeTable;
+import org.acme.schooltimetabling.domain.Timeslot;
+
+/**
+ * Evaluates random timeslot and room changes of a {@link TimeTableGenerator generated} timeTable.
+ */
+public abstract class AbstractTimeTableScoreCalculationBenchmark extends AbstractScoreCalculationBenchmark<TimeTable> {
+
+    /**
+     * @return at least 1
+     */
+    protected abstract int getLessonCount();
+
+    @Override
+    protected Class<TimeTable> getSolutionClass() {
+        return TimeTable.class;
+    }
+
+    @Override
+    protected Class<?>[] getEntityClasses() {
+        return new Class<?>[] {Lesson.class};
+    }
+
+    /**
+     * @param random never null
+     * @return never null, no lesson is assigned yet
+     */
+    protected TimeTable generateTimeTable(Random random) {
+        return TimeTableGenerator.generate(getLessonCount(), random);
+    }
+
+    @Override
+    protected TimeTable buildSolution(Random random) {
+        TimeTable timeTable = generateTimeTable(random);
+        List<Timeslot> timeslotList = timeTable.getTimeslotList();
+        List<Room> roomList = timeTable.getRoomList();
+        for (Lesson lesson : timeTable.getLessonList()) {
+            lesson.setTimeslot(timeslotList.get(random.nextInt(timeslotList.size())));
+            lesson.setRoom(roomList.get(random.nextInt(roomList.size())));
+        }
+        return timeTable;
+    }
+
+    @Override
+    protected Runnable doRandomMove(TimeTable timeTable, Random random) {
+        Lesson lesson = timeTable.getLessonList().get(random.nextInt(timeTable.getLessonList().size()));
+        if (random.nextBoolean()) {
+            List<Timeslot> timeslotList = timeTable.getTimeslotList();
+            return changeVariable(lesson, "timeslot", Lesson::getTimeslot, Lesson::setTimeslot,
+                    timeslotList.get(random.nextInt(timeslotList.size())));
+        } else {
+            List<Room> roomList = timeTable.getRoomList();
+            return changeVariable(lesson, "room", Lesson::getRoom, Lesson::setRoom,
+                    roomList.get(random.nextInt(roomList.size())));
+        }
+    }
+
+}
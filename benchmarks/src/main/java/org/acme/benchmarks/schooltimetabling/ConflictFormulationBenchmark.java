@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.benchmarks.schooltimetabling;
+
+import java.util.Random;
+
+import org.acme.schooltimetabling.domain.TimeTable;
+import org.acme.schooltimetabling.solver.GroupByTimeTableConstraintProvider;
+import org.acme.schooltimetabling.solver.TimeTableConstraintProvider;
+import org.openjdk.jmh.annotations.Param;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+
+/**
+ * Compares the conflict constraints that match every pair of conflicting lessons
+ * ({@link TimeTableConstraintProvider}) with the ones that count the lessons per timeslot and resource
+ * ({@link GroupByTimeTableConstraintProvider}), on over-constrained timeTables:
+ * every room has 4 times and every teacher has 2 times more lessons than there are timeslots,
+ * so the lessons pile up in the same timeslots, and the pairs explode.
+ * <p>
+ * Run it with {@code -prof gc} to compare the memory allocated per move too.
+ */
+public class ConflictFormulationBenchmark extends AbstractTimeTableScoreCalculationBenchmark {
+
+    public static final String PAIRS = "pairs";
+    public static final String GROUP_BY = "groupBy";
+
+    @Param({PAIRS, GROUP_BY})
+    public String formulation;
+
+    @Param({ALL_CONSTRAINTS, "Room conflict", "Teacher conflict", "Student group conflict"})
+    public String constraintName;
+
+    @Param({"400", "1600", "6400"})
+    public int lessonCount;
+
+    @Override
+    protected Class<? extends ConstraintProvider> getConstraintProviderClass() {
+        switch (formulation) {
+            case PAIRS:
+                return TimeTableConstraintProvider.class;
+            case GROUP_BY:
+                return GroupByTimeTableConstraintProvider.class;
+            default:
+                throw new IllegalStateException("The formulation (" + formulation + ") is not implemented.");
+        }
+    }
+
+    @Override
+    protected String getConstraintName() {
+        return constraintName;
+    }
+
+    @Override
+    protected int getLessonCount() {
+        return lessonCount;
+    }
+
+    @Override
+    protected TimeTable generateTimeTable(Random random) {
+        // 25 timeslots a week
+        return TimeTableGenerator.generate(lessonCount, Math.max(1, lessonCount / 50), Math.max(1, lessonCount / 100),
+                random);
+    }
+
+}
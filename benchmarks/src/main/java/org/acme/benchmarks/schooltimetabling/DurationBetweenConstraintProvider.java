@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.benchmarks.schooltimetabling;
+
+import java.time.Duration;
+
+import org.acme.schooltimetabling.domain.Lesson;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.score.stream.Constraint;
+import org.optaplanner.core.api.score.stream.ConstraintFactory;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+import org.optaplanner.core.api.score.stream.Joiners;
+
+/**
+ * The consecutive lesson constraints of the {@link org.acme.schooltimetabling.solver.TimeTableConstraintProvider}
+ * as they were before {@link org.acme.schooltimetabling.domain.Timeslot#getNextTimeslotSet()} existed:
+ * they join on the day and compare the times of every pair of lessons in a filter, allocating a Duration each.
+ * Only used as the baseline of the {@link TimeslotAdjacencyBenchmark}.
+ */
+public class DurationBetweenConstraintProvider implements ConstraintProvider {
+
+    @Override
+    public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+        return new Constraint[] {
+                teacherTimeEfficiency(constraintFactory),
+                studentGroupSubjectVariety(constraintFactory)
+        };
+    }
+
+    Constraint teacherTimeEfficiency(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .from(Lesson.class)
+                .join(Lesson.class, Joiners.equal(Lesson::getTeacher),
+                        Joiners.equal((lesson) -> lesson.getTimeslot().getDayOfWeek()))
+                .filter(DurationBetweenConstraintProvider::isConsecutive)
+                .reward("Teacher time efficiency", HardSoftScore.ONE_SOFT);
+    }
+
+    Constraint studentGroupSubjectVariety(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                .from(Lesson.class)
+                .join(Lesson.class,
+                        Joiners.equal(Lesson::getSubject),
+                        Joiners.equal(Lesson::getStudentGroup),
+                        Joiners.equal((lesson) -> lesson.getTimeslot().getDayOfWeek()))
+                .filter(DurationBetweenConstraintProvider::isConsecutive)
+                .penalize("Student group subject variety", HardSoftScore.ONE_SOFT);
+    }
+
+    private static boolean isConsecutive(Lesson lesson1, Lesson lesson2) {
+        Duration between = Duration.between(lesson1.getTimeslot().getEndTime(),
+                lesson2.getTimeslot().getStartTime());
+        return !between.isNegative() && between.compareTo(Duration.ofMinutes(30)) <= 0;
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.benchmarks.schooltimetabling;
+
+import java.util.List;
+import java.util.Random;
+
+import org.acme.schooltimetabling.bootstrap.DemoDataBuilder;
+import org.acme.schooltimetabling.domain.Lesson;
+import org.acme.schooltimetabling.domain.Room;
+import org.acme.schooltimetabling.domain.TimeTable;
+import org.acme.schooltimetabling.domain.Timeslot;
+
+/**
+ * Generates timeTables of any size with the {@link DemoDataBuilder} of the quickstart:
+ * 25 timeslots a week, in which each student group has a lesson in most of them.
+ */
+public final class TimeTableGenerator {
+
+    private static final int DAY_COUNT = 5;
+    private static final int PERIOD_COUNT = 5;
+    // The DemoDataBuilder gives every student group a lesson in 80% of the timeslots
+    private static final int LESSON_COUNT_PER_STUDENT_GROUP = 20;
+
+    /**
+     * @param lessonCount at least 1, the LARGE demo data has 100 lessons
+     * @param random never null
+     * @return never null, no lesson is assigned yet
+     */
+    public static TimeTable generate(int lessonCount, Random random) {
+        return generate(lessonCount, Math.max(1, lessonCount / 15), Math.max(1, lessonCount / 20), random);
+    }
+
+    /**
+     * @param lessonCount at least 1, rounded down to a multiple of 20, but at least 20
+     * @param teacherCount at least 1, fewer teachers than 1 per 25 lessons makes it infeasible
+     * @param roomCount at least 1, fewer rooms than 1 per 25 lessons makes it infeasible
+     * @param random never null
+     * @return never null, no lesson is assigned yet
+     */
+    public static TimeTable generate(int lessonCount, int teacherCount, int roomCount, Random random) {
+        TimeTable timeTable = DemoDataBuilder.builder()
+                .setStudentGroupCount(Math.max(1, lessonCount / LESSON_COUNT_PER_STUDENT_GROUP))
+                .setTeacherCount(teacherCount)
+                .setRoomCount(roomCount)
+                .setDayCount(DAY_COUNT)
+                .setPeriodCount(PERIOD_COUNT)
+                .setSeed(random.nextLong())
+                .build();
+        // The DemoDataBuilder leaves the ids to the database, but the solver needs them
+        List<Timeslot> timeslotList = timeTable.getTimeslotList();
+        for (int i = 0; i < timeslotList.size(); i++) {
+            timeslotList.get(i).setId((long) i);
+        }
+        List<Room> roomList = timeTable.getRoomList();
+        for (int i = 0; i < roomList.size(); i++) {
+            roomList.get(i).setId((long) i);
+        }
+        List<Lesson> lessonList = timeTable.getLessonList();
+        for (int i = 0; i < lessonList.size(); i++) {
+            lessonList.get(i).setId((long) i);
+        }
+        return timeTable;
+    }
+
+    private TimeTableGenerator() {
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.benchmarks.schooltimetabling;
+
+import org.acme.schooltimetabling.solver.TimeTableConstraintProvider;
+import org.openjdk.jmh.annotations.Param;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+
+public class TimeTableScoreCalculationBenchmark extends AbstractTimeTableScoreCalculationBenchmark {
+
+    @Param({ALL_CONSTRAINTS, "Room conflict", "Teacher conflict", "Student group conflict",
+            "Teacher room stability", "Teacher time efficiency", "Student group subject variety"})
+    public String constraintName;
+
+    @Param({"100", "400", "1600"})
+    public int lessonCount;
+
+    @Override
+    protected Class<? extends ConstraintProvider> getConstraintProviderClass() {
+        return TimeTableConstraintProvider.class;
+    }
+
+    @Override
+    protected String getConstraintName() {
+        return constraintName;
+    }
+
+    @Override
+    protected int getLessonCount() {
+        return lessonCount;
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.benchmarks.schooltimetabling;
+
+import org.acme.schooltimetabling.solver.TimeTableConstraintProvider;
+import org.openjdk.jmh.annotations.Param;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+
+/**
+ * Compares the consecutive lesson constraints that filter on the precomputed
+ * {@link org.acme.schooltimetabling.domain.Timeslot#getNextTimeslotSet() next timeslots}
+ * with the {@link DurationBetweenConstraintProvider same constraints} that compare the times in a filter.
+ */
+public class TimeslotAdjacencyBenchmark extends AbstractTimeTableScoreCalculationBenchmark {
+
+    public static final String NEXT_TIMESLOT_SET = "nextTimeslotSet";
+    public static final String DURATION_BETWEEN = "durationBetween";
+
+    @Param({NEXT_TIMESLOT_SET, DURATION_BETWEEN})
+    public String implementation;
+
+    @Param({"Teacher time efficiency", "Student group subject variety"})
+    public String constraintName;
+
+    // The LARGE demo data has 100 lessons
+    @Param({"100", "1600"})
+    public int lessonCount;
+
+    @Override
+    protected Class<? extends ConstraintProvider> getConstraintProviderClass() {
+        switch (implementation) {
+            case NEXT_TIMESLOT_SET:
+                return TimeTableConstraintProvider.class;
+            case DURATION_BETWEEN:
+                return DurationBetweenConstraintProvider.class;
+            default:
+                throw new IllegalStateException("The implementation (" + implementation + ") is not implemented.");
+        }
+    }
+
+    @Override
+    protected String getConstraintName() {
+        return constraintName;
+    }
+
+    @Override
+    protected int getLessonCount() {
+        return lessonCount;
+    }
+
+}
@@ -24,6 +24,7 @@ import javax.persistence.GeneratedValue
 import javax.persistence.GenerationType
 import javax.persistence.Id
 import javax.persistence.ManyToOne
+import javax.persistence.PostLoad
 
 
 @PlanningEntity
@@ -35,9 +36,19 @@ class Lesson {
     @GeneratedValue
     var id: Long? = null
 
-    lateinit var subject: String
-    lateinit var teacher: String
-    lateinit var studentGroup: String
+    // Interned, so the joiners of the constraints mostly find equal keys by reference instead of comparing characters
+    var subject: String = ""
+        set(value) {
+            field = value.intern()
+        }
+    var teacher: String = ""
+        set(value) {
+            field = value.intern()
+        }
+    var studentGroup: String = ""
+        set(value) {
+            field = value.intern()
+        }
 
     @PlanningVariable(valueRangeProviderRefs = ["timeslotRange"])
     @ManyToOne
@@ -62,6 +73,13 @@ class Lesson {
         this.room = room
     }
 
+    // Hibernate sets the fields directly
+    @PostLoad
+    fun internKeys() {
+        subject = subject.intern()
+        teacher = teacher.intern()
+        studentGroup = studentGroup.intern()
+    }
 
     override fun toString(): String = "$subject($id)"
 
@@ -49,6 +49,7 @@ class TimeTable {
         this.timeslotList = timeslotList
         this.roomList = roomList
         this.lessonList = lessonList
+        Timeslot.linkNextTimeslots(timeslotList)
     }
 
 }
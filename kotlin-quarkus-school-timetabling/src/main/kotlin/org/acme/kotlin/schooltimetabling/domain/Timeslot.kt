@@ -16,12 +16,15 @@
 
 package org.acme.kotlin.schooltimetabling.domain
 
+import com.fasterxml.jackson.annotation.JsonIgnore
 import java.time.DayOfWeek
 import java.time.LocalTime
+import java.util.IdentityHashMap
 import javax.persistence.Entity
 import javax.persistence.GeneratedValue
 import javax.persistence.GenerationType
 import javax.persistence.Id
+import javax.persistence.Transient
 
 
 @Entity
@@ -35,6 +38,12 @@ class Timeslot {
     lateinit var startTime: LocalTime
     lateinit var endTime: LocalTime
 
+    // Derived from the other timeslots by linkNextTimeslots(), so it's not persisted.
+    // Empty if no timeslot follows this one on the same day.
+    @Transient
+    @JsonIgnore
+    var nextTimeslotSet: Set<Timeslot> = emptySet()
+
     // No-arg constructor required for Hibernate
     constructor()
 
@@ -51,4 +60,48 @@ class Timeslot {
 
     override fun toString(): String = "$dayOfWeek $startTime"
 
+    companion object {
+
+        // A lesson in a next timeslot starts at most this long after a lesson in this timeslot ends
+        const val MAX_MINUTES_BETWEEN_CONSECUTIVE_TIMESLOTS = 30L
+
+        /**
+         * Sets the [nextTimeslotSet] of every timeslot in the list.
+         * Call it once when the problem is loaded, so the constraints don't need to compare times.
+         */
+        fun linkNextTimeslots(timeslotList: List<Timeslot>) {
+            val nextTimeslotSetMap = findNextTimeslots(timeslotList)
+            for (timeslot in timeslotList) {
+                timeslot.nextTimeslotSet = nextTimeslotSetMap.getValue(timeslot)
+            }
+        }
+
+        /**
+         * The next timeslots of a timeslot are all timeslots on the same day
+         * that start between 0 and [MAX_MINUTES_BETWEEN_CONSECUTIVE_TIMESLOTS] minutes after it ends.
+         * Usually there is only one, but overlapping timeslots can follow the same timeslot.
+         * @return the next timeslots per timeslot, an empty set if no timeslot follows it
+         */
+        fun findNextTimeslots(timeslotList: List<Timeslot>): Map<Timeslot, Set<Timeslot>> {
+            val sortedTimeslotList = timeslotList.sortedWith(compareBy({ it.dayOfWeek }, { it.startTime }))
+            val nextTimeslotSetMap = IdentityHashMap<Timeslot, Set<Timeslot>>(sortedTimeslotList.size)
+            for ((i, timeslot) in sortedTimeslotList.withIndex()) {
+                val latestNextStartTime = timeslot.endTime.plusMinutes(MAX_MINUTES_BETWEEN_CONSECUTIVE_TIMESLOTS)
+                var nextTimeslotSet: Set<Timeslot> = emptySet()
+                for (other in sortedTimeslotList.subList(i + 1, sortedTimeslotList.size)) {
+                    if (other.dayOfWeek != timeslot.dayOfWeek || other.startTime.isAfter(latestNextStartTime)) {
+                        break
+                    }
+                    if (!other.startTime.isBefore(timeslot.endTime)) {
+                        // Most timeslots have only one next timeslot
+                        nextTimeslotSet = if (nextTimeslotSet.isEmpty()) setOf(other) else nextTimeslotSet + other
+                    }
+                }
+                nextTimeslotSetMap[timeslot] = nextTimeslotSet
+            }
+            return nextTimeslotSetMap
+        }
+
+    }
+
 }
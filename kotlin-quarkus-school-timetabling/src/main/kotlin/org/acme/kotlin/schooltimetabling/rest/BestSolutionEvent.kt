@@ -0,0 +1,30 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.kotlin.schooltimetabling.rest
+
+import org.acme.kotlin.schooltimetabling.persistence.LessonAssignment
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore
+import org.optaplanner.core.api.solver.SolverStatus
+
+/**
+ * Pushed to the browsers watching the timeTable when its best solution is saved.
+ * Only contains the lessons that moved since the previous event, not the entire timeTable.
+ */
+class BestSolutionEvent(
+        val score: HardSoftScore?,
+        val solverStatus: SolverStatus,
+        val changedLessonList: List<LessonAssignment>)
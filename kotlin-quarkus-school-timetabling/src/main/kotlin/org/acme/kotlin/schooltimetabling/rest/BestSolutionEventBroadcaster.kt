@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.kotlin.schooltimetabling.rest
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import java.util.concurrent.ConcurrentHashMap
+import javax.annotation.PreDestroy
+import javax.enterprise.context.ApplicationScoped
+import javax.inject.Inject
+import javax.ws.rs.sse.Sse
+import javax.ws.rs.sse.SseEventSink
+
+/**
+ * Keeps the Server-Sent Events connections of the browsers and pushes a [BestSolutionEvent] to all of them.
+ *
+ * Each event is serialized to JSON once, regardless of how many browsers watch the timeTable.
+ */
+@ApplicationScoped
+class BestSolutionEventBroadcaster {
+
+    companion object {
+        const val BEST_SOLUTION_EVENT_NAME = "bestSolution"
+    }
+
+    @Inject
+    lateinit var objectMapper: ObjectMapper
+
+    // The open connections
+    private val sinkSet: MutableSet<SseEventSink> = ConcurrentHashMap.newKeySet()
+    // The JAX-RS runtime's Sse is the same for every connection
+    @Volatile
+    private var sse: Sse? = null
+
+    fun register(sink: SseEventSink, sse: Sse) {
+        this.sse = sse
+        sinkSet.add(sink)
+    }
+
+    fun broadcast(event: BestSolutionEvent) {
+        if (sinkSet.isEmpty()) {
+            return
+        }
+        val json = objectMapper.writeValueAsString(event)
+        val sseEvent = sse!!.newEventBuilder()
+                .name(BEST_SOLUTION_EVENT_NAME)
+                .data(String::class.java, json)
+                .build()
+        for (sink in sinkSet) {
+            if (sink.isClosed) {
+                sinkSet.remove(sink)
+                continue
+            }
+            sink.send(sseEvent).whenComplete { _, throwable ->
+                if (throwable != null) {
+                    // The browser went away
+                    sinkSet.remove(sink)
+                    sink.close()
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    fun closeAll() {
+        sinkSet.forEach { it.close() }
+        sinkSet.clear()
+    }
+
+}
@@ -19,13 +19,24 @@ package org.acme.kotlin.schooltimetabling.rest
 import io.quarkus.panache.common.Sort
 import org.acme.kotlin.schooltimetabling.domain.Lesson
 import org.acme.kotlin.schooltimetabling.domain.TimeTable
+import org.acme.kotlin.schooltimetabling.persistence.LessonAssignment
 import org.acme.kotlin.schooltimetabling.persistence.LessonRepository
 import org.acme.kotlin.schooltimetabling.persistence.RoomRepository
 import org.acme.kotlin.schooltimetabling.persistence.TimeslotRepository
+import org.acme.kotlin.schooltimetabling.solver.CoalescingBestSolutionConsumer
+import org.acme.kotlin.schooltimetabling.solver.VersionedScoreCache
+import org.eclipse.microprofile.config.inject.ConfigProperty
 import org.optaplanner.core.api.score.ScoreManager
 import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore
 import org.optaplanner.core.api.solver.SolverManager
 import org.optaplanner.core.api.solver.SolverStatus
+import org.slf4j.LoggerFactory
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicLong
+import java.util.function.BiConsumer
+import java.util.function.Consumer
+import java.util.function.Function
+import javax.annotation.PreDestroy
 import javax.inject.Inject
 import javax.transaction.Transactional
 import javax.ws.rs.Consumes
@@ -33,7 +44,10 @@ import javax.ws.rs.GET
 import javax.ws.rs.POST
 import javax.ws.rs.Path
 import javax.ws.rs.Produces
+import javax.ws.rs.core.Context
 import javax.ws.rs.core.MediaType
+import javax.ws.rs.sse.Sse
+import javax.ws.rs.sse.SseEventSink
 
 
 @Path("timeTable")
@@ -41,38 +55,110 @@ import javax.ws.rs.core.MediaType
 @Consumes(MediaType.APPLICATION_JSON)
 class TimeTableResource {
 
+    companion object {
+        private val LOG = LoggerFactory.getLogger(TimeTableResource::class.java)
+    }
+
     val SINGLETON_TIME_TABLE_ID = 1L
 
+    @ConfigProperty(name = "timeTable.bestSolutionFlushIntervalMillis", defaultValue = "500")
+    var bestSolutionFlushIntervalMillis: Long = 500L
+
     @Inject
     lateinit var timeslotRepository: TimeslotRepository
     @Inject
     lateinit var roomRepository: RoomRepository
     @Inject
     lateinit var lessonRepository: LessonRepository
+    @Inject
+    lateinit var bestSolutionEventBroadcaster: BestSolutionEventBroadcaster
 
     @Inject
     lateinit var solverManager: SolverManager<TimeTable, Long>
     @Inject
     lateinit var scoreManager: ScoreManager<TimeTable, HardSoftScore>
 
+    private val bestSolutionFlushExecutor = Executors.newSingleThreadScheduledExecutor()
+    private val scoreCache = VersionedScoreCache<HardSoftScore>()
+
+    @PreDestroy
+    fun shutdownBestSolutionFlushExecutor() {
+        bestSolutionFlushExecutor.shutdownNow()
+    }
+
     // To try, open http://localhost:8080/timeTable
     @GET
     fun getTimeTable(): TimeTable {
         // Get the solver status before loading the solution
         // to avoid the race condition that the solver terminates between them
         val solverStatus = getSolverStatus()
+        // Likewise, get the version before loading the solution,
+        // so getScore() and putScore() ignore the cache if a write started in the meantime
+        val version = scoreCache.getVersion()
         val solution: TimeTable = findById(SINGLETON_TIME_TABLE_ID)
-        scoreManager.updateScore(solution) // Sets the score
+        val score = scoreCache.getScore(version)
+        if (score == null) {
+            scoreManager.updateScore(solution) // Sets the score
+            scoreCache.putScore(version, solution.score!!)
+        } else {
+            solution.score = score
+        }
         solution.solverStatus = solverStatus
         return solution
     }
 
+    // Instead of polling GET /timeTable, the browser keeps this connection open
+    // and receives a BestSolutionEvent with the score and the moved lessons whenever the best solution is saved.
+    @GET
+    @Path("events")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    fun listenToBestSolutionEvents(@Context sink: SseEventSink, @Context sse: Sse) {
+        bestSolutionEventBroadcaster.register(sink, sse)
+    }
+
     @POST
     @Path("solve")
     fun solve() {
+        // The version of the database that the solver's best solution corresponds to
+        val solutionVersion = AtomicLong()
+        val bestSolutionConsumer = CoalescingBestSolutionConsumer<TimeTable>({ bestSolution ->
+            // Before the lessons are saved, so no GET trusts the cached score while they are being committed
+            scoreCache.startWrite()
+            val changedLessonList = try {
+                save(bestSolution)
+            } catch (e: RuntimeException) {
+                scoreCache.endWrite()
+                solutionVersion.set(VersionedScoreCache.DIVERGED_VERSION)
+                throw e
+            }
+            // The solver already calculated the score of what it saved, so the next GET doesn't need to
+            solutionVersion.set(scoreCache.endWrite(solutionVersion.get(), bestSolution.score!!))
+            bestSolutionEventBroadcaster.broadcast(
+                    BestSolutionEvent(bestSolution.score, SolverStatus.SOLVING_ACTIVE, changedLessonList))
+        }, bestSolutionFlushIntervalMillis, bestSolutionFlushExecutor)
         solverManager.solveAndListen(SINGLETON_TIME_TABLE_ID,
-                this::findById,
-                this::save)
+                // Explicit SAM constructors, because Kotlin can't mix lambdas with the Consumer instance
+                Function<Long, TimeTable> { problemId ->
+                    solutionVersion.set(scoreCache.getVersion())
+                    findById(problemId)
+                },
+                bestSolutionConsumer,
+                Consumer<TimeTable> { finalBestSolution ->
+                    bestSolutionConsumer.acceptFinal(finalBestSolution)
+                    finishSolving(finalBestSolution.score)
+                },
+                BiConsumer<Long, Throwable> { problemId, throwable ->
+                    // Otherwise a waiting best solution would still be saved after the failure
+                    bestSolutionConsumer.cancel()
+                    LOG.error("Solving the timeTable with id ($problemId) failed.", throwable)
+                    // Null if the solver didn't save a best solution with the latest version
+                    finishSolving(scoreCache.getScore(solutionVersion.get()))
+                })
+    }
+
+    private fun finishSolving(score: HardSoftScore?) {
+        // Tells the browsers to stop waiting for best solutions, also if solving failed
+        bestSolutionEventBroadcaster.broadcast(BestSolutionEvent(score, SolverStatus.NOT_SOLVING, emptyList()))
     }
 
     fun getSolverStatus(): SolverStatus {
@@ -97,13 +183,18 @@ class TimeTableResource {
     }
 
     @Transactional
-    protected fun save(timeTable: TimeTable) {
+    protected fun save(timeTable: TimeTable): List<LessonAssignment> {
+        val changedLessonList = mutableListOf<LessonAssignment>()
         for (lesson in timeTable.lessonList) {
             // TODO this is awfully naive: optimistic locking causes issues if called by the SolverManager
             val attachedLesson: Lesson = lessonRepository.findById(lesson.id!!)!!
-            attachedLesson.timeslot = lesson.timeslot
-            attachedLesson.room = lesson.room
+            if (attachedLesson.timeslot?.id != lesson.timeslot?.id || attachedLesson.room?.id != lesson.room?.id) {
+                attachedLesson.timeslot = lesson.timeslot
+                attachedLesson.room = lesson.room
+                changedLessonList.add(LessonAssignment(lesson))
+            }
         }
+        return changedLessonList
     }
     
 }
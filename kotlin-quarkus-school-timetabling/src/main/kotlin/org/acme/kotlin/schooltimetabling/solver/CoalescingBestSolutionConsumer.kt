@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.kotlin.schooltimetabling.solver
+
+import org.slf4j.LoggerFactory
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+import java.util.function.Consumer
+
+/**
+ * Passes the best solutions of a single solver to a slow consumer (such as a database write)
+ * at most once per flush interval.
+ *
+ * A new best solution that arrives while another one is waiting for the next flush replaces it,
+ * so only the latest one is passed on.
+ * The final best solution must be passed to [acceptFinal]:
+ * it is passed on immediately and no waiting best solution overwrites it afterwards.
+ */
+class CoalescingBestSolutionConsumer<Solution_>(
+        private val delegate: (Solution_) -> Unit,
+        private val flushIntervalMillis: Long,
+        private val flushExecutor: ScheduledExecutorService) : Consumer<Solution_> {
+
+    companion object {
+        private val LOG = LoggerFactory.getLogger(CoalescingBestSolutionConsumer::class.java)
+    }
+
+    // Makes sure the delegate is never called concurrently and the final best solution is passed on last
+    private val delegateLock = Any()
+
+    // Guarded by this
+    private var waitingSolution: Solution_? = null
+    private var flushScheduled = false
+    private var lastFlushMillis: Long? = null
+    private var finished = false
+
+    init {
+        require(flushIntervalMillis >= 0L) { "The flushIntervalMillis ($flushIntervalMillis) cannot be negative." }
+    }
+
+    @Synchronized
+    override fun accept(bestSolution: Solution_) {
+        if (finished) {
+            return
+        }
+        waitingSolution = bestSolution
+        if (!flushScheduled) {
+            flushScheduled = true
+            val delayMillis = lastFlushMillis
+                    ?.let { maxOf(0L, it + flushIntervalMillis - System.currentTimeMillis()) }
+                    ?: 0L
+            flushExecutor.schedule(Runnable { flush() }, delayMillis, TimeUnit.MILLISECONDS)
+        }
+    }
+
+    private fun flush() {
+        synchronized(delegateLock) {
+            val solution: Solution_? = synchronized(this) {
+                flushScheduled = false
+                if (finished) {
+                    return
+                }
+                lastFlushMillis = System.currentTimeMillis()
+                val waiting = waitingSolution
+                waitingSolution = null
+                waiting
+            }
+            if (solution != null) {
+                try {
+                    delegate(solution)
+                } catch (e: RuntimeException) {
+                    // Nobody waits for the flushExecutor's result, so don't swallow it
+                    LOG.error("Flushing a best solution failed.", e)
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes on the final best solution immediately, on the calling thread, and ignores any later best solution.
+     */
+    fun acceptFinal(finalBestSolution: Solution_) {
+        synchronized(delegateLock) {
+            synchronized(this) {
+                finished = true
+                waitingSolution = null
+            }
+            delegate(finalBestSolution)
+        }
+    }
+
+    /**
+     * Ignores the waiting best solution and any later best solution, without passing on a final one,
+     * for example because solving failed.
+     * Waits for a flush that is already passing on a best solution.
+     */
+    fun cancel() {
+        synchronized(delegateLock) {
+            synchronized(this) {
+                finished = true
+                waitingSolution = null
+            }
+        }
+    }
+
+}
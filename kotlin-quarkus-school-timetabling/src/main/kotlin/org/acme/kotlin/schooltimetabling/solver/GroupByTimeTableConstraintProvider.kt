@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.kotlin.schooltimetabling.solver
+
+import org.acme.kotlin.schooltimetabling.domain.Lesson
+import org.acme.kotlin.schooltimetabling.domain.Timeslot
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore
+import org.optaplanner.core.api.score.stream.Constraint
+import org.optaplanner.core.api.score.stream.ConstraintCollectors
+import org.optaplanner.core.api.score.stream.ConstraintFactory
+
+/**
+ * Same score as the [TimeTableConstraintProvider], but the conflict constraints count the lessons
+ * per timeslot and room/teacher/student group, instead of matching every pair of conflicting lessons.
+ *
+ * A timeslot with k lessons of one teacher still costs k*(k-1)/2 hard points,
+ * but it's a single group instead of k*(k-1)/2 pair tuples,
+ * which uses less memory and calculates faster on heavily over-constrained datasets.
+ * On feasible datasets, where most groups have a single lesson, the pairs are usually faster.
+ *
+ * To use it, select it in the solver config, see `groupByConflictsSolverConfig.xml`.
+ */
+class GroupByTimeTableConstraintProvider : TimeTableConstraintProvider() {
+
+    override fun roomConflict(constraintFactory: ConstraintFactory): Constraint {
+        // A room can accommodate at most one lesson at the same time.
+        return conflict(constraintFactory, "Room conflict") { lesson: Lesson -> lesson.room }
+    }
+
+    override fun teacherConflict(constraintFactory: ConstraintFactory): Constraint {
+        // A teacher can teach at most one lesson at the same time.
+        return conflict(constraintFactory, "Teacher conflict") { lesson: Lesson -> lesson.teacher }
+    }
+
+    override fun studentGroupConflict(constraintFactory: ConstraintFactory): Constraint {
+        // A student can attend at most one lesson at the same time.
+        return conflict(constraintFactory, "Student group conflict") { lesson: Lesson -> lesson.studentGroup }
+    }
+
+    private fun <Resource_> conflict(constraintFactory: ConstraintFactory, constraintName: String,
+            resourceMapping: (Lesson) -> Resource_): Constraint {
+        return constraintFactory
+                // Count the lessons ...
+                .from(Lesson::class.java)
+                // ... per timeslot and resource ...
+                .groupBy({ lesson: Lesson -> lesson.timeslot }, resourceMapping, ConstraintCollectors.count())
+                // ... that have more than 1 lesson ...
+                .filter { _: Timeslot?, _: Resource_, lessonCount: Int -> lessonCount > 1 }
+                // ... and penalize each pair of those lessons with a hard weight.
+                .penalize(constraintName, HardSoftScore.ONE_HARD) { _: Timeslot?, _: Resource_, lessonCount: Int ->
+                    lessonCount * (lessonCount - 1) / 2
+                }
+    }
+
+}
@@ -22,9 +22,8 @@ import org.optaplanner.core.api.score.stream.Constraint
 import org.optaplanner.core.api.score.stream.ConstraintFactory
 import org.optaplanner.core.api.score.stream.ConstraintProvider
 import org.optaplanner.core.api.score.stream.Joiners
-import java.time.Duration
 
-class TimeTableConstraintProvider : ConstraintProvider {
+open class TimeTableConstraintProvider : ConstraintProvider {
 
     override fun defineConstraints(constraintFactory: ConstraintFactory): Array<Constraint>? {
         return arrayOf(
@@ -39,7 +38,7 @@ class TimeTableConstraintProvider : ConstraintProvider {
         )
     }
 
-    fun roomConflict(constraintFactory: ConstraintFactory): Constraint {
+    open fun roomConflict(constraintFactory: ConstraintFactory): Constraint {
         // A room can accommodate at most one lesson at the same time.
         return constraintFactory
                 // Select each pair of 2 different lessons ...
@@ -52,7 +51,7 @@ class TimeTableConstraintProvider : ConstraintProvider {
                 .penalize("Room conflict", HardSoftScore.ONE_HARD)
     }
 
-    fun teacherConflict(constraintFactory: ConstraintFactory): Constraint {
+    open fun teacherConflict(constraintFactory: ConstraintFactory): Constraint {
         // A teacher can teach at most one lesson at the same time.
         return constraintFactory
                 .fromUniquePair(Lesson::class.java,
@@ -61,7 +60,7 @@ class TimeTableConstraintProvider : ConstraintProvider {
                 .penalize("Teacher conflict", HardSoftScore.ONE_HARD)
     }
 
-    fun studentGroupConflict(constraintFactory: ConstraintFactory): Constraint {
+    open fun studentGroupConflict(constraintFactory: ConstraintFactory): Constraint {
         // A student can attend at most one lesson at the same time.
         return constraintFactory
                 .fromUniquePair(Lesson::class.java,
@@ -85,10 +84,9 @@ class TimeTableConstraintProvider : ConstraintProvider {
                 .from(Lesson::class.java)
                 .join(Lesson::class.java, Joiners.equal(Lesson::teacher),
                         Joiners.equal { lesson: Lesson -> lesson.timeslot?.dayOfWeek })
+                // The next timeslots are precomputed, so no times need to be compared here
                 .filter { lesson1: Lesson, lesson2: Lesson ->
-                    val between = Duration.between(lesson1.timeslot?.endTime,
-                            lesson2.timeslot?.startTime)
-                    !between.isNegative && between.compareTo(Duration.ofMinutes(30)) <= 0
+                    lesson1.timeslot!!.nextTimeslotSet.contains(lesson2.timeslot)
                 }
                 .reward("Teacher time efficiency", HardSoftScore.ONE_SOFT)
     }
@@ -102,9 +100,7 @@ class TimeTableConstraintProvider : ConstraintProvider {
                         Joiners.equal(Lesson::studentGroup),
                         Joiners.equal { lesson: Lesson -> lesson.timeslot?.dayOfWeek })
                 .filter { lesson1: Lesson, lesson2: Lesson ->
-                    val between = Duration.between(lesson1.timeslot?.endTime,
-                            lesson2.timeslot?.startTime)
-                    !between.isNegative && between.compareTo(Duration.ofMinutes(30)) <= 0
+                    lesson1.timeslot!!.nextTimeslotSet.contains(lesson2.timeslot)
                 }
                 .penalize("Student group subject variety", HardSoftScore.ONE_SOFT)
     }
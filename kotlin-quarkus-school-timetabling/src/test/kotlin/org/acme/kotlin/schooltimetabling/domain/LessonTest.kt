@@ -0,0 +1,38 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.kotlin.schooltimetabling.domain
+
+import org.junit.jupiter.api.Assertions
+import org.junit.jupiter.api.Test
+
+class LessonTest {
+
+    @Test
+    fun keysAreInterned() {
+        // Different instances, like Hibernate or Jackson create for every row or JSON object
+        val lesson1 = Lesson(String("Math".toCharArray()), String("A. Turing".toCharArray()),
+                String("9th grade".toCharArray()))
+        val lesson2 = Lesson()
+        lesson2.subject = String("Math".toCharArray())
+        lesson2.teacher = String("A. Turing".toCharArray())
+        lesson2.studentGroup = String("9th grade".toCharArray())
+        Assertions.assertSame(lesson1.subject, lesson2.subject)
+        Assertions.assertSame(lesson1.teacher, lesson2.teacher)
+        Assertions.assertSame(lesson1.studentGroup, lesson2.studentGroup)
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.kotlin.schooltimetabling.persistence
+
+import io.quarkus.test.junit.QuarkusTest
+import org.junit.jupiter.api.Assertions
+import org.junit.jupiter.api.Test
+import javax.inject.Inject
+import javax.transaction.Transactional
+
+@QuarkusTest
+class LessonRepositoryTest {
+
+    @Inject
+    lateinit var lessonRepository: LessonRepository
+
+    @Test
+    @Transactional
+    fun keysAreInternedOnLoad() {
+        // A new persistence context, so Hibernate creates a new String for every column of every row
+        val lessonList = lessonRepository.listAll()
+        Assertions.assertFalse(lessonList.isEmpty())
+        for (lesson in lessonList) {
+            Assertions.assertSame(lesson.subject.intern(), lesson.subject)
+            Assertions.assertSame(lesson.teacher.intern(), lesson.teacher)
+            Assertions.assertSame(lesson.studentGroup.intern(), lesson.studentGroup)
+        }
+    }
+
+}
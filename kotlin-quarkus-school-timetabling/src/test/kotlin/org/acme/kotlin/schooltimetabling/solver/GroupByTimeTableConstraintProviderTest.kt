@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.kotlin.schooltimetabling.solver
+
+import org.acme.kotlin.schooltimetabling.domain.Lesson
+import org.acme.kotlin.schooltimetabling.domain.Room
+import org.acme.kotlin.schooltimetabling.domain.TimeTable
+import org.acme.kotlin.schooltimetabling.domain.Timeslot
+import org.junit.jupiter.api.Test
+import org.optaplanner.test.api.score.stream.ConstraintVerifier
+import java.time.DayOfWeek
+import java.time.LocalTime
+
+internal class GroupByTimeTableConstraintProviderTest {
+
+    val ROOM1: Room = Room(1, "Room1")
+    val ROOM2: Room = Room(2, "Room2")
+    val TIMESLOT1: Timeslot = Timeslot(1, DayOfWeek.MONDAY, LocalTime.NOON, LocalTime.NOON.plusMinutes(50))
+    val TIMESLOT2: Timeslot = Timeslot(2, DayOfWeek.TUESDAY, LocalTime.NOON, LocalTime.NOON.plusMinutes(50))
+
+    val constraintVerifier: ConstraintVerifier<GroupByTimeTableConstraintProvider, TimeTable> =
+            ConstraintVerifier.build(GroupByTimeTableConstraintProvider(), TimeTable::class.java, Lesson::class.java)
+
+    @Test
+    fun roomConflict() {
+        val firstLesson = Lesson(1, "Subject1", "Teacher1", "Group1", TIMESLOT1, ROOM1)
+        val conflictingLesson = Lesson(2, "Subject2", "Teacher2", "Group2", TIMESLOT1, ROOM1)
+        val nonConflictingLesson = Lesson(3, "Subject3", "Teacher3", "Group3", TIMESLOT2, ROOM1)
+        constraintVerifier.verifyThat(GroupByTimeTableConstraintProvider::roomConflict)
+                .given(firstLesson, conflictingLesson, nonConflictingLesson)
+                .penalizesBy(1)
+    }
+
+    @Test
+    fun teacherConflict() {
+        val conflictingTeacher = "Teacher1"
+        val firstLesson = Lesson(1, "Subject1", conflictingTeacher, "Group1", TIMESLOT1, ROOM1)
+        val conflictingLesson = Lesson(2, "Subject2", conflictingTeacher, "Group2", TIMESLOT1, ROOM2)
+        val nonConflictingLesson = Lesson(3, "Subject3", "Teacher2", "Group3", TIMESLOT2, ROOM1)
+        constraintVerifier.verifyThat(GroupByTimeTableConstraintProvider::teacherConflict)
+                .given(firstLesson, conflictingLesson, nonConflictingLesson)
+                .penalizesBy(1)
+    }
+
+    @Test
+    fun studentGroupConflict() {
+        val conflictingGroup = "Group1"
+        val firstLesson = Lesson(1, "Subject1", "Teacher1", conflictingGroup, TIMESLOT1, ROOM1)
+        val conflictingLesson = Lesson(2, "Subject2", "Teacher2", conflictingGroup, TIMESLOT1, ROOM2)
+        val nonConflictingLesson = Lesson(3, "Subject3", "Teacher3", "Group3", TIMESLOT2, ROOM1)
+        constraintVerifier.verifyThat(GroupByTimeTableConstraintProvider::studentGroupConflict)
+                .given(firstLesson, conflictingLesson, nonConflictingLesson)
+                .penalizesBy(1)
+    }
+
+    @Test
+    fun conflictPenalizesEveryPair() {
+        // 4 lessons in the same room at the same time are 6 pairs, like the pair based TimeTableConstraintProvider
+        val lesson1 = Lesson(1, "Subject1", "Teacher1", "Group1", TIMESLOT1, ROOM1)
+        val lesson2 = Lesson(2, "Subject2", "Teacher2", "Group2", TIMESLOT1, ROOM1)
+        val lesson3 = Lesson(3, "Subject3", "Teacher3", "Group3", TIMESLOT1, ROOM1)
+        val lesson4 = Lesson(4, "Subject4", "Teacher4", "Group4", TIMESLOT1, ROOM1)
+        constraintVerifier.verifyThat(GroupByTimeTableConstraintProvider::roomConflict)
+                .given(lesson1, lesson2, lesson3, lesson4)
+                .penalizesBy(6)
+    }
+
+}
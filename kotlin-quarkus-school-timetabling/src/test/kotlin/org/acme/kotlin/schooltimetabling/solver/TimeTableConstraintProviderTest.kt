@@ -34,6 +34,10 @@ internal class TimeTableConstraintProviderTest {
     val TIMESLOT3: Timeslot = Timeslot(3, DayOfWeek.TUESDAY, LocalTime.NOON.plusHours(1), LocalTime.NOON.plusHours(1).plusMinutes(50))
     val TIMESLOT4: Timeslot = Timeslot(4, DayOfWeek.TUESDAY, LocalTime.NOON.plusHours(3), LocalTime.NOON.plusHours(3).plusMinutes(50))
 
+    init {
+        Timeslot.linkNextTimeslots(listOf(TIMESLOT1, TIMESLOT2, TIMESLOT3, TIMESLOT4))
+    }
+
     val constraintVerifier: ConstraintVerifier<TimeTableConstraintProvider, TimeTable> = ConstraintVerifier.build(TimeTableConstraintProvider(), TimeTable::class.java, Lesson::class.java)
 
     @Test
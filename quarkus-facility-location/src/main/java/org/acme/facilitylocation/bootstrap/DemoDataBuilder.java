@@ -25,12 +25,16 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.acme.facilitylocation.domain.Consumer;
+import org.acme.facilitylocation.domain.DistanceModel;
 import org.acme.facilitylocation.domain.Facility;
 import org.acme.facilitylocation.domain.FacilityLocationProblem;
 import org.acme.facilitylocation.domain.Location;
 
 public class DemoDataBuilder {
 
+    // Enough for the demo data to stay feasible, even if the nearest facilities of a consumer are full
+    public static final int DEFAULT_NEARBY_FACILITY_COUNT = 20;
+
     private static final AtomicLong sequence = new AtomicLong();
 
     private long capacity;
@@ -41,6 +45,8 @@ public class DemoDataBuilder {
     private long setupCostStandardDeviation;
     private Location southWestCorner;
     private Location northEastCorner;
+    private int nearbyFacilityCount = DEFAULT_NEARBY_FACILITY_COUNT;
+    private DistanceModel distanceModel = DistanceModel.EUCLIDEAN;
 
     private DemoDataBuilder() {
     }
@@ -89,6 +95,20 @@ public class DemoDataBuilder {
         return this;
     }
 
+    /**
+     * @param nearbyFacilityCount at least 1, how many of the nearest facilities each consumer can be assigned to
+     * @return this
+     */
+    public DemoDataBuilder setNearbyFacilityCount(int nearbyFacilityCount) {
+        this.nearbyFacilityCount = nearbyFacilityCount;
+        return this;
+    }
+
+    public DemoDataBuilder setDistanceModel(DistanceModel distanceModel) {
+        this.distanceModel = distanceModel;
+        return this;
+    }
+
     public FacilityLocationProblem build() {
         if (demand < 1) {
             throw new IllegalStateException("Demand (" + demand + ") must be greater than zero.");
@@ -102,6 +122,13 @@ public class DemoDataBuilder {
         if (consumerCount < 1) {
             throw new IllegalStateException("Number of consumers (" + consumerCount + ") must be greater than zero.");
         }
+        if (nearbyFacilityCount < 1) {
+            throw new IllegalStateException("Number of nearby facilities (" + nearbyFacilityCount
+                    + ") must be greater than zero.");
+        }
+        if (distanceModel == null) {
+            throw new IllegalStateException("Distance model must not be null.");
+        }
         if (demand > capacity) {
             throw new IllegalStateException("Overconstrained problem not supported. The total capacity ("
                     + capacity + ") must be greater than or equal to the total demand (" + demand + ").");
@@ -130,6 +157,11 @@ public class DemoDataBuilder {
                 .limit(consumerCount)
                 .collect(Collectors.toList());
 
-        return new FacilityLocationProblem(facilities, consumers, southWestCorner, northEastCorner);
+        FacilityLocationProblem problem =
+                new FacilityLocationProblem(facilities, consumers, southWestCorner, northEastCorner);
+        problem.setDistanceModel(distanceModel);
+        problem.linkNearbyFacilities(nearbyFacilityCount);
+        problem.linkDistanceMatrix();
+        return problem;
     }
 }
@@ -19,9 +19,11 @@ package org.acme.facilitylocation.bootstrap;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 
+import org.acme.facilitylocation.domain.DistanceModel;
 import org.acme.facilitylocation.domain.FacilityLocationProblem;
 import org.acme.facilitylocation.domain.Location;
 import org.acme.facilitylocation.persistence.FacilityLocationProblemRepository;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import io.quarkus.runtime.StartupEvent;
 
@@ -29,22 +31,30 @@ import io.quarkus.runtime.StartupEvent;
 public class DemoDataGenerator {
 
     private final FacilityLocationProblemRepository repository;
+    private final DistanceModel distanceModel;
+    private final int consumerCount;
 
-    public DemoDataGenerator(FacilityLocationProblemRepository repository) {
+    public DemoDataGenerator(FacilityLocationProblemRepository repository,
+            @ConfigProperty(name = "flp.distanceModel", defaultValue = "EUCLIDEAN") DistanceModel distanceModel,
+            @ConfigProperty(name = "flp.demoData.consumerCount", defaultValue = "60") int consumerCount) {
         this.repository = repository;
+        this.distanceModel = distanceModel;
+        this.consumerCount = consumerCount;
     }
 
     public void generateDemoData(@Observes StartupEvent startupEvent) {
         FacilityLocationProblem problem = DemoDataBuilder.builder()
-                .setCapacity(4500)
-                .setDemand(900)
-                .setFacilityCount(30)
-                .setConsumerCount(60)
+                // The same ratios for any consumer count: 4500 capacity, 900 demand and 30 facilities per 60
+                .setCapacity(consumerCount * 75L)
+                .setDemand(consumerCount * 15L)
+                .setFacilityCount(Math.max(1, consumerCount / 2))
+                .setConsumerCount(consumerCount)
                 .setSouthWestCorner(new Location(51.44, -0.16))
                 .setNorthEastCorner(new Location(51.56, -0.01))
                 .setAverageSetupCost(50_000)
                 .setSetupCostStandardDeviation(10_000)
+                .setDistanceModel(distanceModel)
                 .build();
-        repository.update(problem);
+        repository.put(FacilityLocationProblemRepository.DEFAULT_PROBLEM_ID, problem);
     }
 }
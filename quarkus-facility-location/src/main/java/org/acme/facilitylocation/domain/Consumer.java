@@ -16,12 +16,14 @@
 
 package org.acme.facilitylocation.domain;
 
-import static java.lang.Math.ceil;
-import static java.lang.Math.sqrt;
+import java.util.List;
 
 import org.optaplanner.core.api.domain.entity.PlanningEntity;
+import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
 import org.optaplanner.core.api.domain.variable.PlanningVariable;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  * Consumer has a demand that can be satisfied by <em>any</em> {@link Facility} with a sufficient capacity.
  * <p/>
@@ -43,7 +45,18 @@ public class Consumer {
     private Location location;
     private long demand;
 
-    @PlanningVariable(valueRangeProviderRefs = "facilityRange")
+    // The position in FacilityLocationProblem.consumers, to look up distances
+    @JsonIgnore
+    private int index;
+    @JsonIgnore
+    private DistanceMatrix distanceMatrix;
+
+    // Only the nearest facilities, so the solver doesn't waste moves on facilities far away
+    @ValueRangeProvider(id = "nearbyFacilityRange")
+    @JsonIgnore
+    private List<Facility> nearbyFacilities;
+
+    @PlanningVariable(valueRangeProviderRefs = "nearbyFacilityRange")
     private Facility facility;
 
     public Consumer() {
@@ -68,9 +81,11 @@ public class Consumer {
         if (facility == null) {
             throw new IllegalStateException("No facility is assigned.");
         }
-        double latDiff = facility.getLocation().latitude - this.location.latitude;
-        double lngDiff = facility.getLocation().longitude - this.location.longitude;
-        return (long) ceil(sqrt(latDiff * latDiff + lngDiff * lngDiff) * METERS_PER_DEGREE);
+        if (distanceMatrix == null) {
+            // Not linked to a problem, so its distance model is unknown
+            return DistanceModel.EUCLIDEAN.getDistance(location, facility.getLocation());
+        }
+        return distanceMatrix.getDistance(this, facility);
     }
 
     public long getId() {
@@ -81,6 +96,26 @@ public class Consumer {
         this.id = id;
     }
 
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    /**
+     * @return null if the distances aren't cached
+     * @see FacilityLocationProblem#linkDistanceMatrix()
+     */
+    public DistanceMatrix getDistanceMatrix() {
+        return distanceMatrix;
+    }
+
+    public void setDistanceMatrix(DistanceMatrix distanceMatrix) {
+        this.distanceMatrix = distanceMatrix;
+    }
+
     public Location getLocation() {
         return location;
     }
@@ -97,6 +132,18 @@ public class Consumer {
         this.demand = demand;
     }
 
+    /**
+     * @return the facilities this consumer can be assigned to
+     * @see FacilityLocationProblem#linkNearbyFacilities(int)
+     */
+    public List<Facility> getNearbyFacilities() {
+        return nearbyFacilities;
+    }
+
+    public void setNearbyFacilities(List<Facility> nearbyFacilities) {
+        this.nearbyFacilities = nearbyFacilities;
+    }
+
     public Facility getFacility() {
         return facility;
     }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.domain;
+
+import java.util.List;
+
+/**
+ * The distance from each consumer to the facilities it can be assigned to, calculated once per problem,
+ * so the score calculation only has to look it up.
+ * <p>
+ * Small problems cache the distance of every consumer to every facility in a dense array.
+ * Large problems only cache the distance of every consumer to its {@link Consumer#getNearbyFacilities()
+ * nearby facilities}, because the solver doesn't assign it to other facilities.
+ */
+public abstract class DistanceMatrix {
+
+    // Up to this many consumer-facility pairs (8 MB), the distances are cached in a dense array
+    public static final int MAX_DENSE_SIZE = 1_000_000;
+
+    protected final DistanceModel distanceModel;
+
+    /**
+     * Numbers the consumers and facilities by their position in these lists, for the lookups.
+     * @param consumers never null, with their {@link Consumer#getNearbyFacilities() nearby facilities} linked
+     * @param facilities never null
+     * @param distanceModel never null
+     * @return never null
+     */
+    public static DistanceMatrix build(List<Consumer> consumers, List<Facility> facilities,
+            DistanceModel distanceModel) {
+        return build(consumers, facilities, distanceModel, MAX_DENSE_SIZE);
+    }
+
+    static DistanceMatrix build(List<Consumer> consumers, List<Facility> facilities, DistanceModel distanceModel,
+            int maxDenseSize) {
+        for (int i = 0; i < consumers.size(); i++) {
+            consumers.get(i).setIndex(i);
+        }
+        for (int i = 0; i < facilities.size(); i++) {
+            facilities.get(i).setIndex(i);
+        }
+        if ((long) consumers.size() * facilities.size() <= maxDenseSize) {
+            return new DenseDistanceMatrix(consumers, facilities, distanceModel);
+        } else {
+            return new NearbyDistanceMatrix(consumers, distanceModel);
+        }
+    }
+
+    protected DistanceMatrix(DistanceModel distanceModel) {
+        this.distanceModel = distanceModel;
+    }
+
+    public DistanceModel getDistanceModel() {
+        return distanceModel;
+    }
+
+    /**
+     * @param consumer never null
+     * @param facility never null
+     * @return distance in meters
+     */
+    public abstract long getDistance(Consumer consumer, Facility facility);
+
+    private static final class DenseDistanceMatrix extends DistanceMatrix {
+
+        private final int facilityCount;
+        // Indexed by consumerIndex * facilityCount + facilityIndex
+        private final long[] distances;
+
+        private DenseDistanceMatrix(List<Consumer> consumers, List<Facility> facilities,
+                DistanceModel distanceModel) {
+            super(distanceModel);
+            facilityCount = facilities.size();
+            distances = new long[consumers.size() * facilityCount];
+            for (Consumer consumer : consumers) {
+                for (Facility facility : facilities) {
+                    distances[consumer.getIndex() * facilityCount + facility.getIndex()] =
+                            distanceModel.getDistance(consumer.getLocation(), facility.getLocation());
+                }
+            }
+        }
+
+        @Override
+        public long getDistance(Consumer consumer, Facility facility) {
+            return distances[consumer.getIndex() * facilityCount + facility.getIndex()];
+        }
+
+    }
+
+    private static final class NearbyDistanceMatrix extends DistanceMatrix {
+
+        private final int nearbyFacilityCount;
+        // Both indexed by consumerIndex * nearbyFacilityCount + the position in the consumer's nearby facilities
+        private final int[] facilityIndexes;
+        private final long[] distances;
+
+        private NearbyDistanceMatrix(List<Consumer> consumers, DistanceModel distanceModel) {
+            super(distanceModel);
+            nearbyFacilityCount = consumers.stream()
+                    .mapToInt(consumer -> consumer.getNearbyFacilities().size())
+                    .max().orElse(0);
+            facilityIndexes = new int[consumers.size() * nearbyFacilityCount];
+            distances = new long[consumers.size() * nearbyFacilityCount];
+            for (Consumer consumer : consumers) {
+                List<Facility> nearbyFacilities = consumer.getNearbyFacilities();
+                int offset = consumer.getIndex() * nearbyFacilityCount;
+                for (int i = 0; i < nearbyFacilityCount; i++) {
+                    if (i < nearbyFacilities.size()) {
+                        Facility facility = nearbyFacilities.get(i);
+                        facilityIndexes[offset + i] = facility.getIndex();
+                        distances[offset + i] =
+                                distanceModel.getDistance(consumer.getLocation(), facility.getLocation());
+                    } else {
+                        facilityIndexes[offset + i] = -1;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public long getDistance(Consumer consumer, Facility facility) {
+            int offset = consumer.getIndex() * nearbyFacilityCount;
+            int facilityIndex = facility.getIndex();
+            // The nearby facilities are few, so a linear scan is faster than hashing
+            for (int i = offset; i < offset + nearbyFacilityCount; i++) {
+                if (facilityIndexes[i] == facilityIndex) {
+                    return distances[i];
+                }
+            }
+            // Outside of the value range of that consumer, for example in a solution loaded from elsewhere
+            return distanceModel.getDistance(consumer.getLocation(), facility.getLocation());
+        }
+
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.domain;
+
+import static java.lang.Math.asin;
+import static java.lang.Math.ceil;
+import static java.lang.Math.sqrt;
+
+/**
+ * How the distance between two {@link Location}s is calculated.
+ */
+public enum DistanceModel {
+
+    /**
+     * Treats latitude and longitude as a flat grid in which every degree is 111 km.
+     * Fast, but a degree of longitude is shorter away from the equator (78 km at 45°N),
+     * so east-west distances are overestimated.
+     */
+    EUCLIDEAN {
+        @Override
+        public long getDistance(Location from, Location to) {
+            double latDiff = to.latitude - from.latitude;
+            double lngDiff = to.longitude - from.longitude;
+            return (long) ceil(sqrt(latDiff * latDiff + lngDiff * lngDiff) * Consumer.METERS_PER_DEGREE);
+        }
+
+        @Override
+        public double getLongitudeScale(double latitude) {
+            return 1.0;
+        }
+    },
+    /**
+     * The great-circle distance on a spherical Earth, correct at any latitude.
+     * It uses the sine and cosine of each location, that are precomputed by the location,
+     * so apart from an {@code asin}, it's as cheap as {@link #EUCLIDEAN}.
+     */
+    GREAT_CIRCLE {
+        @Override
+        public long getDistance(Location from, Location to) {
+            // The straight line between both points on the unit sphere, through the Earth
+            double xDiff = to.x - from.x;
+            double yDiff = to.y - from.y;
+            double zDiff = to.z - from.z;
+            double chord = sqrt(xDiff * xDiff + yDiff * yDiff + zDiff * zDiff);
+            // Same as the haversine formula, but without any trigonometry on the coordinates
+            return (long) ceil(2.0 * asin(Math.min(chord / 2.0, 1.0)) * EARTH_RADIUS_METERS);
+        }
+
+        @Override
+        public double getLongitudeScale(double latitude) {
+            return Math.cos(Math.toRadians(latitude));
+        }
+    };
+
+    // The mean radius of the Earth
+    public static final double EARTH_RADIUS_METERS = 6_371_000;
+
+    /**
+     * @param from never null
+     * @param to never null
+     * @return distance in meters
+     */
+    public abstract long getDistance(Location from, Location to);
+
+    /**
+     * Near that latitude, multiplying a difference in longitude by this scale
+     * makes it as long as the same difference in latitude, as this model measures it.
+     * @param latitude in degrees
+     * @return between 0.0 and 1.0
+     */
+    public abstract double getLongitudeScale(double latitude);
+
+}
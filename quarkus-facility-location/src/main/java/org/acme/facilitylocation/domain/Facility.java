@@ -20,14 +20,19 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.optaplanner.core.api.domain.entity.PlanningEntity;
+import org.optaplanner.core.api.domain.variable.CustomShadowVariable;
 import org.optaplanner.core.api.domain.variable.InverseRelationShadowVariable;
+import org.optaplanner.core.api.domain.variable.PlanningVariableReference;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 /**
  * Facility satisfies consumers' demand. Cumulative demand of all consumers assigned to this facility must not exceed
  * the facility's capacity. This requirement is expressed by the {@link FacilityLocationConstraintProvider#facilityCapacity
  * facility capacity} constraint.
  */
-// This is a shadow planning entity, not a genuine planning entity, because it has a shadow variable (consumers).
+// This is a shadow planning entity, not a genuine planning entity, because it has shadow variables
+// (consumers and usedCapacity).
 @PlanningEntity
 public class Facility {
 
@@ -36,9 +41,18 @@ public class Facility {
     private long setupCost;
     private long capacity;
 
+    // The position in FacilityLocationProblem.facilities, to look up distances
+    @JsonIgnore
+    private int index;
+
     @InverseRelationShadowVariable(sourceVariableName = "facility")
     private List<Consumer> consumers = new ArrayList<>();
 
+    // The total demand of the consumers, kept up to date incrementally, so it isn't summed again on every call
+    @CustomShadowVariable(variableListenerClass = UsedCapacityVariableListener.class,
+            sources = @PlanningVariableReference(entityClass = Consumer.class, variableName = "facility"))
+    private long usedCapacity = 0L;
+
     public Facility() {
     }
 
@@ -57,6 +71,14 @@ public class Facility {
         this.id = id;
     }
 
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
     public Location getLocation() {
         return location;
     }
@@ -81,8 +103,17 @@ public class Facility {
         this.capacity = capacity;
     }
 
+    // Not public, to keep the inverse relation out of the JSON, only FacilityLocationProblem.copy() needs it
+    List<Consumer> getConsumers() {
+        return consumers;
+    }
+
     public long getUsedCapacity() {
-        return consumers.stream().mapToLong(Consumer::getDemand).sum();
+        return usedCapacity;
+    }
+
+    public void setUsedCapacity(long usedCapacity) {
+        this.usedCapacity = usedCapacity;
     }
 
     public boolean isUsed() {
@@ -16,8 +16,6 @@
 
 package org.acme.facilitylocation.domain;
 
-import static org.optaplanner.core.api.score.stream.ConstraintCollectors.sumLong;
-
 import org.optaplanner.core.api.score.stream.Constraint;
 import org.optaplanner.core.api.score.stream.ConstraintFactory;
 import org.optaplanner.core.api.score.stream.ConstraintProvider;
@@ -34,12 +32,12 @@ public class FacilityLocationConstraintProvider implements ConstraintProvider {
     }
 
     Constraint facilityCapacity(ConstraintFactory constraintFactory) {
-        return constraintFactory.from(Consumer.class)
-                .groupBy(Consumer::getFacility, sumLong(Consumer::getDemand))
-                .filter((facility, demand) -> demand > facility.getCapacity())
+        // The used capacity is a shadow variable, so a move only re-evaluates the facilities it changes
+        return constraintFactory.from(Facility.class)
+                .filter(facility -> facility.getUsedCapacity() > facility.getCapacity())
                 .penalizeConfigurableLong(
                         FacilityLocationConstraintConfiguration.FACILITY_CAPACITY,
-                        (facility, demand) -> demand - facility.getCapacity());
+                        facility -> facility.getUsedCapacity() - facility.getCapacity());
     }
 
     Constraint setupCost(ConstraintFactory constraintFactory) {
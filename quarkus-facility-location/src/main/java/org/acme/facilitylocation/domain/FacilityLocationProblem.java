@@ -18,22 +18,26 @@ package org.acme.facilitylocation.domain;
 
 import static java.util.Collections.emptyList;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.optaplanner.core.api.domain.constraintweight.ConstraintConfigurationProvider;
 import org.optaplanner.core.api.domain.solution.PlanningEntityCollectionProperty;
 import org.optaplanner.core.api.domain.solution.PlanningScore;
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
 import org.optaplanner.core.api.domain.solution.ProblemFactCollectionProperty;
-import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
 import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 @PlanningSolution
 public class FacilityLocationProblem {
 
     @ProblemFactCollectionProperty
-    @ValueRangeProvider(id = "facilityRange")
     private List<Facility> facilities;
     @PlanningEntityCollectionProperty
     private List<Consumer> consumers;
@@ -45,6 +49,7 @@ public class FacilityLocationProblem {
 
     private Location southWestCorner;
     private Location northEastCorner;
+    private DistanceModel distanceModel = DistanceModel.EUCLIDEAN;
 
     public FacilityLocationProblem() {
     }
@@ -60,6 +65,74 @@ public class FacilityLocationProblem {
         this.northEastCorner = northEastCorner;
     }
 
+    /**
+     * Restricts the facilities each consumer can be assigned to, to its nearest ones,
+     * as near as the {@link #getDistanceModel() distance model} measures them.
+     * Call it once, before solving, after {@link #setDistanceModel(DistanceModel)}.
+     * @param nearbyFacilityCount at least 1, if there are fewer facilities, each consumer can use all of them
+     */
+    public void linkNearbyFacilities(int nearbyFacilityCount) {
+        NearbyFacilityIndex nearbyFacilityIndex = new NearbyFacilityIndex(facilities, distanceModel);
+        for (Consumer consumer : consumers) {
+            consumer.setNearbyFacilities(nearbyFacilityIndex.findNearest(consumer.getLocation(), nearbyFacilityCount));
+        }
+    }
+
+    /**
+     * Calculates the distance from every consumer to the facilities it can be assigned to, once,
+     * with the {@link #getDistanceModel() distance model},
+     * so the score calculation and {@link #getTotalDistance()} only look them up.
+     * Call it once, before solving, after {@link #linkNearbyFacilities(int)}.
+     */
+    public void linkDistanceMatrix() {
+        DistanceMatrix distanceMatrix = DistanceMatrix.build(consumers, facilities, distanceModel);
+        for (Consumer consumer : consumers) {
+            consumer.setDistanceMatrix(distanceMatrix);
+        }
+    }
+
+    /**
+     * Copies the facilities and the consumers, with their assignments, so solving the copy or calculating its score
+     * doesn't modify this problem. The copy shares the immutable parts, such as the locations and the distances.
+     * @return never null
+     */
+    public FacilityLocationProblem copy() {
+        Map<Facility, Facility> facilityCopyMap = new IdentityHashMap<>(facilities.size());
+        List<Facility> facilityCopies = new ArrayList<>(facilities.size());
+        for (Facility facility : facilities) {
+            Facility facilityCopy = new Facility(facility.getId(), facility.getLocation(), facility.getSetupCost(),
+                    facility.getCapacity());
+            facilityCopy.setIndex(facility.getIndex());
+            facilityCopy.setUsedCapacity(facility.getUsedCapacity());
+            facilityCopyMap.put(facility, facilityCopy);
+            facilityCopies.add(facilityCopy);
+        }
+        List<Consumer> consumerCopies = new ArrayList<>(consumers.size());
+        for (Consumer consumer : consumers) {
+            Consumer consumerCopy = new Consumer(consumer.getId(), consumer.getLocation(), consumer.getDemand());
+            consumerCopy.setIndex(consumer.getIndex());
+            consumerCopy.setDistanceMatrix(consumer.getDistanceMatrix());
+            if (consumer.getNearbyFacilities() != null) {
+                consumerCopy.setNearbyFacilities(consumer.getNearbyFacilities().stream()
+                        .map(facilityCopyMap::get)
+                        .collect(Collectors.toList()));
+            }
+            if (consumer.isAssigned()) {
+                Facility facilityCopy = facilityCopyMap.get(consumer.getFacility());
+                consumerCopy.setFacility(facilityCopy);
+                // The inverse relation shadow variable must be consistent with the copied assignment
+                facilityCopy.getConsumers().add(consumerCopy);
+            }
+            consumerCopies.add(consumerCopy);
+        }
+        FacilityLocationProblem problemCopy = new FacilityLocationProblem(facilityCopies, consumerCopies,
+                southWestCorner, northEastCorner);
+        problemCopy.setScore(score);
+        problemCopy.setConstraintConfiguration(constraintConfiguration);
+        problemCopy.setDistanceModel(distanceModel);
+        return problemCopy;
+    }
+
     public static FacilityLocationProblem empty() {
         FacilityLocationProblem problem = new FacilityLocationProblem(
                 emptyList(),
@@ -102,6 +175,19 @@ public class FacilityLocationProblem {
         this.constraintConfiguration = constraintConfiguration;
     }
 
+    @JsonIgnore
+    public DistanceModel getDistanceModel() {
+        return distanceModel;
+    }
+
+    /**
+     * Call {@link #linkDistanceMatrix()} afterwards.
+     * @param distanceModel never null
+     */
+    public void setDistanceModel(DistanceModel distanceModel) {
+        this.distanceModel = distanceModel;
+    }
+
     public List<Location> getBounds() {
         return Arrays.asList(southWestCorner, northEastCorner);
     }
@@ -16,17 +16,34 @@
 
 package org.acme.facilitylocation.domain;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+@JsonPropertyOrder({"latitude", "longitude"})
 public class Location {
 
     public final double latitude;
     public final double longitude;
 
-    public Location(double latitude, double longitude) {
+    // The point on the unit sphere, precomputed from the sine and cosine of the latitude and longitude,
+    // so the DistanceModel.GREAT_CIRCLE doesn't need trigonometry per distance
+    final double x;
+    final double y;
+    final double z;
+
+    @JsonCreator
+    public Location(@JsonProperty("latitude") double latitude, @JsonProperty("longitude") double longitude) {
         this.latitude = latitude;
         this.longitude = longitude;
+        double latitudeRadians = Math.toRadians(latitude);
+        double longitudeRadians = Math.toRadians(longitude);
+        double latitudeCos = Math.cos(latitudeRadians);
+        x = latitudeCos * Math.cos(longitudeRadians);
+        y = latitudeCos * Math.sin(longitudeRadians);
+        z = Math.sin(latitudeRadians);
     }
 
     @Override
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.domain;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Finds the nearest facilities of a location.
+ * <p>
+ * The facilities are put in a uniform grid, so a search only measures the distance
+ * to the facilities in the cells around the location, ring by ring, instead of to every facility.
+ * A search stops as soon as no facility outside the visited rings can be nearer.
+ * <p>
+ * Longitudes are scaled by the {@link DistanceModel#getLongitudeScale(double) longitude scale}
+ * of the distance model at the middle latitude of the facilities,
+ * so far from the equator, the facilities to the east or west aren't ranked too far away.
+ */
+public class NearbyFacilityIndex {
+
+    // On average, each grid cell contains this many facilities
+    private static final int FACILITIES_PER_CELL = 2;
+
+    private final double longitudeScale;
+    private final double minLatitude;
+    // Scaled by the longitudeScale, like the cellWidth
+    private final double minLongitude;
+    private final double cellHeight;
+    private final double cellWidth;
+    private final int rowCount;
+    private final int columnCount;
+    // Indexed by row * columnCount + column
+    private final List<List<Facility>> cells;
+
+    public NearbyFacilityIndex(List<Facility> facilities, DistanceModel distanceModel) {
+        double minLatitude = Double.POSITIVE_INFINITY;
+        double maxLatitude = Double.NEGATIVE_INFINITY;
+        double minLongitude = Double.POSITIVE_INFINITY;
+        double maxLongitude = Double.NEGATIVE_INFINITY;
+        for (Facility facility : facilities) {
+            Location location = facility.getLocation();
+            minLatitude = Math.min(minLatitude, location.latitude);
+            maxLatitude = Math.max(maxLatitude, location.latitude);
+        }
+        this.longitudeScale = distanceModel.getLongitudeScale(
+                facilities.isEmpty() ? 0.0 : (minLatitude + maxLatitude) / 2.0);
+        for (Facility facility : facilities) {
+            double scaledLongitude = scaleLongitude(facility.getLocation());
+            minLongitude = Math.min(minLongitude, scaledLongitude);
+            maxLongitude = Math.max(maxLongitude, scaledLongitude);
+        }
+        int sideCount = (int) Math.ceil(Math.sqrt(Math.max(1, facilities.size() / FACILITIES_PER_CELL)));
+        this.minLatitude = facilities.isEmpty() ? 0.0 : minLatitude;
+        this.minLongitude = facilities.isEmpty() ? 0.0 : minLongitude;
+        this.cellHeight = toCellSize(maxLatitude - minLatitude, sideCount);
+        this.cellWidth = toCellSize(maxLongitude - minLongitude, sideCount);
+        this.rowCount = sideCount;
+        this.columnCount = sideCount;
+        cells = new ArrayList<>(rowCount * columnCount);
+        for (int i = 0; i < rowCount * columnCount; i++) {
+            cells.add(new ArrayList<>(FACILITIES_PER_CELL));
+        }
+        for (Facility facility : facilities) {
+            int row = toRow(facility.getLocation().latitude);
+            int column = toColumn(scaleLongitude(facility.getLocation()));
+            cells.get(row * columnCount + column).add(facility);
+        }
+    }
+
+    /**
+     * @param location never null, doesn't need to be within the area of the facilities
+     * @param count at least 1
+     * @return never null, the {@code count} nearest facilities (or all of them if there are fewer),
+     * nearest first
+     */
+    public List<Facility> findNearest(Location location, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("The count (" + count + ") must be at least 1.");
+        }
+        // The nearest cell, if the location is outside of the area of the facilities
+        int row = toRow(location.latitude);
+        int column = toColumn(scaleLongitude(location));
+        Comparator<Facility> distanceComparator = Comparator.comparingDouble(
+                facility -> squaredDistance(location, facility.getLocation()));
+        List<Facility> candidates = new ArrayList<>(count * 2);
+        for (int ring = 0; ; ring++) {
+            addRing(row, column, ring, candidates);
+            double unvisitedDistance = unvisitedDistance(location, row, column, ring);
+            if (unvisitedDistance == Double.POSITIVE_INFINITY) {
+                // All cells are visited
+                break;
+            }
+            if (candidates.size() >= count) {
+                candidates.sort(distanceComparator);
+                if (unvisitedDistance >= 0.0 && squaredDistance(location, candidates.get(count - 1).getLocation())
+                        <= unvisitedDistance * unvisitedDistance) {
+                    break;
+                }
+            }
+        }
+        candidates.sort(distanceComparator);
+        return candidates.size() <= count ? candidates : new ArrayList<>(candidates.subList(0, count));
+    }
+
+    private void addRing(int centerRow, int centerColumn, int ring, List<Facility> candidates) {
+        int fromRow = Math.max(centerRow - ring, 0);
+        int toRow = Math.min(centerRow + ring, rowCount - 1);
+        for (int row = fromRow; row <= toRow; row++) {
+            boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+            if (edgeRow) {
+                int fromColumn = Math.max(centerColumn - ring, 0);
+                int toColumn = Math.min(centerColumn + ring, columnCount - 1);
+                for (int column = fromColumn; column <= toColumn; column++) {
+                    candidates.addAll(cells.get(row * columnCount + column));
+                }
+            } else {
+                // Only the left and right edge of the ring
+                addCell(row, centerColumn - ring, candidates);
+                addCell(row, centerColumn + ring, candidates);
+            }
+        }
+    }
+
+    private void addCell(int row, int column, List<Facility> candidates) {
+        if (column >= 0 && column < columnCount) {
+            candidates.addAll(cells.get(row * columnCount + column));
+        }
+    }
+
+    /**
+     * @return every facility in a cell outside the visited rings is at least this far away from the location,
+     * {@link Double#POSITIVE_INFINITY} if all cells are visited
+     */
+    private double unvisitedDistance(Location location, int centerRow, int centerColumn, int ring) {
+        double scaledLongitude = scaleLongitude(location);
+        double distance = Double.POSITIVE_INFINITY;
+        if (centerRow - ring > 0) {
+            distance = Math.min(distance, location.latitude - (minLatitude + (centerRow - ring) * cellHeight));
+        }
+        if (centerRow + ring < rowCount - 1) {
+            distance = Math.min(distance, minLatitude + (centerRow + ring + 1) * cellHeight - location.latitude);
+        }
+        if (centerColumn - ring > 0) {
+            distance = Math.min(distance, scaledLongitude - (minLongitude + (centerColumn - ring) * cellWidth));
+        }
+        if (centerColumn + ring < columnCount - 1) {
+            distance = Math.min(distance, minLongitude + (centerColumn + ring + 1) * cellWidth - scaledLongitude);
+        }
+        return distance;
+    }
+
+    private int toRow(double latitude) {
+        return toIndex((latitude - minLatitude) / cellHeight, rowCount);
+    }
+
+    private int toColumn(double scaledLongitude) {
+        return toIndex((scaledLongitude - minLongitude) / cellWidth, columnCount);
+    }
+
+    private double scaleLongitude(Location location) {
+        return location.longitude * longitudeScale;
+    }
+
+    private static int toIndex(double cellOffset, int cellCount) {
+        // The facilities on the max latitude or longitude belong to the last row or column
+        return (int) Math.max(0.0, Math.min(Math.floor(cellOffset), cellCount - 1));
+    }
+
+    private static double toCellSize(double span, int sideCount) {
+        // No facilities, or all of them on the same latitude or longitude
+        if (!(span > 0.0)) {
+            return 1.0;
+        }
+        return span / sideCount;
+    }
+
+    private double squaredDistance(Location a, Location b) {
+        double latitudeDiff = a.latitude - b.latitude;
+        double longitudeDiff = (a.longitude - b.longitude) * longitudeScale;
+        return latitudeDiff * latitudeDiff + longitudeDiff * longitudeDiff;
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.domain;
+
+import org.optaplanner.core.api.domain.variable.VariableListener;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+
+/**
+ * Keeps {@link Facility#getUsedCapacity()} equal to the total demand of the consumers assigned to it,
+ * by adding or subtracting the demand of a single consumer when its facility changes.
+ * <p>
+ * Like the inverse relation shadow variable (Facility.consumers), the used capacity of the facilities
+ * must be consistent with the consumers' facilities in the input problem.
+ */
+public class UsedCapacityVariableListener implements VariableListener<FacilityLocationProblem, Consumer> {
+
+    @Override
+    public void beforeEntityAdded(ScoreDirector<FacilityLocationProblem> scoreDirector, Consumer consumer) {
+        // Do nothing
+    }
+
+    @Override
+    public void afterEntityAdded(ScoreDirector<FacilityLocationProblem> scoreDirector, Consumer consumer) {
+        addDemand(scoreDirector, consumer, consumer.getDemand());
+    }
+
+    @Override
+    public void beforeVariableChanged(ScoreDirector<FacilityLocationProblem> scoreDirector, Consumer consumer) {
+        addDemand(scoreDirector, consumer, -consumer.getDemand());
+    }
+
+    @Override
+    public void afterVariableChanged(ScoreDirector<FacilityLocationProblem> scoreDirector, Consumer consumer) {
+        addDemand(scoreDirector, consumer, consumer.getDemand());
+    }
+
+    @Override
+    public void beforeEntityRemoved(ScoreDirector<FacilityLocationProblem> scoreDirector, Consumer consumer) {
+        addDemand(scoreDirector, consumer, -consumer.getDemand());
+    }
+
+    @Override
+    public void afterEntityRemoved(ScoreDirector<FacilityLocationProblem> scoreDirector, Consumer consumer) {
+        // Do nothing
+    }
+
+    private static void addDemand(ScoreDirector<FacilityLocationProblem> scoreDirector, Consumer consumer,
+            long demand) {
+        Facility facility = consumer.getFacility();
+        if (facility == null) {
+            return;
+        }
+        scoreDirector.beforeVariableChanged(facility, "usedCapacity");
+        facility.setUsedCapacity(facility.getUsedCapacity() + demand);
+        scoreDirector.afterVariableChanged(facility, "usedCapacity");
+    }
+
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.persistence;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.acme.facilitylocation.bootstrap.DemoDataBuilder;
+import org.acme.facilitylocation.domain.Consumer;
+import org.acme.facilitylocation.domain.DistanceModel;
+import org.acme.facilitylocation.domain.Facility;
+import org.acme.facilitylocation.domain.FacilityLocationProblem;
+import org.acme.facilitylocation.domain.Location;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Reads facilities and consumers from CSV or NDJSON, one row at a time,
+ * so the body is never buffered as a whole and no intermediate objects are built per row.
+ * <p>
+ * Every row is a facility or a consumer. A malformed row is rejected and reported, the other rows are imported.
+ * <ul>
+ * <li>CSV: {@code facility,id,latitude,longitude,setupCost,capacity} or {@code consumer,id,latitude,longitude,demand},
+ * optionally with a header line that starts with {@code type}. Quoted values aren't supported.</li>
+ * <li>NDJSON: {@code {"type":"facility","id":1,"location":[51.5,-0.1],"setupCost":1000,"capacity":50}}
+ * or {@code {"type":"consumer","id":2,"location":[51.4,-0.2],"demand":10}}, one per line.</li>
+ * </ul>
+ * Use an instance for one import only.
+ */
+public class FacilityLocationProblemImporter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FacilityLocationProblemImporter.class);
+
+    private static final String FACILITY_TYPE = "facility";
+    private static final String CONSUMER_TYPE = "consumer";
+
+    private final JsonFactory jsonFactory;
+
+    private final List<Facility> facilities = new ArrayList<>();
+    private final List<Consumer> consumers = new ArrayList<>();
+    private final Set<Long> facilityIds = new HashSet<>();
+    private final Set<Long> consumerIds = new HashSet<>();
+    private final ImportReport report = new ImportReport();
+
+    /**
+     * @param jsonFactory never null, only used for NDJSON
+     */
+    public FacilityLocationProblemImporter(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * @param inputStream never null, UTF-8, not closed
+     * @return never null
+     * @throws IOException if reading fails, not if a row is malformed
+     */
+    public ImportReport readCsv(InputStream inputStream) throws IOException {
+        return read(inputStream, this::readCsvRow);
+    }
+
+    /**
+     * @param inputStream never null, UTF-8, not closed
+     * @return never null
+     * @throws IOException if reading fails, not if a row is malformed
+     */
+    public ImportReport readNdjson(InputStream inputStream) throws IOException {
+        return read(inputStream, this::readNdjsonRow);
+    }
+
+    private ImportReport read(InputStream inputStream, RowReader rowReader) throws IOException {
+        long startMillis = System.currentTimeMillis();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        long lineNumber = 0L;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                rowReader.readRow(line, lineNumber);
+            } catch (IllegalArgumentException | JsonProcessingException e) {
+                report.rowRejected(lineNumber, e.getMessage());
+            }
+        }
+        report.setDurationMillis(System.currentTimeMillis() - startMillis);
+        LOG.info("Import read: {}.", report);
+        return report;
+    }
+
+    private void readCsvRow(String line, long lineNumber) {
+        String[] values = line.split(",", -1);
+        String type = values[0].trim();
+        if (lineNumber == 1L && type.equalsIgnoreCase("type")) {
+            // The header
+            return;
+        }
+        switch (type) {
+            case FACILITY_TYPE:
+                checkValueCount(values, 6);
+                addFacility(parseLong(values[1], "id"), parseLocation(values[2], values[3]),
+                        parseLong(values[4], "setupCost"), parseLong(values[5], "capacity"));
+                break;
+            case CONSUMER_TYPE:
+                checkValueCount(values, 5);
+                addConsumer(parseLong(values[1], "id"), parseLocation(values[2], values[3]),
+                        parseLong(values[4], "demand"));
+                break;
+            default:
+                throw new IllegalArgumentException("The type (" + type + ") is not " + FACILITY_TYPE
+                        + " or " + CONSUMER_TYPE + ".");
+        }
+    }
+
+    private static void checkValueCount(String[] values, int valueCount) {
+        if (values.length != valueCount) {
+            throw new IllegalArgumentException("A " + values[0].trim() + " row has " + valueCount
+                    + " values, not " + values.length + ".");
+        }
+    }
+
+    private static long parseLong(String value, String name) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The " + name + " (" + value + ") is not a whole number.");
+        }
+    }
+
+    private static Location parseLocation(String latitude, String longitude) {
+        try {
+            return validateLocation(Double.parseDouble(latitude.trim()), Double.parseDouble(longitude.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The location (" + latitude + ", " + longitude
+                    + ") is not 2 numbers.");
+        }
+    }
+
+    private void readNdjsonRow(String line, long lineNumber) throws IOException {
+        String type = null;
+        Long id = null;
+        Location location = null;
+        Long setupCost = null;
+        Long capacity = null;
+        Long demand = null;
+        try (JsonParser parser = jsonFactory.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("The row is not a JSON object.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                switch (fieldName) {
+                    case "type":
+                        type = parser.getValueAsString();
+                        break;
+                    case "id":
+                        id = readLong(parser, token, fieldName);
+                        break;
+                    case "location":
+                        location = readLocation(parser, token);
+                        break;
+                    case "setupCost":
+                        setupCost = readLong(parser, token, fieldName);
+                        break;
+                    case "capacity":
+                        capacity = readLong(parser, token, fieldName);
+                        break;
+                    case "demand":
+                        demand = readLong(parser, token, fieldName);
+                        break;
+                    default:
+                        // Ignore unknown fields, so a consumer or facility can be exported with extra data
+                        parser.skipChildren();
+                }
+            }
+        }
+        if (FACILITY_TYPE.equals(type)) {
+            addFacility(require(id, "id"), require(location, "location"),
+                    require(setupCost, "setupCost"), require(capacity, "capacity"));
+        } else if (CONSUMER_TYPE.equals(type)) {
+            addConsumer(require(id, "id"), require(location, "location"), require(demand, "demand"));
+        } else {
+            throw new IllegalArgumentException("The type (" + type + ") is not " + FACILITY_TYPE
+                    + " or " + CONSUMER_TYPE + ".");
+        }
+    }
+
+    private static long readLong(JsonParser parser, JsonToken token, String name) throws IOException {
+        if (token != JsonToken.VALUE_NUMBER_INT) {
+            throw new IllegalArgumentException("The " + name + " (" + parser.getText() + ") is not a whole number.");
+        }
+        return parser.getLongValue();
+    }
+
+    private static Location readLocation(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_ARRAY || !isNumber(parser.nextToken())) {
+            throw new IllegalArgumentException("The location is not an array of 2 numbers.");
+        }
+        double latitude = parser.getDoubleValue();
+        if (!isNumber(parser.nextToken())) {
+            throw new IllegalArgumentException("The location is not an array of 2 numbers.");
+        }
+        double longitude = parser.getDoubleValue();
+        if (parser.nextToken() != JsonToken.END_ARRAY) {
+            throw new IllegalArgumentException("The location is not an array of 2 numbers.");
+        }
+        return validateLocation(latitude, longitude);
+    }
+
+    private static boolean isNumber(JsonToken token) {
+        return token != null && token.isNumeric();
+    }
+
+    private static <T> T require(T value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException("The " + name + " is missing.");
+        }
+        return value;
+    }
+
+    private static Location validateLocation(double latitude, double longitude) {
+        if (!(latitude >= -90.0 && latitude <= 90.0) || !(longitude >= -180.0 && longitude <= 180.0)) {
+            throw new IllegalArgumentException("The location (" + latitude + ", " + longitude
+                    + ") is not a latitude between -90 and 90 and a longitude between -180 and 180.");
+        }
+        return new Location(latitude, longitude);
+    }
+
+    private void addFacility(long id, Location location, long setupCost, long capacity) {
+        if (setupCost < 0L || capacity < 0L) {
+            throw new IllegalArgumentException("The setupCost (" + setupCost + ") and capacity (" + capacity
+                    + ") of facility (" + id + ") must not be negative.");
+        }
+        if (!facilityIds.add(id)) {
+            throw new IllegalArgumentException("The facility id (" + id + ") is not unique.");
+        }
+        facilities.add(new Facility(id, location, setupCost, capacity));
+        report.facilityAccepted();
+    }
+
+    private void addConsumer(long id, Location location, long demand) {
+        if (demand < 0L) {
+            throw new IllegalArgumentException("The demand (" + demand + ") of consumer (" + id
+                    + ") must not be negative.");
+        }
+        if (!consumerIds.add(id)) {
+            throw new IllegalArgumentException("The consumer id (" + id + ") is not unique.");
+        }
+        consumers.add(new Consumer(id, location, demand));
+        report.consumerAccepted();
+    }
+
+    /**
+     * @param distanceModel never null
+     * @return never null, no consumer is assigned yet, ready to solve
+     * @throws IllegalStateException if no facility or no consumer was imported
+     */
+    public FacilityLocationProblem buildProblem(DistanceModel distanceModel) {
+        return buildProblem(facilities, consumers, distanceModel);
+    }
+
+    /**
+     * Bounds the problem by its locations and links it for solving, like the demo data.
+     * @param facilities never null
+     * @param consumers never null
+     * @param distanceModel never null
+     * @return never null
+     * @throws IllegalStateException if there are no facilities or no consumers
+     */
+    public static FacilityLocationProblem buildProblem(List<Facility> facilities, List<Consumer> consumers,
+            DistanceModel distanceModel) {
+        if (facilities.isEmpty() || consumers.isEmpty()) {
+            throw new IllegalStateException("A problem needs at least 1 facility (" + facilities.size()
+                    + ") and 1 consumer (" + consumers.size() + ").");
+        }
+        double south = Double.POSITIVE_INFINITY;
+        double west = Double.POSITIVE_INFINITY;
+        double north = Double.NEGATIVE_INFINITY;
+        double east = Double.NEGATIVE_INFINITY;
+        for (Facility facility : facilities) {
+            Location location = facility.getLocation();
+            south = Math.min(south, location.latitude);
+            west = Math.min(west, location.longitude);
+            north = Math.max(north, location.latitude);
+            east = Math.max(east, location.longitude);
+        }
+        for (Consumer consumer : consumers) {
+            Location location = consumer.getLocation();
+            south = Math.min(south, location.latitude);
+            west = Math.min(west, location.longitude);
+            north = Math.max(north, location.latitude);
+            east = Math.max(east, location.longitude);
+        }
+        FacilityLocationProblem problem = new FacilityLocationProblem(facilities, consumers,
+                new Location(south, west), new Location(north, east));
+        problem.setDistanceModel(distanceModel);
+        problem.linkNearbyFacilities(DemoDataBuilder.DEFAULT_NEARBY_FACILITY_COUNT);
+        problem.linkDistanceMatrix();
+        return problem;
+    }
+
+    @FunctionalInterface
+    private interface RowReader {
+
+        void readRow(String line, long lineNumber) throws IOException;
+
+    }
+
+}
@@ -17,21 +17,100 @@
 package org.acme.facilitylocation.persistence;
 
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.enterprise.context.ApplicationScoped;
 
 import org.acme.facilitylocation.domain.FacilityLocationProblem;
 
+/**
+ * Holds the latest solution of every problem, that solver threads publish while REST threads read them.
+ * <p>
+ * Publishing swaps an immutable {@link FacilityLocationProblemSnapshot}, so a reader never blocks
+ * and never sees a half-published solution, as long as nobody modifies a solution after publishing it.
+ */
 @ApplicationScoped
 public class FacilityLocationProblemRepository {
 
-    private FacilityLocationProblem facilityLocationProblem;
+    // The demo problem, that the UI shows
+    public static final Long DEFAULT_PROBLEM_ID = 0L;
+
+    private final ConcurrentMap<Long, FacilityLocationProblemSnapshot> snapshotMap = new ConcurrentHashMap<>();
+    private final AtomicLong problemIdSequence = new AtomicLong(DEFAULT_PROBLEM_ID);
+    // Shared by all problems, so a version is never reused, not even after a problem is removed and put again
+    private final AtomicLong versionSequence = new AtomicLong(0L);
+
+    /**
+     * @return never null, in ascending order
+     */
+    public Set<Long> problemIds() {
+        return new TreeSet<>(snapshotMap.keySet());
+    }
+
+    /**
+     * @param problemId never null
+     * @return never null, empty if that problem doesn't exist
+     */
+    public Optional<FacilityLocationProblemSnapshot> snapshot(Long problemId) {
+        return Optional.ofNullable(snapshotMap.get(problemId));
+    }
+
+    public Optional<FacilityLocationProblem> solution(Long problemId) {
+        return snapshot(problemId).map(FacilityLocationProblemSnapshot::getSolution);
+    }
+
+    /**
+     * @param facilityLocationProblem never null, must not be modified afterwards
+     * @return never null, the id of the new problem, never the id of an existing problem
+     */
+    public Long add(FacilityLocationProblem facilityLocationProblem) {
+        FacilityLocationProblemSnapshot snapshot = newSnapshot(facilityLocationProblem);
+        Long problemId;
+        // Skip the ids that a client already chose with put()
+        do {
+            problemId = problemIdSequence.incrementAndGet();
+        } while (snapshotMap.putIfAbsent(problemId, snapshot) != null);
+        return problemId;
+    }
+
+    /**
+     * Creates or replaces a problem.
+     * @param problemId never null
+     * @param facilityLocationProblem never null, must not be modified afterwards
+     * @return never null, the published snapshot
+     */
+    public FacilityLocationProblemSnapshot put(Long problemId, FacilityLocationProblem facilityLocationProblem) {
+        FacilityLocationProblemSnapshot snapshot = newSnapshot(facilityLocationProblem);
+        snapshotMap.put(problemId, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Publishes a new solution of an existing problem, with a higher version than the previous one.
+     * Does nothing if that problem was removed in the meantime, so a late best solution doesn't resurrect it.
+     * @param problemId never null
+     * @param facilityLocationProblem never null, must not be modified afterwards
+     * @return never null, empty if that problem doesn't exist
+     */
+    public Optional<FacilityLocationProblemSnapshot> update(Long problemId,
+            FacilityLocationProblem facilityLocationProblem) {
+        return Optional.ofNullable(snapshotMap.computeIfPresent(problemId,
+                (id, previous) -> newSnapshot(facilityLocationProblem)));
+    }
 
-    public Optional<FacilityLocationProblem> solution() {
-        return Optional.ofNullable(facilityLocationProblem);
+    /**
+     * @param problemId never null
+     * @return true if that problem existed
+     */
+    public boolean remove(Long problemId) {
+        return snapshotMap.remove(problemId) != null;
     }
 
-    public void update(FacilityLocationProblem facilityLocationProblem) {
-        this.facilityLocationProblem = facilityLocationProblem;
+    private FacilityLocationProblemSnapshot newSnapshot(FacilityLocationProblem facilityLocationProblem) {
+        return new FacilityLocationProblemSnapshot(versionSequence.incrementAndGet(), facilityLocationProblem);
     }
 }
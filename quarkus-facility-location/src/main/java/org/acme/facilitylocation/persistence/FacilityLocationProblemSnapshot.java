@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.persistence;
+
+import org.acme.facilitylocation.domain.FacilityLocationProblem;
+
+/**
+ * A solution and the version under which it was published, that never change afterwards.
+ * <p>
+ * Every {@link FacilityLocationProblemRepository#update(Long, FacilityLocationProblem) update} gets a higher version,
+ * that no other snapshot of any problem has,
+ * so anything derived from a snapshot (such as a serialized response) can be cached by its version.
+ */
+public final class FacilityLocationProblemSnapshot {
+
+    private final long version;
+    private final FacilityLocationProblem solution;
+
+    FacilityLocationProblemSnapshot(long version, FacilityLocationProblem solution) {
+        this.version = version;
+        this.solution = solution;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Don't modify it: other threads might be reading it.
+     * @return never null
+     */
+    public FacilityLocationProblem getSolution() {
+        return solution;
+    }
+
+    @Override
+    public String toString() {
+        return "Version " + version + " of " + solution;
+    }
+}
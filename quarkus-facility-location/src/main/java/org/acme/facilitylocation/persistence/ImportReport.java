@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What an import read, how fast and which rows it rejected.
+ */
+public class ImportReport {
+
+    // Enough to fix a malformed file, without a huge report for a file that is entirely malformed
+    public static final int MAX_REPORTED_REJECTED_ROWS = 100;
+
+    private Long problemId = null;
+    private int facilityCount = 0;
+    private int consumerCount = 0;
+    private int rejectedRowCount = 0;
+    private final List<String> rejectedRows = new ArrayList<>();
+    private long durationMillis = 0L;
+
+    void facilityAccepted() {
+        facilityCount++;
+    }
+
+    void consumerAccepted() {
+        consumerCount++;
+    }
+
+    void rowRejected(long lineNumber, String reason) {
+        rejectedRowCount++;
+        if (rejectedRows.size() < MAX_REPORTED_REJECTED_ROWS) {
+            rejectedRows.add("Line " + lineNumber + ": " + reason);
+        }
+    }
+
+    void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * @return null until the imported problem is added to the repository
+     */
+    public Long getProblemId() {
+        return problemId;
+    }
+
+    public void setProblemId(Long problemId) {
+        this.problemId = problemId;
+    }
+
+    public int getFacilityCount() {
+        return facilityCount;
+    }
+
+    public int getConsumerCount() {
+        return consumerCount;
+    }
+
+    public int getRejectedRowCount() {
+        return rejectedRowCount;
+    }
+
+    /**
+     * @return never null, at most {@value #MAX_REPORTED_REJECTED_ROWS} of the rejected rows, with the reason
+     */
+    public List<String> getRejectedRows() {
+        return rejectedRows;
+    }
+
+    /**
+     * @return the time spent reading and parsing, including waiting for the client to send the body
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public long getRowsPerSecond() {
+        long rowCount = (long) facilityCount + consumerCount + rejectedRowCount;
+        return rowCount * 1000L / Math.max(1L, durationMillis);
+    }
+
+    @Override
+    public String toString() {
+        return facilityCount + " facilities and " + consumerCount + " consumers imported, "
+                + rejectedRowCount + " rows rejected, in " + durationMillis + " ms ("
+                + getRowsPerSecond() + " rows/s)";
+    }
+}
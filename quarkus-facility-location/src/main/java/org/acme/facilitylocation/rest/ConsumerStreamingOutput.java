@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.rest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.acme.facilitylocation.domain.Consumer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes consumers as a JSON array, one consumer at a time, straight to the response,
+ * so a large page isn't built as a tree or a string in memory first.
+ * <p>
+ * Each consumer only refers to its facility by id, instead of repeating the whole facility.
+ */
+class ConsumerStreamingOutput implements StreamingOutput {
+
+    private final JsonFactory jsonFactory;
+    private final List<Consumer> consumers;
+
+    ConsumerStreamingOutput(JsonFactory jsonFactory, List<Consumer> consumers) {
+        this.jsonFactory = jsonFactory;
+        this.consumers = consumers;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        // The container closes the output
+        try (JsonGenerator generator = jsonFactory.createGenerator(output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.writeStartArray();
+            for (Consumer consumer : consumers) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", consumer.getId());
+                generator.writeArrayFieldStart("location");
+                generator.writeNumber(consumer.getLocation().latitude);
+                generator.writeNumber(consumer.getLocation().longitude);
+                generator.writeEndArray();
+                generator.writeNumberField("demand", consumer.getDemand());
+                if (consumer.isAssigned()) {
+                    generator.writeNumberField("facilityId", consumer.getFacility().getId());
+                } else {
+                    generator.writeNullField("facilityId");
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.rest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import org.acme.facilitylocation.domain.Consumer;
+import org.acme.facilitylocation.domain.DistanceModel;
+import org.acme.facilitylocation.domain.Facility;
+import org.acme.facilitylocation.domain.FacilityLocationProblem;
+import org.acme.facilitylocation.domain.Location;
+import org.acme.facilitylocation.persistence.FacilityLocationProblemImporter;
+
+/**
+ * An uploaded problem: only the input data, without any assignments or calculated data.
+ */
+class ProblemUpload {
+
+    public List<FacilityData> facilities;
+    public List<ConsumerData> consumers;
+    public DistanceModel distanceModel = DistanceModel.EUCLIDEAN;
+
+    static class FacilityData {
+        public long id;
+        public Location location;
+        public long setupCost;
+        public long capacity;
+    }
+
+    static class ConsumerData {
+        public long id;
+        public Location location;
+        public long demand;
+    }
+
+    /**
+     * @return never null, no consumer is assigned yet, ready to solve
+     */
+    FacilityLocationProblem toProblem() {
+        if (facilities == null || consumers == null) {
+            throw new WebApplicationException("A problem needs facilities and consumers.",
+                    Response.Status.BAD_REQUEST);
+        }
+        if (distanceModel == null) {
+            throw new WebApplicationException("The distanceModel must not be null.", Response.Status.BAD_REQUEST);
+        }
+        List<Facility> facilityList = facilities.stream()
+                .map(facility -> new Facility(facility.id, validateLocation(facility.location),
+                        facility.setupCost, facility.capacity))
+                .collect(Collectors.toList());
+        List<Consumer> consumerList = consumers.stream()
+                .map(consumer -> new Consumer(consumer.id, validateLocation(consumer.location), consumer.demand))
+                .collect(Collectors.toList());
+        try {
+            return FacilityLocationProblemImporter.buildProblem(facilityList, consumerList, distanceModel);
+        } catch (IllegalStateException e) {
+            throw new WebApplicationException(e.getMessage(), e, Response.Status.BAD_REQUEST);
+        }
+    }
+
+    private static Location validateLocation(Location location) {
+        if (location == null) {
+            throw new WebApplicationException("Every facility and consumer needs a location.",
+                    Response.Status.BAD_REQUEST);
+        }
+        return location;
+    }
+}
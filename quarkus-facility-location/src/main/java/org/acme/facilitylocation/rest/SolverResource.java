@@ -16,74 +16,407 @@
 
 package org.acme.facilitylocation.rest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
 
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.NotFoundException;
 import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
 
+import org.acme.facilitylocation.domain.Consumer;
+import org.acme.facilitylocation.domain.DistanceModel;
+import org.acme.facilitylocation.domain.Facility;
 import org.acme.facilitylocation.domain.FacilityLocationProblem;
+import org.acme.facilitylocation.domain.Location;
+import org.acme.facilitylocation.persistence.FacilityLocationProblemImporter;
 import org.acme.facilitylocation.persistence.FacilityLocationProblemRepository;
+import org.acme.facilitylocation.persistence.FacilityLocationProblemSnapshot;
+import org.acme.facilitylocation.persistence.ImportReport;
+import org.acme.facilitylocation.solver.FacilityLocationSolverService;
 import org.optaplanner.core.api.score.ScoreManager;
 import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
-import org.optaplanner.core.api.solver.SolverManager;
+import org.optaplanner.core.api.solver.SolverStatus;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Every operation exists for a specific problem id ({@code /flp/{problemId}/...})
+ * and for the {@link FacilityLocationProblemRepository#DEFAULT_PROBLEM_ID default problem} ({@code /flp/...}),
+ * that the UI shows.
+ */
 @Path("/flp")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class SolverResource {
 
-    private static final long PROBLEM_ID = 0L;
-
-    private final AtomicReference<Throwable> solverError = new AtomicReference<>();
-
     private final FacilityLocationProblemRepository repository;
-    private final SolverManager<FacilityLocationProblem, Long> solverManager;
+    private final FacilityLocationSolverService solverService;
     private final ScoreManager<FacilityLocationProblem, HardSoftLongScore> scoreManager;
+    private final BestSolutionEventBroadcaster bestSolutionEventBroadcaster;
+    private final ObjectMapper objectMapper;
 
     public SolverResource(
             FacilityLocationProblemRepository repository,
-            SolverManager<FacilityLocationProblem, Long> solverManager,
-            ScoreManager<FacilityLocationProblem, HardSoftLongScore> scoreManager) {
+            FacilityLocationSolverService solverService,
+            ScoreManager<FacilityLocationProblem, HardSoftLongScore> scoreManager,
+            BestSolutionEventBroadcaster bestSolutionEventBroadcaster,
+            ObjectMapper objectMapper) {
         this.repository = repository;
-        this.solverManager = solverManager;
+        this.solverService = solverService;
         this.scoreManager = scoreManager;
+        this.bestSolutionEventBroadcaster = bestSolutionEventBroadcaster;
+        this.objectMapper = objectMapper;
     }
 
-    private Status statusFromSolution(FacilityLocationProblem solution) {
-        return new Status(
-                solution,
-                scoreManager.explainScore(solution).getSummary(),
-                solverManager.getSolverStatus(PROBLEM_ID));
+    private void rethrowSolverError(Long problemId) {
+        solverService.pollSolverError(problemId).ifPresent(throwable -> {
+            throw new RuntimeException("Solver failed", throwable);
+        });
+    }
+
+    // Every response is derived from a single snapshot, even if the solver publishes a new one in the meantime
+    private Optional<FacilityLocationProblemSnapshot> snapshot(Long problemId) {
+        Optional<FacilityLocationProblemSnapshot> snapshot = repository.snapshot(problemId);
+        if (!snapshot.isPresent() && !problemId.equals(FacilityLocationProblemRepository.DEFAULT_PROBLEM_ID)) {
+            throw new NotFoundException("The problem with id (" + problemId + ") does not exist.");
+        }
+        return snapshot;
+    }
+
+    private long version(Optional<FacilityLocationProblemSnapshot> snapshot) {
+        return snapshot.map(FacilityLocationProblemSnapshot::getVersion).orElse(0L);
+    }
+
+    // The default problem is empty until the demo data is generated
+    private FacilityLocationProblem solution(Optional<FacilityLocationProblemSnapshot> snapshot) {
+        return snapshot.map(FacilityLocationProblemSnapshot::getSolution).orElseGet(FacilityLocationProblem::empty);
+    }
+
+    // Explaining the score sets the score of the solution it explains, so explain a copy instead,
+    // because a published solution must not be modified: other threads might be reading it
+    private String explainScore(FacilityLocationProblem solution) {
+        return scoreManager.explainScore(solution.copy()).getSummary();
+    }
+
+    /**
+     * @param request never null
+     * @param version the version of the snapshot the response is derived from
+     * @return null if the client has the response of that version already
+     */
+    private Response.ResponseBuilder evaluateVersion(Request request, long version) {
+        return request.evaluatePreconditions(new EntityTag(Long.toString(version)));
+    }
+
+    @GET
+    @Path("problems")
+    public Set<Long> problemIds() {
+        return repository.problemIds();
+    }
+
+    /**
+     * @param upload never null
+     * @return never null, 201 with the id of the new problem
+     */
+    @POST
+    @Path("problems")
+    public Response create(ProblemUpload upload) {
+        Long problemId = repository.add(upload.toProblem());
+        return Response.created(URI.create("/flp/" + problemId + "/summary"))
+                .entity(problemId)
+                .build();
+    }
+
+    /**
+     * Imports a new problem from CSV, streamed row by row, see {@link FacilityLocationProblemImporter}.
+     * @param distanceModel never null
+     * @param body never null
+     * @return never null, 201 with the import report, or 400 with the import report if nothing could be imported
+     * @throws IOException if reading the body fails
+     */
+    @POST
+    @Path("problems/import")
+    @Consumes("text/csv")
+    public Response importCsv(@QueryParam("distanceModel") @DefaultValue("EUCLIDEAN") DistanceModel distanceModel,
+            InputStream body) throws IOException {
+        FacilityLocationProblemImporter importer = new FacilityLocationProblemImporter(objectMapper.getFactory());
+        return addImportedProblem(importer, importer.readCsv(body), distanceModel);
+    }
+
+    /**
+     * Imports a new problem from newline delimited JSON, streamed row by row,
+     * see {@link FacilityLocationProblemImporter}.
+     * @param distanceModel never null
+     * @param body never null
+     * @return never null, 201 with the import report, or 400 with the import report if nothing could be imported
+     * @throws IOException if reading the body fails
+     */
+    @POST
+    @Path("problems/import")
+    @Consumes("application/x-ndjson")
+    public Response importNdjson(@QueryParam("distanceModel") @DefaultValue("EUCLIDEAN") DistanceModel distanceModel,
+            InputStream body) throws IOException {
+        FacilityLocationProblemImporter importer = new FacilityLocationProblemImporter(objectMapper.getFactory());
+        return addImportedProblem(importer, importer.readNdjson(body), distanceModel);
     }
 
+    private Response addImportedProblem(FacilityLocationProblemImporter importer, ImportReport report,
+            DistanceModel distanceModel) {
+        FacilityLocationProblem problem;
+        try {
+            problem = importer.buildProblem(distanceModel);
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(report).build();
+        }
+        Long problemId = repository.add(problem);
+        report.setProblemId(problemId);
+        return Response.created(URI.create("/flp/" + problemId + "/summary"))
+                .entity(report)
+                .build();
+    }
+
+    /**
+     * Creates or replaces the problem with that id.
+     * @param problemId never null
+     * @param upload never null
+     */
+    @PUT
+    @Path("{problemId}")
+    public void upload(@PathParam("problemId") Long problemId, ProblemUpload upload) {
+        if (solverService.getSolverStatus(problemId) != SolverStatus.NOT_SOLVING) {
+            throw new WebApplicationException("The problem with id (" + problemId
+                    + ") is solving, stop solving it first.", Response.Status.CONFLICT);
+        }
+        repository.put(problemId, upload.toProblem());
+    }
+
+    @DELETE
+    @Path("{problemId}")
+    public void delete(@PathParam("problemId") Long problemId) {
+        if (!solverService.delete(problemId)) {
+            throw new NotFoundException("The problem with id (" + problemId + ") does not exist.");
+        }
+    }
+
+    /**
+     * The whole solution and its score explanation. Only suitable for small problems,
+     * use {@link #summary()}, {@link #facilities(Request)} and {@link #consumers} for large ones.
+     * @return never null
+     */
     @GET
     @Path("status")
     public Status status() {
-        Optional.ofNullable(solverError.getAndSet(null)).ifPresent(throwable -> {
-            throw new RuntimeException("Solver failed", throwable);
-        });
-        return statusFromSolution(repository.solution().orElse(FacilityLocationProblem.empty()));
+        return status(FacilityLocationProblemRepository.DEFAULT_PROBLEM_ID);
+    }
+
+    @GET
+    @Path("{problemId}/status")
+    public Status status(@PathParam("problemId") Long problemId) {
+        rethrowSolverError(problemId);
+        FacilityLocationProblem solution = solution(snapshot(problemId));
+        return new Status(
+                solution,
+                explainScore(solution),
+                solverService.getSolverStatus(problemId));
+    }
+
+    @GET
+    @Path("summary")
+    public StatusSummary summary() {
+        return summary(FacilityLocationProblemRepository.DEFAULT_PROBLEM_ID);
+    }
+
+    @GET
+    @Path("{problemId}/summary")
+    public StatusSummary summary(@PathParam("problemId") Long problemId) {
+        rethrowSolverError(problemId);
+        Optional<FacilityLocationProblemSnapshot> snapshot = snapshot(problemId);
+        return new StatusSummary(version(snapshot), solution(snapshot), solverService.getSolverStatus(problemId));
+    }
+
+    /**
+     * Explaining the score recalculates it from scratch on a copy of the published solution,
+     * so only call it on demand.
+     * @return never null
+     */
+    @GET
+    @Path("scoreExplanation")
+    @Produces(MediaType.TEXT_PLAIN)
+    public String scoreExplanation() {
+        return scoreExplanation(FacilityLocationProblemRepository.DEFAULT_PROBLEM_ID);
+    }
+
+    @GET
+    @Path("{problemId}/scoreExplanation")
+    @Produces(MediaType.TEXT_PLAIN)
+    public String scoreExplanation(@PathParam("problemId") Long problemId) {
+        return explainScore(solution(snapshot(problemId)));
+    }
+
+    /**
+     * @param request never null
+     * @return never null, the facilities, with the version as ETag, or 304 if the client has that version already
+     */
+    @GET
+    @Path("facilities")
+    public Response facilities(@Context Request request) {
+        return facilities(request, FacilityLocationProblemRepository.DEFAULT_PROBLEM_ID);
+    }
+
+    @GET
+    @Path("{problemId}/facilities")
+    public Response facilities(@Context Request request, @PathParam("problemId") Long problemId) {
+        Optional<FacilityLocationProblemSnapshot> snapshot = snapshot(problemId);
+        long version = version(snapshot);
+        Response.ResponseBuilder notModified = evaluateVersion(request, version);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        List<Facility> facilities = solution(snapshot).getFacilities();
+        return Response.ok(facilities)
+                .tag(Long.toString(version))
+                .build();
+    }
+
+    /**
+     * The consumers inside a bounding box, such as the visible part of the map, one page at a time.
+     * The {@code X-Total-Count} header holds the number of consumers inside the bounding box.
+     * The ETag is the version of the solution, so a client can poll with {@code If-None-Match}.
+     * @param request never null
+     * @param south the minimum latitude
+     * @param west the minimum longitude
+     * @param north the maximum latitude
+     * @param east the maximum longitude
+     * @param first at least 0, the position of the first consumer of the page
+     * @param max at least 0, the maximum number of consumers of the page
+     * @return never null, a streamed JSON array
+     */
+    @GET
+    @Path("consumers")
+    public Response consumers(
+            @Context Request request,
+            @QueryParam("south") @DefaultValue("-90") double south,
+            @QueryParam("west") @DefaultValue("-180") double west,
+            @QueryParam("north") @DefaultValue("90") double north,
+            @QueryParam("east") @DefaultValue("180") double east,
+            @QueryParam("first") @DefaultValue("0") int first,
+            @QueryParam("max") @DefaultValue("10000") int max) {
+        return consumers(request, FacilityLocationProblemRepository.DEFAULT_PROBLEM_ID,
+                south, west, north, east, first, max);
+    }
+
+    @GET
+    @Path("{problemId}/consumers")
+    public Response consumers(
+            @Context Request request,
+            @PathParam("problemId") Long problemId,
+            @QueryParam("south") @DefaultValue("-90") double south,
+            @QueryParam("west") @DefaultValue("-180") double west,
+            @QueryParam("north") @DefaultValue("90") double north,
+            @QueryParam("east") @DefaultValue("180") double east,
+            @QueryParam("first") @DefaultValue("0") int first,
+            @QueryParam("max") @DefaultValue("10000") int max) {
+        if (first < 0 || max < 0) {
+            throw new WebApplicationException("The first (" + first + ") and max (" + max
+                    + ") must not be negative.", Response.Status.BAD_REQUEST);
+        }
+        Optional<FacilityLocationProblemSnapshot> snapshot = snapshot(problemId);
+        long version = version(snapshot);
+        Response.ResponseBuilder notModified = evaluateVersion(request, version);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        List<Consumer> consumersInBounds = solution(snapshot).getConsumers().stream()
+                .filter(consumer -> {
+                    Location location = consumer.getLocation();
+                    return location.latitude >= south && location.latitude <= north
+                            && location.longitude >= west && location.longitude <= east;
+                })
+                .collect(Collectors.toList());
+        int fromIndex = Math.min(first, consumersInBounds.size());
+        int toIndex = (int) Math.min((long) first + max, consumersInBounds.size());
+        return Response.ok(new ConsumerStreamingOutput(objectMapper.getFactory(),
+                consumersInBounds.subList(fromIndex, toIndex)))
+                .header("X-Total-Count", consumersInBounds.size())
+                .tag(Long.toString(version))
+                .build();
+    }
+
+    // Instead of polling the summary, the browser keeps this connection open and receives the summary
+    // whenever a best solution is published or solving ends
+    @GET
+    @Path("events")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void listenToBestSolutionEvents(@Context SseEventSink sink, @Context Sse sse) {
+        listenToBestSolutionEvents(FacilityLocationProblemRepository.DEFAULT_PROBLEM_ID, sink, sse);
+    }
+
+    @GET
+    @Path("{problemId}/events")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void listenToBestSolutionEvents(@PathParam("problemId") Long problemId,
+            @Context SseEventSink sink, @Context Sse sse) {
+        bestSolutionEventBroadcaster.register(problemId, sink, sse);
     }
 
     @POST
     @Path("solve")
     public void solve() {
-        Optional<FacilityLocationProblem> maybeSolution = repository.solution();
-        maybeSolution.ifPresent(facilityLocationProblem -> solverManager.solveAndListen(
-                PROBLEM_ID,
-                id -> facilityLocationProblem,
-                repository::update,
-                (problemId, throwable) -> solverError.set(throwable)));
+        // Like before, solving the default problem before the demo data exists does nothing
+        if (repository.snapshot(FacilityLocationProblemRepository.DEFAULT_PROBLEM_ID).isPresent()) {
+            solve(FacilityLocationProblemRepository.DEFAULT_PROBLEM_ID);
+        }
+    }
+
+    @POST
+    @Path("{problemId}/solve")
+    public void solve(@PathParam("problemId") Long problemId) {
+        try {
+            solverService.solve(problemId,
+                    solverStatus -> bestSolutionEventBroadcaster.broadcast(problemId, solverStatus));
+        } catch (IllegalArgumentException e) {
+            throw new NotFoundException(e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new WebApplicationException(e.getMessage(), e, Response.Status.CONFLICT);
+        } catch (RejectedExecutionException e) {
+            throw new WebApplicationException(e.getMessage(), e, Response.Status.SERVICE_UNAVAILABLE);
+        }
     }
 
     @POST
     @Path("stopSolving")
     public void stopSolving() {
-        solverManager.terminateEarly(PROBLEM_ID);
+        stopSolving(FacilityLocationProblemRepository.DEFAULT_PROBLEM_ID);
+    }
+
+    @POST
+    @Path("{problemId}/stopSolving")
+    public void stopSolving(@PathParam("problemId") Long problemId) {
+        solverService.terminateEarly(problemId);
+        if (solverService.getSolverStatus(problemId) == SolverStatus.NOT_SOLVING) {
+            // Stopped before it started, so no final best solution tells the browsers
+            bestSolutionEventBroadcaster.broadcast(problemId, SolverStatus.NOT_SOLVING);
+        }
     }
 }
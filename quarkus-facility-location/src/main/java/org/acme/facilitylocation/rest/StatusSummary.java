@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.rest;
+
+import java.util.List;
+
+import org.acme.facilitylocation.domain.FacilityLocationProblem;
+import org.acme.facilitylocation.domain.Location;
+import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+import org.optaplanner.core.api.solver.SolverStatus;
+
+/**
+ * The totals of a solution, without its consumers and facilities, so it stays small for any problem size.
+ */
+class StatusSummary {
+    public final long version;
+    public final HardSoftLongScore score;
+    public final long totalCost;
+    public final long potentialCost;
+    public final String totalDistance;
+    public final List<Location> bounds;
+    public final int facilityCount;
+    public final int consumerCount;
+    public final boolean isSolving;
+
+    StatusSummary(long version, FacilityLocationProblem solution, SolverStatus solverStatus) {
+        this.version = version;
+        this.score = solution.getScore();
+        this.totalCost = solution.getTotalCost();
+        this.potentialCost = solution.getPotentialCost();
+        this.totalDistance = solution.getTotalDistance();
+        this.bounds = solution.getBounds();
+        this.facilityCount = solution.getFacilities().size();
+        this.consumerCount = solution.getConsumers().size();
+        this.isSolving = solverStatus != SolverStatus.NOT_SOLVING;
+    }
+}
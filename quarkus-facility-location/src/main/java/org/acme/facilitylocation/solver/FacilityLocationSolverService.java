@@ -0,0 +1,189 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.solver;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.acme.facilitylocation.domain.FacilityLocationProblem;
+import org.acme.facilitylocation.persistence.FacilityLocationProblemRepository;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.optaplanner.core.api.solver.SolverManager;
+import org.optaplanner.core.api.solver.SolverStatus;
+
+/**
+ * Solves the problems of the {@link FacilityLocationProblemRepository}, many at the same time.
+ * <p>
+ * At most {@code parallel-solver-count} problems are solved at the same time, one per solver thread
+ * of the {@link SolverManager}, so every core is busy but a problem never waits behind another one.
+ * A problem that is submitted when all solver threads are busy is rejected instead,
+ * so the client can try again later or on another node.
+ */
+@ApplicationScoped
+public class FacilityLocationSolverService {
+
+    @ConfigProperty(name = "quarkus.optaplanner.solver-manager.parallel-solver-count", defaultValue = "AUTO")
+    String parallelSolverCount;
+    @ConfigProperty(name = "flp.bestSolutionFlushIntervalMillis", defaultValue = "500")
+    long bestSolutionFlushIntervalMillis;
+
+    @Inject
+    SolverManager<FacilityLocationProblem, Long> solverManager;
+    @Inject
+    FacilityLocationProblemRepository repository;
+
+    private final ScheduledExecutorService bestSolutionFlushExecutor = Executors.newSingleThreadScheduledExecutor();
+    // The problems that hold a solver permit
+    private final Set<Long> admittedProblemIds = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<Long, Throwable> solverErrorMap = new ConcurrentHashMap<>();
+    private int resolvedParallelSolverCount;
+    private Semaphore solverPermits;
+
+    @PostConstruct
+    void createSolverPermits() {
+        resolvedParallelSolverCount = resolveParallelSolverCount();
+        solverPermits = new Semaphore(resolvedParallelSolverCount);
+    }
+
+    private int resolveParallelSolverCount() {
+        if (parallelSolverCount.equals("AUTO")) {
+            // Same as the SolverManager: half of the cores, to leave room for the garbage collector and the web server
+            return Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        int resolvedParallelSolverCount;
+        try {
+            resolvedParallelSolverCount = Integer.parseInt(parallelSolverCount);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("The parallelSolverCount (" + parallelSolverCount
+                    + ") is not AUTO or a number.", e);
+        }
+        if (resolvedParallelSolverCount < 1) {
+            throw new IllegalStateException("The parallelSolverCount (" + parallelSolverCount
+                    + ") must be at least 1.");
+        }
+        return resolvedParallelSolverCount;
+    }
+
+    @PreDestroy
+    void shutdownBestSolutionFlushExecutor() {
+        bestSolutionFlushExecutor.shutdownNow();
+    }
+
+    /**
+     * Starts solving the latest solution of that problem and returns immediately.
+     * Every best solution is published to the repository, at most once per flush interval.
+     * @param problemId never null, must exist in the repository
+     * @param solverStatusListener never null, called with {@link SolverStatus#SOLVING_ACTIVE}
+     * after every best solution that is published,
+     * and with {@link SolverStatus#NOT_SOLVING} once solving ended or failed
+     * @throws IllegalStateException if that problem is already solving
+     * @throws RejectedExecutionException if all solver threads are busy
+     */
+    public void solve(Long problemId, Consumer<SolverStatus> solverStatusListener) {
+        FacilityLocationProblem problem = repository.solution(problemId)
+                .orElseThrow(() -> new IllegalArgumentException("The problem with id (" + problemId
+                        + ") does not exist."));
+        if (!admittedProblemIds.add(problemId)) {
+            throw new IllegalStateException("The problem with id (" + problemId + ") is already solving.");
+        }
+        if (!solverPermits.tryAcquire()) {
+            admittedProblemIds.remove(problemId);
+            throw new RejectedExecutionException("All " + resolvedParallelSolverCount
+                    + " solver threads are busy, so the problem with id (" + problemId
+                    + ") can't be solved now. Try again later.");
+        }
+        solverErrorMap.remove(problemId);
+        CoalescingBestSolutionConsumer<FacilityLocationProblem> bestSolutionConsumer =
+                new CoalescingBestSolutionConsumer<>(bestSolution -> repository.update(problemId, bestSolution)
+                        .ifPresent(snapshot -> solverStatusListener.accept(SolverStatus.SOLVING_ACTIVE)),
+                        bestSolutionFlushIntervalMillis, bestSolutionFlushExecutor);
+        try {
+            solverManager.solveAndListen(
+                    problemId,
+                    // The solver sets the score of the problem and might return it as the final best solution,
+                    // so it gets a copy, because the published solution must not be modified
+                    id -> problem.copy(),
+                    bestSolutionConsumer,
+                    finalBestSolution -> {
+                        bestSolutionConsumer.acceptFinal(finalBestSolution);
+                        releaseSolverPermit(problemId);
+                        solverStatusListener.accept(SolverStatus.NOT_SOLVING);
+                    },
+                    (id, throwable) -> {
+                        // Otherwise a waiting best solution would still be published after the failure
+                        bestSolutionConsumer.cancel();
+                        solverErrorMap.put(id, throwable);
+                        releaseSolverPermit(id);
+                        solverStatusListener.accept(SolverStatus.NOT_SOLVING);
+                    });
+        } catch (RuntimeException e) {
+            releaseSolverPermit(problemId);
+            throw e;
+        }
+    }
+
+    public SolverStatus getSolverStatus(Long problemId) {
+        return solverManager.getSolverStatus(problemId);
+    }
+
+    /**
+     * @param problemId never null
+     * @return never null, the error that made the last solving of that problem fail, removed when returned
+     */
+    public Optional<Throwable> pollSolverError(Long problemId) {
+        return Optional.ofNullable(solverErrorMap.remove(problemId));
+    }
+
+    public void terminateEarly(Long problemId) {
+        solverManager.terminateEarly(problemId);
+        if (solverManager.getSolverStatus(problemId) == SolverStatus.NOT_SOLVING) {
+            // Terminated before it started, so no final best solution will release its permit
+            releaseSolverPermit(problemId);
+        }
+    }
+
+    /**
+     * Stops solving that problem, if it is, and removes it from the repository.
+     * @param problemId never null
+     * @return true if that problem existed
+     */
+    public boolean delete(Long problemId) {
+        terminateEarly(problemId);
+        solverErrorMap.remove(problemId);
+        return repository.remove(problemId);
+    }
+
+    // Idempotent, because a problem that terminates early can release its permit from 2 threads
+    private void releaseSolverPermit(Long problemId) {
+        if (admittedProblemIds.remove(problemId)) {
+            solverPermits.release();
+        }
+    }
+
+}
@@ -16,11 +16,12 @@ const colors = [
   'slateblue',
   'tomato',
 ];
-let autoRefreshCount = 0;
-let autoRefreshIntervalId = null;
-
 let initialized = false;
+// The version of the facilities and consumers on the map
+let shownVersion = null;
 const facilityByIdMap = new Map();
+// The consumers of a larger area are fetched one page at a time, zoom in to see the rest
+const maxConsumersOnMap = 10000;
 
 const solveButton = $('#solveButton');
 const stopSolvingButton = $('#stopSolvingButton');
@@ -56,13 +57,84 @@ const createCostFormat = (notation) => new Intl.NumberFormat('en-US', {
 const shortCostFormat = createCostFormat('compact');
 const longCostFormat = createCostFormat('standard');
 
+const fetchJson = (url, title) => fetch(url, fetchHeaders)
+  .then((response) => {
+    if (!response.ok) {
+      return handleErrorResponse(title, response).then(() => {
+        const error = new Error(title);
+        error.shown = true;
+        throw error;
+      });
+    }
+    return response.json();
+  });
+
+const consumersUrl = () => {
+  const bounds = map.getBounds();
+  const params = new URLSearchParams({
+    south: bounds.getSouth(),
+    west: bounds.getWest(),
+    north: bounds.getNorth(),
+    east: bounds.getEast(),
+    max: maxConsumersOnMap,
+  });
+  return `/flp/consumers?${params}`;
+};
+
+const handleFetchError = (error) => {
+  if (!error.shown) {
+    handleClientError('Failed to process response', error);
+  }
+};
+
+// The summary and the facilities are small, the consumers are limited to the visible part of the map
+const getProblem = (summary) => Promise.all([
+  fetchJson('/flp/facilities', 'Get facilities failed'),
+  fetchJson(consumersUrl(), 'Get consumers failed'),
+]).then(([facilities, consumers]) => showProblem(summary, facilities, consumers));
+
 const getStatus = () => {
-  fetch('/flp/status', fetchHeaders)
+  fetchJson('/flp/summary', 'Get summary failed')
+    .then((summary) => {
+      if (!initialized) {
+        initialized = true;
+        map.fitBounds(summary.bounds);
+      }
+      return getProblem(summary);
+    })
+    .catch(handleFetchError);
+};
+
+const listenToBestSolutionEvents = () => {
+  const eventSource = new EventSource('/flp/events');
+  eventSource.addEventListener('bestSolution', (message) => applyStatusSummary(JSON.parse(message.data)));
+  // Also after a reconnect: reload everything once, so no event missed while disconnected matters
+  eventSource.onopen = getStatus;
+};
+
+const applyStatusSummary = (summary) => {
+  if (!initialized) {
+    // The pending getStatus() will show this best solution
+    return;
+  }
+  if (summary.version !== shownVersion) {
+    getProblem(summary).catch(handleFetchError);
+  } else {
+    showSummary(summary);
+  }
+  if (!summary.isSolving) {
+    // Shows the solver error, if solving failed
+    fetchJson('/flp/summary', 'Solving failed').catch(handleFetchError);
+  }
+};
+
+const getScoreExplanation = () => {
+  fetch('/flp/scoreExplanation', { headers: { 'Accept': 'text/plain' } })
     .then((response) => {
       if (!response.ok) {
-        return handleErrorResponse('Get status failed', response);
+        return handleErrorResponse('Get score explanation failed', response);
       } else {
-        return response.json().then((data) => showProblem(data));
+        return response.text().then((scoreExplanation) => $('#scoreInfo').text(scoreExplanation));
       }
     })
     .catch((error) => handleClientError('Failed to process response', error));
@@ -75,10 +147,6 @@ const solve = () => {
         return handleErrorResponse('Start solving failed', response);
       } else {
         updateSolvingStatus(true);
-        autoRefreshCount = 300;
-        if (autoRefreshIntervalId == null) {
-          autoRefreshIntervalId = setInterval(autoRefresh, 500);
-        }
       }
     })
     .catch((error) => handleClientError('Failed to process response', error));
@@ -91,7 +159,6 @@ const stopSolving = () => {
         return handleErrorResponse('Stop solving failed', response);
       } else {
         updateSolvingStatus(false);
-        getStatus();
       }
     })
     .catch((error) => handleClientError('Failed to process response', error));
@@ -145,21 +212,11 @@ const updateSolvingStatus = (solving) => {
     solveButton.hide();
     stopSolvingButton.show();
   } else {
-    autoRefreshCount = 0;
     solveButton.show();
     stopSolvingButton.hide();
   }
 };
 
-const autoRefresh = () => {
-  getStatus();
-  autoRefreshCount--;
-  if (autoRefreshCount <= 0) {
-    clearInterval(autoRefreshIntervalId);
-    autoRefreshIntervalId = null;
-  }
-};
-
 const facilityPopupContent = (facility, cost, color) => `<h5>Facility ${facility.id}</h5>
 <ul class="list-unstyled">
 <li>Usage: ${facility.usedCapacity}/${facility.capacity}</li>
@@ -179,14 +236,11 @@ const getFacilityMarker = ({ id, location }) => {
   return marker;
 };
 
-const showProblem = ({ solution, scoreExplanation, isSolving }) => {
-  if (!initialized) {
-    initialized = true;
-    map.fitBounds(solution.bounds);
-  }
+const showProblem = (summary, facilities, consumers) => {
   // Facilities
+  const facilityById = new Map(facilities.map((facility) => [facility.id, facility]));
   facilitiesTable.children().remove();
-  solution.facilities.forEach((facility) => {
+  facilities.forEach((facility) => {
     const { id, setupCost, capacity, usedCapacity, used } = facility;
     const percentage = usedCapacity / capacity * 100;
     const color = colorByFacility(facility);
@@ -210,24 +264,33 @@ style="background-color: ${colorIfUsed}; display: inline-block; width: 1rem; hei
   });
   // Consumers
   consumerGroup.clearLayers();
-  solution.consumers.forEach((consumer) => {
-    const color = colorByFacility(consumer.facility);
-    L.circleMarker(consumer.location, consumer.assigned ? { color } : {}).addTo(consumerGroup);
-    if (consumer.assigned) {
-      L.polyline([consumer.location, consumer.facility.location], { color }).addTo(consumerGroup);
+  consumers.forEach((consumer) => {
+    const facility = facilityById.get(consumer.facilityId) || null;
+    const color = colorByFacility(facility);
+    L.circleMarker(consumer.location, facility ? { color } : {}).addTo(consumerGroup);
+    if (facility) {
+      L.polyline([consumer.location, facility.location], { color }).addTo(consumerGroup);
     }
   });
-  // Summary
-  $('#score').text(solution.score);
-  $('#cost').text(longCostFormat.format(solution.totalCost));
-  $('#cost-percentage').text(Math.round(solution.totalCost * 1000 / solution.potentialCost) / 10);
-  $('#distance').text(solution.totalDistance);
-  $('#scoreInfo').text(scoreExplanation);
-  updateSolvingStatus(isSolving);
+  shownVersion = summary.version;
+  showSummary(summary);
+};
+
+const showSummary = (summary) => {
+  $('#score').text(summary.score);
+  $('#cost').text(longCostFormat.format(summary.totalCost));
+  $('#cost-percentage').text(Math.round(summary.totalCost * 1000 / summary.potentialCost) / 10);
+  $('#distance').text(summary.totalDistance);
+  updateSolvingStatus(summary.isSolving);
 };
 
 const map = L.map('map', { doubleClickZoom: false }).setView([51.505, -0.09], 13);
 map.whenReady(getStatus);
+map.on('moveend', () => {
+  if (initialized) {
+    getStatus();
+  }
+});
 
 L.tileLayer('https://{s}.tile.openstreetmap.org/{z}/{x}/{y}.png', {
   maxZoom: 19,
@@ -241,5 +304,8 @@ facilityGroup.addTo(map);
 
 solveButton.click(solve);
 stopSolvingButton.click(stopSolving);
+// Explaining the score is expensive on large problems, so only when the dialog opens
+$('#scoreDialog').on('show.bs.modal', getScoreExplanation);
 
 updateSolvingStatus();
+listenToBestSolutionEvents();
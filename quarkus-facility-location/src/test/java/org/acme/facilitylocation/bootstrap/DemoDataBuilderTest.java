@@ -92,6 +92,22 @@ class DemoDataBuilderTest {
         assertThrows(IllegalStateException.class, builder::build);
     }
 
+    @Test
+    void nearby_facility_count_greater_than_zero() {
+        DemoDataBuilder builder = correctBuilder().setNearbyFacilityCount(0);
+        assertThrows(IllegalStateException.class, builder::build);
+    }
+
+    @Test
+    void consumers_can_only_use_their_nearby_facilities() {
+        FacilityLocationProblem problem = correctBuilder()
+                .setFacilityCount(30)
+                .setConsumerCount(10)
+                .setNearbyFacilityCount(5)
+                .build();
+        problem.getConsumers().forEach(consumer -> assertEquals(5, consumer.getNearbyFacilities().size()));
+    }
+
     static DemoDataBuilder correctBuilder() {
         return DemoDataBuilder.builder()
                 .setSouthWestCorner(new Location(-1, -1))
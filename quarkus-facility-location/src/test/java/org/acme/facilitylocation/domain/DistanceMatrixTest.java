@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.acme.facilitylocation.bootstrap.DemoDataBuilder;
+import org.junit.jupiter.api.Test;
+
+class DistanceMatrixTest {
+
+    @Test
+    void dense_matrix_returns_calculated_distances() {
+        assertLookupsEqualCalculatedDistances(DistanceModel.EUCLIDEAN, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void nearby_matrix_returns_calculated_distances() {
+        assertLookupsEqualCalculatedDistances(DistanceModel.EUCLIDEAN, 0);
+    }
+
+    @Test
+    void great_circle_matrices_return_calculated_distances() {
+        assertLookupsEqualCalculatedDistances(DistanceModel.GREAT_CIRCLE, Integer.MAX_VALUE);
+        assertLookupsEqualCalculatedDistances(DistanceModel.GREAT_CIRCLE, 0);
+    }
+
+    private static void assertLookupsEqualCalculatedDistances(DistanceModel distanceModel, int maxDenseSize) {
+        FacilityLocationProblem problem = DemoDataBuilder.builder()
+                .setCapacity(4500)
+                .setDemand(900)
+                .setFacilityCount(30)
+                .setConsumerCount(60)
+                .setNearbyFacilityCount(5)
+                .setSouthWestCorner(new Location(51.44, -0.16))
+                .setNorthEastCorner(new Location(51.56, -0.01))
+                .setAverageSetupCost(50_000)
+                .setSetupCostStandardDeviation(10_000)
+                .build();
+        DistanceMatrix distanceMatrix = DistanceMatrix.build(problem.getConsumers(), problem.getFacilities(),
+                distanceModel, maxDenseSize);
+        for (Consumer consumer : problem.getConsumers()) {
+            // The nearby matrix calculates the distance to the other facilities
+            for (Facility facility : problem.getFacilities()) {
+                assertEquals(distanceModel.getDistance(consumer.getLocation(), facility.getLocation()),
+                        distanceMatrix.getDistance(consumer, facility));
+            }
+        }
+    }
+
+}
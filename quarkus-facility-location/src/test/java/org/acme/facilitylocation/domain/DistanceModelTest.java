@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class DistanceModelTest {
+
+    @Test
+    void euclidean_treats_every_degree_as_the_same_distance() {
+        assertEquals(111_000, DistanceModel.EUCLIDEAN.getDistance(new Location(0, 0), new Location(0, 1)));
+        assertEquals(111_000, DistanceModel.EUCLIDEAN.getDistance(new Location(60, 0), new Location(60, 1)));
+    }
+
+    @Test
+    void great_circle_shrinks_a_degree_of_longitude_away_from_the_equator() {
+        long atEquator = DistanceModel.GREAT_CIRCLE.getDistance(new Location(0, 0), new Location(0, 1));
+        long at60North = DistanceModel.GREAT_CIRCLE.getDistance(new Location(60, 0), new Location(60, 1));
+        assertEquals(111_195, atEquator);
+        // cos(60°) = 0.5, but the great circle is a bit shorter than the parallel
+        assertEquals(55_597, at60North, 5);
+    }
+
+    @Test
+    void great_circle_equals_haversine() {
+        Random random = new Random(0);
+        for (int i = 0; i < 1000; i++) {
+            Location from = new Location(random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180);
+            Location to = new Location(random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180);
+            assertEquals(haversine(from, to), DistanceModel.GREAT_CIRCLE.getDistance(from, to), 1);
+        }
+        Location london = new Location(51.5074, -0.1278);
+        Location paris = new Location(48.8566, 2.3522);
+        assertEquals(haversine(london, paris), DistanceModel.GREAT_CIRCLE.getDistance(london, paris), 1);
+        assertEquals(0, DistanceModel.GREAT_CIRCLE.getDistance(london, london));
+    }
+
+    private static long haversine(Location from, Location to) {
+        double latitudeDiff = Math.toRadians(to.latitude - from.latitude);
+        double longitudeDiff = Math.toRadians(to.longitude - from.longitude);
+        double a = Math.pow(Math.sin(latitudeDiff / 2), 2)
+                + Math.cos(Math.toRadians(from.latitude)) * Math.cos(Math.toRadians(to.latitude))
+                * Math.pow(Math.sin(longitudeDiff / 2), 2);
+        return (long) Math.ceil(2 * Math.asin(Math.sqrt(a)) * DistanceModel.EARTH_RADIUS_METERS);
+    }
+
+}
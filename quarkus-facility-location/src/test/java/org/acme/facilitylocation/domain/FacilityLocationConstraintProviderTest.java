@@ -25,14 +25,15 @@ class FacilityLocationConstraintProviderTest {
             ConstraintVerifier.build(
                     new FacilityLocationConstraintProvider(),
                     FacilityLocationProblem.class,
-                    Consumer.class);
+                    Consumer.class,
+                    Facility.class);
 
     @Test
     void penalizes_capacity_exceeded_by_a_single_consumer() {
         Location location = new Location(1, 1);
         Facility facility = new Facility(0, location, 0, 20);
         Consumer consumer = new Consumer(0, location, 100);
-        consumer.setFacility(facility);
+        assign(consumer, facility);
 
         constraintVerifier.verifyThat(FacilityLocationConstraintProvider::facilityCapacity)
                 .given(consumer, facility)
@@ -46,9 +47,9 @@ class FacilityLocationConstraintProviderTest {
         Consumer consumer1 = new Consumer(0, location, 1);
         Consumer consumer2 = new Consumer(0, location, 2);
         Consumer consumer3 = new Consumer(0, location, 3);
-        consumer1.setFacility(facility);
-        consumer2.setFacility(facility);
-        consumer3.setFacility(facility);
+        assign(consumer1, facility);
+        assign(consumer2, facility);
+        assign(consumer3, facility);
 
         constraintVerifier.verifyThat(FacilityLocationConstraintProvider::facilityCapacity)
                 .given(consumer1, consumer2, consumer3, facility)
@@ -96,4 +97,10 @@ class FacilityLocationConstraintProviderTest {
                 .given(facility, consumer1, consumer2)
                 .penalizesBy((int) (30 * Consumer.METERS_PER_DEGREE));
     }
+
+    // Does what the solver's UsedCapacityVariableListener does
+    private static void assign(Consumer consumer, Facility facility) {
+        consumer.setFacility(facility);
+        facility.setUsedCapacity(facility.getUsedCapacity() + consumer.getDemand());
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+
+class FacilityLocationProblemTest {
+
+    @Test
+    void copy_has_its_own_facilities_and_consumers() {
+        Facility facility1 = new Facility(1, new Location(0, 0), 10, 100);
+        Facility facility2 = new Facility(2, new Location(10, 10), 20, 100);
+        Consumer consumer1 = new Consumer(11, new Location(1, 1), 30);
+        Consumer consumer2 = new Consumer(12, new Location(9, 9), 40);
+        FacilityLocationProblem problem = new FacilityLocationProblem(Arrays.asList(facility1, facility2),
+                Arrays.asList(consumer1, consumer2), new Location(-10, -10), new Location(20, 20));
+        problem.linkNearbyFacilities(1);
+        problem.linkDistanceMatrix();
+        consumer1.setFacility(facility1);
+        facility1.getConsumers().add(consumer1);
+        facility1.setUsedCapacity(30);
+        problem.setScore(HardSoftLongScore.of(0, -10));
+
+        FacilityLocationProblem copy = problem.copy();
+        Facility facility1Copy = copy.getFacilities().get(0);
+        Consumer consumer1Copy = copy.getConsumers().get(0);
+        Consumer consumer2Copy = copy.getConsumers().get(1);
+        assertNotSame(facility1, facility1Copy);
+        assertNotSame(consumer1, consumer1Copy);
+        assertEquals(1, facility1Copy.getId());
+        assertEquals(30, facility1Copy.getUsedCapacity());
+        assertSame(facility1Copy, consumer1Copy.getFacility());
+        assertEquals(Arrays.asList(consumer1Copy), facility1Copy.getConsumers());
+        assertNull(consumer2Copy.getFacility());
+        assertEquals(Arrays.asList(copy.getFacilities().get(1)), consumer2Copy.getNearbyFacilities());
+        assertSame(consumer1.getDistanceMatrix(), consumer1Copy.getDistanceMatrix());
+        assertEquals(consumer1.distanceFromFacility(), consumer1Copy.distanceFromFacility());
+        assertEquals(problem.getBounds(), copy.getBounds());
+        assertEquals(problem.getScore(), copy.getScore());
+
+        // Solving the copy doesn't modify the problem
+        consumer2Copy.setFacility(facility1Copy);
+        facility1Copy.getConsumers().add(consumer2Copy);
+        copy.setScore(HardSoftLongScore.of(-1, 0));
+        assertNull(consumer2.getFacility());
+        assertEquals(Arrays.asList(consumer1), facility1.getConsumers());
+        assertEquals(HardSoftLongScore.of(0, -10), problem.getScore());
+        assertTrue(facility1.isUsed());
+        assertFalse(facility2.isUsed());
+    }
+
+}
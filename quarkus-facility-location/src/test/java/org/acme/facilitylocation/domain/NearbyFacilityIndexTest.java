@@ -0,0 +1,125 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class NearbyFacilityIndexTest {
+
+    @Test
+    void finds_the_same_facilities_as_a_full_scan() {
+        Random random = new Random(0);
+        List<Facility> facilities = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            facilities.add(new Facility(i, randomLocation(random, 51.44, 51.56, -0.16, -0.01), 0, 1));
+        }
+        NearbyFacilityIndex index = new NearbyFacilityIndex(facilities, DistanceModel.EUCLIDEAN);
+        for (int i = 0; i < 200; i++) {
+            // Some locations are outside of the area of the facilities
+            Location location = randomLocation(random, 51.4, 51.6, -0.2, 0.03);
+            assertEquals(fullScan(facilities, location, 10), index.findNearest(location, 10));
+        }
+    }
+
+    @Test
+    void ranks_by_the_great_circle_distance_far_from_the_equator() {
+        Location location = new Location(70.0, 20.0);
+        // 1.5 degrees of longitude is only about 57 km at 70N
+        Facility east = new Facility(0, new Location(70.0, 21.5), 0, 1);
+        // 0.8 degrees of latitude is about 89 km
+        Facility north = new Facility(1, new Location(70.8, 20.0), 0, 1);
+        assertTrue(DistanceModel.GREAT_CIRCLE.getDistance(location, east.getLocation())
+                < DistanceModel.GREAT_CIRCLE.getDistance(location, north.getLocation()));
+        List<Facility> facilities = new ArrayList<>();
+        facilities.add(east);
+        facilities.add(north);
+        assertEquals(north, new NearbyFacilityIndex(facilities, DistanceModel.EUCLIDEAN)
+                .findNearest(location, 1).get(0));
+        assertEquals(east, new NearbyFacilityIndex(facilities, DistanceModel.GREAT_CIRCLE)
+                .findNearest(location, 1).get(0));
+    }
+
+    @Test
+    void finds_almost_the_great_circle_nearest_facility_far_from_the_equator() {
+        Random random = new Random(0);
+        List<Facility> facilities = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            facilities.add(new Facility(i, randomLocation(random, 69.5, 70.5, 18.0, 21.0), 0, 1));
+        }
+        NearbyFacilityIndex index = new NearbyFacilityIndex(facilities, DistanceModel.GREAT_CIRCLE);
+        for (int i = 0; i < 200; i++) {
+            Location location = randomLocation(random, 69.5, 70.5, 18.0, 21.0);
+            long nearestDistance = facilities.stream()
+                    .mapToLong(facility -> DistanceModel.GREAT_CIRCLE.getDistance(location, facility.getLocation()))
+                    .min().getAsLong();
+            Facility found = index.findNearest(location, 1).get(0);
+            // The index scales the longitudes at the middle latitude of the facilities, which is close enough
+            assertTrue(DistanceModel.GREAT_CIRCLE.getDistance(location, found.getLocation())
+                    <= nearestDistance * 1.05);
+        }
+    }
+
+    @Test
+    void returns_all_facilities_if_there_are_fewer_than_requested() {
+        List<Facility> facilities = new ArrayList<>();
+        facilities.add(new Facility(0, new Location(1, 1), 0, 1));
+        facilities.add(new Facility(1, new Location(1, 3), 0, 1));
+        facilities.add(new Facility(2, new Location(1, 2), 0, 1));
+        NearbyFacilityIndex index = new NearbyFacilityIndex(facilities, DistanceModel.EUCLIDEAN);
+        List<Facility> nearest = index.findNearest(new Location(1, 4), 20);
+        assertEquals(3, nearest.size());
+        assertEquals(facilities.get(1), nearest.get(0));
+        assertEquals(facilities.get(0), nearest.get(2));
+    }
+
+    @Test
+    void no_facilities() {
+        NearbyFacilityIndex index = new NearbyFacilityIndex(new ArrayList<>(), DistanceModel.EUCLIDEAN);
+        assertTrue(index.findNearest(new Location(1, 1), 5).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> index.findNearest(new Location(1, 1), 0));
+    }
+
+    private static Location randomLocation(Random random, double minLatitude, double maxLatitude,
+            double minLongitude, double maxLongitude) {
+        return new Location(minLatitude + random.nextDouble() * (maxLatitude - minLatitude),
+                minLongitude + random.nextDouble() * (maxLongitude - minLongitude));
+    }
+
+    private static List<Facility> fullScan(List<Facility> facilities, Location location, int count) {
+        return facilities.stream()
+                .sorted(Comparator.comparingDouble(facility -> squaredDistance(location, facility.getLocation())))
+                .limit(count)
+                .collect(Collectors.toList());
+    }
+
+    private static double squaredDistance(Location a, Location b) {
+        double latitudeDiff = a.latitude - b.latitude;
+        double longitudeDiff = a.longitude - b.longitude;
+        return latitudeDiff * latitudeDiff + longitudeDiff * longitudeDiff;
+    }
+
+}
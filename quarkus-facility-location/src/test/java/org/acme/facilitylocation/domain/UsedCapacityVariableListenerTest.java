@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+
+class UsedCapacityVariableListenerTest {
+
+    private final UsedCapacityVariableListener listener = new UsedCapacityVariableListener();
+
+    @SuppressWarnings("unchecked")
+    private final ScoreDirector<FacilityLocationProblem> scoreDirector = mock(ScoreDirector.class);
+
+    @Test
+    void moves_the_demand_to_the_new_facility() {
+        Location location = new Location(1, 1);
+        Facility facility1 = new Facility(1, location, 0, 100);
+        Facility facility2 = new Facility(2, location, 0, 100);
+        Consumer consumer1 = new Consumer(1, location, 10);
+        Consumer consumer2 = new Consumer(2, location, 20);
+
+        assign(consumer1, facility1);
+        assign(consumer2, facility1);
+        assertEquals(30, facility1.getUsedCapacity());
+
+        assign(consumer1, facility2);
+        assertEquals(20, facility1.getUsedCapacity());
+        assertEquals(10, facility2.getUsedCapacity());
+
+        assign(consumer2, null);
+        assertEquals(0, facility1.getUsedCapacity());
+        assertEquals(10, facility2.getUsedCapacity());
+    }
+
+    @Test
+    void notifies_the_score_director() {
+        Location location = new Location(1, 1);
+        Facility facility = new Facility(1, location, 0, 100);
+        Consumer consumer = new Consumer(1, location, 10);
+
+        assign(consumer, facility);
+
+        InOrder inOrder = inOrder(scoreDirector);
+        inOrder.verify(scoreDirector).beforeVariableChanged(facility, "usedCapacity");
+        inOrder.verify(scoreDirector).afterVariableChanged(facility, "usedCapacity");
+    }
+
+    @Test
+    void adds_and_removes_an_assigned_consumer() {
+        Location location = new Location(1, 1);
+        Facility facility = new Facility(1, location, 0, 100);
+        Consumer consumer = new Consumer(1, location, 10);
+        consumer.setFacility(facility);
+
+        listener.beforeEntityAdded(scoreDirector, consumer);
+        listener.afterEntityAdded(scoreDirector, consumer);
+        assertEquals(10, facility.getUsedCapacity());
+
+        listener.beforeEntityRemoved(scoreDirector, consumer);
+        listener.afterEntityRemoved(scoreDirector, consumer);
+        assertEquals(0, facility.getUsedCapacity());
+    }
+
+    // Does what the solver does when it changes the facility of a consumer
+    private void assign(Consumer consumer, Facility facility) {
+        listener.beforeVariableChanged(scoreDirector, consumer);
+        consumer.setFacility(facility);
+        listener.afterVariableChanged(scoreDirector, consumer);
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.acme.facilitylocation.domain.DistanceModel;
+import org.acme.facilitylocation.domain.FacilityLocationProblem;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+class FacilityLocationProblemImporterTest {
+
+    @Test
+    void csv_rejects_malformed_rows_and_imports_the_others() throws IOException {
+        FacilityLocationProblemImporter importer = new FacilityLocationProblemImporter(new JsonFactory());
+        ImportReport report = importer.readCsv(toInputStream(
+                "type,id,latitude,longitude,amount,capacity\n"
+                        + "facility,1,51.5,-0.1,1000,50\n"
+                        + "facility,2,51.4,-0.2,2000\n" // Missing capacity
+                        + "consumer,3,51.45,-0.15,10\n"
+                        + "\n"
+                        + "consumer,4,91.0,-0.05,20\n" // Latitude out of range
+                        + "consumer,3,51.55,-0.05,20\n" // Duplicate id
+                        + "consumer,5,51.55,-0.05,twenty\n"
+                        + "warehouse,6,51.55,-0.05,20\n"
+                        + "consumer,7,51.55,-0.05,20\n"));
+
+        assertEquals(1, report.getFacilityCount());
+        assertEquals(2, report.getConsumerCount());
+        assertEquals(5, report.getRejectedRowCount());
+        assertEquals(5, report.getRejectedRows().size());
+        assertTrue(report.getRejectedRows().get(0).startsWith("Line 3: "));
+        assertTrue(report.getRejectedRows().get(1).startsWith("Line 6: "));
+
+        FacilityLocationProblem problem = importer.buildProblem(DistanceModel.EUCLIDEAN);
+        assertEquals(1, problem.getFacilities().size());
+        assertEquals(2, problem.getConsumers().size());
+        assertEquals(1, problem.getConsumers().get(0).getNearbyFacilities().size());
+    }
+
+    @Test
+    void ndjson_rejects_malformed_rows_and_imports_the_others() throws IOException {
+        FacilityLocationProblemImporter importer = new FacilityLocationProblemImporter(new JsonFactory());
+        ImportReport report = importer.readNdjson(toInputStream(
+                "{\"type\":\"facility\",\"id\":1,\"location\":[51.5,-0.1],\"setupCost\":1000,\"capacity\":50}\n"
+                        + "{\"type\":\"facility\",\"id\":2,\"location\":[51.4,-0.2],\"setupCost\":2000,\n"
+                        + "{\"type\":\"consumer\",\"id\":3,\"location\":[51.45,-0.15],\"demand\":10,\"name\":\"A\"}\n"
+                        + "{\"type\":\"consumer\",\"id\":4,\"location\":[51.45],\"demand\":10}\n"
+                        + "{\"type\":\"consumer\",\"id\":5,\"location\":[51.45,-0.15]}\n"
+                        + "[1, 2]\n"
+                        + "{\"type\":\"consumer\",\"id\":6,\"location\":[51.55,-0.05],\"demand\":20}\n"));
+
+        assertEquals(1, report.getFacilityCount());
+        assertEquals(2, report.getConsumerCount());
+        assertEquals(4, report.getRejectedRowCount());
+
+        FacilityLocationProblem problem = importer.buildProblem(DistanceModel.EUCLIDEAN);
+        assertEquals(51.45, problem.getConsumers().get(0).getLocation().latitude);
+        assertEquals(-0.15, problem.getConsumers().get(0).getLocation().longitude);
+    }
+
+    @Test
+    void no_problem_without_facilities() throws IOException {
+        FacilityLocationProblemImporter importer = new FacilityLocationProblemImporter(new JsonFactory());
+        ImportReport report = importer.readCsv(toInputStream("consumer,1,51.5,-0.1,10\n"));
+        assertEquals(1, report.getConsumerCount());
+        assertThrows(IllegalStateException.class, () -> importer.buildProblem(DistanceModel.EUCLIDEAN));
+    }
+
+    private static InputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
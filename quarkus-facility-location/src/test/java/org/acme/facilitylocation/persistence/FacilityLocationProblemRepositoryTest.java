@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+import org.acme.facilitylocation.domain.FacilityLocationProblem;
+import org.junit.jupiter.api.Test;
+
+class FacilityLocationProblemRepositoryTest {
+
+    private static final Long PROBLEM_ID = FacilityLocationProblemRepository.DEFAULT_PROBLEM_ID;
+
+    @Test
+    void every_update_publishes_a_higher_version() {
+        FacilityLocationProblemRepository repository = new FacilityLocationProblemRepository();
+        assertFalse(repository.snapshot(PROBLEM_ID).isPresent());
+        assertFalse(repository.solution(PROBLEM_ID).isPresent());
+
+        FacilityLocationProblem solution1 = FacilityLocationProblem.empty();
+        FacilityLocationProblemSnapshot snapshot1 = repository.put(PROBLEM_ID, solution1);
+        assertEquals(1L, snapshot1.getVersion());
+        assertSame(solution1, snapshot1.getSolution());
+        assertSame(snapshot1, repository.snapshot(PROBLEM_ID).get());
+
+        FacilityLocationProblem solution2 = FacilityLocationProblem.empty();
+        FacilityLocationProblemSnapshot snapshot2 = repository.update(PROBLEM_ID, solution2).get();
+        assertEquals(2L, snapshot2.getVersion());
+        assertSame(solution2, repository.solution(PROBLEM_ID).get());
+        // An earlier snapshot doesn't change
+        assertEquals(1L, snapshot1.getVersion());
+        assertSame(solution1, snapshot1.getSolution());
+    }
+
+    @Test
+    void problems_are_independent() {
+        FacilityLocationProblemRepository repository = new FacilityLocationProblemRepository();
+        FacilityLocationProblem defaultSolution = FacilityLocationProblem.empty();
+        repository.put(PROBLEM_ID, defaultSolution);
+        FacilityLocationProblem solution1 = FacilityLocationProblem.empty();
+        FacilityLocationProblem solution2 = FacilityLocationProblem.empty();
+        Long problemId1 = repository.add(solution1);
+        Long problemId2 = repository.add(solution2);
+        assertNotEquals(problemId1, problemId2);
+        assertEquals(new TreeSet<>(Arrays.asList(PROBLEM_ID, problemId1, problemId2)), repository.problemIds());
+        assertSame(solution1, repository.solution(problemId1).get());
+        assertSame(solution2, repository.solution(problemId2).get());
+
+        assertTrue(repository.remove(problemId1));
+        assertFalse(repository.remove(problemId1));
+        assertSame(defaultSolution, repository.solution(PROBLEM_ID).get());
+        assertSame(solution2, repository.solution(problemId2).get());
+    }
+
+    @Test
+    void add_does_not_overwrite_a_problem_that_was_put() {
+        FacilityLocationProblemRepository repository = new FacilityLocationProblemRepository();
+        FacilityLocationProblem putSolution1 = FacilityLocationProblem.empty();
+        FacilityLocationProblem putSolution2 = FacilityLocationProblem.empty();
+        repository.put(1L, putSolution1);
+        repository.put(2L, putSolution2);
+        FacilityLocationProblem addedSolution = FacilityLocationProblem.empty();
+        Long problemId = repository.add(addedSolution);
+        assertEquals(3L, problemId);
+        assertSame(putSolution1, repository.solution(1L).get());
+        assertSame(putSolution2, repository.solution(2L).get());
+        assertSame(addedSolution, repository.solution(problemId).get());
+    }
+
+    @Test
+    void update_does_not_resurrect_a_removed_problem() {
+        FacilityLocationProblemRepository repository = new FacilityLocationProblemRepository();
+        Long problemId = repository.add(FacilityLocationProblem.empty());
+        long removedVersion = repository.snapshot(problemId).get().getVersion();
+        repository.remove(problemId);
+        // A late best solution of a solver that was still running
+        assertFalse(repository.update(problemId, FacilityLocationProblem.empty()).isPresent());
+        assertFalse(repository.snapshot(problemId).isPresent());
+        // Putting it again never reuses a version
+        assertTrue(repository.put(problemId, FacilityLocationProblem.empty()).getVersion() > removedVersion);
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.rest;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.SseEventSink;
+
+import org.jboss.resteasy.plugins.providers.sse.SseImpl;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+
+@QuarkusTest
+public class BestSolutionEventBroadcasterTest {
+
+    // Far from the ids that POST /flp/problems hands out
+    private static final long PROBLEM_ID = 1002L;
+
+    @Inject
+    BestSolutionEventBroadcaster bestSolutionEventBroadcaster;
+
+    @Test
+    void best_solution_and_not_solving_events_when_solving_ends() throws InterruptedException {
+        // Enough capacity, so the best-score-limit terminates it after the construction heuristic
+        String json = "{\"facilities\": [{\"id\": 1, \"location\": [0.0, 0.0], \"setupCost\": 1000, \"capacity\": 50}],"
+                + "\"consumers\": [{\"id\": 11, \"location\": [10.0, 10.0], \"demand\": 10}]}";
+        given()
+                .contentType(ContentType.JSON)
+                .body(json)
+                .put("/flp/" + PROBLEM_ID)
+                .then()
+                .statusCode(204);
+        RecordingSseEventSink sink = new RecordingSseEventSink();
+        bestSolutionEventBroadcaster.register(PROBLEM_ID, sink, new SseImpl());
+
+        given()
+                .post("/flp/" + PROBLEM_ID + "/solve")
+                .then()
+                .statusCode(204);
+        assertTrue(sink.solvingLatch.await(10L, TimeUnit.SECONDS));
+        assertTrue(sink.notSolvingLatch.await(10L, TimeUnit.SECONDS));
+    }
+
+    private static class RecordingSseEventSink implements SseEventSink {
+
+        private final CountDownLatch solvingLatch = new CountDownLatch(1);
+        private final CountDownLatch notSolvingLatch = new CountDownLatch(1);
+        private volatile boolean closed = false;
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public CompletionStage<?> send(OutboundSseEvent event) {
+            if (((String) event.getData()).contains("\"isSolving\":true")) {
+                solvingLatch.countDown();
+            } else if (((String) event.getData()).contains("\"isSolving\":false")) {
+                notSolvingLatch.countDown();
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+    }
+
+}
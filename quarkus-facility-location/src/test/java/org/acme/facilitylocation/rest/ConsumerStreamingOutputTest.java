@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.acme.facilitylocation.domain.Consumer;
+import org.acme.facilitylocation.domain.Facility;
+import org.acme.facilitylocation.domain.Location;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ConsumerStreamingOutputTest {
+
+    @Test
+    void writes_consumers_with_the_id_of_their_facility() throws IOException {
+        Facility facility = new Facility(7, new Location(1, 2), 0, 100);
+        Consumer assigned = new Consumer(1, new Location(1.5, 2.5), 10);
+        assigned.setFacility(facility);
+        Consumer unassigned = new Consumer(2, new Location(-1, -2), 20);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new ConsumerStreamingOutput(new ObjectMapper().getFactory(), Arrays.asList(assigned, unassigned))
+                .write(output);
+
+        assertEquals("[{\"id\":1,\"location\":[1.5,2.5],\"demand\":10,\"facilityId\":7},"
+                + "{\"id\":2,\"location\":[-1.0,-2.0],\"demand\":20,\"facilityId\":null}]",
+                new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+
+import org.acme.facilitylocation.domain.Consumer;
+import org.acme.facilitylocation.domain.DistanceModel;
+import org.acme.facilitylocation.domain.FacilityLocationProblem;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ProblemUploadTest {
+
+    @Test
+    void uploaded_problem_is_ready_to_solve() throws IOException {
+        String json = "{\"facilities\": ["
+                + "{\"id\": 1, \"location\": [51.5, -0.1], \"setupCost\": 1000, \"capacity\": 50},"
+                + "{\"id\": 2, \"location\": [51.4, -0.2], \"setupCost\": 2000, \"capacity\": 80}],"
+                + "\"consumers\": ["
+                + "{\"id\": 3, \"location\": [51.45, -0.15], \"demand\": 10},"
+                + "{\"id\": 4, \"location\": [51.55, -0.05], \"demand\": 20}],"
+                + "\"distanceModel\": \"GREAT_CIRCLE\"}";
+        FacilityLocationProblem problem = new ObjectMapper().readValue(json, ProblemUpload.class).toProblem();
+
+        assertEquals(2, problem.getFacilities().size());
+        assertEquals(51.5, problem.getFacilities().get(0).getLocation().latitude);
+        assertEquals(-0.1, problem.getFacilities().get(0).getLocation().longitude);
+        assertEquals(DistanceModel.GREAT_CIRCLE, problem.getDistanceModel());
+        assertEquals(51.4, problem.getBounds().get(0).latitude);
+        assertEquals(-0.2, problem.getBounds().get(0).longitude);
+        assertEquals(51.55, problem.getBounds().get(1).latitude);
+        assertEquals(-0.05, problem.getBounds().get(1).longitude);
+        for (Consumer consumer : problem.getConsumers()) {
+            assertNull(consumer.getFacility());
+            assertEquals(2, consumer.getNearbyFacilities().size());
+            assertNotNull(consumer.getDistanceMatrix());
+        }
+        assertFalse(problem.getConsumers().get(1).isAssigned());
+    }
+
+}
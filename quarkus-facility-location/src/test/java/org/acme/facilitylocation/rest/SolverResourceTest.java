@@ -0,0 +1,178 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.rest;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.acme.facilitylocation.domain.FacilityLocationProblem;
+import org.acme.facilitylocation.persistence.FacilityLocationProblemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+
+@QuarkusTest
+public class SolverResourceTest {
+
+    // Far from the ids that POST /flp/problems hands out
+    private static final long PROBLEM_ID = 1001L;
+
+    @Inject
+    FacilityLocationProblemRepository repository;
+
+    @BeforeEach
+    void uploadProblem() {
+        String json = "{\"facilities\": ["
+                + "{\"id\": 1, \"location\": [0.0, 0.0], \"setupCost\": 1000, \"capacity\": 50},"
+                + "{\"id\": 2, \"location\": [15.0, 15.0], \"setupCost\": 2000, \"capacity\": 80}],"
+                + "\"consumers\": ["
+                + "{\"id\": 11, \"location\": [10.0, 10.0], \"demand\": 10},"
+                + "{\"id\": 12, \"location\": [10.0, 20.0], \"demand\": 10},"
+                + "{\"id\": 13, \"location\": [20.0, 10.0], \"demand\": 10},"
+                + "{\"id\": 14, \"location\": [-10.0, -10.0], \"demand\": 10}]}";
+        given()
+                .contentType(ContentType.JSON)
+                .body(json)
+                .put("/flp/" + PROBLEM_ID)
+                .then()
+                .statusCode(204);
+    }
+
+    private Response consumers(String query) {
+        return given()
+                .get("/flp/" + PROBLEM_ID + "/consumers?" + query);
+    }
+
+    private static List<Long> consumerIds(Response response) {
+        return response.then()
+                .statusCode(200)
+                .extract().jsonPath().getList("id", Long.class);
+    }
+
+    @Test
+    void consumers_without_bounding_box() {
+        Response response = consumers("");
+        assertEquals(Arrays.asList(11L, 12L, 13L, 14L), consumerIds(response));
+        assertEquals("4", response.header("X-Total-Count"));
+    }
+
+    @Test
+    void consumers_inside_bounding_box() {
+        Response response = consumers("south=5&west=5&north=15&east=25");
+        assertEquals(Arrays.asList(11L, 12L), consumerIds(response));
+        assertEquals("2", response.header("X-Total-Count"));
+    }
+
+    @Test
+    void bounding_box_includes_its_edges() {
+        Response response = consumers("south=10&west=10&north=10&east=10");
+        assertEquals(Collections.singletonList(11L), consumerIds(response));
+        assertEquals("1", response.header("X-Total-Count"));
+    }
+
+    @Test
+    void empty_bounding_box() {
+        Response response = consumers("south=30&west=30&north=40&east=40");
+        assertEquals(Collections.emptyList(), consumerIds(response));
+        assertEquals("0", response.header("X-Total-Count"));
+    }
+
+    @Test
+    void pages_of_consumers() {
+        String boundingBox = "south=5&west=5&north=25&east=25";
+        Response firstPage = consumers(boundingBox + "&first=0&max=2");
+        assertEquals(Arrays.asList(11L, 12L), consumerIds(firstPage));
+        assertEquals("3", firstPage.header("X-Total-Count"));
+        // The last page is partial
+        Response lastPage = consumers(boundingBox + "&first=2&max=2");
+        assertEquals(Collections.singletonList(13L), consumerIds(lastPage));
+        assertEquals("3", lastPage.header("X-Total-Count"));
+    }
+
+    @Test
+    void page_bounds() {
+        Response emptyPage = consumers("max=0");
+        assertEquals(Collections.emptyList(), consumerIds(emptyPage));
+        assertEquals("4", emptyPage.header("X-Total-Count"));
+        Response pageAfterTheEnd = consumers("first=4&max=10");
+        assertEquals(Collections.emptyList(), consumerIds(pageAfterTheEnd));
+        assertEquals("4", pageAfterTheEnd.header("X-Total-Count"));
+        // first + max doesn't overflow
+        Response hugePage = consumers("first=1&max=" + Integer.MAX_VALUE);
+        assertEquals(Arrays.asList(12L, 13L, 14L), consumerIds(hugePage));
+        Response farPage = consumers("first=" + Integer.MAX_VALUE + "&max=" + Integer.MAX_VALUE);
+        assertEquals(Collections.emptyList(), consumerIds(farPage));
+    }
+
+    @Test
+    void negative_page_bounds() {
+        consumers("first=-1").then().statusCode(400);
+        consumers("max=-1").then().statusCode(400);
+    }
+
+    @Test
+    void consumers_and_facilities_of_unknown_problem() {
+        given().get("/flp/" + (PROBLEM_ID + 1) + "/consumers").then().statusCode(404);
+        given().get("/flp/" + (PROBLEM_ID + 1) + "/facilities").then().statusCode(404);
+    }
+
+    @Test
+    void facilities_not_modified_for_the_same_version() {
+        Response response = given().get("/flp/" + PROBLEM_ID + "/facilities");
+        assertEquals(Arrays.asList(1L, 2L), response.then()
+                .statusCode(200)
+                .extract().jsonPath().getList("id", Long.class));
+        String eTag = response.header("ETag");
+        given().header("If-None-Match", eTag)
+                .get("/flp/" + PROBLEM_ID + "/facilities")
+                .then()
+                .statusCode(304);
+        given().header("If-None-Match", eTag)
+                .get("/flp/" + PROBLEM_ID + "/consumers")
+                .then()
+                .statusCode(304);
+        // Uploading the problem again publishes a new version
+        uploadProblem();
+        given().header("If-None-Match", eTag)
+                .get("/flp/" + PROBLEM_ID + "/facilities")
+                .then()
+                .statusCode(200);
+    }
+
+    @Test
+    void score_explanation_does_not_modify_the_published_solution() {
+        FacilityLocationProblem solution = repository.solution(PROBLEM_ID).get();
+        assertNull(solution.getScore());
+        given().get("/flp/" + PROBLEM_ID + "/scoreExplanation")
+                .then()
+                .statusCode(200);
+        given().get("/flp/" + PROBLEM_ID + "/status")
+                .then()
+                .statusCode(200);
+        assertNull(solution.getScore());
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.facilitylocation.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import org.acme.facilitylocation.domain.FacilityLocationProblem;
+import org.acme.facilitylocation.persistence.FacilityLocationProblemRepository;
+import org.acme.facilitylocation.rest.BestSolutionEventBroadcaster;
+import org.acme.facilitylocation.rest.SolverResource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.optaplanner.core.api.score.ScoreManager;
+import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
+import org.optaplanner.core.api.solver.SolverManager;
+import org.optaplanner.core.api.solver.SolverStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class FacilityLocationSolverServiceTest {
+
+    private final FacilityLocationProblemRepository repository = new FacilityLocationProblemRepository();
+    @SuppressWarnings("unchecked")
+    private final SolverManager<FacilityLocationProblem, Long> solverManager = mock(SolverManager.class);
+    private final FacilityLocationSolverService solverService = new FacilityLocationSolverService();
+    // The arguments of the last solveAndListen() call of every problem
+    private final Map<Long, InvocationOnMock> solveAndListenMap = new HashMap<>();
+    private final List<SolverStatus> solverStatusList = new ArrayList<>();
+
+    @BeforeEach
+    void createSolverService() {
+        solverService.parallelSolverCount = "2";
+        solverService.bestSolutionFlushIntervalMillis = 0L;
+        solverService.solverManager = solverManager;
+        solverService.repository = repository;
+        solverService.createSolverPermits();
+        when(solverManager.solveAndListen(anyLong(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            solveAndListenMap.put(invocation.getArgument(0), invocation);
+            return null;
+        });
+        when(solverManager.getSolverStatus(anyLong())).thenAnswer(invocation ->
+                solveAndListenMap.containsKey(invocation.<Long> getArgument(0))
+                        ? SolverStatus.SOLVING_ACTIVE
+                        : SolverStatus.NOT_SOLVING);
+        for (long problemId = 1L; problemId <= 3L; problemId++) {
+            repository.put(problemId, FacilityLocationProblem.empty());
+        }
+    }
+
+    @AfterEach
+    void shutdownSolverService() {
+        solverService.shutdownBestSolutionFlushExecutor();
+    }
+
+    private void finishSolving(Long problemId, FacilityLocationProblem finalBestSolution) {
+        solveAndListenMap.remove(problemId).<Consumer<FacilityLocationProblem>> getArgument(3)
+                .accept(finalBestSolution);
+    }
+
+    private void failSolving(Long problemId, Throwable throwable) {
+        solveAndListenMap.remove(problemId).<BiConsumer<Long, Throwable>> getArgument(4)
+                .accept(problemId, throwable);
+    }
+
+    @Test
+    void rejects_a_problem_when_all_solver_threads_are_busy() {
+        solverService.solve(1L, solverStatusList::add);
+        solverService.solve(2L, solverStatusList::add);
+        assertThrows(RejectedExecutionException.class, () -> solverService.solve(3L, solverStatusList::add));
+        assertFalse(solveAndListenMap.containsKey(3L));
+
+        // The final best solution releases the permit
+        finishSolving(1L, FacilityLocationProblem.empty());
+        solverService.solve(3L, solverStatusList::add);
+        assertTrue(solveAndListenMap.containsKey(3L));
+    }
+
+    @Test
+    void rest_returns_503_when_all_solver_threads_are_busy() {
+        @SuppressWarnings("unchecked")
+        ScoreManager<FacilityLocationProblem, HardSoftLongScore> scoreManager = mock(ScoreManager.class);
+        SolverResource solverResource = new SolverResource(repository, solverService, scoreManager,
+                mock(BestSolutionEventBroadcaster.class), new ObjectMapper());
+        solverResource.solve(1L);
+        solverResource.solve(2L);
+        WebApplicationException exception = assertThrows(WebApplicationException.class,
+                () -> solverResource.solve(3L));
+        assertEquals(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), exception.getResponse().getStatus());
+        // Solving a problem that is already solving is a conflict, even if all solver threads are busy
+        exception = assertThrows(WebApplicationException.class, () -> solverResource.solve(1L));
+        assertEquals(Response.Status.CONFLICT.getStatusCode(), exception.getResponse().getStatus());
+    }
+
+    @Test
+    void solver_gets_a_copy_of_the_published_solution() {
+        solverService.solve(1L, solverStatusList::add);
+        FacilityLocationProblem problem = solveAndListenMap.get(1L)
+                .<Function<Long, FacilityLocationProblem>> getArgument(1).apply(1L);
+        assertNotSame(repository.solution(1L).get(), problem);
+    }
+
+    @Test
+    void listener_hears_the_published_final_best_solution_and_the_end_of_solving() {
+        solverService.solve(1L, solverStatusList::add);
+        finishSolving(1L, FacilityLocationProblem.empty());
+        assertEquals(Arrays.asList(SolverStatus.SOLVING_ACTIVE, SolverStatus.NOT_SOLVING), solverStatusList);
+        solverStatusList.clear();
+        solverService.solve(2L, solverStatusList::add);
+        failSolving(2L, new IllegalStateException("Solving failed."));
+        assertEquals(Arrays.asList(SolverStatus.NOT_SOLVING), solverStatusList);
+    }
+
+    @Test
+    void solver_error_releases_the_permit() {
+        solverService.solve(1L, solverStatusList::add);
+        solverService.solve(2L, solverStatusList::add);
+        IllegalStateException solverError = new IllegalStateException("Solver failed");
+        failSolving(1L, solverError);
+        assertSame(solverError, solverService.pollSolverError(1L).get());
+        assertFalse(solverService.pollSolverError(1L).isPresent());
+
+        solverService.solve(3L, solverStatusList::add);
+        assertThrows(RejectedExecutionException.class, () -> solverService.solve(1L, solverStatusList::add));
+    }
+
+    @Test
+    void failing_to_submit_releases_the_permit() {
+        doThrow(new IllegalStateException("Submitting failed"))
+                .when(solverManager).solveAndListen(eq(1L), any(), any(), any(), any());
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IllegalStateException.class, () -> solverService.solve(1L, solverStatusList::add));
+        }
+        solverService.solve(2L, solverStatusList::add);
+        solverService.solve(3L, solverStatusList::add);
+    }
+
+    @Test
+    void already_solving_problem_is_rejected_without_taking_a_permit() {
+        solverService.solve(1L, solverStatusList::add);
+        assertThrows(IllegalStateException.class, () -> solverService.solve(1L, solverStatusList::add));
+        solverService.solve(2L, solverStatusList::add);
+    }
+
+    @Test
+    void terminate_before_solving_started_releases_the_permit() {
+        solverService.solve(1L, solverStatusList::add);
+        solverService.solve(2L, solverStatusList::add);
+        // The solver manager forgets a problem that is terminated before it started solving,
+        // so no final best solution will follow
+        solveAndListenMap.remove(1L);
+        solverService.terminateEarly(1L);
+        verify(solverManager).terminateEarly(1L);
+
+        solverService.solve(3L, solverStatusList::add);
+    }
+
+    @Test
+    void terminate_while_solving_releases_the_permit_with_the_final_best_solution() {
+        solverService.solve(1L, solverStatusList::add);
+        solverService.solve(2L, solverStatusList::add);
+        solverService.terminateEarly(1L);
+        verify(solverManager).terminateEarly(1L);
+        // Still solving until the final best solution arrives
+        assertThrows(RejectedExecutionException.class, () -> solverService.solve(3L, solverStatusList::add));
+
+        FacilityLocationProblem finalBestSolution = FacilityLocationProblem.empty();
+        finishSolving(1L, finalBestSolution);
+        assertSame(finalBestSolution, repository.solution(1L).get());
+        solverService.solve(3L, solverStatusList::add);
+    }
+
+    @Test
+    void delete_terminates_and_removes_the_problem() {
+        solverService.solve(1L, solverStatusList::add);
+        solverService.solve(2L, solverStatusList::add);
+        assertTrue(solverService.delete(1L));
+        verify(solverManager).terminateEarly(1L);
+        assertFalse(repository.solution(1L).isPresent());
+        assertFalse(solverService.delete(1L));
+        // A late final best solution doesn't resurrect it, but releases its permit
+        assertThrows(RejectedExecutionException.class, () -> solverService.solve(3L, solverStatusList::add));
+        finishSolving(1L, FacilityLocationProblem.empty());
+        assertFalse(repository.solution(1L).isPresent());
+        solverService.solve(3L, solverStatusList::add);
+    }
+
+    @Test
+    void delete_forgets_the_solver_error() {
+        solverService.solve(1L, solverStatusList::add);
+        failSolving(1L, new IllegalStateException("Solver failed"));
+        assertTrue(solverService.delete(1L));
+        assertFalse(solverService.pollSolverError(1L).isPresent());
+        assertFalse(repository.solution(1L).isPresent());
+    }
+
+    @Test
+    void delete_of_a_problem_that_is_not_solving() {
+        assertTrue(solverService.delete(3L));
+        assertFalse(repository.solution(3L).isPresent());
+        assertThrows(IllegalArgumentException.class, () -> solverService.solve(3L, solverStatusList::add));
+        assertFalse(solverService.delete(3L));
+    }
+}
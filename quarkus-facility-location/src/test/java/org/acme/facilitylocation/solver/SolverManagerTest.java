@@ -16,11 +16,17 @@
 
 package org.acme.facilitylocation.solver;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
 import org.acme.facilitylocation.bootstrap.DemoDataBuilder;
+import org.acme.facilitylocation.domain.Consumer;
+import org.acme.facilitylocation.domain.Facility;
 import org.acme.facilitylocation.domain.FacilityLocationProblem;
 import org.acme.facilitylocation.domain.Location;
 import org.junit.jupiter.api.Test;
@@ -45,7 +51,15 @@ public class SolverManagerTest {
                 .setSouthWestCorner(new Location(-10, -10))
                 .setNorthEastCorner(new Location(10, 10))
                 .build();
-        solverManager.solve(0L, id -> problem, SolverManagerTest::printSolution).getFinalBestSolution();
+        FacilityLocationProblem solution = solverManager.solve(0L, id -> problem, SolverManagerTest::printSolution)
+                .getFinalBestSolution();
+        // The incrementally updated used capacity equals the total demand of the assigned consumers
+        Map<Facility, Long> demandMap = solution.getConsumers().stream()
+                .filter(Consumer::isAssigned)
+                .collect(Collectors.groupingBy(Consumer::getFacility, Collectors.summingLong(Consumer::getDemand)));
+        for (Facility facility : solution.getFacilities()) {
+            assertEquals(demandMap.getOrDefault(facility, 0L), facility.getUsedCapacity());
+        }
     }
 
     static void printSolution(FacilityLocationProblem solution) {
@@ -52,15 +52,25 @@ public class FactorioDataGenerator {
     FactorioLayoutRepository factorioLayoutRepository;
 
     public void generateDemoData(@Observes StartupEvent startupEvent) {
+        factorioLayoutRepository.set(buildLayout(1.0));
+    }
+
+    /**
+     * Doesn't use the {@link FactorioLayoutRepository}, so it also works outside of Quarkus.
+     * @param requirementAmount more than 0, how many of each required science pack to produce per second,
+     * scales the number of assemblies
+     * @return never null
+     */
+    public FactorioLayout buildLayout(double requirementAmount) {
         List<Recipe> recipeList = readRecipes();
         Map<String, Recipe> recipeMap = recipeList.stream().collect(Collectors.toMap(Recipe::getId, recipe -> recipe));
-        List<Requirement> requirementList = buildRequirementList(recipeMap);
+        List<Requirement> requirementList = buildRequirementList(recipeMap, requirementAmount);
         LayoutType layoutType = LayoutType.OPEN;
         List<Assembly> assemblyList = buildAssemblyList(recipeList, requirementList);
         int areaWidth =  DEFAULT_AREA_WIDTH;
         int areaHeight = (int) ((assemblyList.size()) * 2.0 / 9.0) + 3;
         List<Area > areaList = buildAreaList(assemblyList, areaWidth, areaHeight);
-        factorioLayoutRepository.set(new FactorioLayout(layoutType, areaWidth, areaHeight, recipeList, requirementList, areaList, assemblyList));
+        return new FactorioLayout(layoutType, areaWidth, areaHeight, recipeList, requirementList, areaList, assemblyList);
     }
 
     private List<Recipe> readRecipes() {
@@ -76,13 +86,13 @@ public class FactorioDataGenerator {
         return recipeList;
     }
 
-    private List<Requirement> buildRequirementList(Map<String, Recipe> recipeMap) {
+    private List<Requirement> buildRequirementList(Map<String, Recipe> recipeMap, double amount) {
         List<Requirement> requirementList = new ArrayList<>();
 //        requirementList.add(buildRequirement(recipeMap, "Electronic_circuit", 1));
 //        requirementList.add(buildRequirement(recipeMap, "Solar_panel", 1));
 
-        requirementList.add(buildRequirement(recipeMap, "Automation_science_pack", 1));
-        requirementList.add(buildRequirement(recipeMap, "Logistic_science_pack", 1));
+        requirementList.add(buildRequirement(recipeMap, "Automation_science_pack", amount));
+        requirementList.add(buildRequirement(recipeMap, "Logistic_science_pack", amount));
 //        requirementList.add(buildRequirement(recipeMap, "Military_science_pack", 1));
 //        requirementList.add(buildRequirement(recipeMap, "Chemical_science_pack", 1));
 //        requirementList.add(buildRequirement(recipeMap, "Production_science_pack", 1));
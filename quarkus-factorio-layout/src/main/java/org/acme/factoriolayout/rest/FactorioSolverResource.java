@@ -16,6 +16,10 @@
 
 package org.acme.factoriolayout.rest;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
@@ -26,18 +30,27 @@ import javax.ws.rs.core.MediaType;
 
 import org.acme.factoriolayout.domain.FactorioLayout;
 import org.acme.factoriolayout.persistence.FactorioLayoutRepository;
+import org.acme.factoriolayout.solver.CoalescingBestSolutionConsumer;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.optaplanner.core.api.score.ScoreManager;
 import org.optaplanner.core.api.score.buildin.hardsoftlong.HardSoftLongScore;
 import org.optaplanner.core.api.solver.SolverManager;
 import org.optaplanner.core.api.solver.SolverStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 @Path("/factorioLayout")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class FactorioSolverResource {
 
+    private static final Logger LOG = LoggerFactory.getLogger(FactorioSolverResource.class);
+
     public static final Long SINGLETON_PROBLEM_ID = 1L;
 
+    @ConfigProperty(name = "factorioLayout.bestSolutionFlushIntervalMillis", defaultValue = "500")
+    long bestSolutionFlushIntervalMillis;
+
     @Inject
     FactorioLayoutRepository factorioLayoutRepository;
 
@@ -46,11 +59,22 @@ public class FactorioSolverResource {
     @Inject
     ScoreManager<FactorioLayout, HardSoftLongScore> scoreManager;
 
+    private final ScheduledExecutorService bestSolutionFlushExecutor = Executors.newSingleThreadScheduledExecutor();
+
+    @PreDestroy
+    void shutdownBestSolutionFlushExecutor() {
+        bestSolutionFlushExecutor.shutdownNow();
+    }
+
     @GET
     public FactorioLayout getFactorioLayout() {
         SolverStatus solverStatus = getSolverStatus();
         FactorioLayout factorioLayout = factorioLayoutRepository.get();
-        scoreManager.updateScore(factorioLayout); // Sets the score
+        // Every write replaces the entire layout, so the layout instance is its own version:
+        // once it has a score (set by the solver or by an earlier GET), that score is still right
+        if (factorioLayout.getScore() == null) {
+            scoreManager.updateScore(factorioLayout); // Sets the score
+        }
         factorioLayout.setSolverStatus(solverStatus);
         return factorioLayout;
     }
@@ -58,9 +82,18 @@ public class FactorioSolverResource {
     @POST
     @Path("solve")
     public void solve() {
+        CoalescingBestSolutionConsumer<FactorioLayout> bestSolutionConsumer =
+                new CoalescingBestSolutionConsumer<>(factorioLayoutRepository::set, bestSolutionFlushIntervalMillis,
+                        bestSolutionFlushExecutor);
         solverManager.solveAndListen(SINGLETON_PROBLEM_ID,
                 problemId -> factorioLayoutRepository.get(),
-                factorioLayoutRepository::set);
+                bestSolutionConsumer,
+                bestSolutionConsumer::acceptFinal,
+                (problemId, throwable) -> {
+                    // Otherwise a waiting best solution would still be saved after the failure
+                    bestSolutionConsumer.cancel();
+                    LOG.error("Solving the layout with id ({}) failed.", problemId, throwable);
+                });
     }
 
     public SolverStatus getSolverStatus() {
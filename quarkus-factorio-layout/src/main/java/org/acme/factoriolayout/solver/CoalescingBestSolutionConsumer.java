@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.factoriolayout.solver;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Passes the best solutions of a single solver to a slow consumer (such as a database write)
+ * at most once per flush interval.
+ * <p>
+ * A new best solution that arrives while another one is waiting for the next flush replaces it,
+ * so only the latest one is passed on.
+ * The final best solution must be passed to {@link #acceptFinal(Object)}:
+ * it is passed on immediately and no waiting best solution overwrites it afterwards.
+ * @param <Solution_> the solution type
+ */
+public class CoalescingBestSolutionConsumer<Solution_> implements Consumer<Solution_> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CoalescingBestSolutionConsumer.class);
+
+    private final Consumer<Solution_> delegate;
+    private final long flushIntervalMillis;
+    private final ScheduledExecutorService flushExecutor;
+
+    // Makes sure the delegate is never called concurrently and the final best solution is passed on last
+    private final Object delegateLock = new Object();
+
+    // Guarded by this
+    private Solution_ waitingSolution = null;
+    private boolean flushScheduled = false;
+    private long lastFlushMillis = Long.MIN_VALUE;
+    private boolean finished = false;
+
+    /**
+     * @param delegate never null, called on a thread of the flushExecutor or on the thread calling acceptFinal
+     * @param flushIntervalMillis at least 0
+     * @param flushExecutor never null, can be shared by multiple instances
+     */
+    public CoalescingBestSolutionConsumer(Consumer<Solution_> delegate, long flushIntervalMillis,
+            ScheduledExecutorService flushExecutor) {
+        if (flushIntervalMillis < 0L) {
+            throw new IllegalArgumentException("The flushIntervalMillis (" + flushIntervalMillis
+                    + ") cannot be negative.");
+        }
+        this.delegate = delegate;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.flushExecutor = flushExecutor;
+    }
+
+    @Override
+    public synchronized void accept(Solution_ bestSolution) {
+        if (finished) {
+            return;
+        }
+        waitingSolution = bestSolution;
+        if (!flushScheduled) {
+            flushScheduled = true;
+            long delayMillis = lastFlushMillis == Long.MIN_VALUE ? 0L
+                    : Math.max(0L, lastFlushMillis + flushIntervalMillis - System.currentTimeMillis());
+            flushExecutor.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        synchronized (delegateLock) {
+            Solution_ solution;
+            synchronized (this) {
+                flushScheduled = false;
+                if (finished) {
+                    return;
+                }
+                solution = waitingSolution;
+                waitingSolution = null;
+                lastFlushMillis = System.currentTimeMillis();
+            }
+            if (solution != null) {
+                try {
+                    delegate.accept(solution);
+                } catch (RuntimeException e) {
+                    // Nobody waits for the flushExecutor's result, so don't swallow it
+                    LOG.error("Flushing a best solution failed.", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes on the final best solution immediately, on the calling thread, and ignores any later best solution.
+     * @param finalBestSolution never null
+     */
+    public void acceptFinal(Solution_ finalBestSolution) {
+        synchronized (delegateLock) {
+            synchronized (this) {
+                finished = true;
+                waitingSolution = null;
+            }
+            delegate.accept(finalBestSolution);
+        }
+    }
+
+    /**
+     * Ignores the waiting best solution and any later best solution, without passing on a final one,
+     * for example because solving failed.
+     * Waits for a flush that is already passing on a best solution.
+     */
+    public void cancel() {
+        synchronized (delegateLock) {
+            synchronized (this) {
+                finished = true;
+                waitingSolution = null;
+            }
+        }
+    }
+
+}
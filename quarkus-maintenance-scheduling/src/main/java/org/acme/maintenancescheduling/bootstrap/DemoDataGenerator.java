@@ -21,12 +21,10 @@ import org.acme.maintenancescheduling.domain.MaintainableUnit;
 import org.acme.maintenancescheduling.domain.MaintenanceCrew;
 import org.acme.maintenancescheduling.domain.MaintenanceJob;
 import org.acme.maintenancescheduling.domain.MutuallyExclusiveJobs;
-import org.acme.maintenancescheduling.domain.TimeGrain;
 import org.acme.maintenancescheduling.persistence.MaintainableUnitRepository;
 import org.acme.maintenancescheduling.persistence.MaintenanceCrewRepository;
 import org.acme.maintenancescheduling.persistence.MaintenanceJobRepository;
 import org.acme.maintenancescheduling.persistence.MutuallyExclusiveJobsRepository;
-import org.acme.maintenancescheduling.persistence.TimeGrainRepository;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -56,8 +54,6 @@ public class DemoDataGenerator {
     MaintenanceJobRepository maintenanceJobRepository;
     @Inject
     MutuallyExclusiveJobsRepository mutuallyExclusiveJobsRepository;
-    @Inject
-    TimeGrainRepository timeGrainRepository;
 
     @Transactional
     public void generateDemoData(@Observes StartupEvent startupEvent) {
@@ -99,17 +95,6 @@ public class DemoDataGenerator {
         }
         maintenanceCrewRepository.persist(maintenanceCrewList);
 
-        List<TimeGrain> timeGrainList = new ArrayList<>();
-        for (int i = 0; i <= 24; i++) {
-            timeGrainList.add(new TimeGrain(i));
-        }
-        if (demoData == DemoData.SMALL) {
-            for (int i = 25; i <= 48; i++) {
-                timeGrainList.add(new TimeGrain(i));
-            }
-        }
-        timeGrainRepository.persist(timeGrainList);
-
         List<MaintenanceJob> maintenanceJobList = new ArrayList<>();
         maintenanceJobList.add(new MaintenanceJob("Bolt tightening 1", maintainableUnitList.get(0), 0, 24, 1, true));
         maintenanceJobList.add(new MaintenanceJob("Bolt tightening 2", maintainableUnitList.get(1), 0, 24, 1, true));
@@ -16,11 +16,15 @@
 
 package org.acme.maintenancescheduling.domain;
 
+import org.acme.maintenancescheduling.persistence.MaintenanceScheduleChangedListener;
+
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 
 @Entity
+@EntityListeners(MaintenanceScheduleChangedListener.class)
 public class MaintainableUnit {
 
     @Id
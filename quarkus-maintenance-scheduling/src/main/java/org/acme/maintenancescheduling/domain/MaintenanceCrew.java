@@ -16,13 +16,16 @@
 
 package org.acme.maintenancescheduling.domain;
 
+import org.acme.maintenancescheduling.persistence.MaintenanceScheduleChangedListener;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 
 @Entity
+@EntityListeners(MaintenanceScheduleChangedListener.class)
 public class MaintenanceCrew {
 
     @PlanningId
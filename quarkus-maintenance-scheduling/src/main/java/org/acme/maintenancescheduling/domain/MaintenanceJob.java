@@ -16,17 +16,25 @@
 
 package org.acme.maintenancescheduling.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.acme.maintenancescheduling.persistence.MaintenanceScheduleChangedListener;
 import org.optaplanner.core.api.domain.entity.PlanningEntity;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
+import org.optaplanner.core.api.domain.valuerange.CountableValueRange;
+import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
 import org.optaplanner.core.api.domain.variable.PlanningVariable;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.ManyToOne;
+import javax.persistence.Transient;
+import java.util.List;
 
 @Entity
+@EntityListeners(MaintenanceScheduleChangedListener.class)
 @PlanningEntity
 public class MaintenanceJob {
 
@@ -42,10 +50,14 @@ public class MaintenanceJob {
     private int deadlineGrainIndex;
     private int durationInGrains;
 
-    // TODO: Add configuration option for how long each TimeGrain is
-    @PlanningVariable(valueRangeProviderRefs = "timeGrainRange")
-    @ManyToOne
+    // The time grains aren't stored in the database, so only the index of the starting time grain is
+    private Integer startingGrainIndex;
+    @PlanningVariable(valueRangeProviderRefs = "startingTimeGrainRange")
+    @Transient
     private TimeGrain startingTimeGrain;
+    // The time grains on which this job can start and still finish before its deadline
+    @Transient
+    private CountableValueRange<TimeGrain> startingTimeGrainRange;
 
     @PlanningVariable(valueRangeProviderRefs = "assignedCrewRange")
     @ManyToOne
@@ -73,6 +85,41 @@ public class MaintenanceJob {
     // Complex methods
     // ************************************************************************
 
+    /**
+     * @return the index of the first time grain of this job, only call it if the startingTimeGrain is not null
+     */
+    public int calculateStartGrainIndex() {
+        return startingTimeGrain.getGrainIndex();
+    }
+
+    /**
+     * @return the index of the first time grain after this job (exclusive),
+     * only call it if the startingTimeGrain is not null
+     */
+    public int calculateEndGrainIndex() {
+        return startingTimeGrain.getGrainIndex() + durationInGrains;
+    }
+
+    /**
+     * Links this job to the time grains of the schedule, such as after loading it from the database.
+     * Limits the starting time grains of this job to those between its ready time grain
+     * and the last time grain on which it can start to finish before its deadline.
+     * @param timeGrainList never null, the time grain at index i has the grainIndex i
+     */
+    public void linkTimeGrains(List<TimeGrain> timeGrainList) {
+        startingTimeGrain = startingGrainIndex == null || startingGrainIndex < 0
+                || startingGrainIndex >= timeGrainList.size() ? null : timeGrainList.get(startingGrainIndex);
+        int firstStartingGrainIndex = Math.max(0, readyGrainIndex);
+        int lastStartingGrainIndex = Math.min(timeGrainList.size() - 1, deadlineGrainIndex - durationInGrains);
+        if (firstStartingGrainIndex <= lastStartingGrainIndex) {
+            startingTimeGrainRange = new TimeGrainValueRange(timeGrainList,
+                    firstStartingGrainIndex, lastStartingGrainIndex + 1);
+        } else {
+            // It can't finish before its deadline anyway, so let the hard constraints penalize it
+            startingTimeGrainRange = new TimeGrainValueRange(timeGrainList, 0, timeGrainList.size());
+        }
+    }
+
     public int calculateOverlap(MaintenanceJob other) {
         if (startingTimeGrain == null || other.getStartingTimeGrain() == null) {
             return 0;
@@ -155,12 +202,23 @@ public class MaintenanceJob {
         this.durationInGrains = durationInGrains;
     }
 
+    public Integer getStartingGrainIndex() {
+        return startingGrainIndex;
+    }
+
     public TimeGrain getStartingTimeGrain() {
         return startingTimeGrain;
     }
 
     public void setStartingTimeGrain(TimeGrain startingTimeGrain) {
         this.startingTimeGrain = startingTimeGrain;
+        this.startingGrainIndex = startingTimeGrain == null ? null : startingTimeGrain.getGrainIndex();
+    }
+
+    @ValueRangeProvider(id = "startingTimeGrainRange")
+    @JsonIgnore
+    public CountableValueRange<TimeGrain> getStartingTimeGrainRange() {
+        return startingTimeGrainRange;
     }
 
     public MaintenanceCrew getAssignedCrew() {
@@ -16,6 +16,7 @@
 
 package org.acme.maintenancescheduling.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.optaplanner.core.api.domain.constraintweight.ConstraintConfigurationProvider;
 import org.optaplanner.core.api.domain.solution.PlanningEntityCollectionProperty;
 import org.optaplanner.core.api.domain.solution.PlanningScore;
@@ -40,12 +41,16 @@ public class MaintenanceSchedule {
     @ProblemFactCollectionProperty
     private List<MutuallyExclusiveJobs> mutuallyExclusiveJobsList;
 
+    // Calculated from the mutuallyExclusiveJobsList
+    @ProblemFactCollectionProperty
+    private List<MutuallyExclusiveJobMembership> mutuallyExclusiveJobMembershipList;
+
     @ProblemFactCollectionProperty
     @ValueRangeProvider(id = "assignedCrewRange")
     private List<MaintenanceCrew> assignedCrewList;
 
+    // Each job has its own range of starting time grains
     @ProblemFactCollectionProperty
-    @ValueRangeProvider(id = "timeGrainRange")
     private List<TimeGrain> timeGrainList;
 
     @PlanningEntityCollectionProperty
@@ -65,9 +70,13 @@ public class MaintenanceSchedule {
             List<TimeGrain> timeGrainList, List<MaintenanceJob> maintenanceJobList) {
         this.maintainableUnitList = maintainableUnitList;
         this.mutuallyExclusiveJobsList = mutuallyExclusiveJobsList;
+        this.mutuallyExclusiveJobMembershipList = MutuallyExclusiveJobMembership.buildList(mutuallyExclusiveJobsList);
         this.assignedCrewList = assignedCrewList;
         this.timeGrainList = timeGrainList;
         this.maintenanceJobList = maintenanceJobList;
+        for (MaintenanceJob maintenanceJob : maintenanceJobList) {
+            maintenanceJob.linkTimeGrains(timeGrainList);
+        }
     }
 
     // ************************************************************************
@@ -96,6 +105,12 @@ public class MaintenanceSchedule {
 
     public void setMutuallyExclusiveJobsList(List<MutuallyExclusiveJobs> mutuallyExclusiveJobsList) {
         this.mutuallyExclusiveJobsList = mutuallyExclusiveJobsList;
+        this.mutuallyExclusiveJobMembershipList = MutuallyExclusiveJobMembership.buildList(mutuallyExclusiveJobsList);
+    }
+
+    @JsonIgnore
+    public List<MutuallyExclusiveJobMembership> getMutuallyExclusiveJobMembershipList() {
+        return mutuallyExclusiveJobMembershipList;
     }
 
     public List<MaintenanceCrew> getAssignedCrewList() {
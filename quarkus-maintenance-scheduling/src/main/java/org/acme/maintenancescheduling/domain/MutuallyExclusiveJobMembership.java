@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.maintenancescheduling.domain;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link MaintenanceJob} that is one of the {@link MutuallyExclusiveJobs}.
+ * <p>
+ * Calculated from the mutuallyExclusiveJobsList when the {@link MaintenanceSchedule} is created,
+ * so the constraints can join the jobs of the same mutuallyExclusiveJobs on equality,
+ * instead of checking every pair of jobs against every mutuallyExclusiveJobs.
+ * Not stored in the database.
+ */
+public class MutuallyExclusiveJobMembership {
+
+    /**
+     * @param mutuallyExclusiveJobsList never null
+     * @return never null, one membership per job per mutuallyExclusiveJobs that contains it
+     */
+    public static List<MutuallyExclusiveJobMembership> buildList(
+            List<MutuallyExclusiveJobs> mutuallyExclusiveJobsList) {
+        List<MutuallyExclusiveJobMembership> membershipList = new ArrayList<>();
+        Map<MaintenanceJob, BitSet> jobMutuallyExclusiveJobsIndexesMap = new HashMap<>();
+        for (int i = 0; i < mutuallyExclusiveJobsList.size(); i++) {
+            MutuallyExclusiveJobs mutuallyExclusiveJobs = mutuallyExclusiveJobsList.get(i);
+            for (MaintenanceJob job : mutuallyExclusiveJobs.getMutexJobs()) {
+                BitSet jobMutuallyExclusiveJobsIndexes = jobMutuallyExclusiveJobsIndexesMap.computeIfAbsent(job,
+                        key -> new BitSet());
+                // Ignore a job that is listed twice in the same mutuallyExclusiveJobs
+                if (!jobMutuallyExclusiveJobsIndexes.get(i)) {
+                    jobMutuallyExclusiveJobsIndexes.set(i);
+                    membershipList.add(new MutuallyExclusiveJobMembership(job, mutuallyExclusiveJobs, i,
+                            jobMutuallyExclusiveJobsIndexes));
+                }
+            }
+        }
+        return membershipList;
+    }
+
+    private final MaintenanceJob job;
+    private final MutuallyExclusiveJobs mutuallyExclusiveJobs;
+    private final int mutuallyExclusiveJobsIndex;
+    // The indexes of all mutuallyExclusiveJobs that contain the job, shared by all memberships of that job
+    private final BitSet jobMutuallyExclusiveJobsIndexes;
+
+    private MutuallyExclusiveJobMembership(MaintenanceJob job, MutuallyExclusiveJobs mutuallyExclusiveJobs,
+            int mutuallyExclusiveJobsIndex, BitSet jobMutuallyExclusiveJobsIndexes) {
+        this.job = job;
+        this.mutuallyExclusiveJobs = mutuallyExclusiveJobs;
+        this.mutuallyExclusiveJobsIndex = mutuallyExclusiveJobsIndex;
+        this.jobMutuallyExclusiveJobsIndexes = jobMutuallyExclusiveJobsIndexes;
+    }
+
+    // ************************************************************************
+    // Complex methods
+    // ************************************************************************
+
+    /**
+     * Two jobs that are both in multiple mutuallyExclusiveJobs must only be penalized once.
+     * @param other never null, a membership of the same mutuallyExclusiveJobs
+     * @return true if this mutuallyExclusiveJobs is the first one that contains both jobs
+     */
+    public boolean isFirstSharedMutuallyExclusiveJobs(MutuallyExclusiveJobMembership other) {
+        BitSet sharedIndexes = (BitSet) jobMutuallyExclusiveJobsIndexes.clone();
+        sharedIndexes.and(other.jobMutuallyExclusiveJobsIndexes);
+        return sharedIndexes.nextSetBit(0) == mutuallyExclusiveJobsIndex;
+    }
+
+    @Override
+    public String toString() {
+        return "MutuallyExclusiveJobMembership{" +
+                "job=" + job +
+                ", mutuallyExclusiveJobsIndex=" + mutuallyExclusiveJobsIndex +
+                '}';
+    }
+
+    // ************************************************************************
+    // Getters
+    // ************************************************************************
+
+    public MaintenanceJob getJob() {
+        return job;
+    }
+
+    public MutuallyExclusiveJobs getMutuallyExclusiveJobs() {
+        return mutuallyExclusiveJobs;
+    }
+
+    public int getMutuallyExclusiveJobsIndex() {
+        return mutuallyExclusiveJobsIndex;
+    }
+}
@@ -16,24 +16,43 @@
 
 package org.acme.maintenancescheduling.domain;
 
+import org.acme.maintenancescheduling.persistence.MaintenanceScheduleChangedListener;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
-import javax.persistence.OneToMany;
+import javax.persistence.ManyToMany;
+import javax.persistence.Transient;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
+@EntityListeners(MaintenanceScheduleChangedListener.class)
 public class MutuallyExclusiveJobs {
 
     @Id
     @GeneratedValue
     private Long id;
 
-    @OneToMany(fetch = FetchType.EAGER)
+    // A job can be in multiple mutuallyExclusiveJobs.
+    // Loading all of them initializes all their mutexJobs in a single query, instead of a query each.
+    // Eager instead of lazy with a fetch join, because the generated CRUD resource serializes the mutexJobs
+    // after its transaction ended and the schedule loads all jobs anyway.
+    @ManyToMany(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
     private List<MaintenanceJob> mutexJobs;
 
+    // The ids of the mutexJobs, built when first needed.
+    // By id, so it also holds for the solver's planning clones of the jobs and for jobs loaded in another session.
+    @Transient
+    private volatile Set<Long> mutexJobIdSet = null;
+
     public MutuallyExclusiveJobs() {
     }
 
@@ -46,10 +65,25 @@ public class MutuallyExclusiveJobs {
     // ************************************************************************
 
     public boolean isMutuallyExclusive(MaintenanceJob maintenanceJob, MaintenanceJob otherJob) {
-        if (mutexJobs.contains(maintenanceJob) && mutexJobs.contains(otherJob)) {
-            return true;
+        Set<Long> mutexJobIdSet = getMutexJobIdSet();
+        return mutexJobIdSet.contains(maintenanceJob.getId()) && mutexJobIdSet.contains(otherJob.getId());
+    }
+
+    private Set<Long> getMutexJobIdSet() {
+        Set<Long> builtMutexJobIdSet = mutexJobIdSet;
+        if (builtMutexJobIdSet == null) {
+            // Not synchronized: threads that build it at the same time build equal sets
+            builtMutexJobIdSet = new HashSet<>(mutexJobs.size() * 2);
+            for (MaintenanceJob mutexJob : mutexJobs) {
+                if (mutexJob.getId() == null) {
+                    throw new IllegalStateException("The mutexJob (" + mutexJob + ") of the mutuallyExclusiveJobs ("
+                            + id + ") has no id.");
+                }
+                builtMutexJobIdSet.add(mutexJob.getId());
+            }
+            mutexJobIdSet = builtMutexJobIdSet;
         }
-        return false;
+        return builtMutexJobIdSet;
     }
 
     @Override
@@ -76,7 +110,11 @@ public class MutuallyExclusiveJobs {
         return mutexJobs;
     }
 
+    /**
+     * @param mutexJobs never changed afterwards, set new mutexJobs instead
+     */
     public void setMutexJobs(List<MaintenanceJob> mutexJobs) {
         this.mutexJobs = mutexJobs;
+        mutexJobIdSet = null;
     }
 }
@@ -18,25 +18,32 @@ package org.acme.maintenancescheduling.domain;
 
 import org.optaplanner.core.api.domain.lookup.PlanningId;
 
-import javax.persistence.Entity;
-import javax.persistence.GeneratedValue;
-import javax.persistence.Id;
+import java.time.LocalDateTime;
 
-@Entity
+/**
+ * Not stored in the database: the time grains are generated from the configured start and duration
+ * whenever the schedule is loaded, see {@link org.acme.maintenancescheduling.persistence.TimeGrainRepository}.
+ */
 public class TimeGrain {
 
+    // Always the grainIndex, so it's the same every time the time grains are generated
     @PlanningId
-    @Id
-    @GeneratedValue
     private Long id;
 
     private int grainIndex; // unique
+    private LocalDateTime startDateTime;
 
     public TimeGrain() {
     }
 
     public TimeGrain(int grainIndex) {
+        this(grainIndex, null);
+    }
+
+    public TimeGrain(int grainIndex, LocalDateTime startDateTime) {
+        this.id = (long) grainIndex;
         this.grainIndex = grainIndex;
+        this.startDateTime = startDateTime;
     }
 
     @Override
@@ -44,6 +51,7 @@ public class TimeGrain {
         return "TimeGrain{" +
                 "id=" + id +
                 ", grainIndex=" + grainIndex +
+                ", startDateTime=" + startDateTime +
                 '}';
     }
 
@@ -66,4 +74,12 @@ public class TimeGrain {
     public void setGrainIndex(int grainIndex) {
         this.grainIndex = grainIndex;
     }
+
+    public LocalDateTime getStartDateTime() {
+        return startDateTime;
+    }
+
+    public void setStartDateTime(LocalDateTime startDateTime) {
+        this.startDateTime = startDateTime;
+    }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.maintenancescheduling.domain;
+
+import org.optaplanner.core.impl.domain.valuerange.AbstractCountableValueRange;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * The consecutive time grains from one grain index up to another one, of the time grains of a schedule.
+ * <p>
+ * Unlike a list of time grains, it knows whether it contains a time grain in constant time, from its grain index.
+ * The solver checks that for every swap move of the starting time grains.
+ */
+public class TimeGrainValueRange extends AbstractCountableValueRange<TimeGrain> {
+
+    private final List<TimeGrain> timeGrainList;
+    private final int fromGrainIndex; // inclusive
+    private final int toGrainIndex; // exclusive
+
+    /**
+     * @param timeGrainList never null, the time grain at index i has the grainIndex i
+     * @param fromGrainIndex at least 0, the grain index of the first time grain
+     * @param toGrainIndex at least fromGrainIndex and at most the size of the timeGrainList,
+     * the grain index after the last time grain
+     */
+    public TimeGrainValueRange(List<TimeGrain> timeGrainList, int fromGrainIndex, int toGrainIndex) {
+        if (fromGrainIndex < 0 || fromGrainIndex > toGrainIndex || toGrainIndex > timeGrainList.size()) {
+            throw new IllegalArgumentException("The fromGrainIndex (" + fromGrainIndex
+                    + ") and toGrainIndex (" + toGrainIndex + ") are not a range of the timeGrainList of size ("
+                    + timeGrainList.size() + ").");
+        }
+        this.timeGrainList = timeGrainList;
+        this.fromGrainIndex = fromGrainIndex;
+        this.toGrainIndex = toGrainIndex;
+    }
+
+    @Override
+    public long getSize() {
+        return toGrainIndex - fromGrainIndex;
+    }
+
+    @Override
+    public TimeGrain get(long index) {
+        if (index < 0L || index >= getSize()) {
+            throw new IndexOutOfBoundsException("The index (" + index + ") must be >= 0 and < size ("
+                    + getSize() + ").");
+        }
+        return timeGrainList.get(fromGrainIndex + (int) index);
+    }
+
+    @Override
+    public boolean contains(TimeGrain timeGrain) {
+        if (timeGrain == null) {
+            return false;
+        }
+        int grainIndex = timeGrain.getGrainIndex();
+        return grainIndex >= fromGrainIndex && grainIndex < toGrainIndex;
+    }
+
+    @Override
+    public Iterator<TimeGrain> createOriginalIterator() {
+        return timeGrainList.subList(fromGrainIndex, toGrainIndex).iterator();
+    }
+
+    @Override
+    public Iterator<TimeGrain> createRandomIterator(Random workingRandom) {
+        return new Iterator<TimeGrain>() {
+            @Override
+            public boolean hasNext() {
+                return fromGrainIndex < toGrainIndex;
+            }
+
+            @Override
+            public TimeGrain next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return timeGrainList.get(fromGrainIndex + workingRandom.nextInt(toGrainIndex - fromGrainIndex));
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "[" + fromGrainIndex + "-" + toGrainIndex + ")";
+    }
+}
@@ -24,4 +24,14 @@ import javax.enterprise.context.ApplicationScoped;
 @ApplicationScoped
 public class MaintenanceJobRepository implements PanacheRepository<MaintenanceJob> {
 
+    /**
+     * @return 0 if there are no jobs
+     */
+    public int findMaximumDeadlineGrainIndex() {
+        Integer maximumDeadlineGrainIndex = getEntityManager()
+                .createQuery("select max(deadlineGrainIndex) from MaintenanceJob", Integer.class)
+                .getSingleResult();
+        return maximumDeadlineGrainIndex == null ? 0 : maximumDeadlineGrainIndex;
+    }
+
 }
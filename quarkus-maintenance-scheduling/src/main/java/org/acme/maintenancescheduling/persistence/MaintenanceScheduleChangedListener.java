@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.maintenancescheduling.persistence;
+
+import io.quarkus.arc.Arc;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Invalidates the cached score of the schedule when one of its entities is written through JPA,
+ * such as by the CRUD REST resources.
+ */
+public class MaintenanceScheduleChangedListener {
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void entityChanged(Object entity) {
+        // JPA instantiates entity listeners itself, so look up the bean
+        Arc.container().instance(MaintenanceScheduleScoreCache.class).get().startWrite();
+    }
+
+}
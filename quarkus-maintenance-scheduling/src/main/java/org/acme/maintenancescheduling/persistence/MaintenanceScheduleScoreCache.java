@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.maintenancescheduling.persistence;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import org.acme.maintenancescheduling.solver.VersionedScoreCache;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * Holds the {@link VersionedScoreCache} of the schedule
+ * and starts a write on it before a transaction that writes to the schedule commits,
+ * which ends once that transaction completed.
+ */
+@ApplicationScoped
+public class MaintenanceScheduleScoreCache {
+
+    private static final String RESOURCE_KEY = MaintenanceScheduleScoreCache.class.getName();
+
+    @Inject
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    private final VersionedScoreCache<HardSoftScore> scoreCache = new VersionedScoreCache<>();
+
+    public VersionedScoreCache<HardSoftScore> get() {
+        return scoreCache;
+    }
+
+    /**
+     * Starts a write now, before the current transaction commits, and ends it once that transaction completed,
+     * so no reader trusts a cached score while it can't tell if it loaded the old or the new data.
+     */
+    public void startWrite() {
+        startWrite(status -> scoreCache.endWrite());
+    }
+
+    /**
+     * Like {@link #startWrite()}, but also caches the score of the solver's best solution if the transaction commits.
+     * Call it before any entity is flushed in the current transaction,
+     * so it wins over the {@link MaintenanceScheduleChangedListener}.
+     * @param solutionVersion never null, the version the best solution corresponds to, updated after the commit
+     * @param bestScore never null
+     */
+    public void startWrite(AtomicLong solutionVersion, HardSoftScore bestScore) {
+        startWrite(status -> {
+            if (status == Status.STATUS_COMMITTED) {
+                solutionVersion.set(scoreCache.endWrite(solutionVersion.get(), bestScore));
+            } else {
+                scoreCache.endWrite();
+                solutionVersion.set(VersionedScoreCache.DIVERGED_VERSION);
+            }
+        });
+    }
+
+    private void startWrite(IntConsumer endWrite) {
+        if (transactionSynchronizationRegistry.getTransactionKey() == null) {
+            scoreCache.startWrite();
+            endWrite.accept(Status.STATUS_COMMITTED);
+            return;
+        }
+        // Start only one write per transaction, even if it writes many entities
+        if (transactionSynchronizationRegistry.getResource(RESOURCE_KEY) != null) {
+            return;
+        }
+        transactionSynchronizationRegistry.putResource(RESOURCE_KEY, Boolean.TRUE);
+        scoreCache.startWrite();
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                endWrite.accept(status);
+            }
+        });
+    }
+
+}
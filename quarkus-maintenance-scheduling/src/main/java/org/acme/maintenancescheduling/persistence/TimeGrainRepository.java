@@ -16,12 +16,57 @@
 
 package org.acme.maintenancescheduling.persistence;
 
-import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import org.acme.maintenancescheduling.domain.TimeGrain;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
+/**
+ * Generates the time grains instead of loading them from the database,
+ * so a long horizon of short time grains doesn't need a database row per time grain.
+ * Only the index of the starting time grain of each job is stored.
+ */
 @ApplicationScoped
-public class TimeGrainRepository implements PanacheRepository<TimeGrain> {
+public class TimeGrainRepository {
+
+    @ConfigProperty(name = "schedule.timeGrain.duration", defaultValue = "PT1H")
+    Duration grainDuration;
+    // Fixed, because the stored starting grain index of a job must map to the same time every time it's loaded
+    @ConfigProperty(name = "schedule.timeGrain.startDateTime", defaultValue = "2021-01-04T00:00")
+    LocalDateTime startDateTime;
+    @ConfigProperty(name = "schedule.timeGrain.count")
+    Optional<Integer> grainCount;
+
+    @Inject
+    MaintenanceJobRepository maintenanceJobRepository;
+
+    @PostConstruct
+    void validateConfiguration() {
+        if (grainDuration.isNegative() || grainDuration.isZero()) {
+            throw new IllegalStateException("The timeGrain duration (" + grainDuration + ") must be positive.");
+        }
+        if (grainCount.isPresent() && grainCount.get() < 1) {
+            throw new IllegalStateException("The timeGrain count (" + grainCount.get() + ") must be at least 1.");
+        }
+    }
 
+    /**
+     * Without a configured count, the horizon ends with the time grain of the latest deadline of all jobs.
+     * @return never null, the time grain at index i has the grainIndex i
+     */
+    public List<TimeGrain> listAll() {
+        int count = grainCount.orElseGet(() -> maintenanceJobRepository.findMaximumDeadlineGrainIndex() + 1);
+        List<TimeGrain> timeGrainList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            timeGrainList.add(new TimeGrain(i, startDateTime.plus(grainDuration.multipliedBy(i))));
+        }
+        return timeGrainList;
+    }
 }
@@ -22,13 +22,23 @@ import org.acme.maintenancescheduling.domain.MaintenanceSchedule;
 import org.acme.maintenancescheduling.persistence.MaintainableUnitRepository;
 import org.acme.maintenancescheduling.persistence.MaintenanceCrewRepository;
 import org.acme.maintenancescheduling.persistence.MaintenanceJobRepository;
+import org.acme.maintenancescheduling.persistence.MaintenanceScheduleScoreCache;
 import org.acme.maintenancescheduling.persistence.MutuallyExclusiveJobsRepository;
 import org.acme.maintenancescheduling.persistence.TimeGrainRepository;
+import org.acme.maintenancescheduling.solver.CoalescingBestSolutionConsumer;
+import org.acme.maintenancescheduling.solver.VersionedScoreCache;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.optaplanner.core.api.score.ScoreManager;
 import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
 import org.optaplanner.core.api.solver.SolverManager;
 import org.optaplanner.core.api.solver.SolverStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
 import javax.ws.rs.Consumes;
@@ -43,8 +53,13 @@ import javax.ws.rs.core.MediaType;
 @Consumes(MediaType.APPLICATION_JSON)
 public class MaintenanceScheduleResource {
 
+    private static final Logger LOG = LoggerFactory.getLogger(MaintenanceScheduleResource.class);
+
     public static final Long SINGLETON_SCHEDULE_ID = 1L;
 
+    @ConfigProperty(name = "schedule.bestSolutionFlushIntervalMillis", defaultValue = "500")
+    long bestSolutionFlushIntervalMillis;
+
     @Inject
     MaintainableUnitRepository maintainableUnitRepository;
     @Inject
@@ -56,19 +71,39 @@ public class MaintenanceScheduleResource {
     @Inject
     TimeGrainRepository timeGrainRepository;
 
+    @Inject
+    MaintenanceScheduleScoreCache maintenanceScheduleScoreCache;
+
     @Inject
     SolverManager<MaintenanceSchedule, Long> solverManager;
     @Inject
     ScoreManager<MaintenanceSchedule, HardSoftScore> scoreManager;
 
+    private final ScheduledExecutorService bestSolutionFlushExecutor = Executors.newSingleThreadScheduledExecutor();
+
+    @PreDestroy
+    void shutdownBestSolutionFlushExecutor() {
+        bestSolutionFlushExecutor.shutdownNow();
+    }
+
     // To try, open http://localhost:8080/schedule
     @GET
     public MaintenanceSchedule getSchedule() {
         // Get the solver status before loading the solution
         // to avoid the race condition that the solver terminates between them
         SolverStatus solverStatus = getSolverStatus();
+        // Likewise, get the version before loading the solution,
+        // so getScore() and putScore() ignore the cache if a write started in the meantime
+        VersionedScoreCache<HardSoftScore> scoreCache = maintenanceScheduleScoreCache.get();
+        long version = scoreCache.getVersion();
         MaintenanceSchedule solution = findById(SINGLETON_SCHEDULE_ID);
-        scoreManager.updateScore(solution); // Sets the score
+        HardSoftScore score = scoreCache.getScore(version);
+        if (score == null) {
+            scoreManager.updateScore(solution); // Sets the score
+            scoreCache.putScore(version, solution.getScore());
+        } else {
+            solution.setScore(score);
+        }
         solution.setSolverStatus(solverStatus);
         return solution;
     }
@@ -80,9 +115,23 @@ public class MaintenanceScheduleResource {
     @POST
     @Path("solve")
     public void solve() {
+        // The version of the database that the solver's best solution corresponds to
+        AtomicLong solutionVersion = new AtomicLong();
+        CoalescingBestSolutionConsumer<MaintenanceSchedule> bestSolutionConsumer =
+                new CoalescingBestSolutionConsumer<>(bestSolution -> save(bestSolution, solutionVersion),
+                        bestSolutionFlushIntervalMillis, bestSolutionFlushExecutor);
         solverManager.solveAndListen(SINGLETON_SCHEDULE_ID,
-                this::findById,
-                this::save);
+                id -> {
+                    solutionVersion.set(maintenanceScheduleScoreCache.get().getVersion());
+                    return findById(id);
+                },
+                bestSolutionConsumer,
+                bestSolutionConsumer::acceptFinal,
+                (problemId, throwable) -> {
+                    // Otherwise a waiting best solution would still be saved after the failure
+                    bestSolutionConsumer.cancel();
+                    LOG.error("Solving the schedule with id ({}) failed.", problemId, throwable);
+                });
     }
 
     @POST
@@ -101,13 +150,15 @@ public class MaintenanceScheduleResource {
                 maintainableUnitRepository.listAll(Sort.by("unitName").and("id")),
                 mutuallyExclusiveJobsRepository.listAll(Sort.by("id")),
                 maintenanceCrewRepository.listAll(Sort.by("crewName").and("id")),
-                timeGrainRepository.listAll(Sort.by("grainIndex").and("id")),
+                timeGrainRepository.listAll(),
                 maintenanceJobRepository.listAll(Sort.by("maintainableUnit")
-                        .and("startingTimeGrain").and("readyGrainIndex").and("deadlineGrainIndex").and("id")));
+                        .and("startingGrainIndex").and("readyGrainIndex").and("deadlineGrainIndex").and("id")));
     }
 
     @Transactional
-    protected void save(MaintenanceSchedule schedule) {
+    protected void save(MaintenanceSchedule schedule, AtomicLong solutionVersion) {
+        // Before any job is flushed, so the solver's score is cached instead of just invalidating it
+        maintenanceScheduleScoreCache.startWrite(solutionVersion, schedule.getScore());
         for (MaintenanceJob job : schedule.getMaintenanceJobList()) {
             // TODO this is awfully naive: optimistic locking causes issues if called by the SolverManager
             MaintenanceJob persistedJob = maintenanceJobRepository.findById(job.getId());
@@ -16,12 +16,29 @@
 
 package org.acme.maintenancescheduling.rest;
 
-import io.quarkus.hibernate.orm.rest.data.panache.PanacheRepositoryResource;
-import io.quarkus.rest.data.panache.ResourceProperties;
 import org.acme.maintenancescheduling.domain.TimeGrain;
 import org.acme.maintenancescheduling.persistence.TimeGrainRepository;
 
-@ResourceProperties(path = "timeGrains")
-public interface TimeGrainResource extends PanacheRepositoryResource<TimeGrainRepository, TimeGrain, Long> {
+import java.util.List;
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * The time grains are generated from the configuration, so they can't be added, changed or removed.
+ */
+@Path("/timeGrains")
+@Produces(MediaType.APPLICATION_JSON)
+public class TimeGrainResource {
+
+    @Inject
+    TimeGrainRepository timeGrainRepository;
+
+    @GET
+    public List<TimeGrain> list() {
+        return timeGrainRepository.listAll();
+    }
 
 }
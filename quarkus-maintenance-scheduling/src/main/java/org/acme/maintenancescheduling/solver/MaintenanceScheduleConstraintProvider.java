@@ -17,11 +17,11 @@
 package org.acme.maintenancescheduling.solver;
 
 import static org.optaplanner.core.api.score.stream.Joiners.equal;
-import static org.optaplanner.core.api.score.stream.Joiners.filtering;
+import static org.optaplanner.core.api.score.stream.Joiners.greaterThan;
 import static org.optaplanner.core.api.score.stream.Joiners.lessThan;
 
 import org.acme.maintenancescheduling.domain.MaintenanceJob;
-import org.acme.maintenancescheduling.domain.MutuallyExclusiveJobs;
+import org.acme.maintenancescheduling.domain.MutuallyExclusiveJobMembership;
 import org.optaplanner.core.api.score.stream.Constraint;
 import org.optaplanner.core.api.score.stream.ConstraintFactory;
 import org.optaplanner.core.api.score.stream.ConstraintProvider;
@@ -81,21 +81,32 @@ public class MaintenanceScheduleConstraintProvider implements ConstraintProvider
                 .join(MaintenanceJob.class,
                         equal(MaintenanceJob::getAssignedCrew),
                         lessThan(MaintenanceJob::getId),
-                        filtering((maintenanceJob, otherJob) -> maintenanceJob.calculateOverlap(otherJob) > 0))
+                        // Only the jobs that start before the other ends and end after the other starts overlap
+                        lessThan(MaintenanceJob::calculateStartGrainIndex, MaintenanceJob::calculateEndGrainIndex),
+                        greaterThan(MaintenanceJob::calculateEndGrainIndex, MaintenanceJob::calculateStartGrainIndex))
                 .penalizeConfigurable("One job per crew per period", MaintenanceJob::calculateOverlap);
     }
 
     public Constraint mutuallyExclusiveJobs(ConstraintFactory constraintFactory) {
-        return constraintFactory.fromUnfiltered(MaintenanceJob.class)
-                .filter(maintenanceJob -> maintenanceJob.getStartingTimeGrain() != null)
+        return constraintFactory.from(MutuallyExclusiveJobMembership.class)
+                .join(MutuallyExclusiveJobMembership.class,
+                        equal(MutuallyExclusiveJobMembership::getMutuallyExclusiveJobs),
+                        lessThan(membership -> membership.getJob().getId()))
+                // Two jobs that are both in multiple mutuallyExclusiveJobs are only penalized once
+                .filter(MutuallyExclusiveJobMembership::isFirstSharedMutuallyExclusiveJobs)
+                // Join on the id, because a planning clone clones the jobs, but not the memberships that refer to them
                 .join(MaintenanceJob.class,
-                        lessThan(MaintenanceJob::getId),
-                        filtering((maintenanceJob, otherJob) -> maintenanceJob.calculateOverlap(otherJob) > 0))
-                .join(MutuallyExclusiveJobs.class,
-                        filtering((maintenanceJob, otherJob, mutexJobs) -> mutexJobs.isMutuallyExclusive(maintenanceJob,
-                                otherJob)))
+                        equal((membership, otherMembership) -> membership.getJob().getId(), MaintenanceJob::getId))
+                .join(MaintenanceJob.class,
+                        equal((membership, otherMembership, maintenanceJob) -> otherMembership.getJob().getId(),
+                                MaintenanceJob::getId),
+                        lessThan((membership, otherMembership, maintenanceJob)
+                                -> maintenanceJob.calculateStartGrainIndex(), MaintenanceJob::calculateEndGrainIndex),
+                        greaterThan((membership, otherMembership, maintenanceJob)
+                                -> maintenanceJob.calculateEndGrainIndex(), MaintenanceJob::calculateStartGrainIndex))
                 .penalizeConfigurable("Mutually exclusive jobs cannot overlap",
-                        (maintenanceJob, otherJob, mutexJobs) -> maintenanceJob.calculateOverlap(otherJob));
+                        (membership, otherMembership, maintenanceJob, otherJob)
+                                -> maintenanceJob.calculateOverlap(otherJob));
     }
 
     public Constraint oneJobPerUnitPerPeriod(ConstraintFactory constraintFactory) {
@@ -104,7 +115,8 @@ public class MaintenanceScheduleConstraintProvider implements ConstraintProvider
                 .join(MaintenanceJob.class,
                         equal(MaintenanceJob::getMaintainableUnit),
                         lessThan(MaintenanceJob::getId),
-                        filtering((maintenanceJob, otherJob) -> maintenanceJob.calculateOverlap(otherJob) > 0))
+                        lessThan(MaintenanceJob::calculateStartGrainIndex, MaintenanceJob::calculateEndGrainIndex),
+                        greaterThan(MaintenanceJob::calculateEndGrainIndex, MaintenanceJob::calculateStartGrainIndex))
                 .penalizeConfigurable("One job per unit per period", MaintenanceJob::calculateOverlap);
     }
 
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.maintenancescheduling.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MutuallyExclusiveJobsTest {
+
+    private final MaintainableUnit maintainableUnit = new MaintainableUnit("Test unit");
+
+    private long nextJobId = 0L;
+
+    private MaintenanceJob newJob(String jobName) {
+        MaintenanceJob maintenanceJob = new MaintenanceJob(jobName, maintainableUnit, 0, 10, 4, true);
+        maintenanceJob.setId(nextJobId++);
+        return maintenanceJob;
+    }
+
+    private MaintenanceJob copyJob(MaintenanceJob maintenanceJob) {
+        MaintenanceJob copy = new MaintenanceJob(maintenanceJob.getJobName(), maintainableUnit,
+                maintenanceJob.getReadyGrainIndex(), maintenanceJob.getDeadlineGrainIndex(),
+                maintenanceJob.getDurationInGrains(), maintenanceJob.isCritical());
+        copy.setId(maintenanceJob.getId());
+        return copy;
+    }
+
+    @Test
+    public void isMutuallyExclusive() {
+        MaintenanceJob maintenanceJob = newJob("Maintenance job");
+        MaintenanceJob otherJob = newJob("Other job");
+        MaintenanceJob thirdJob = newJob("Third job");
+        MutuallyExclusiveJobs mutuallyExclusiveJobs = new MutuallyExclusiveJobs(maintenanceJob, otherJob);
+
+        assertTrue(mutuallyExclusiveJobs.isMutuallyExclusive(maintenanceJob, otherJob));
+        assertTrue(mutuallyExclusiveJobs.isMutuallyExclusive(otherJob, maintenanceJob));
+        assertFalse(mutuallyExclusiveJobs.isMutuallyExclusive(maintenanceJob, thirdJob));
+        assertFalse(mutuallyExclusiveJobs.isMutuallyExclusive(thirdJob, otherJob));
+    }
+
+    @Test
+    public void isMutuallyExclusiveComparesJobsById() {
+        // Jobs with the same fields, but another id
+        MaintenanceJob maintenanceJob = newJob("Maintenance job");
+        MaintenanceJob otherJob = newJob("Maintenance job");
+        MaintenanceJob lookAlikeJob = newJob("Maintenance job");
+        MutuallyExclusiveJobs mutuallyExclusiveJobs = new MutuallyExclusiveJobs(maintenanceJob, otherJob);
+
+        assertTrue(mutuallyExclusiveJobs.isMutuallyExclusive(maintenanceJob, otherJob));
+        assertFalse(mutuallyExclusiveJobs.isMutuallyExclusive(maintenanceJob, lookAlikeJob));
+        // Another instance with the same id, such as a planning clone
+        assertTrue(mutuallyExclusiveJobs.isMutuallyExclusive(copyJob(maintenanceJob), copyJob(otherJob)));
+    }
+
+    @Test
+    public void setMutexJobsResetsTheBuiltSet() {
+        MaintenanceJob maintenanceJob = newJob("Maintenance job");
+        MaintenanceJob otherJob = newJob("Other job");
+        MaintenanceJob thirdJob = newJob("Third job");
+        MutuallyExclusiveJobs mutuallyExclusiveJobs = new MutuallyExclusiveJobs(maintenanceJob, otherJob);
+        // Builds the set
+        assertTrue(mutuallyExclusiveJobs.isMutuallyExclusive(maintenanceJob, otherJob));
+
+        mutuallyExclusiveJobs.setMutexJobs(Arrays.asList(maintenanceJob, thirdJob));
+        assertFalse(mutuallyExclusiveJobs.isMutuallyExclusive(maintenanceJob, otherJob));
+        assertTrue(mutuallyExclusiveJobs.isMutuallyExclusive(maintenanceJob, thirdJob));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.maintenancescheduling.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimeGrainValueRangeTest {
+
+    private static List<TimeGrain> buildTimeGrainList(int count) {
+        List<TimeGrain> timeGrainList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            timeGrainList.add(new TimeGrain(i));
+        }
+        return timeGrainList;
+    }
+
+    @Test
+    public void containsOnlyTheTimeGrainsBetweenItsGrainIndexes() {
+        List<TimeGrain> timeGrainList = buildTimeGrainList(10);
+        TimeGrainValueRange valueRange = new TimeGrainValueRange(timeGrainList, 3, 7);
+
+        assertEquals(4L, valueRange.getSize());
+        assertFalse(valueRange.contains(timeGrainList.get(2)));
+        assertTrue(valueRange.contains(timeGrainList.get(3)));
+        assertTrue(valueRange.contains(timeGrainList.get(6)));
+        assertFalse(valueRange.contains(timeGrainList.get(7)));
+        assertFalse(valueRange.contains(null));
+    }
+
+    @Test
+    public void getAndIterateInOrder() {
+        List<TimeGrain> timeGrainList = buildTimeGrainList(10);
+        TimeGrainValueRange valueRange = new TimeGrainValueRange(timeGrainList, 3, 7);
+
+        assertSame(timeGrainList.get(3), valueRange.get(0L));
+        assertSame(timeGrainList.get(6), valueRange.get(3L));
+        assertThrows(IndexOutOfBoundsException.class, () -> valueRange.get(4L));
+        Iterator<TimeGrain> originalIterator = valueRange.createOriginalIterator();
+        for (int i = 3; i < 7; i++) {
+            assertSame(timeGrainList.get(i), originalIterator.next());
+        }
+        assertFalse(originalIterator.hasNext());
+    }
+
+    @Test
+    public void randomIteratorOnlyReturnsContainedTimeGrains() {
+        TimeGrainValueRange valueRange = new TimeGrainValueRange(buildTimeGrainList(10), 3, 7);
+        Iterator<TimeGrain> randomIterator = valueRange.createRandomIterator(new Random(37));
+        for (int i = 0; i < 100; i++) {
+            assertTrue(randomIterator.hasNext());
+            assertTrue(valueRange.contains(randomIterator.next()));
+        }
+        Iterator<TimeGrain> emptyIterator = new TimeGrainValueRange(buildTimeGrainList(10), 5, 5)
+                .createRandomIterator(new Random(37));
+        assertFalse(emptyIterator.hasNext());
+    }
+
+    @Test
+    public void rejectsGrainIndexesOutsideTheTimeGrainList() {
+        List<TimeGrain> timeGrainList = buildTimeGrainList(10);
+        assertThrows(IllegalArgumentException.class, () -> new TimeGrainValueRange(timeGrainList, -1, 5));
+        assertThrows(IllegalArgumentException.class, () -> new TimeGrainValueRange(timeGrainList, 6, 5));
+        assertThrows(IllegalArgumentException.class, () -> new TimeGrainValueRange(timeGrainList, 0, 11));
+    }
+}
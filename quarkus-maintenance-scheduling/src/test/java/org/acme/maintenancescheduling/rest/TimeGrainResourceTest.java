@@ -17,13 +17,15 @@
 package org.acme.maintenancescheduling.rest;
 
 import io.quarkus.test.junit.QuarkusTest;
-import io.restassured.http.ContentType;
 import org.acme.maintenancescheduling.domain.TimeGrain;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
@@ -40,23 +42,22 @@ public class TimeGrainResourceTest {
         assertFalse(timeGrainList.isEmpty());
         TimeGrain firstTimeGrain = timeGrainList.get(0);
         assertNotNull(firstTimeGrain);
+        // Fixed, so the stored starting grain indexes map to the same time every day
+        assertEquals(LocalDateTime.of(2021, 1, 4, 0, 0), firstTimeGrain.getStartDateTime());
     }
 
     @Test
-    public void addAndRemove() {
-        TimeGrain timeGrain = given()
-                .when()
-                .contentType(ContentType.JSON)
-                .body(new TimeGrain(0))
-                .post("/timeGrains")
-                .then()
-                .statusCode(201)
-                .extract().as(TimeGrain.class);
-
-        given()
-                .when()
-                .delete("/timeGrains/{id}", timeGrain.getId())
+    public void getAllGeneratesConsecutiveTimeGrains() {
+        List<TimeGrain> timeGrainList = given()
+                .when().get("/timeGrains")
                 .then()
-                .statusCode(204);
+                .statusCode(200)
+                .extract().body().jsonPath().getList(".", TimeGrain.class);
+        for (int i = 0; i < timeGrainList.size(); i++) {
+            TimeGrain timeGrain = timeGrainList.get(i);
+            assertEquals(i, timeGrain.getGrainIndex());
+            assertEquals(timeGrainList.get(0).getStartDateTime().plus(Duration.ofHours(i)),
+                    timeGrain.getStartDateTime());
+        }
     }
 }
@@ -20,12 +20,25 @@ import org.acme.maintenancescheduling.domain.MaintainableUnit;
 import org.acme.maintenancescheduling.domain.MaintenanceCrew;
 import org.acme.maintenancescheduling.domain.MaintenanceJob;
 import org.acme.maintenancescheduling.domain.MaintenanceSchedule;
+import org.acme.maintenancescheduling.domain.MutuallyExclusiveJobMembership;
 import org.acme.maintenancescheduling.domain.MutuallyExclusiveJobs;
 import org.acme.maintenancescheduling.domain.TimeGrain;
 import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.ScoreManager;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
 import org.optaplanner.test.api.score.stream.ConstraintVerifier;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class MaintenanceSchedulingConstraintProviderTest {
 
@@ -145,6 +158,32 @@ public class MaintenanceSchedulingConstraintProviderTest {
                 .penalizesBy(2);
     }
 
+    @Test
+    public void oneJobPerCrewPerPeriodPenalizedOnlyForOverlappingJobs() {
+        MaintainableUnit maintainableUnit = new MaintainableUnit("Test unit");
+        MaintenanceCrew maintenanceCrew = new MaintenanceCrew("Maintenance crew");
+        // Starts after the other job, but overlaps with its end
+        MaintenanceJob maintenanceJob = new MaintenanceJob("Maintenance job", maintainableUnit, 0, 20, 4, true);
+        maintenanceJob.setStartingTimeGrain(new TimeGrain(6));
+        maintenanceJob.setAssignedCrew(maintenanceCrew);
+        maintenanceJob.setId(0L);
+
+        MaintenanceJob otherJob = new MaintenanceJob("Other job", maintainableUnit, 0, 20, 8, true);
+        otherJob.setStartingTimeGrain(new TimeGrain(0));
+        otherJob.setAssignedCrew(maintenanceCrew);
+        otherJob.setId(1L);
+
+        // Starts when the first job ends
+        MaintenanceJob adjacentJob = new MaintenanceJob("Adjacent job", maintainableUnit, 0, 20, 4, true);
+        adjacentJob.setStartingTimeGrain(new TimeGrain(10));
+        adjacentJob.setAssignedCrew(maintenanceCrew);
+        adjacentJob.setId(2L);
+
+        constraintVerifier.verifyThat(MaintenanceScheduleConstraintProvider::oneJobPerCrewPerPeriod)
+                .given(maintenanceJob, otherJob, adjacentJob)
+                .penalizesBy(2);
+    }
+
     @Test
     public void mutuallyExclusiveJobsUnpenalized() {
         MaintainableUnit maintainableUnit = new MaintainableUnit("Test unit");
@@ -185,10 +224,81 @@ public class MaintenanceSchedulingConstraintProviderTest {
                 new MutuallyExclusiveJobs(maintenanceJob, otherJob);
 
         constraintVerifier.verifyThat(MaintenanceScheduleConstraintProvider::mutuallyExclusiveJobs)
-                .given(maintenanceJob, otherJob, mutuallyExclusiveJobs)
+                .given(withMemberships(Arrays.asList(mutuallyExclusiveJobs), maintenanceJob, otherJob))
                 .penalizesBy(2);
     }
 
+    @Test
+    public void mutuallyExclusiveJobsPenalizedOnceForOverlappingMutuallyExclusiveJobs() {
+        MaintainableUnit maintainableUnit = new MaintainableUnit("Test unit");
+        MaintenanceCrew maintenanceCrew = new MaintenanceCrew("Maintenance crew");
+        MaintenanceJob maintenanceJob = new MaintenanceJob("Maintenance job", maintainableUnit, 0, 10, 4, true);
+        maintenanceJob.setAssignedCrew(maintenanceCrew);
+        maintenanceJob.setStartingTimeGrain(new TimeGrain(0));
+        maintenanceJob.setId(0L);
+
+        MaintainableUnit otherUnit = new MaintainableUnit("Other unit");
+        MaintenanceJob otherJob = new MaintenanceJob("Other job", otherUnit, 0, 10, 4, true);
+        otherJob.setAssignedCrew(maintenanceCrew);
+        otherJob.setStartingTimeGrain(new TimeGrain(2));
+        otherJob.setId(1L);
+
+        MaintainableUnit thirdUnit = new MaintainableUnit("Third unit");
+        MaintenanceJob thirdJob = new MaintenanceJob("Third job", thirdUnit, 0, 10, 4, true);
+        thirdJob.setAssignedCrew(maintenanceCrew);
+        thirdJob.setStartingTimeGrain(new TimeGrain(3));
+        thirdJob.setId(2L);
+
+        // Both contain the first two jobs, only the second one contains the third job
+        MutuallyExclusiveJobs mutuallyExclusiveJobs = new MutuallyExclusiveJobs(maintenanceJob, otherJob);
+        MutuallyExclusiveJobs otherMutuallyExclusiveJobs =
+                new MutuallyExclusiveJobs(otherJob, maintenanceJob, thirdJob);
+
+        // 2 for the first two jobs, 1 for the first and third job and 3 for the last two jobs
+        constraintVerifier.verifyThat(MaintenanceScheduleConstraintProvider::mutuallyExclusiveJobs)
+                .given(withMemberships(Arrays.asList(mutuallyExclusiveJobs, otherMutuallyExclusiveJobs),
+                        maintenanceJob, otherJob, thirdJob))
+                .penalizesBy(6);
+    }
+
+    @Test
+    public void mutuallyExclusiveJobsPenalizedInPlanningClone() {
+        List<TimeGrain> timeGrainList = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            timeGrainList.add(new TimeGrain(i));
+        }
+        MaintainableUnit maintainableUnit = new MaintainableUnit("Test unit");
+        MaintenanceCrew maintenanceCrew = new MaintenanceCrew("Maintenance crew");
+        MaintenanceJob maintenanceJob = new MaintenanceJob("Maintenance job", maintainableUnit, 0, 10, 4, true);
+        maintenanceJob.setAssignedCrew(maintenanceCrew);
+        maintenanceJob.setStartingTimeGrain(timeGrainList.get(0));
+        maintenanceJob.setId(0L);
+
+        MaintainableUnit otherUnit = new MaintainableUnit("Other unit");
+        MaintenanceCrew otherCrew = new MaintenanceCrew("Other crew");
+        MaintenanceJob otherJob = new MaintenanceJob("Other job", otherUnit, 0, 10, 4, true);
+        otherJob.setAssignedCrew(otherCrew);
+        otherJob.setStartingTimeGrain(timeGrainList.get(2));
+        otherJob.setId(1L);
+
+        MaintenanceSchedule schedule = new MaintenanceSchedule(Arrays.asList(maintainableUnit, otherUnit),
+                Collections.singletonList(new MutuallyExclusiveJobs(maintenanceJob, otherJob)),
+                Arrays.asList(maintenanceCrew, otherCrew), timeGrainList, Arrays.asList(maintenanceJob, otherJob));
+        SolverFactory<MaintenanceSchedule> solverFactory = SolverFactory.create(new SolverConfig()
+                .withSolutionClass(MaintenanceSchedule.class)
+                .withEntityClasses(MaintenanceJob.class)
+                .withConstraintProviderClass(MaintenanceScheduleConstraintProvider.class));
+        // The solver scores planning clones, which clone the jobs but share the memberships that refer to them
+        MaintenanceSchedule clone = ((DefaultSolverFactory<MaintenanceSchedule>) solverFactory)
+                .getScoreDirectorFactory().getSolutionDescriptor().getSolutionCloner().cloneSolution(schedule);
+        assertNotSame(maintenanceJob, clone.getMaintenanceJobList().get(0));
+        assertSame(maintenanceJob, clone.getMutuallyExclusiveJobMembershipList().get(0).getJob());
+
+        ScoreManager<MaintenanceSchedule, HardSoftScore> scoreManager = ScoreManager.create(solverFactory);
+        assertEquals(HardSoftScore.ofHard(-2), scoreManager.updateScore(schedule));
+        assertEquals(HardSoftScore.ofHard(-2), scoreManager.updateScore(clone));
+    }
+
     @Test
     public void oneJobPerUnitPerPeriodUnpenalized() {
         MaintainableUnit maintainableUnit = new MaintainableUnit("Test unit");
@@ -228,6 +338,31 @@ public class MaintenanceSchedulingConstraintProviderTest {
                 .penalizesBy(2);
     }
 
+    @Test
+    public void oneJobPerUnitPerPeriodPenalizedOnlyForOverlappingJobs() {
+        MaintainableUnit maintainableUnit = new MaintainableUnit("Test unit");
+        MaintenanceCrew maintenanceCrew = new MaintenanceCrew("Maintenance crew");
+        // Contains the other job
+        MaintenanceJob maintenanceJob = new MaintenanceJob("Maintenance job", maintainableUnit, 0, 20, 8, true);
+        maintenanceJob.setStartingTimeGrain(new TimeGrain(0));
+        maintenanceJob.setAssignedCrew(maintenanceCrew);
+        maintenanceJob.setId(0L);
+
+        MaintenanceJob otherJob = new MaintenanceJob("Other job", maintainableUnit, 0, 20, 2, true);
+        otherJob.setStartingTimeGrain(new TimeGrain(3));
+        otherJob.setAssignedCrew(maintenanceCrew);
+        otherJob.setId(1L);
+
+        MaintenanceJob laterJob = new MaintenanceJob("Later job", maintainableUnit, 0, 20, 4, true);
+        laterJob.setStartingTimeGrain(new TimeGrain(12));
+        laterJob.setAssignedCrew(maintenanceCrew);
+        laterJob.setId(2L);
+
+        constraintVerifier.verifyThat(MaintenanceScheduleConstraintProvider::oneJobPerUnitPerPeriod)
+                .given(maintenanceJob, otherJob, laterJob)
+                .penalizesBy(2);
+    }
+
     @Test
     public void assignAllNonCriticalJobsUnpenalized() {
         MaintainableUnit maintainableUnit = new MaintainableUnit("Test unit");
@@ -247,4 +382,11 @@ public class MaintenanceSchedulingConstraintProviderTest {
                 .given(maintenanceJob)
                 .penalizesBy(1);
     }
+
+    private static Object[] withMemberships(List<MutuallyExclusiveJobs> mutuallyExclusiveJobsList,
+            MaintenanceJob... maintenanceJobs) {
+        List<Object> factList = new ArrayList<>(Arrays.asList(maintenanceJobs));
+        factList.addAll(MutuallyExclusiveJobMembership.buildList(mutuallyExclusiveJobsList));
+        return factList.toArray();
+    }
 }
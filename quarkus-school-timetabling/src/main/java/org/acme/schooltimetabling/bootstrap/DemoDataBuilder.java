@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.schooltimetabling.bootstrap;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.acme.schooltimetabling.domain.Lesson;
+import org.acme.schooltimetabling.domain.Room;
+import org.acme.schooltimetabling.domain.TimeTable;
+import org.acme.schooltimetabling.domain.Timeslot;
+
+/**
+ * Generates a timeTable of any size, to load test with realistic sizes.
+ * <p>
+ * Every student group has a lesson in most timeslots.
+ * Each subject of a student group is always taught by the same teacher,
+ * and those teachers are assigned round robin, so every teacher gets about the same number of lessons.
+ * The same seed and parameters always generate the same timeTable.
+ */
+public class DemoDataBuilder {
+
+    private static final String[] SUBJECTS = {"Math", "Physics", "Chemistry", "Biology", "History", "Geography",
+            "English", "Spanish", "French", "ICT", "Art", "Physical education"};
+    // Math and languages get more lessons per week than the other subjects
+    private static final int[] SUBJECT_WEIGHTS = {5, 2, 2, 2, 2, 2, 4, 3, 3, 2, 2, 3};
+    private static final int PERIODS_BEFORE_LUNCH = 3;
+    private static final LocalTime FIRST_START_TIME = LocalTime.of(8, 30);
+    private static final LocalTime FIRST_START_TIME_AFTER_LUNCH = LocalTime.of(13, 30);
+    // Leave some timeslots free, so every student group can have a feasible schedule
+    private static final double LESSON_OCCUPANCY = 0.8;
+
+    private int studentGroupCount = 4;
+    private int teacherCount = 6;
+    private int roomCount = 4;
+    private int dayCount = 5;
+    private int periodCount = 5;
+    private long seed = 0L;
+
+    private DemoDataBuilder() {
+    }
+
+    public static DemoDataBuilder builder() {
+        return new DemoDataBuilder();
+    }
+
+    public DemoDataBuilder setStudentGroupCount(int studentGroupCount) {
+        this.studentGroupCount = studentGroupCount;
+        return this;
+    }
+
+    public DemoDataBuilder setTeacherCount(int teacherCount) {
+        this.teacherCount = teacherCount;
+        return this;
+    }
+
+    public DemoDataBuilder setRoomCount(int roomCount) {
+        this.roomCount = roomCount;
+        return this;
+    }
+
+    public DemoDataBuilder setDayCount(int dayCount) {
+        this.dayCount = dayCount;
+        return this;
+    }
+
+    /**
+     * @param periodCount the number of timeslots per day
+     * @return this
+     */
+    public DemoDataBuilder setPeriodCount(int periodCount) {
+        this.periodCount = periodCount;
+        return this;
+    }
+
+    public DemoDataBuilder setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * @return never null, no lesson is assigned yet and no entity has an id yet
+     */
+    public TimeTable build() {
+        if (studentGroupCount < 1) {
+            throw new IllegalStateException("Number of student groups (" + studentGroupCount
+                    + ") must be greater than zero.");
+        }
+        if (teacherCount < 1) {
+            throw new IllegalStateException("Number of teachers (" + teacherCount + ") must be greater than zero.");
+        }
+        if (roomCount < 1) {
+            throw new IllegalStateException("Number of rooms (" + roomCount + ") must be greater than zero.");
+        }
+        if (dayCount < 1 || dayCount > DayOfWeek.values().length) {
+            throw new IllegalStateException("Number of days (" + dayCount + ") must be between 1 and "
+                    + DayOfWeek.values().length + ".");
+        }
+        if (periodCount < 1 || periodCount > 10) {
+            throw new IllegalStateException("Number of periods (" + periodCount + ") must be between 1 and 10.");
+        }
+        Random random = new Random(seed);
+
+        List<Timeslot> timeslotList = new ArrayList<>(dayCount * periodCount);
+        for (int day = 0; day < dayCount; day++) {
+            DayOfWeek dayOfWeek = DayOfWeek.of(day + 1);
+            for (int period = 0; period < periodCount; period++) {
+                LocalTime startTime = period < PERIODS_BEFORE_LUNCH ? FIRST_START_TIME.plusHours(period)
+                        : FIRST_START_TIME_AFTER_LUNCH.plusHours(period - PERIODS_BEFORE_LUNCH);
+                timeslotList.add(new Timeslot(dayOfWeek, startTime, startTime.plusHours(1)));
+            }
+        }
+
+        List<Room> roomList = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            roomList.add(new Room("Room " + (i + 1)));
+        }
+
+        int subjectWeightSum = 0;
+        for (int subjectWeight : SUBJECT_WEIGHTS) {
+            subjectWeightSum += subjectWeight;
+        }
+        int lessonCountPerStudentGroup = Math.max(1, (int) (timeslotList.size() * LESSON_OCCUPANCY));
+        List<Lesson> lessonList = new ArrayList<>(studentGroupCount * lessonCountPerStudentGroup);
+        int nextTeacherIndex = 0;
+        for (int i = 0; i < studentGroupCount; i++) {
+            String studentGroup = "Group " + (i + 1);
+            // Each subject of this student group gets its own teacher, round robin over all teachers
+            String[] subjectTeachers = new String[SUBJECTS.length];
+            for (int j = 0; j < lessonCountPerStudentGroup; j++) {
+                int subjectIndex = pickSubjectIndex(random, subjectWeightSum);
+                if (subjectTeachers[subjectIndex] == null) {
+                    subjectTeachers[subjectIndex] = "Teacher " + (nextTeacherIndex + 1);
+                    nextTeacherIndex = (nextTeacherIndex + 1) % teacherCount;
+                }
+                lessonList.add(new Lesson(SUBJECTS[subjectIndex], subjectTeachers[subjectIndex], studentGroup));
+            }
+        }
+        return new TimeTable(timeslotList, roomList, lessonList);
+    }
+
+    private static int pickSubjectIndex(Random random, int subjectWeightSum) {
+        int remainingWeight = random.nextInt(subjectWeightSum);
+        for (int i = 0; i < SUBJECT_WEIGHTS.length; i++) {
+            remainingWeight -= SUBJECT_WEIGHTS[i];
+            if (remainingWeight < 0) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Impossible state: the remainingWeight (" + remainingWeight
+                + ") is never negative.");
+    }
+
+}
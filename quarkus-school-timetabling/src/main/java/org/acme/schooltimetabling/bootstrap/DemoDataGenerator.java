@@ -24,10 +24,12 @@ import java.util.List;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 
 import org.acme.schooltimetabling.domain.Lesson;
 import org.acme.schooltimetabling.domain.Room;
+import org.acme.schooltimetabling.domain.TimeTable;
 import org.acme.schooltimetabling.domain.Timeslot;
 import org.acme.schooltimetabling.persistence.LessonRepository;
 import org.acme.schooltimetabling.persistence.RoomRepository;
@@ -41,6 +43,23 @@ public class DemoDataGenerator {
 
     @ConfigProperty(name = "timeTable.demoData", defaultValue = "SMALL")
     DemoData demoData;
+    @ConfigProperty(name = "timeTable.demoData.studentGroupCount", defaultValue = "40")
+    int studentGroupCount;
+    @ConfigProperty(name = "timeTable.demoData.teacherCount", defaultValue = "60")
+    int teacherCount;
+    @ConfigProperty(name = "timeTable.demoData.roomCount", defaultValue = "40")
+    int roomCount;
+    @ConfigProperty(name = "timeTable.demoData.dayCount", defaultValue = "5")
+    int dayCount;
+    @ConfigProperty(name = "timeTable.demoData.periodCount", defaultValue = "8")
+    int periodCount;
+    @ConfigProperty(name = "timeTable.demoData.seed", defaultValue = "0")
+    long seed;
+    @ConfigProperty(name = "quarkus.hibernate-orm.jdbc.statement-batch-size", defaultValue = "50")
+    int batchSize;
+
+    @Inject
+    EntityManager entityManager;
 
     @Inject
     TimeslotRepository timeslotRepository;
@@ -54,6 +73,10 @@ public class DemoDataGenerator {
         if (demoData == DemoData.NONE) {
             return;
         }
+        if (demoData == DemoData.GENERATED) {
+            generateDemoData();
+            return;
+        }
 
         List<Timeslot> timeslotList = new ArrayList<>(10);
         timeslotList.add(new Timeslot(DayOfWeek.MONDAY, LocalTime.of(8, 30), LocalTime.of(9, 30)));
@@ -213,10 +236,41 @@ public class DemoDataGenerator {
         lessonRepository.persist(lessonList);
     }
 
+    private void generateDemoData() {
+        TimeTable timeTable = DemoDataBuilder.builder()
+                .setStudentGroupCount(studentGroupCount)
+                .setTeacherCount(teacherCount)
+                .setRoomCount(roomCount)
+                .setDayCount(dayCount)
+                .setPeriodCount(periodCount)
+                .setSeed(seed)
+                .build();
+        persistInBatches(timeTable.getTimeslotList());
+        persistInBatches(timeTable.getRoomList());
+        persistInBatches(timeTable.getLessonList());
+    }
+
+    private void persistInBatches(List<?> entityList) {
+        for (int i = 0; i < entityList.size(); i++) {
+            entityManager.persist(entityList.get(i));
+            if ((i + 1) % batchSize == 0) {
+                // Sends one JDBC batch of inserts and keeps the persistence context small
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
     public enum DemoData {
         NONE,
         SMALL,
-        LARGE
+        LARGE,
+        /**
+         * Generated by the {@link DemoDataBuilder}, sized by the other {@code timeTable.demoData.*} properties.
+         */
+        GENERATED
     }
 
 }
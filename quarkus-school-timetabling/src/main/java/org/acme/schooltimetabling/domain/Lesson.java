@@ -17,17 +17,24 @@
 package org.acme.schooltimetabling.domain;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
+import javax.persistence.PostLoad;
+import javax.persistence.Table;
 
+import org.acme.schooltimetabling.persistence.TimeTableChangedListener;
 import org.optaplanner.core.api.domain.entity.PlanningEntity;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
 import org.optaplanner.core.api.domain.variable.PlanningVariable;
 
 @PlanningEntity
 @Entity
+@EntityListeners(TimeTableChangedListener.class)
+@Table(indexes = @Index(columnList = "timeTableId"))
 public class Lesson {
 
     @PlanningId
@@ -35,6 +42,9 @@ public class Lesson {
     @GeneratedValue
     private Long id;
 
+    private Long timeTableId = TimeTable.DEFAULT_TIME_TABLE_ID;
+
+    // Interned, so the joiners of the constraints mostly find equal keys by reference instead of comparing characters
     private String subject;
     private String teacher;
     private String studentGroup;
@@ -51,9 +61,9 @@ public class Lesson {
     }
 
     public Lesson(String subject, String teacher, String studentGroup) {
-        this.subject = subject.trim();
-        this.teacher = teacher.trim();
-        this.studentGroup = studentGroup.trim();
+        this.subject = intern(subject.trim());
+        this.teacher = intern(teacher.trim());
+        this.studentGroup = intern(studentGroup.trim());
     }
 
     public Lesson(long id, String subject, String teacher, String studentGroup, Timeslot timeslot, Room room) {
@@ -63,6 +73,18 @@ public class Lesson {
         this.room = room;
     }
 
+    // Hibernate sets the fields directly, bypassing the setters
+    @PostLoad
+    void internKeys() {
+        subject = intern(subject);
+        teacher = intern(teacher);
+        studentGroup = intern(studentGroup);
+    }
+
+    private static String intern(String key) {
+        return key == null ? null : key.intern();
+    }
+
     @Override
     public String toString() {
         return subject + "(" + id + ")";
@@ -81,18 +103,38 @@ public class Lesson {
         this.id = id;
     }
 
+    public Long getTimeTableId() {
+        return timeTableId;
+    }
+
+    public void setTimeTableId(Long timeTableId) {
+        this.timeTableId = timeTableId;
+    }
+
     public String getSubject() {
         return subject;
     }
 
+    public void setSubject(String subject) {
+        this.subject = intern(subject);
+    }
+
     public String getTeacher() {
         return teacher;
     }
 
+    public void setTeacher(String teacher) {
+        this.teacher = intern(teacher);
+    }
+
     public String getStudentGroup() {
         return studentGroup;
     }
 
+    public void setStudentGroup(String studentGroup) {
+        this.studentGroup = intern(studentGroup);
+    }
+
     public Timeslot getTimeslot() {
         return timeslot;
     }
@@ -17,13 +17,19 @@
 package org.acme.schooltimetabling.domain;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
 
+import org.acme.schooltimetabling.persistence.TimeTableChangedListener;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
 
 @Entity
+@EntityListeners(TimeTableChangedListener.class)
+@Table(indexes = @Index(columnList = "timeTableId"))
 public class Room {
 
     @PlanningId
@@ -31,6 +37,8 @@ public class Room {
     @GeneratedValue
     private Long id;
 
+    private Long timeTableId = TimeTable.DEFAULT_TIME_TABLE_ID;
+
     private String name;
 
     // No-arg constructor required for Hibernate
@@ -64,8 +72,20 @@ public class Room {
         this.id = id;
     }
 
+    public Long getTimeTableId() {
+        return timeTableId;
+    }
+
+    public void setTimeTableId(Long timeTableId) {
+        this.timeTableId = timeTableId;
+    }
+
     public String getName() {
         return name;
     }
 
+    public void setName(String name) {
+        this.name = name;
+    }
+
 }
@@ -29,6 +29,11 @@ import org.optaplanner.core.api.solver.SolverStatus;
 @PlanningSolution
 public class TimeTable {
 
+    // Used for every lesson, room and timeslot created without an explicit timeTableId
+    public static final Long DEFAULT_TIME_TABLE_ID = 1L;
+
+    private Long id;
+
     @ProblemFactCollectionProperty
     @ValueRangeProvider(id = "timeslotRange")
     private List<Timeslot> timeslotList;
@@ -49,31 +54,57 @@ public class TimeTable {
     }
 
     public TimeTable(List<Timeslot> timeslotList, List<Room> roomList, List<Lesson> lessonList) {
+        this(DEFAULT_TIME_TABLE_ID, timeslotList, roomList, lessonList);
+    }
+
+    public TimeTable(Long id, List<Timeslot> timeslotList, List<Room> roomList, List<Lesson> lessonList) {
+        this.id = id;
         this.timeslotList = timeslotList;
         this.roomList = roomList;
         this.lessonList = lessonList;
+        Timeslot.linkNextTimeslots(timeslotList);
     }
 
     // ************************************************************************
     // Getters and setters
     // ************************************************************************
 
+    public Long getId() {
+        return id;
+    }
+
     public List<Timeslot> getTimeslotList() {
         return timeslotList;
     }
 
+    public void setTimeslotList(List<Timeslot> timeslotList) {
+        this.timeslotList = timeslotList;
+    }
+
     public List<Room> getRoomList() {
         return roomList;
     }
 
+    public void setRoomList(List<Room> roomList) {
+        this.roomList = roomList;
+    }
+
     public List<Lesson> getLessonList() {
         return lessonList;
     }
 
+    public void setLessonList(List<Lesson> lessonList) {
+        this.lessonList = lessonList;
+    }
+
     public HardSoftScore getScore() {
         return score;
     }
 
+    public void setScore(HardSoftScore score) {
+        this.score = score;
+    }
+
     public SolverStatus getSolverStatus() {
         return solverStatus;
     }
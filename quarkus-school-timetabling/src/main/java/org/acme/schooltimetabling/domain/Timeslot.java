@@ -18,26 +18,55 @@ package org.acme.schooltimetabling.domain;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Transient;
 
+import org.acme.schooltimetabling.persistence.TimeTableChangedListener;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 @Entity
+@EntityListeners(TimeTableChangedListener.class)
+@Table(indexes = @Index(columnList = "timeTableId"))
 public class Timeslot {
 
+    // A lesson in a next timeslot starts at most this long after a lesson in this timeslot ends
+    public static final int MAX_MINUTES_BETWEEN_CONSECUTIVE_TIMESLOTS = 30;
+
+    private static final Comparator<Timeslot> START_COMPARATOR = Comparator.comparing(Timeslot::getDayOfWeek)
+            .thenComparing(Timeslot::getStartTime);
+
     @PlanningId
     @Id
     @GeneratedValue
     private Long id;
 
+    private Long timeTableId = TimeTable.DEFAULT_TIME_TABLE_ID;
+
     private DayOfWeek dayOfWeek;
     private LocalTime startTime;
     private LocalTime endTime;
 
+    // Derived from the other timeslots by linkNextTimeslots(), so it's not persisted
+    @Transient
+    private Set<Timeslot> nextTimeslotSet = Collections.emptySet();
+
     // No-arg constructor required for Hibernate
     public Timeslot() {
     }
@@ -49,10 +78,63 @@ public class Timeslot {
     }
 
     public Timeslot(long id, DayOfWeek dayOfWeek, LocalTime startTime) {
-        this(dayOfWeek, startTime, startTime.plusMinutes(50));
+        this(id, dayOfWeek, startTime, startTime.plusMinutes(50));
+    }
+
+    public Timeslot(long id, DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+        this(dayOfWeek, startTime, endTime);
         this.id = id;
     }
 
+    /**
+     * Sets the {@link #getNextTimeslotSet() next timeslots} of every timeslot in the list.
+     * Call it once when the problem is loaded, so the constraints don't need to compare times.
+     * @param timeslotList never null
+     */
+    public static void linkNextTimeslots(List<Timeslot> timeslotList) {
+        Map<Timeslot, Set<Timeslot>> nextTimeslotSetMap = findNextTimeslots(timeslotList);
+        for (Timeslot timeslot : timeslotList) {
+            timeslot.setNextTimeslotSet(nextTimeslotSetMap.get(timeslot));
+        }
+    }
+
+    /**
+     * The next timeslots of a timeslot are all timeslots on the same day
+     * that start between 0 and {@value #MAX_MINUTES_BETWEEN_CONSECUTIVE_TIMESLOTS} minutes after it ends.
+     * Usually there is only one, but overlapping timeslots can follow the same timeslot.
+     * @param timeslotList never null
+     * @return never null, the next timeslots per timeslot, an empty set if no timeslot follows it
+     */
+    public static Map<Timeslot, Set<Timeslot>> findNextTimeslots(List<Timeslot> timeslotList) {
+        List<Timeslot> sortedTimeslotList = new ArrayList<>(timeslotList);
+        sortedTimeslotList.sort(START_COMPARATOR);
+        Map<Timeslot, Set<Timeslot>> nextTimeslotSetMap = new IdentityHashMap<>(sortedTimeslotList.size());
+        for (int i = 0; i < sortedTimeslotList.size(); i++) {
+            Timeslot timeslot = sortedTimeslotList.get(i);
+            LocalTime latestNextStartTime = timeslot.getEndTime()
+                    .plusMinutes(MAX_MINUTES_BETWEEN_CONSECUTIVE_TIMESLOTS);
+            Set<Timeslot> nextTimeslotSet = Collections.emptySet();
+            for (int j = i + 1; j < sortedTimeslotList.size(); j++) {
+                Timeslot other = sortedTimeslotList.get(j);
+                if (other.getDayOfWeek() != timeslot.getDayOfWeek()
+                        || other.getStartTime().isAfter(latestNextStartTime)) {
+                    break;
+                }
+                if (!other.getStartTime().isBefore(timeslot.getEndTime())) {
+                    if (nextTimeslotSet.isEmpty()) {
+                        // Most timeslots have only one next timeslot
+                        nextTimeslotSet = Collections.singleton(other);
+                    } else {
+                        nextTimeslotSet = new HashSet<>(nextTimeslotSet);
+                        nextTimeslotSet.add(other);
+                    }
+                }
+            }
+            nextTimeslotSetMap.put(timeslot, nextTimeslotSet);
+        }
+        return nextTimeslotSetMap;
+    }
+
     @Override
     public String toString() {
         return dayOfWeek + " " + startTime;
@@ -71,16 +153,49 @@ public class Timeslot {
         this.id = id;
     }
 
+    public Long getTimeTableId() {
+        return timeTableId;
+    }
+
+    public void setTimeTableId(Long timeTableId) {
+        this.timeTableId = timeTableId;
+    }
+
     public DayOfWeek getDayOfWeek() {
         return dayOfWeek;
     }
 
+    public void setDayOfWeek(DayOfWeek dayOfWeek) {
+        this.dayOfWeek = dayOfWeek;
+    }
+
     public LocalTime getStartTime() {
         return startTime;
     }
 
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
     public LocalTime getEndTime() {
         return endTime;
     }
 
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+
+    /**
+     * @return never null, empty if no timeslot follows this one on the same day
+     * @see #linkNextTimeslots(List)
+     */
+    @JsonIgnore
+    public Set<Timeslot> getNextTimeslotSet() {
+        return nextTimeslotSet;
+    }
+
+    public void setNextTimeslotSet(Set<Timeslot> nextTimeslotSet) {
+        this.nextTimeslotSet = nextTimeslotSet;
+    }
+
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.schooltimetabling.persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * Runs code once the current transaction committed, so it only sees data that other transactions can see too.
+ * Or once it completed, also if it rolled back, to clean up what was started before the commit.
+ */
+@ApplicationScoped
+public class AfterCommitRunner {
+
+    private static final String RESOURCE_KEY = AfterCommitRunner.class.getName();
+
+    @Inject
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    /**
+     * Runs it after the current transaction committed, in the same order as the other runnables of that transaction.
+     * Never runs it if that transaction rolls back.
+     * Without a current transaction, runs it immediately.
+     * @param runnable never null
+     */
+    public void runAfterCommit(Runnable runnable) {
+        runAfterCompletion(status -> {
+            if (status == Status.STATUS_COMMITTED) {
+                runnable.run();
+            }
+        });
+    }
+
+    /**
+     * Like {@link #runAfterCommit(Runnable)}, but also runs it if the current transaction rolls back.
+     * @param statusConsumer never null, receives the {@link Status} of the completed transaction
+     */
+    public void runAfterCompletion(IntConsumer statusConsumer) {
+        if (transactionSynchronizationRegistry.getTransactionKey() == null) {
+            statusConsumer.accept(Status.STATUS_COMMITTED);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<IntConsumer> statusConsumerList =
+                (List<IntConsumer>) transactionSynchronizationRegistry.getResource(RESOURCE_KEY);
+        if (statusConsumerList == null) {
+            List<IntConsumer> newStatusConsumerList = new ArrayList<>();
+            transactionSynchronizationRegistry.putResource(RESOURCE_KEY, newStatusConsumerList);
+            transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    newStatusConsumerList.forEach(consumer -> consumer.accept(status));
+                }
+            });
+            statusConsumerList = newStatusConsumerList;
+        }
+        statusConsumerList.add(statusConsumer);
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.schooltimetabling.persistence;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+
+import org.acme.schooltimetabling.domain.Lesson;
+import org.acme.schooltimetabling.domain.TimeTable;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.Histogram;
+import org.eclipse.microprofile.metrics.annotation.Metric;
+import org.hibernate.Session;
+
+/**
+ * Writes the timeslot and room of the lessons of a best solution to the database.
+ * <p>
+ * Only the lessons that changed since the last write are updated,
+ * with a single JDBC batch of {@code UPDATE} statements instead of loading and dirty checking every lesson.
+ * Per timeTable, it remembers the assignments that are in the database,
+ * so {@link #rememberPersistedAssignments(TimeTable)} must be called with the problem when solving starts
+ * and {@link #forgetPersistedAssignments(Long)} when it ends.
+ * For each timeTable, only one thread at a time may call {@link #write(TimeTable)}.
+ */
+@ApplicationScoped
+public class LessonAssignmentWriter {
+
+    private static final String UPDATE_LESSON_ASSIGNMENT_SQL
+            = "UPDATE Lesson SET timeslot_id = ?, room_id = ? WHERE id = ?";
+
+    @ConfigProperty(name = "quarkus.hibernate-orm.jdbc.statement-batch-size", defaultValue = "50")
+    int batchSize;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    @Metric(name = "lessonRowsWrittenPerSave", description = "How many lesson rows are updated per best solution.")
+    Histogram lessonRowsWrittenPerSave;
+
+    // Per timeTable id, the persisted assignment per lesson id
+    private final ConcurrentMap<Long, Map<Long, LessonAssignment>> persistedAssignmentsMap = new ConcurrentHashMap<>();
+
+    public void rememberPersistedAssignments(TimeTable timeTable) {
+        Map<Long, LessonAssignment> persistedAssignmentMap = new ConcurrentHashMap<>(timeTable.getLessonList().size());
+        for (Lesson lesson : timeTable.getLessonList()) {
+            persistedAssignmentMap.put(lesson.getId(), new LessonAssignment(lesson));
+        }
+        persistedAssignmentsMap.put(timeTable.getId(), persistedAssignmentMap);
+    }
+
+    /**
+     * Call when solving that timeTable ended, so its assignments don't stay in memory.
+     * @param timeTableId never null
+     */
+    public void forgetPersistedAssignments(Long timeTableId) {
+        persistedAssignmentsMap.remove(timeTableId);
+    }
+
+    /**
+     * Call when something else wrote to that lesson, so the next {@link #write(TimeTable)} writes it regardless.
+     * @param timeTableId never null
+     * @param lessonId never null
+     */
+    public void forgetPersistedAssignment(Long timeTableId, Long lessonId) {
+        Map<Long, LessonAssignment> persistedAssignmentMap = persistedAssignmentsMap.get(timeTableId);
+        if (persistedAssignmentMap != null) {
+            persistedAssignmentMap.remove(lessonId);
+        }
+    }
+
+    /**
+     * @param timeTable never null
+     * @return never null, the assignments of the lesson rows updated
+     */
+    public List<LessonAssignment> write(TimeTable timeTable) {
+        Map<Long, LessonAssignment> persistedAssignmentMap = persistedAssignmentsMap.computeIfAbsent(
+                timeTable.getId(), timeTableId -> new ConcurrentHashMap<>());
+        List<LessonAssignment> changedAssignmentList = new ArrayList<>();
+        for (Lesson lesson : timeTable.getLessonList()) {
+            LessonAssignment assignment = new LessonAssignment(lesson);
+            if (!assignment.equals(persistedAssignmentMap.get(lesson.getId()))) {
+                changedAssignmentList.add(assignment);
+            }
+        }
+        if (!changedAssignmentList.isEmpty()) {
+            updateLessons(changedAssignmentList);
+            // The transaction of updateLessons() has committed, so the database contains these assignments now
+            for (LessonAssignment assignment : changedAssignmentList) {
+                persistedAssignmentMap.put(assignment.getLessonId(), assignment);
+            }
+        }
+        lessonRowsWrittenPerSave.update(changedAssignmentList.size());
+        return changedAssignmentList;
+    }
+
+    @Transactional
+    protected void updateLessons(List<LessonAssignment> assignmentList) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_LESSON_ASSIGNMENT_SQL)) {
+                int batchCount = 0;
+                for (LessonAssignment assignment : assignmentList) {
+                    setNullableLong(statement, 1, assignment.getTimeslotId());
+                    setNullableLong(statement, 2, assignment.getRoomId());
+                    statement.setLong(3, assignment.getLessonId());
+                    statement.addBatch();
+                    batchCount++;
+                    if (batchCount == batchSize) {
+                        statement.executeBatch();
+                        batchCount = 0;
+                    }
+                }
+                if (batchCount > 0) {
+                    statement.executeBatch();
+                }
+            }
+        });
+    }
+
+    private static void setNullableLong(PreparedStatement statement, int parameterIndex, Long value)
+            throws SQLException {
+        if (value == null) {
+            statement.setNull(parameterIndex, Types.BIGINT);
+        } else {
+            statement.setLong(parameterIndex, value);
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.schooltimetabling.persistence;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.acme.schooltimetabling.domain.Lesson;
+import org.acme.schooltimetabling.domain.Room;
+import org.acme.schooltimetabling.domain.TimeTable;
+import org.acme.schooltimetabling.domain.Timeslot;
+import org.acme.schooltimetabling.solver.LessonProblemFactChange;
+import org.acme.schooltimetabling.solver.ProblemChangeType;
+import org.acme.schooltimetabling.solver.RoomProblemFactChange;
+import org.acme.schooltimetabling.solver.TimeTableSolverService;
+import org.acme.schooltimetabling.solver.TimeslotProblemFactChange;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+
+/**
+ * Reacts when a lesson, room or timeslot is written through JPA, such as by the CRUD REST resources:
+ * invalidates the cached score of its timeTable
+ * and applies the change to the solver of its timeTable, if it is solving.
+ */
+public class TimeTableChangedListener {
+
+    @PostPersist
+    void entityAdded(Object entity) {
+        entityChanged(entity, ProblemChangeType.ADD);
+    }
+
+    @PostUpdate
+    void entityUpdated(Object entity) {
+        entityChanged(entity, ProblemChangeType.UPDATE);
+    }
+
+    @PostRemove
+    void entityRemoved(Object entity) {
+        entityChanged(entity, ProblemChangeType.REMOVE);
+    }
+
+    private void entityChanged(Object entity, ProblemChangeType changeType) {
+        Long timeTableId;
+        ProblemFactChange<TimeTable> problemFactChange;
+        if (entity instanceof Lesson) {
+            Lesson lesson = (Lesson) entity;
+            timeTableId = lesson.getTimeTableId();
+            problemFactChange = new LessonProblemFactChange(changeType, lesson);
+        } else if (entity instanceof Room) {
+            Room room = (Room) entity;
+            timeTableId = room.getTimeTableId();
+            problemFactChange = new RoomProblemFactChange(changeType, room);
+        } else if (entity instanceof Timeslot) {
+            Timeslot timeslot = (Timeslot) entity;
+            timeTableId = timeslot.getTimeTableId();
+            problemFactChange = new TimeslotProblemFactChange(changeType, timeslot);
+        } else {
+            throw new IllegalStateException("The entity class (" + entity.getClass() + ") is not supported.");
+        }
+        // JPA instantiates entity listeners itself, so look up the beans
+        ArcContainer container = Arc.container();
+        container.instance(TimeTableScoreCache.class).get().startWrite(timeTableId);
+        LessonAssignmentWriter lessonAssignmentWriter = container.instance(LessonAssignmentWriter.class).get();
+        TimeTableSolverService solverService = container.instance(TimeTableSolverService.class).get();
+        // After the commit, so a solver that loads the problem in the meantime sees it too
+        container.instance(AfterCommitRunner.class).get().runAfterCommit(() -> {
+            if (entity instanceof Lesson) {
+                // The database no longer necessarily contains what the solver saved last time
+                lessonAssignmentWriter.forgetPersistedAssignment(timeTableId, ((Lesson) entity).getId());
+            }
+            solverService.addProblemFactChange(timeTableId, problemFactChange);
+        });
+    }
+
+}
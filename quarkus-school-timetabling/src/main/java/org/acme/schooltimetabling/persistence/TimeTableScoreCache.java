@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.schooltimetabling.persistence;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.acme.schooltimetabling.solver.VersionedScoreCache;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+
+/**
+ * Holds a {@link VersionedScoreCache} per timeTable.
+ */
+@ApplicationScoped
+public class TimeTableScoreCache {
+
+    @Inject
+    AfterCommitRunner afterCommitRunner;
+
+    private final ConcurrentMap<Long, VersionedScoreCache<HardSoftScore>> scoreCacheMap = new ConcurrentHashMap<>();
+
+    public VersionedScoreCache<HardSoftScore> get(Long timeTableId) {
+        return scoreCacheMap.computeIfAbsent(timeTableId, id -> new VersionedScoreCache<>());
+    }
+
+    /**
+     * Call when that timeTable was deleted, so its cache doesn't stay in memory.
+     * A later {@link #get(Long)} starts a new cache, which holds no score yet.
+     * @param timeTableId never null
+     */
+    public void remove(Long timeTableId) {
+        scoreCacheMap.remove(timeTableId);
+    }
+
+    /**
+     * Starts a write to the timeTable now, before the current transaction commits, and ends it once it completed,
+     * so no reader trusts a cached score while it can't tell if it loaded the old or the new data.
+     * @param timeTableId never null
+     */
+    public void startWrite(Long timeTableId) {
+        // Even if the timeTable is removed in the meantime, end the write on the same cache
+        VersionedScoreCache<HardSoftScore> scoreCache = get(timeTableId);
+        scoreCache.startWrite();
+        afterCommitRunner.runAfterCompletion(status -> scoreCache.endWrite());
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.schooltimetabling.rest;
+
+import java.util.List;
+
+import org.acme.schooltimetabling.persistence.LessonAssignment;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.solver.SolverStatus;
+
+/**
+ * Pushed to the browsers watching a timeTable when its best solution is saved.
+ * Only contains the lessons that moved since the previous event, not the entire timeTable.
+ */
+public class BestSolutionEvent {
+
+    private final Long timeTableId;
+    private final HardSoftScore score;
+    private final SolverStatus solverStatus;
+    private final List<LessonAssignment> changedLessonList;
+
+    public BestSolutionEvent(Long timeTableId, HardSoftScore score, SolverStatus solverStatus,
+            List<LessonAssignment> changedLessonList) {
+        this.timeTableId = timeTableId;
+        this.score = score;
+        this.solverStatus = solverStatus;
+        this.changedLessonList = changedLessonList;
+    }
+
+    public Long getTimeTableId() {
+        return timeTableId;
+    }
+
+    public HardSoftScore getScore() {
+        return score;
+    }
+
+    public SolverStatus getSolverStatus() {
+        return solverStatus;
+    }
+
+    public List<LessonAssignment> getChangedLessonList() {
+        return changedLessonList;
+    }
+
+}
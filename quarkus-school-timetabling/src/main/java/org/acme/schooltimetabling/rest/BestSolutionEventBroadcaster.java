@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.schooltimetabling.rest;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Keeps the Server-Sent Events connections of the browsers per timeTable
+ * and pushes a {@link BestSolutionEvent} to all of them.
+ * <p>
+ * Each event is serialized to JSON once, regardless of how many browsers watch that timeTable.
+ */
+@ApplicationScoped
+public class BestSolutionEventBroadcaster {
+
+    public static final String BEST_SOLUTION_EVENT_NAME = "bestSolution";
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    // Per timeTable id, the open connections
+    private final ConcurrentMap<Long, Set<SseEventSink>> sinkSetMap = new ConcurrentHashMap<>();
+    // The JAX-RS runtime's Sse is the same for every connection
+    private volatile Sse sse = null;
+
+    public void register(Long timeTableId, SseEventSink sink, Sse sse) {
+        this.sse = sse;
+        sinkSetMap.computeIfAbsent(timeTableId, id -> ConcurrentHashMap.newKeySet()).add(sink);
+    }
+
+    public void broadcast(BestSolutionEvent event) {
+        Set<SseEventSink> sinkSet = sinkSetMap.get(event.getTimeTableId());
+        if (sinkSet == null || sinkSet.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Serializing the best solution event of the timeTable with id ("
+                    + event.getTimeTableId() + ") failed.", e);
+        }
+        OutboundSseEvent sseEvent = sse.newEventBuilder()
+                .name(BEST_SOLUTION_EVENT_NAME)
+                .data(String.class, json)
+                .build();
+        for (SseEventSink sink : sinkSet) {
+            if (sink.isClosed()) {
+                sinkSet.remove(sink);
+                continue;
+            }
+            sink.send(sseEvent).exceptionally(throwable -> {
+                // The browser went away
+                sinkSet.remove(sink);
+                sink.close();
+                return null;
+            });
+        }
+    }
+
+    @PreDestroy
+    void closeAll() {
+        sinkSetMap.values().forEach(sinkSet -> sinkSet.forEach(SseEventSink::close));
+        sinkSetMap.clear();
+    }
+
+}
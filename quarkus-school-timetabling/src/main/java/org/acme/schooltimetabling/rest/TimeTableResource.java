@@ -16,23 +16,45 @@
 
 package org.acme.schooltimetabling.rest;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
 
-import org.acme.schooltimetabling.domain.Lesson;
 import org.acme.schooltimetabling.domain.TimeTable;
+import org.acme.schooltimetabling.persistence.AfterCommitRunner;
+import org.acme.schooltimetabling.persistence.LessonAssignment;
+import org.acme.schooltimetabling.persistence.LessonAssignmentWriter;
 import org.acme.schooltimetabling.persistence.LessonRepository;
 import org.acme.schooltimetabling.persistence.RoomRepository;
+import org.acme.schooltimetabling.persistence.TimeTableScoreCache;
 import org.acme.schooltimetabling.persistence.TimeslotRepository;
+import org.acme.schooltimetabling.solver.CoalescingBestSolutionConsumer;
+import org.acme.schooltimetabling.solver.TimeTableSolverService;
+import org.acme.schooltimetabling.solver.VersionedScoreCache;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.optaplanner.core.api.score.ScoreManager;
 import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
-import org.optaplanner.core.api.solver.SolverManager;
 import org.optaplanner.core.api.solver.SolverStatus;
 
 import io.quarkus.panache.common.Sort;
@@ -42,7 +64,8 @@ import io.quarkus.panache.common.Sort;
 @Consumes(MediaType.APPLICATION_JSON)
 public class TimeTableResource {
 
-    public static final Long SINGLETON_TIME_TABLE_ID = 1L;
+    @ConfigProperty(name = "timeTable.bestSolutionFlushIntervalMillis", defaultValue = "500")
+    long bestSolutionFlushIntervalMillis;
 
     @Inject
     TimeslotRepository timeslotRepository;
@@ -50,63 +73,190 @@ public class TimeTableResource {
     RoomRepository roomRepository;
     @Inject
     LessonRepository lessonRepository;
+    @Inject
+    LessonAssignmentWriter lessonAssignmentWriter;
+    @Inject
+    BestSolutionEventBroadcaster bestSolutionEventBroadcaster;
+    @Inject
+    TimeTableScoreCache timeTableScoreCache;
+    @Inject
+    AfterCommitRunner afterCommitRunner;
 
     @Inject
-    SolverManager<TimeTable, Long> solverManager;
+    TimeTableSolverService solverService;
     @Inject
     ScoreManager<TimeTable, HardSoftScore> scoreManager;
 
+    private ScheduledExecutorService bestSolutionFlushExecutor;
+
+    @PostConstruct
+    void startBestSolutionFlushExecutor() {
+        // A thread per solver thread, so a slow save of one timeTable doesn't delay the saves of the others
+        bestSolutionFlushExecutor = Executors.newScheduledThreadPool(solverService.getParallelSolverCount());
+    }
+
+    @PreDestroy
+    void shutdownBestSolutionFlushExecutor() {
+        bestSolutionFlushExecutor.shutdownNow();
+    }
+
     // To try, open http://localhost:8080/timeTable
     @GET
     public TimeTable getTimeTable() {
+        return getTimeTable(TimeTable.DEFAULT_TIME_TABLE_ID);
+    }
+
+    // To try, open http://localhost:8080/timeTable/1
+    @GET
+    @Path("{timeTableId}")
+    public TimeTable getTimeTable(@PathParam("timeTableId") Long timeTableId) {
         // Get the solver status before loading the solution
         // to avoid the race condition that the solver terminates between them
-        SolverStatus solverStatus = getSolverStatus();
-        TimeTable solution = findById(SINGLETON_TIME_TABLE_ID);
-        scoreManager.updateScore(solution); // Sets the score
+        SolverStatus solverStatus = getSolverStatus(timeTableId);
+        // Likewise, get the version before loading the solution,
+        // so getScore() and putScore() ignore the cache if a write started in the meantime
+        VersionedScoreCache<HardSoftScore> scoreCache = timeTableScoreCache.get(timeTableId);
+        long version = scoreCache.getVersion();
+        TimeTable solution = findById(timeTableId);
+        HardSoftScore score = scoreCache.getScore(version);
+        if (score == null) {
+            scoreManager.updateScore(solution); // Sets the score
+            scoreCache.putScore(version, solution.getScore());
+        } else {
+            solution.setScore(score);
+        }
         solution.setSolverStatus(solverStatus);
         return solution;
     }
 
+    // Instead of polling GET /timeTable/1, the browser keeps this connection open
+    // and receives a BestSolutionEvent with the score and the moved lessons whenever the best solution is saved.
+    @GET
+    @Path("{timeTableId}/events")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void listenToBestSolutionEvents(@PathParam("timeTableId") Long timeTableId,
+            @Context SseEventSink sink, @Context Sse sse) {
+        bestSolutionEventBroadcaster.register(timeTableId, sink, sse);
+    }
+
     @POST
     @Path("solve")
     public void solve() {
-        solverManager.solveAndListen(SINGLETON_TIME_TABLE_ID,
-                this::findById,
-                this::save);
+        solve(TimeTable.DEFAULT_TIME_TABLE_ID);
+    }
+
+    @POST
+    @Path("{timeTableId}/solve")
+    public void solve(@PathParam("timeTableId") Long timeTableId) {
+        // The version of the database that the solver's best solution corresponds to
+        AtomicLong solutionVersion = new AtomicLong();
+        CoalescingBestSolutionConsumer<TimeTable> bestSolutionConsumer = new CoalescingBestSolutionConsumer<>(
+                bestSolution -> save(bestSolution, solutionVersion),
+                bestSolutionFlushIntervalMillis, bestSolutionFlushExecutor);
+        try {
+            solverService.solveAndListen(timeTableId,
+                    id -> findProblemById(id, solutionVersion),
+                    bestSolutionConsumer,
+                    finalBestSolution -> {
+                        bestSolutionConsumer.acceptFinal(finalBestSolution);
+                        finishSolving(timeTableId, finalBestSolution.getScore());
+                    },
+                    exception -> {
+                        bestSolutionConsumer.cancel();
+                        // Null if the solver didn't save a best solution with the latest version
+                        HardSoftScore score = timeTableScoreCache.get(timeTableId).getScore(solutionVersion.get());
+                        finishSolving(timeTableId, score);
+                    });
+        } catch (IllegalStateException e) {
+            throw new WebApplicationException(e.getMessage(), e, Response.Status.CONFLICT);
+        } catch (RejectedExecutionException e) {
+            throw new WebApplicationException(e.getMessage(), e, Response.Status.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    private void finishSolving(Long timeTableId, HardSoftScore score) {
+        lessonAssignmentWriter.forgetPersistedAssignments(timeTableId);
+        // Tells the browsers to stop waiting for best solutions, also if solving failed
+        bestSolutionEventBroadcaster.broadcast(new BestSolutionEvent(timeTableId,
+                score, SolverStatus.NOT_SOLVING, Collections.emptyList()));
     }
 
     public SolverStatus getSolverStatus() {
-        return solverManager.getSolverStatus(SINGLETON_TIME_TABLE_ID);
+        return getSolverStatus(TimeTable.DEFAULT_TIME_TABLE_ID);
+    }
+
+    public SolverStatus getSolverStatus(Long timeTableId) {
+        return solverService.getSolverStatus(timeTableId);
     }
 
     @POST
     @Path("stopSolving")
     public void stopSolving() {
-        solverManager.terminateEarly(SINGLETON_TIME_TABLE_ID);
+        stopSolving(TimeTable.DEFAULT_TIME_TABLE_ID);
+    }
+
+    @POST
+    @Path("{timeTableId}/stopSolving")
+    public void stopSolving(@PathParam("timeTableId") Long timeTableId) {
+        solverService.terminateEarly(timeTableId);
     }
 
+    @DELETE
+    @Path("{timeTableId}")
     @Transactional
-    protected TimeTable findById(Long id) {
-        if (!SINGLETON_TIME_TABLE_ID.equals(id)) {
-            throw new IllegalStateException("There is no timeTable with id (" + id + ").");
+    public void delete(@PathParam("timeTableId") Long timeTableId) {
+        SolverStatus solverStatus = getSolverStatus(timeTableId);
+        if (solverStatus != SolverStatus.NOT_SOLVING) {
+            throw new WebApplicationException("The timeTable with id (" + timeTableId
+                    + ") cannot be deleted because its solverStatus (" + solverStatus + ") is not NOT_SOLVING.",
+                    Response.Status.CONFLICT);
         }
+        // Bulk deletes, which don't trigger the TimeTableChangedListener, so start the write here instead
+        timeTableScoreCache.startWrite(timeTableId);
+        lessonRepository.delete("timeTableId", timeTableId);
+        timeslotRepository.delete("timeTableId", timeTableId);
+        roomRepository.delete("timeTableId", timeTableId);
+        afterCommitRunner.runAfterCommit(() -> {
+            lessonAssignmentWriter.forgetPersistedAssignments(timeTableId);
+            timeTableScoreCache.remove(timeTableId);
+        });
+    }
+
+    @Transactional
+    protected TimeTable findById(Long id) {
         // Occurs in a single transaction, so each initialized lesson references the same timeslot/room instance
         // that is contained by the timeTable's timeslotList/roomList.
-        return new TimeTable(
-                timeslotRepository.listAll(Sort.by("dayOfWeek").and("startTime").and("endTime").and("id")),
-                roomRepository.listAll(Sort.by("name").and("id")),
-                lessonRepository.listAll(Sort.by("subject").and("teacher").and("studentGroup").and("id")));
+        return new TimeTable(id,
+                timeslotRepository.list("timeTableId",
+                        Sort.by("dayOfWeek").and("startTime").and("endTime").and("id"), id),
+                roomRepository.list("timeTableId", Sort.by("name").and("id"), id),
+                lessonRepository.list("timeTableId",
+                        Sort.by("subject").and("teacher").and("studentGroup").and("id"), id));
     }
 
-    @Transactional
-    protected void save(TimeTable timeTable) {
-        for (Lesson lesson : timeTable.getLessonList()) {
-            // TODO this is awfully naive: optimistic locking causes issues if called by the SolverManager
-            Lesson attachedLesson = lessonRepository.findById(lesson.getId());
-            attachedLesson.setTimeslot(lesson.getTimeslot());
-            attachedLesson.setRoom(lesson.getRoom());
+    private TimeTable findProblemById(Long id, AtomicLong solutionVersion) {
+        solutionVersion.set(timeTableScoreCache.get(id).getVersion());
+        TimeTable problem = findById(id);
+        lessonAssignmentWriter.rememberPersistedAssignments(problem);
+        return problem;
+    }
+
+    protected void save(TimeTable timeTable, AtomicLong solutionVersion) {
+        VersionedScoreCache<HardSoftScore> scoreCache = timeTableScoreCache.get(timeTable.getId());
+        // Before the lessons are written, so no GET trusts the cached score while they are being committed
+        scoreCache.startWrite();
+        List<LessonAssignment> changedLessonList;
+        try {
+            changedLessonList = lessonAssignmentWriter.write(timeTable);
+        } catch (RuntimeException e) {
+            scoreCache.endWrite();
+            solutionVersion.set(VersionedScoreCache.DIVERGED_VERSION);
+            throw e;
         }
+        // The solver already calculated the score of what it wrote, so the next GET doesn't need to
+        solutionVersion.set(scoreCache.endWrite(solutionVersion.get(), timeTable.getScore()));
+        bestSolutionEventBroadcaster.broadcast(new BestSolutionEvent(timeTable.getId(),
+                timeTable.getScore(), SolverStatus.SOLVING_ACTIVE, changedLessonList));
     }
 
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.schooltimetabling.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.acme.schooltimetabling.domain.Lesson;
+import org.acme.schooltimetabling.domain.Room;
+import org.acme.schooltimetabling.domain.TimeTable;
+import org.acme.schooltimetabling.domain.Timeslot;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+
+/**
+ * Applies a lesson that was added, updated or removed in the database to the working solution of a solver.
+ * <p>
+ * Idempotent: the solver might have loaded the problem after that change was committed.
+ */
+public class LessonProblemFactChange implements ProblemFactChange<TimeTable> {
+
+    private final ProblemChangeType changeType;
+    private final Lesson lesson;
+
+    public LessonProblemFactChange(ProblemChangeType changeType, Lesson lesson) {
+        this.changeType = changeType;
+        // Copy, because the JPA entity is still used after its transaction committed
+        Timeslot timeslot = lesson.getTimeslot() == null ? null : TimeslotProblemFactChange.copy(lesson.getTimeslot());
+        Room room = lesson.getRoom() == null ? null : RoomProblemFactChange.copy(lesson.getRoom());
+        this.lesson = new Lesson(lesson.getId(), lesson.getSubject(), lesson.getTeacher(), lesson.getStudentGroup(),
+                timeslot, room);
+        this.lesson.setTimeTableId(lesson.getTimeTableId());
+    }
+
+    @Override
+    public void doChange(ScoreDirector<TimeTable> scoreDirector) {
+        TimeTable timeTable = scoreDirector.getWorkingSolution();
+        Lesson workingLesson = scoreDirector.lookUpWorkingObjectOrReturnNull(lesson);
+        Timeslot workingTimeslot = lesson.getTimeslot() == null ? null
+                : scoreDirector.lookUpWorkingObjectOrReturnNull(lesson.getTimeslot());
+        Room workingRoom = lesson.getRoom() == null ? null
+                : scoreDirector.lookUpWorkingObjectOrReturnNull(lesson.getRoom());
+        switch (changeType) {
+            case ADD:
+                if (workingLesson != null) {
+                    return;
+                }
+                lesson.setTimeslot(workingTimeslot);
+                lesson.setRoom(workingRoom);
+                scoreDirector.beforeEntityAdded(lesson);
+                // Shallow clone the list, because the best solution might share it with the working solution
+                List<Lesson> addedLessonList = new ArrayList<>(timeTable.getLessonList());
+                addedLessonList.add(lesson);
+                timeTable.setLessonList(addedLessonList);
+                scoreDirector.afterEntityAdded(lesson);
+                break;
+            case UPDATE:
+                if (workingLesson == null) {
+                    return;
+                }
+                if (!Objects.equals(workingLesson.getSubject(), lesson.getSubject())
+                        || !Objects.equals(workingLesson.getTeacher(), lesson.getTeacher())
+                        || !Objects.equals(workingLesson.getStudentGroup(), lesson.getStudentGroup())) {
+                    scoreDirector.beforeProblemPropertyChanged(workingLesson);
+                    workingLesson.setSubject(lesson.getSubject());
+                    workingLesson.setTeacher(lesson.getTeacher());
+                    workingLesson.setStudentGroup(lesson.getStudentGroup());
+                    scoreDirector.afterProblemPropertyChanged(workingLesson);
+                }
+                if (workingLesson.getTimeslot() != workingTimeslot) {
+                    scoreDirector.beforeVariableChanged(workingLesson, "timeslot");
+                    workingLesson.setTimeslot(workingTimeslot);
+                    scoreDirector.afterVariableChanged(workingLesson, "timeslot");
+                }
+                if (workingLesson.getRoom() != workingRoom) {
+                    scoreDirector.beforeVariableChanged(workingLesson, "room");
+                    workingLesson.setRoom(workingRoom);
+                    scoreDirector.afterVariableChanged(workingLesson, "room");
+                }
+                break;
+            case REMOVE:
+                if (workingLesson == null) {
+                    return;
+                }
+                scoreDirector.beforeEntityRemoved(workingLesson);
+                List<Lesson> removedLessonList = new ArrayList<>(timeTable.getLessonList());
+                removedLessonList.remove(workingLesson);
+                timeTable.setLessonList(removedLessonList);
+                scoreDirector.afterEntityRemoved(workingLesson);
+                break;
+            default:
+                throw new IllegalStateException("The changeType (" + changeType + ") is not implemented.");
+        }
+        scoreDirector.triggerVariableListeners();
+    }
+
+}
@@ -16,8 +16,6 @@
 
 package org.acme.schooltimetabling.solver;
 
-import java.time.Duration;
-
 import org.acme.schooltimetabling.domain.Lesson;
 import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
 import org.optaplanner.core.api.score.stream.Constraint;
@@ -87,11 +85,9 @@ public class TimeTableConstraintProvider implements ConstraintProvider {
                 .from(Lesson.class)
                 .join(Lesson.class, Joiners.equal(Lesson::getTeacher),
                         Joiners.equal((lesson) -> lesson.getTimeslot().getDayOfWeek()))
-                .filter((lesson1, lesson2) -> {
-                    Duration between = Duration.between(lesson1.getTimeslot().getEndTime(),
-                            lesson2.getTimeslot().getStartTime());
-                    return !between.isNegative() && between.compareTo(Duration.ofMinutes(30)) <= 0;
-                })
+                // The next timeslots are precomputed, so no times need to be compared here
+                .filter((lesson1, lesson2) -> lesson1.getTimeslot().getNextTimeslotSet()
+                        .contains(lesson2.getTimeslot()))
                 .reward("Teacher time efficiency", HardSoftScore.ONE_SOFT);
     }
 
@@ -103,11 +99,8 @@ public class TimeTableConstraintProvider implements ConstraintProvider {
                         Joiners.equal(Lesson::getSubject),
                         Joiners.equal(Lesson::getStudentGroup),
                         Joiners.equal((lesson) -> lesson.getTimeslot().getDayOfWeek()))
-                .filter((lesson1, lesson2) -> {
-                    Duration between = Duration.between(lesson1.getTimeslot().getEndTime(),
-                            lesson2.getTimeslot().getStartTime());
-                    return !between.isNegative() && between.compareTo(Duration.ofMinutes(30)) <= 0;
-                })
+                .filter((lesson1, lesson2) -> lesson1.getTimeslot().getNextTimeslotSet()
+                        .contains(lesson2.getTimeslot()))
                 .penalize("Student group subject variety", HardSoftScore.ONE_SOFT);
     }
 
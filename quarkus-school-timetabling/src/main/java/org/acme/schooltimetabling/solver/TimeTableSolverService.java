@@ -0,0 +1,266 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.schooltimetabling.solver;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.acme.schooltimetabling.domain.TimeTable;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.api.solver.SolverStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Solves many {@link TimeTable}s (one per school) in the same JVM.
+ * <p>
+ * At most {@code parallel-solver-count} timeTables are solved at the same time,
+ * the others wait in a bounded first-in-first-out queue, so every solver thread picks up the next timeTable
+ * as soon as it becomes free. Each timeTable can only be solving or queued once,
+ * so a single school can't starve the others by submitting the same problem repeatedly.
+ */
+@ApplicationScoped
+public class TimeTableSolverService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TimeTableSolverService.class);
+
+    @ConfigProperty(name = "quarkus.optaplanner.solver-manager.parallel-solver-count", defaultValue = "AUTO")
+    String parallelSolverCount;
+    @ConfigProperty(name = "timeTable.solverQueueCapacity", defaultValue = "100")
+    int solverQueueCapacity;
+
+    @Inject
+    SolverFactory<TimeTable> solverFactory;
+
+    private final ConcurrentMap<Long, SolverJob> solverJobMap = new ConcurrentHashMap<>();
+    private int resolvedParallelSolverCount;
+    private ThreadPoolExecutor solverThreadPool;
+
+    @PostConstruct
+    void startSolverThreadPool() {
+        resolvedParallelSolverCount = resolveParallelSolverCount();
+        solverThreadPool = new ThreadPoolExecutor(resolvedParallelSolverCount, resolvedParallelSolverCount,
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(solverQueueCapacity));
+    }
+
+    private int resolveParallelSolverCount() {
+        if (parallelSolverCount.equals("AUTO")) {
+            // Same as the SolverManager: half of the cores, to leave room for the garbage collector and the web server
+            return Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        int resolvedParallelSolverCount;
+        try {
+            resolvedParallelSolverCount = Integer.parseInt(parallelSolverCount);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("The parallelSolverCount (" + parallelSolverCount
+                    + ") is not AUTO or a number.", e);
+        }
+        if (resolvedParallelSolverCount < 1) {
+            throw new IllegalStateException("The parallelSolverCount (" + parallelSolverCount
+                    + ") must be at least 1.");
+        }
+        return resolvedParallelSolverCount;
+    }
+
+    /**
+     * @return at least 1, how many timeTables are solved at the same time at most
+     */
+    public int getParallelSolverCount() {
+        return resolvedParallelSolverCount;
+    }
+
+    @PreDestroy
+    void stopSolverThreadPool() {
+        solverJobMap.values().forEach(SolverJob::terminateEarly);
+        solverThreadPool.shutdownNow();
+    }
+
+    /**
+     * Queues the timeTable for solving and returns immediately.
+     * @param timeTableId never null
+     * @param problemFinder called on the solver thread, when the timeTable leaves the queue
+     * @param bestSolutionConsumer called on the solver thread, for every new best solution
+     * @param finalBestSolutionConsumer called on the solver thread, when solving ends,
+     * with the problem itself if solving was terminated early while the problem was loading
+     * @param exceptionHandler called on the solver thread, instead of the finalBestSolutionConsumer,
+     * if loading the problem, solving it or consuming the final best solution fails
+     * @throws IllegalStateException if that timeTable is already solving or queued
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public void solveAndListen(Long timeTableId, Function<Long, TimeTable> problemFinder,
+            Consumer<TimeTable> bestSolutionConsumer, Consumer<TimeTable> finalBestSolutionConsumer,
+            Consumer<Throwable> exceptionHandler) {
+        SolverJob solverJob = new SolverJob(timeTableId, problemFinder, bestSolutionConsumer,
+                finalBestSolutionConsumer, exceptionHandler);
+        if (solverJobMap.putIfAbsent(timeTableId, solverJob) != null) {
+            throw new IllegalStateException("The timeTable with id (" + timeTableId
+                    + ") is already solving or queued.");
+        }
+        try {
+            solverThreadPool.execute(solverJob);
+        } catch (RejectedExecutionException e) {
+            solverJobMap.remove(timeTableId, solverJob);
+            throw new RejectedExecutionException("The solver queue is full (" + solverQueueCapacity
+                    + " timeTables are waiting), so the timeTable with id (" + timeTableId
+                    + ") can't be queued. Try again later.", e);
+        }
+    }
+
+    public SolverStatus getSolverStatus(Long timeTableId) {
+        SolverJob solverJob = solverJobMap.get(timeTableId);
+        return solverJob == null ? SolverStatus.NOT_SOLVING : solverJob.getSolverStatus();
+    }
+
+    public void terminateEarly(Long timeTableId) {
+        SolverJob solverJob = solverJobMap.get(timeTableId);
+        if (solverJob != null) {
+            solverJob.terminateEarly();
+        }
+    }
+
+    /**
+     * Applies a change of the problem, that is already committed in the database, to the solver of that timeTable,
+     * so it continues from its current best solution instead of restarting.
+     * If that timeTable is queued, the change is ignored: the solver loads the problem only when it leaves the queue.
+     * If its problem is still loading, the solver applies the change as soon as it starts solving.
+     * If that timeTable isn't solving or queued, the change is ignored too.
+     * @param timeTableId never null
+     * @param problemFactChange never null, must be idempotent,
+     * because the problem that is loading might already contain the change
+     */
+    public void addProblemFactChange(Long timeTableId, ProblemFactChange<TimeTable> problemFactChange) {
+        SolverJob solverJob = solverJobMap.get(timeTableId);
+        if (solverJob != null) {
+            solverJob.addProblemFactChange(problemFactChange);
+        }
+    }
+
+    private final class SolverJob implements Runnable {
+
+        private final Long timeTableId;
+        private final Function<Long, TimeTable> problemFinder;
+        private final Consumer<TimeTable> bestSolutionConsumer;
+        private final Consumer<TimeTable> finalBestSolutionConsumer;
+        private final Consumer<Throwable> exceptionHandler;
+
+        // Guarded by this
+        private SolverStatus solverStatus = SolverStatus.SOLVING_SCHEDULED;
+        // Null until the solver is built, which happens before the problem loads
+        private Solver<TimeTable> solver = null;
+        private boolean terminationRequested = false;
+
+        private SolverJob(Long timeTableId, Function<Long, TimeTable> problemFinder,
+                Consumer<TimeTable> bestSolutionConsumer, Consumer<TimeTable> finalBestSolutionConsumer,
+                Consumer<Throwable> exceptionHandler) {
+            this.timeTableId = timeTableId;
+            this.problemFinder = problemFinder;
+            this.bestSolutionConsumer = bestSolutionConsumer;
+            this.finalBestSolutionConsumer = finalBestSolutionConsumer;
+            this.exceptionHandler = exceptionHandler;
+        }
+
+        @Override
+        public void run() {
+            try {
+                synchronized (this) {
+                    if (solverStatus == SolverStatus.NOT_SOLVING) {
+                        // Terminated early while it was still queued
+                        return;
+                    }
+                    solverStatus = SolverStatus.SOLVING_ACTIVE;
+                }
+                Solver<TimeTable> startedSolver = solverFactory.buildSolver();
+                startedSolver.addEventListener(event -> bestSolutionConsumer.accept(event.getNewBestSolution()));
+                synchronized (this) {
+                    // Before the problem loads, so the solver also applies the changes committed while it loads
+                    solver = startedSolver;
+                }
+                TimeTable problem = problemFinder.apply(timeTableId);
+                // If terminated early while the problem was loading, the problem is the final best solution
+                TimeTable finalBestSolution = isTerminationRequested() ? problem : startedSolver.solve(problem);
+                finalBestSolutionConsumer.accept(finalBestSolution);
+            } catch (RuntimeException | Error e) {
+                LOG.error("Solving the timeTable with id ({}) failed.", timeTableId, e);
+                try {
+                    exceptionHandler.accept(e);
+                } catch (RuntimeException handlerException) {
+                    LOG.error("The exceptionHandler of the timeTable with id ({}) failed.",
+                            timeTableId, handlerException);
+                }
+            } finally {
+                synchronized (this) {
+                    solverStatus = SolverStatus.NOT_SOLVING;
+                }
+                solverJobMap.remove(timeTableId, this);
+            }
+        }
+
+        private synchronized SolverStatus getSolverStatus() {
+            return solverStatus;
+        }
+
+        private synchronized boolean isTerminationRequested() {
+            return terminationRequested;
+        }
+
+        private synchronized void addProblemFactChange(ProblemFactChange<TimeTable> problemFactChange) {
+            if (solver != null) {
+                solver.addProblemFactChange(problemFactChange);
+            }
+        }
+
+        private synchronized void terminateEarly() {
+            switch (solverStatus) {
+                case SOLVING_SCHEDULED:
+                    solverStatus = SolverStatus.NOT_SOLVING;
+                    solverThreadPool.remove(this);
+                    solverJobMap.remove(timeTableId, this);
+                    break;
+                case SOLVING_ACTIVE:
+                    terminationRequested = true;
+                    if (solver != null) {
+                        Solver<TimeTable> terminatingSolver = solver;
+                        terminatingSolver.terminateEarly();
+                        // Solver.solve() forgets a terminateEarly() that was called just before it started,
+                        // but not a problem fact change, which it applies on the solver thread once it started
+                        terminatingSolver.addProblemFactChange(scoreDirector -> terminatingSolver.terminateEarly());
+                    }
+                    break;
+                case NOT_SOLVING:
+                    break;
+                default:
+                    throw new IllegalStateException("The solverStatus (" + solverStatus + ") is not implemented.");
+            }
+        }
+
+    }
+
+}
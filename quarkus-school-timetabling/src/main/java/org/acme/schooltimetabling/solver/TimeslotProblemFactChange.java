@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.schooltimetabling.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.acme.schooltimetabling.domain.Lesson;
+import org.acme.schooltimetabling.domain.TimeTable;
+import org.acme.schooltimetabling.domain.Timeslot;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+
+/**
+ * Applies a timeslot that was added, updated or removed in the database to the working solution of a solver.
+ * <p>
+ * Idempotent: the solver might have loaded the problem after that change was committed.
+ * Afterwards, the {@link Timeslot#getNextTimeslotSet() next timeslots} of every working timeslot are updated.
+ */
+public class TimeslotProblemFactChange implements ProblemFactChange<TimeTable> {
+
+    private final ProblemChangeType changeType;
+    private final Timeslot timeslot;
+
+    public TimeslotProblemFactChange(ProblemChangeType changeType, Timeslot timeslot) {
+        this.changeType = changeType;
+        // Copy, because the JPA entity is still used after its transaction committed
+        this.timeslot = copy(timeslot);
+    }
+
+    static Timeslot copy(Timeslot timeslot) {
+        Timeslot copy = new Timeslot(timeslot.getId(), timeslot.getDayOfWeek(),
+                timeslot.getStartTime(), timeslot.getEndTime());
+        copy.setTimeTableId(timeslot.getTimeTableId());
+        return copy;
+    }
+
+    @Override
+    public void doChange(ScoreDirector<TimeTable> scoreDirector) {
+        TimeTable timeTable = scoreDirector.getWorkingSolution();
+        Timeslot workingTimeslot = scoreDirector.lookUpWorkingObjectOrReturnNull(timeslot);
+        switch (changeType) {
+            case ADD:
+                if (workingTimeslot != null) {
+                    return;
+                }
+                scoreDirector.beforeProblemFactAdded(timeslot);
+                // Shallow clone the list, because the best solution might share it with the working solution
+                List<Timeslot> addedTimeslotList = new ArrayList<>(timeTable.getTimeslotList());
+                addedTimeslotList.add(timeslot);
+                timeTable.setTimeslotList(addedTimeslotList);
+                scoreDirector.afterProblemFactAdded(timeslot);
+                break;
+            case UPDATE:
+                if (workingTimeslot == null
+                        || (workingTimeslot.getDayOfWeek() == timeslot.getDayOfWeek()
+                        && Objects.equals(workingTimeslot.getStartTime(), timeslot.getStartTime())
+                        && Objects.equals(workingTimeslot.getEndTime(), timeslot.getEndTime()))) {
+                    return;
+                }
+                scoreDirector.beforeProblemPropertyChanged(workingTimeslot);
+                workingTimeslot.setDayOfWeek(timeslot.getDayOfWeek());
+                workingTimeslot.setStartTime(timeslot.getStartTime());
+                workingTimeslot.setEndTime(timeslot.getEndTime());
+                scoreDirector.afterProblemPropertyChanged(workingTimeslot);
+                break;
+            case REMOVE:
+                if (workingTimeslot == null) {
+                    return;
+                }
+                // No lesson may keep referring to it
+                for (Lesson lesson : timeTable.getLessonList()) {
+                    if (lesson.getTimeslot() == workingTimeslot) {
+                        scoreDirector.beforeVariableChanged(lesson, "timeslot");
+                        lesson.setTimeslot(null);
+                        scoreDirector.afterVariableChanged(lesson, "timeslot");
+                    }
+                }
+                scoreDirector.beforeProblemFactRemoved(workingTimeslot);
+                List<Timeslot> removedTimeslotList = new ArrayList<>(timeTable.getTimeslotList());
+                removedTimeslotList.remove(workingTimeslot);
+                timeTable.setTimeslotList(removedTimeslotList);
+                scoreDirector.afterProblemFactRemoved(workingTimeslot);
+                break;
+            default:
+                throw new IllegalStateException("The changeType (" + changeType + ") is not implemented.");
+        }
+        relinkNextTimeslots(scoreDirector, timeTable.getTimeslotList());
+        scoreDirector.triggerVariableListeners();
+    }
+
+    private static void relinkNextTimeslots(ScoreDirector<TimeTable> scoreDirector, List<Timeslot> timeslotList) {
+        Map<Timeslot, Set<Timeslot>> nextTimeslotSetMap = Timeslot.findNextTimeslots(timeslotList);
+        for (Timeslot timeslot : timeslotList) {
+            Set<Timeslot> nextTimeslotSet = nextTimeslotSetMap.get(timeslot);
+            if (!timeslot.getNextTimeslotSet().equals(nextTimeslotSet)) {
+                scoreDirector.beforeProblemPropertyChanged(timeslot);
+                timeslot.setNextTimeslotSet(nextTimeslotSet);
+                scoreDirector.afterProblemPropertyChanged(timeslot);
+            }
+        }
+    }
+
+}
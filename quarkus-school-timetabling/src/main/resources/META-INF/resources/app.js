@@ -1,120 +1,164 @@
-var autoRefreshIntervalId = null;
+var loadedTimeTable = null;
 
 function refreshTimeTable() {
     $.getJSON("/timeTable", function (timeTable) {
-        refreshSolvingButtons(timeTable.solverStatus != null && timeTable.solverStatus !== "NOT_SOLVING");
-        $("#score").text("Score: "+ (timeTable.score == null ? "?" : timeTable.score));
-
-        const timeTableByRoom = $("#timeTableByRoom");
-        timeTableByRoom.children().remove();
-        const timeTableByTeacher = $("#timeTableByTeacher");
-        timeTableByTeacher.children().remove();
-        const timeTableByStudentGroup = $("#timeTableByStudentGroup");
-        timeTableByStudentGroup.children().remove();
-        const unassignedLessons = $("#unassignedLessons");
-        unassignedLessons.children().remove();
-
-        const theadByRoom = $("<thead>").appendTo(timeTableByRoom);
-        const headerRowByRoom = $("<tr>").appendTo(theadByRoom);
-        headerRowByRoom.append($("<th>Timeslot</th>"));
+        loadedTimeTable = timeTable;
+        renderTimeTable(timeTable);
+    });
+}
+
+function listenToBestSolutionEvents() {
+    const eventSource = new EventSource("/timeTable/1/events");
+    eventSource.addEventListener("bestSolution", function (message) {
+        applyBestSolutionEvent(JSON.parse(message.data));
+    });
+    // Also after a reconnect: reload everything once, so no event missed while disconnected matters
+    eventSource.onopen = function () {
+        refreshTimeTable();
+    };
+}
+
+function applyBestSolutionEvent(event) {
+    if (loadedTimeTable == null) {
+        // The pending refreshTimeTable() will show this best solution
+        return;
+    }
+    const timeslotById = new Map(loadedTimeTable.timeslotList.map(timeslot => [timeslot.id, timeslot]));
+    const roomById = new Map(loadedTimeTable.roomList.map(room => [room.id, room]));
+    const lessonById = new Map(loadedTimeTable.lessonList.map(lesson => [lesson.id, lesson]));
+    for (const assignment of event.changedLessonList) {
+        const lesson = lessonById.get(assignment.lessonId);
+        const timeslot = assignment.timeslotId == null ? null : timeslotById.get(assignment.timeslotId);
+        const room = assignment.roomId == null ? null : roomById.get(assignment.roomId);
+        if (lesson === undefined || timeslot === undefined || room === undefined) {
+            // Added since the last refresh
+            refreshTimeTable();
+            return;
+        }
+        lesson.timeslot = timeslot;
+        lesson.room = room;
+    }
+    if (event.score != null) {
+        // Null if solving failed or stopped before the first best solution
+        loadedTimeTable.score = event.score;
+    }
+    loadedTimeTable.solverStatus = event.solverStatus;
+    renderTimeTable(loadedTimeTable);
+}
+
+function renderTimeTable(timeTable) {
+    refreshSolvingButtons(timeTable.solverStatus != null && timeTable.solverStatus !== "NOT_SOLVING");
+    $("#score").text("Score: "+ (timeTable.score == null ? "?" : timeTable.score));
+
+    const timeTableByRoom = $("#timeTableByRoom");
+    timeTableByRoom.children().remove();
+    const timeTableByTeacher = $("#timeTableByTeacher");
+    timeTableByTeacher.children().remove();
+    const timeTableByStudentGroup = $("#timeTableByStudentGroup");
+    timeTableByStudentGroup.children().remove();
+    const unassignedLessons = $("#unassignedLessons");
+    unassignedLessons.children().remove();
+
+    const theadByRoom = $("<thead>").appendTo(timeTableByRoom);
+    const headerRowByRoom = $("<tr>").appendTo(theadByRoom);
+    headerRowByRoom.append($("<th>Timeslot</th>"));
+    $.each(timeTable.roomList, (index, room) => {
+        headerRowByRoom
+        .append($("<th/>")
+            .append($("<span/>").text(room.name))
+            .append($(`<button type="button" class="ml-2 mb-1 btn btn-light btn-sm p-1"/>`)
+                    .append($(`<small class="fas fa-trash"/>`)
+                    ).click(() => deleteRoom(room))));
+    });
+    const theadByTeacher = $("<thead>").appendTo(timeTableByTeacher);
+    const headerRowByTeacher = $("<tr>").appendTo(theadByTeacher);
+    headerRowByTeacher.append($("<th>Timeslot</th>"));
+    const teacherList = [...new Set(timeTable.lessonList.map(lesson => lesson.teacher))];
+    $.each(teacherList, (index, teacher) => {
+        headerRowByTeacher
+        .append($("<th/>")
+            .append($("<span/>").text(teacher)));
+    });
+    const theadByStudentGroup = $("<thead>").appendTo(timeTableByStudentGroup);
+    const headerRowByStudentGroup = $("<tr>").appendTo(theadByStudentGroup);
+    headerRowByStudentGroup.append($("<th>Timeslot</th>"));
+    const studentGroupList = [...new Set(timeTable.lessonList.map(lesson => lesson.studentGroup))];
+    $.each(studentGroupList, (index, studentGroup) => {
+        headerRowByStudentGroup
+        .append($("<th/>")
+            .append($("<span/>").text(studentGroup)));
+    });
+
+    const tbodyByRoom = $("<tbody>").appendTo(timeTableByRoom);
+    const tbodyByTeacher = $("<tbody>").appendTo(timeTableByTeacher);
+    const tbodyByStudentGroup = $("<tbody>").appendTo(timeTableByStudentGroup);
+    $.each(timeTable.timeslotList, (index, timeslot) => {
+        const rowByRoom = $("<tr>").appendTo(tbodyByRoom);
+        rowByRoom
+        .append($(`<th class="align-middle"/>`)
+            .append($("<span/>").text(`
+                ${timeslot.dayOfWeek.charAt(0) + timeslot.dayOfWeek.slice(1).toLowerCase()}
+                ${moment(timeslot.startTime, "HH:mm:ss").format("HH:mm")}
+                -
+                ${moment(timeslot.endTime, "HH:mm:ss").format("HH:mm")}
+            `)
+            .append($(`<button type="button" class="ml-2 mb-1 btn btn-light btn-sm p-1"/>`)
+                    .append($(`<small class="fas fa-trash"/>`)
+                    ).click(() => deleteTimeslot(timeslot)))));
+
+        const rowByTeacher = $("<tr>").appendTo(tbodyByTeacher);
+        rowByTeacher
+        .append($(`<th class="align-middle"/>`)
+            .append($("<span/>").text(`
+                ${timeslot.dayOfWeek.charAt(0) + timeslot.dayOfWeek.slice(1).toLowerCase()}
+                ${moment(timeslot.startTime, "HH:mm:ss").format("HH:mm")}
+                -
+                ${moment(timeslot.endTime, "HH:mm:ss").format("HH:mm")}
+            `)));
         $.each(timeTable.roomList, (index, room) => {
-            headerRowByRoom
-            .append($("<th/>")
-                .append($("<span/>").text(room.name))
-                .append($(`<button type="button" class="ml-2 mb-1 btn btn-light btn-sm p-1"/>`)
-                        .append($(`<small class="fas fa-trash"/>`)
-                        ).click(() => deleteRoom(room))));
+            rowByRoom.append($("<td/>").prop("id", `timeslot${timeslot.id}room${room.id}`));
         });
-        const theadByTeacher = $("<thead>").appendTo(timeTableByTeacher);
-        const headerRowByTeacher = $("<tr>").appendTo(theadByTeacher);
-        headerRowByTeacher.append($("<th>Timeslot</th>"));
-        const teacherList = [...new Set(timeTable.lessonList.map(lesson => lesson.teacher))];
+        const rowByStudentGroup = $("<tr>").appendTo(tbodyByStudentGroup);
+        rowByStudentGroup
+        .append($(`<th class="align-middle"/>`)
+            .append($("<span/>").text(`
+                ${timeslot.dayOfWeek.charAt(0) + timeslot.dayOfWeek.slice(1).toLowerCase()}
+                ${moment(timeslot.startTime, "HH:mm:ss").format("HH:mm")}
+                -
+                ${moment(timeslot.endTime, "HH:mm:ss").format("HH:mm")}
+            `)));
+
         $.each(teacherList, (index, teacher) => {
-            headerRowByTeacher
-            .append($("<th/>")
-                .append($("<span/>").text(teacher)));
-        });
-        const theadByStudentGroup = $("<thead>").appendTo(timeTableByStudentGroup);
-        const headerRowByStudentGroup = $("<tr>").appendTo(theadByStudentGroup);
-        headerRowByStudentGroup.append($("<th>Timeslot</th>"));
-        const studentGroupList = [...new Set(timeTable.lessonList.map(lesson => lesson.studentGroup))];
-        $.each(studentGroupList, (index, studentGroup) => {
-            headerRowByStudentGroup
-            .append($("<th/>")
-                .append($("<span/>").text(studentGroup)));
+            rowByTeacher.append($("<td/>").prop("id", `timeslot${timeslot.id}teacher${convertToId(teacher)}`));
         });
 
-        const tbodyByRoom = $("<tbody>").appendTo(timeTableByRoom);
-        const tbodyByTeacher = $("<tbody>").appendTo(timeTableByTeacher);
-        const tbodyByStudentGroup = $("<tbody>").appendTo(timeTableByStudentGroup);
-        $.each(timeTable.timeslotList, (index, timeslot) => {
-            const rowByRoom = $("<tr>").appendTo(tbodyByRoom);
-            rowByRoom
-            .append($(`<th class="align-middle"/>`)
-                .append($("<span/>").text(`
-                    ${timeslot.dayOfWeek.charAt(0) + timeslot.dayOfWeek.slice(1).toLowerCase()}
-                    ${moment(timeslot.startTime, "HH:mm:ss").format("HH:mm")}
-                    -
-                    ${moment(timeslot.endTime, "HH:mm:ss").format("HH:mm")}
-                `)
-                .append($(`<button type="button" class="ml-2 mb-1 btn btn-light btn-sm p-1"/>`)
-                        .append($(`<small class="fas fa-trash"/>`)
-                        ).click(() => deleteTimeslot(timeslot)))));
-
-            const rowByTeacher = $("<tr>").appendTo(tbodyByTeacher);
-            rowByTeacher
-            .append($(`<th class="align-middle"/>`)
-                .append($("<span/>").text(`
-                    ${timeslot.dayOfWeek.charAt(0) + timeslot.dayOfWeek.slice(1).toLowerCase()}
-                    ${moment(timeslot.startTime, "HH:mm:ss").format("HH:mm")}
-                    -
-                    ${moment(timeslot.endTime, "HH:mm:ss").format("HH:mm")}
-                `)));
-            $.each(timeTable.roomList, (index, room) => {
-                rowByRoom.append($("<td/>").prop("id", `timeslot${timeslot.id}room${room.id}`));
-            });
-            const rowByStudentGroup = $("<tr>").appendTo(tbodyByStudentGroup);
-            rowByStudentGroup
-            .append($(`<th class="align-middle"/>`)
-                .append($("<span/>").text(`
-                    ${timeslot.dayOfWeek.charAt(0) + timeslot.dayOfWeek.slice(1).toLowerCase()}
-                    ${moment(timeslot.startTime, "HH:mm:ss").format("HH:mm")}
-                    -
-                    ${moment(timeslot.endTime, "HH:mm:ss").format("HH:mm")}
-                `)));
-
-            $.each(teacherList, (index, teacher) => {
-                rowByTeacher.append($("<td/>").prop("id", `timeslot${timeslot.id}teacher${convertToId(teacher)}`));
-            });
-
-            $.each(studentGroupList, (index, studentGroup) => {
-                rowByStudentGroup.append($("<td/>").prop("id", `timeslot${timeslot.id}studentGroup${convertToId(studentGroup)}`));
-            });
+        $.each(studentGroupList, (index, studentGroup) => {
+            rowByStudentGroup.append($("<td/>").prop("id", `timeslot${timeslot.id}studentGroup${convertToId(studentGroup)}`));
         });
+    });
 
-        $.each(timeTable.lessonList, (index, lesson) => {
-            const color = pickColor(lesson.subject);
-            const lessonElementWithoutDelete = $(`<div class="card lesson" style="background-color: ${color}"/>`)
-                    .append($(`<div class="card-body p-2"/>`)
-                            .append($(`<h5 class="card-title mb-1"/>`).text(lesson.subject))
-                            .append($(`<p class="card-text ml-2 mb-1"/>`)
-                                    .append($(`<em/>`).text(`by ${lesson.teacher}`)))
-                            .append($(`<small class="ml-2 mt-1 card-text text-muted align-bottom float-right"/>`).text(lesson.id))
-                            .append($(`<p class="card-text ml-2"/>`).text(lesson.studentGroup)));
-            const lessonElement = lessonElementWithoutDelete.clone();
-            lessonElement.find(".card-body").prepend(
-                $(`<button type="button" class="ml-2 btn btn-light btn-sm p-1 float-right"/>`)
-                        .append($(`<small class="fas fa-trash"/>`)
-                        ).click(() => deleteLesson(lesson))
-            );
-            if (lesson.timeslot == null || lesson.room == null) {
-                unassignedLessons.append(lessonElement);
-            } else {
-                $(`#timeslot${lesson.timeslot.id}room${lesson.room.id}`).append(lessonElement);
-                $(`#timeslot${lesson.timeslot.id}teacher${convertToId(lesson.teacher)}`).append(lessonElementWithoutDelete.clone());
-                $(`#timeslot${lesson.timeslot.id}studentGroup${convertToId(lesson.studentGroup)}`).append(lessonElementWithoutDelete.clone());
-            }
-        });
+    $.each(timeTable.lessonList, (index, lesson) => {
+        const color = pickColor(lesson.subject);
+        const lessonElementWithoutDelete = $(`<div class="card lesson" style="background-color: ${color}"/>`)
+                .append($(`<div class="card-body p-2"/>`)
+                        .append($(`<h5 class="card-title mb-1"/>`).text(lesson.subject))
+                        .append($(`<p class="card-text ml-2 mb-1"/>`)
+                                .append($(`<em/>`).text(`by ${lesson.teacher}`)))
+                        .append($(`<small class="ml-2 mt-1 card-text text-muted align-bottom float-right"/>`).text(lesson.id))
+                        .append($(`<p class="card-text ml-2"/>`).text(lesson.studentGroup)));
+        const lessonElement = lessonElementWithoutDelete.clone();
+        lessonElement.find(".card-body").prepend(
+            $(`<button type="button" class="ml-2 btn btn-light btn-sm p-1 float-right"/>`)
+                    .append($(`<small class="fas fa-trash"/>`)
+                    ).click(() => deleteLesson(lesson))
+        );
+        if (lesson.timeslot == null || lesson.room == null) {
+            unassignedLessons.append(lessonElement);
+        } else {
+            $(`#timeslot${lesson.timeslot.id}room${lesson.room.id}`).append(lessonElement);
+            $(`#timeslot${lesson.timeslot.id}teacher${convertToId(lesson.teacher)}`).append(lessonElementWithoutDelete.clone());
+            $(`#timeslot${lesson.timeslot.id}studentGroup${convertToId(lesson.studentGroup)}`).append(lessonElementWithoutDelete.clone());
+        }
     });
 }
 
@@ -135,16 +179,9 @@ function refreshSolvingButtons(solving) {
     if (solving) {
         $("#solveButton").hide();
         $("#stopSolvingButton").show();
-        if (autoRefreshIntervalId == null) {
-            autoRefreshIntervalId = setInterval(refreshTimeTable, 2000);
-        }
     } else {
         $("#solveButton").show();
         $("#stopSolvingButton").hide();
-        if (autoRefreshIntervalId != null) {
-            clearInterval(autoRefreshIntervalId);
-            autoRefreshIntervalId = null;
-        }
     }
 }
 
@@ -286,7 +323,7 @@ $(document).ready( function() {
         addRoom();
     });
 
-    refreshTimeTable();
+    listenToBestSolutionEvents();
 });
 
 // ****************************************************************************
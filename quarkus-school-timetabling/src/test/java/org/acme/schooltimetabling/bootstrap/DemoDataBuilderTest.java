@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.schooltimetabling.bootstrap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.acme.schooltimetabling.domain.Lesson;
+import org.acme.schooltimetabling.domain.TimeTable;
+import org.junit.jupiter.api.Test;
+
+class DemoDataBuilderTest {
+
+    @Test
+    void size() {
+        TimeTable timeTable = DemoDataBuilder.builder()
+                .setStudentGroupCount(10)
+                .setTeacherCount(15)
+                .setRoomCount(12)
+                .setDayCount(5)
+                .setPeriodCount(8)
+                .build();
+        assertEquals(5 * 8, timeTable.getTimeslotList().size());
+        assertEquals(12, timeTable.getRoomList().size());
+        // 80% of the 40 timeslots per student group
+        assertEquals(10 * 32, timeTable.getLessonList().size());
+        assertEquals(10, timeTable.getLessonList().stream().map(Lesson::getStudentGroup).distinct().count());
+        assertEquals(15, timeTable.getLessonList().stream().map(Lesson::getTeacher).distinct().count());
+    }
+
+    @Test
+    void sameSeedGeneratesSameTimeTable() {
+        assertEquals(toStrings(buildWithSeed(1L)), toStrings(buildWithSeed(1L)));
+        assertNotEquals(toStrings(buildWithSeed(1L)), toStrings(buildWithSeed(2L)));
+    }
+
+    private static TimeTable buildWithSeed(long seed) {
+        return DemoDataBuilder.builder()
+                .setSeed(seed)
+                .build();
+    }
+
+    private static List<String> toStrings(TimeTable timeTable) {
+        return timeTable.getLessonList().stream()
+                .map(lesson -> lesson.getSubject() + "/" + lesson.getTeacher() + "/" + lesson.getStudentGroup())
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.schooltimetabling.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+class TimeslotTest {
+
+    @Test
+    void linkNextTimeslots() {
+        // Each timeslot lasts 50 minutes
+        Timeslot monday0830 = new Timeslot(1, DayOfWeek.MONDAY, LocalTime.of(8, 30));
+        Timeslot monday0930 = new Timeslot(2, DayOfWeek.MONDAY, LocalTime.of(9, 30));
+        Timeslot monday1000Overlapping = new Timeslot(3, DayOfWeek.MONDAY, LocalTime.of(10, 0));
+        Timeslot monday1050 = new Timeslot(4, DayOfWeek.MONDAY, LocalTime.of(10, 50));
+        Timeslot monday1100Overlapping = new Timeslot(5, DayOfWeek.MONDAY, LocalTime.of(11, 0));
+        Timeslot monday1300AfterGap = new Timeslot(6, DayOfWeek.MONDAY, LocalTime.of(13, 0));
+        Timeslot tuesday0830 = new Timeslot(7, DayOfWeek.TUESDAY, LocalTime.of(8, 30));
+        // Unsorted on purpose
+        Timeslot.linkNextTimeslots(Arrays.asList(tuesday0830, monday1300AfterGap, monday1100Overlapping, monday1050,
+                monday1000Overlapping, monday0930, monday0830));
+
+        assertEquals(Collections.singleton(monday0930), monday0830.getNextTimeslotSet());
+        // Starts 30 minutes after monday0930 ends, monday1000Overlapping starts before it ends
+        assertEquals(Collections.singleton(monday1050), monday0930.getNextTimeslotSet());
+        // Every timeslot that starts 0 to 30 minutes after it ends, not only the earliest one
+        assertEquals(new HashSet<>(Arrays.asList(monday1050, monday1100Overlapping)),
+                monday1000Overlapping.getNextTimeslotSet());
+        assertTrue(monday1050.getNextTimeslotSet().isEmpty());
+        assertTrue(monday1100Overlapping.getNextTimeslotSet().isEmpty());
+        assertTrue(monday1300AfterGap.getNextTimeslotSet().isEmpty());
+        assertTrue(tuesday0830.getNextTimeslotSet().isEmpty());
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.schooltimetabling.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import javax.inject.Inject;
+
+import org.acme.schooltimetabling.domain.Lesson;
+import org.acme.schooltimetabling.domain.TimeTable;
+import org.acme.schooltimetabling.domain.Timeslot;
+import org.acme.schooltimetabling.rest.TimeTableResource;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+public class LessonAssignmentWriterTest {
+
+    @Inject
+    TimeTableResource timeTableResource;
+    @Inject
+    LessonAssignmentWriter lessonAssignmentWriter;
+
+    @Test
+    public void writeOnlyChangedLessons() {
+        TimeTable timeTable = timeTableResource.getTimeTable();
+        lessonAssignmentWriter.rememberPersistedAssignments(timeTable);
+        assertEquals(0, lessonAssignmentWriter.write(timeTable).size());
+
+        Lesson lesson = timeTable.getLessonList().get(0);
+        Timeslot originalTimeslot = lesson.getTimeslot();
+        Timeslot otherTimeslot = timeTable.getTimeslotList().stream()
+                .filter(timeslot -> timeslot != originalTimeslot)
+                .findFirst().orElseThrow();
+        lesson.setTimeslot(otherTimeslot);
+        assertEquals(1, lessonAssignmentWriter.write(timeTable).size());
+        assertEquals(0, lessonAssignmentWriter.write(timeTable).size());
+        assertEquals(otherTimeslot.getId(), findLesson(lesson.getId()).getTimeslot().getId());
+
+        lesson.setTimeslot(originalTimeslot);
+        assertEquals(1, lessonAssignmentWriter.write(timeTable).size());
+        Lesson persistedLesson = findLesson(lesson.getId());
+        if (originalTimeslot == null) {
+            assertSame(null, persistedLesson.getTimeslot());
+        } else {
+            assertEquals(originalTimeslot.getId(), persistedLesson.getTimeslot().getId());
+        }
+    }
+
+    private Lesson findLesson(Long lessonId) {
+        return timeTableResource.getTimeTable().getLessonList().stream()
+                .filter(lesson -> lesson.getId().equals(lessonId))
+                .findFirst().orElseThrow();
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.schooltimetabling.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import javax.inject.Inject;
+import javax.transaction.Transactional;
+
+import org.acme.schooltimetabling.domain.Lesson;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+public class LessonRepositoryTest {
+
+    @Inject
+    LessonRepository lessonRepository;
+
+    @Test
+    @Transactional
+    public void keysAreInternedOnLoad() {
+        // A new persistence context, so Hibernate creates a new String for every column of every row
+        List<Lesson> lessonList = lessonRepository.listAll();
+        assertFalse(lessonList.isEmpty());
+        for (Lesson lesson : lessonList) {
+            assertSame(lesson.getSubject().intern(), lesson.getSubject());
+            assertSame(lesson.getTeacher().intern(), lesson.getTeacher());
+            assertSame(lesson.getStudentGroup().intern(), lesson.getStudentGroup());
+        }
+    }
+
+}
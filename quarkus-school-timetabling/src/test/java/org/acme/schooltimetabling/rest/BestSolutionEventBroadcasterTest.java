@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.schooltimetabling.rest;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.SseEventSink;
+
+import org.acme.schooltimetabling.domain.Timeslot;
+import org.jboss.resteasy.plugins.providers.sse.SseImpl;
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+
+@QuarkusTest
+public class BestSolutionEventBroadcasterTest {
+
+    @Inject
+    BestSolutionEventBroadcaster bestSolutionEventBroadcaster;
+
+    @Test
+    public void notSolvingEventWhenSolvingEnds() throws InterruptedException {
+        // An empty timeTable, so solving ends immediately
+        Long timeTableId = 5L;
+        RecordingSseEventSink sink = new RecordingSseEventSink();
+        bestSolutionEventBroadcaster.register(timeTableId, sink, new SseImpl());
+
+        given()
+                .when()
+                .post("/timeTable/{timeTableId}/solve", timeTableId)
+                .then()
+                .statusCode(204);
+        assertTrue(sink.notSolvingLatch.await(10L, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void notSolvingEventWhenSolvingFails() throws InterruptedException {
+        Long timeTableId = 6L;
+        // Without a dayOfWeek, the timeslots can't be sorted, so loading the problem fails
+        for (LocalTime startTime : Arrays.asList(LocalTime.of(8, 30), LocalTime.of(9, 30))) {
+            Timeslot timeslot = new Timeslot(null, startTime, startTime.plusHours(1L));
+            timeslot.setTimeTableId(timeTableId);
+            given()
+                    .when()
+                    .contentType(ContentType.JSON)
+                    .body(timeslot)
+                    .post("/timeslots")
+                    .then()
+                    .statusCode(201);
+        }
+        RecordingSseEventSink sink = new RecordingSseEventSink();
+        bestSolutionEventBroadcaster.register(timeTableId, sink, new SseImpl());
+
+        given()
+                .when()
+                .post("/timeTable/{timeTableId}/solve", timeTableId)
+                .then()
+                .statusCode(204);
+        assertTrue(sink.notSolvingLatch.await(10L, TimeUnit.SECONDS));
+    }
+
+    private static class RecordingSseEventSink implements SseEventSink {
+
+        private final CountDownLatch notSolvingLatch = new CountDownLatch(1);
+        private volatile boolean closed = false;
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public CompletionStage<?> send(OutboundSseEvent event) {
+            if (((String) event.getData()).contains("\"solverStatus\":\"NOT_SOLVING\"")) {
+                notSolvingLatch.countDown();
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+    }
+
+}
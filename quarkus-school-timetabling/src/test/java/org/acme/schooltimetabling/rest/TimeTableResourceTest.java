@@ -16,6 +16,8 @@
 
 package org.acme.schooltimetabling.rest;
 
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -26,9 +28,11 @@ import org.acme.schooltimetabling.domain.TimeTable;
 import org.acme.schooltimetabling.domain.Lesson;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
 import org.optaplanner.core.api.solver.SolverStatus;
 
 import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
 
 @QuarkusTest
 public class TimeTableResourceTest {
@@ -55,4 +59,65 @@ public class TimeTableResourceTest {
         assertTrue(timeTable.getScore().isFeasible());
     }
 
+    @Test
+    public void otherTimeTableDoesNotSeeDemoData() {
+        TimeTable timeTable = timeTableResource.getTimeTable(2L);
+        assertEquals(2L, timeTable.getId());
+        assertTrue(timeTable.getTimeslotList().isEmpty());
+        assertTrue(timeTable.getRoomList().isEmpty());
+        assertTrue(timeTable.getLessonList().isEmpty());
+        assertEquals(SolverStatus.NOT_SOLVING, timeTable.getSolverStatus());
+    }
+
+    @Test
+    public void scoreIsRecalculatedAfterCrudEdit() {
+        Long timeTableId = 3L;
+        assertEquals(HardSoftScore.ZERO, timeTableResource.getTimeTable(timeTableId).getScore());
+        assertEquals(HardSoftScore.ZERO, timeTableResource.getTimeTable(timeTableId).getScore());
+
+        Lesson lesson = new Lesson("Test subject", "Test teacher", "Test studentGroup");
+        lesson.setTimeTableId(timeTableId);
+        Lesson createdLesson = given()
+                .when()
+                .contentType(ContentType.JSON)
+                .body(lesson)
+                .post("/lessons")
+                .then()
+                .statusCode(201)
+                .extract().as(Lesson.class);
+        // Its timeslot and room are unassigned
+        assertEquals(-2, timeTableResource.getTimeTable(timeTableId).getScore().getInitScore());
+
+        given()
+                .when()
+                .delete("/lessons/{id}", createdLesson.getId())
+                .then()
+                .statusCode(204);
+        assertEquals(HardSoftScore.ZERO, timeTableResource.getTimeTable(timeTableId).getScore());
+    }
+
+    @Test
+    public void deleteTimeTable() {
+        Long timeTableId = 4L;
+        Lesson lesson = new Lesson("Test subject", "Test teacher", "Test studentGroup");
+        lesson.setTimeTableId(timeTableId);
+        given()
+                .when()
+                .contentType(ContentType.JSON)
+                .body(lesson)
+                .post("/lessons")
+                .then()
+                .statusCode(201);
+        assertEquals(1, timeTableResource.getTimeTable(timeTableId).getLessonList().size());
+
+        given()
+                .when()
+                .delete("/timeTable/{timeTableId}", timeTableId)
+                .then()
+                .statusCode(204);
+        TimeTable timeTable = timeTableResource.getTimeTable(timeTableId);
+        assertTrue(timeTable.getLessonList().isEmpty());
+        assertEquals(HardSoftScore.ZERO, timeTable.getScore());
+    }
+
 }
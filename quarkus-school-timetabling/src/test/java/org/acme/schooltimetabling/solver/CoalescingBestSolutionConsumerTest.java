@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.schooltimetabling.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class CoalescingBestSolutionConsumerTest {
+
+    private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void shutdownFlushExecutor() {
+        flushExecutor.shutdownNow();
+    }
+
+    @Test
+    void coalesceBestSolutionsWithinFlushInterval() throws InterruptedException {
+        List<String> flushedList = new CopyOnWriteArrayList<>();
+        CountDownLatch firstFlushLatch = new CountDownLatch(1);
+        CoalescingBestSolutionConsumer<String> consumer = new CoalescingBestSolutionConsumer<>(solution -> {
+            flushedList.add(solution);
+            firstFlushLatch.countDown();
+        }, TimeUnit.HOURS.toMillis(1L), flushExecutor);
+
+        // The first best solution is flushed immediately
+        consumer.accept("first");
+        assertTrue(firstFlushLatch.await(10L, TimeUnit.SECONDS));
+        // The others wait for the flush interval and only the latest is kept
+        consumer.accept("second");
+        consumer.accept("third");
+        // The final best solution doesn't wait and replaces the waiting one
+        consumer.acceptFinal("final");
+        consumer.accept("late");
+        assertEquals(Arrays.asList("first", "final"), flushedList);
+    }
+
+    @Test
+    void cancelIgnoresWaitingAndLaterBestSolutions() throws InterruptedException {
+        List<String> flushedList = new CopyOnWriteArrayList<>();
+        CountDownLatch firstFlushLatch = new CountDownLatch(1);
+        CoalescingBestSolutionConsumer<String> consumer = new CoalescingBestSolutionConsumer<>(solution -> {
+            flushedList.add(solution);
+            firstFlushLatch.countDown();
+        }, 100L, flushExecutor);
+
+        consumer.accept("first");
+        assertTrue(firstFlushLatch.await(10L, TimeUnit.SECONDS));
+        consumer.accept("waiting");
+        consumer.cancel();
+        consumer.accept("late");
+        // A shut down executor still runs the scheduled flush of the waiting best solution
+        flushExecutor.shutdown();
+        assertTrue(flushExecutor.awaitTermination(10L, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("first"), flushedList);
+    }
+
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.schooltimetabling.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.acme.schooltimetabling.domain.Lesson;
+import org.acme.schooltimetabling.domain.Room;
+import org.acme.schooltimetabling.domain.TimeTable;
+import org.acme.schooltimetabling.domain.Timeslot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.ScoreManager;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+
+class ProblemFactChangeTest {
+
+    private static final SolverFactory<TimeTable> SOLVER_FACTORY = SolverFactory.create(new SolverConfig()
+            .withSolutionClass(TimeTable.class)
+            .withEntityClasses(Lesson.class)
+            .withConstraintProviderClass(TimeTableConstraintProvider.class));
+    private static final ScoreManager<TimeTable, HardSoftScore> SCORE_MANAGER = ScoreManager.create(SOLVER_FACTORY);
+
+    private InnerScoreDirector<TimeTable, HardSoftScore> scoreDirector;
+    private TimeTable timeTable;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setWorkingSolution() {
+        Timeslot timeslot1 = newTimeslot(1L, LocalTime.of(8, 30));
+        Timeslot timeslot2 = newTimeslot(2L, LocalTime.of(9, 30));
+        Room room1 = new Room(1L, "Room A");
+        Room room2 = new Room(2L, "Room B");
+        timeTable = new TimeTable(new ArrayList<>(Arrays.asList(timeslot1, timeslot2)),
+                new ArrayList<>(Arrays.asList(room1, room2)),
+                new ArrayList<>(Arrays.asList(
+                        new Lesson(1L, "Math", "A. Turing", "9th grade", timeslot1, room1),
+                        new Lesson(2L, "Physics", "M. Curie", "9th grade", timeslot2, room1),
+                        new Lesson(3L, "Chemistry", "M. Curie", "10th grade", timeslot1, room2))));
+        scoreDirector = (InnerScoreDirector<TimeTable, HardSoftScore>)
+                ((DefaultSolverFactory<TimeTable>) SOLVER_FACTORY).getScoreDirectorFactory().buildScoreDirector();
+        scoreDirector.setWorkingSolution(timeTable);
+        scoreDirector.calculateScore();
+    }
+
+    @AfterEach
+    void closeScoreDirector() {
+        scoreDirector.close();
+    }
+
+    @Test
+    void addLesson() {
+        Lesson lesson = new Lesson(4L, "Biology", "C. Darwin", "10th grade",
+                newTimeslot(2L, LocalTime.of(9, 30)), new Room(2L, "Room B"));
+        doChangeTwice(new LessonProblemFactChange(ProblemChangeType.ADD, lesson));
+
+        assertEquals(4, timeTable.getLessonList().size());
+        Lesson addedLesson = timeTable.getLessonList().get(3);
+        assertEquals(4L, addedLesson.getId());
+        // Refers to the working timeslot and room, not to the copies of the change
+        assertSame(timeTable.getTimeslotList().get(1), addedLesson.getTimeslot());
+        assertSame(timeTable.getRoomList().get(1), addedLesson.getRoom());
+    }
+
+    @Test
+    void updateLesson() {
+        Lesson lesson = new Lesson(2L, "Physics", "A. Turing", "9th grade",
+                newTimeslot(1L, LocalTime.of(8, 30)), null);
+        doChangeTwice(new LessonProblemFactChange(ProblemChangeType.UPDATE, lesson));
+
+        Lesson workingLesson = timeTable.getLessonList().get(1);
+        assertEquals("A. Turing", workingLesson.getTeacher());
+        assertSame(timeTable.getTimeslotList().get(0), workingLesson.getTimeslot());
+        assertNull(workingLesson.getRoom());
+    }
+
+    @Test
+    void removeLesson() {
+        Lesson lesson = new Lesson(2L, "Physics", "M. Curie", "9th grade", null, null);
+        doChangeTwice(new LessonProblemFactChange(ProblemChangeType.REMOVE, lesson));
+
+        assertEquals(2, timeTable.getLessonList().size());
+        assertEquals(1L, timeTable.getLessonList().get(0).getId());
+        assertEquals(3L, timeTable.getLessonList().get(1).getId());
+    }
+
+    @Test
+    void addRoom() {
+        doChangeTwice(new RoomProblemFactChange(ProblemChangeType.ADD, new Room(3L, "Room C")));
+
+        assertEquals(3, timeTable.getRoomList().size());
+        assertEquals("Room C", timeTable.getRoomList().get(2).getName());
+    }
+
+    @Test
+    void updateRoom() {
+        doChangeTwice(new RoomProblemFactChange(ProblemChangeType.UPDATE, new Room(1L, "Room Z")));
+
+        assertEquals("Room Z", timeTable.getRoomList().get(0).getName());
+    }
+
+    @Test
+    void removeRoomUnassignsItsLessons() {
+        doChangeTwice(new RoomProblemFactChange(ProblemChangeType.REMOVE, new Room(1L, "Room A")));
+
+        assertEquals(1, timeTable.getRoomList().size());
+        assertNull(timeTable.getLessonList().get(0).getRoom());
+        assertNull(timeTable.getLessonList().get(1).getRoom());
+        assertSame(timeTable.getRoomList().get(0), timeTable.getLessonList().get(2).getRoom());
+    }
+
+    @Test
+    void addTimeslotRelinksNextTimeslots() {
+        doChangeTwice(new TimeslotProblemFactChange(ProblemChangeType.ADD, newTimeslot(3L, LocalTime.of(10, 30))));
+
+        assertEquals(3, timeTable.getTimeslotList().size());
+        assertEquals(Collections.singleton(timeTable.getTimeslotList().get(2)),
+                timeTable.getTimeslotList().get(1).getNextTimeslotSet());
+    }
+
+    @Test
+    void updateTimeslotRelinksNextTimeslots() {
+        // Moves it to the afternoon, so it no longer follows the first timeslot
+        doChangeTwice(new TimeslotProblemFactChange(ProblemChangeType.UPDATE, newTimeslot(2L, LocalTime.of(14, 0))));
+
+        assertEquals(LocalTime.of(14, 0), timeTable.getTimeslotList().get(1).getStartTime());
+        assertTrue(timeTable.getTimeslotList().get(0).getNextTimeslotSet().isEmpty());
+    }
+
+    @Test
+    void removeTimeslotUnassignsItsLessons() {
+        doChangeTwice(new TimeslotProblemFactChange(ProblemChangeType.REMOVE, newTimeslot(1L, LocalTime.of(8, 30))));
+
+        assertEquals(1, timeTable.getTimeslotList().size());
+        assertTrue(timeTable.getTimeslotList().get(0).getNextTimeslotSet().isEmpty());
+        assertNull(timeTable.getLessonList().get(0).getTimeslot());
+        assertSame(timeTable.getTimeslotList().get(0), timeTable.getLessonList().get(1).getTimeslot());
+        assertNull(timeTable.getLessonList().get(2).getTimeslot());
+    }
+
+    private static Timeslot newTimeslot(long id, LocalTime startTime) {
+        return new Timeslot(id, DayOfWeek.MONDAY, startTime, startTime.plusHours(1L));
+    }
+
+    /**
+     * Every change must be idempotent, because the solver might have loaded the problem after it was committed,
+     * and the incremental score must match the score calculated from scratch.
+     */
+    private void doChangeTwice(ProblemFactChange<TimeTable> problemFactChange) {
+        problemFactChange.doChange(scoreDirector);
+        problemFactChange.doChange(scoreDirector);
+        HardSoftScore incrementalScore = scoreDirector.calculateScore();
+        assertEquals(SCORE_MANAGER.updateScore(timeTable), incrementalScore);
+    }
+
+}
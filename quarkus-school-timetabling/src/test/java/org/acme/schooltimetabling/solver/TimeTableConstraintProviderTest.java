@@ -18,6 +18,7 @@ package org.acme.schooltimetabling.solver;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.Arrays;
 
 import org.acme.schooltimetabling.domain.Lesson;
 import org.acme.schooltimetabling.domain.Room;
@@ -35,6 +36,10 @@ class TimeTableConstraintProviderTest {
     private static final Timeslot TIMESLOT3 = new Timeslot(3, DayOfWeek.TUESDAY, LocalTime.NOON.plusHours(1));
     private static final Timeslot TIMESLOT4 = new Timeslot(4, DayOfWeek.TUESDAY, LocalTime.NOON.plusHours(3));
 
+    static {
+        Timeslot.linkNextTimeslots(Arrays.asList(TIMESLOT1, TIMESLOT2, TIMESLOT3, TIMESLOT4));
+    }
+
     private final ConstraintVerifier<TimeTableConstraintProvider, TimeTable> constraintVerifier =
             ConstraintVerifier.build(new TimeTableConstraintProvider(), TimeTable.class, Lesson.class);
 
@@ -93,6 +98,23 @@ class TimeTableConstraintProviderTest {
                 .rewardsWith(1); // Second tuesday lesson immediately follows the first.
     }
 
+    @Test
+    void teacherTimeEfficiencyRewardsEveryFollowingTimeslot() {
+        String teacher = "Teacher1";
+        Timeslot firstTimeslot = new Timeslot(11, DayOfWeek.WEDNESDAY, LocalTime.NOON);
+        Timeslot followingTimeslot = new Timeslot(12, DayOfWeek.WEDNESDAY, LocalTime.NOON.plusHours(1));
+        Timeslot overlappingFollowingTimeslot = new Timeslot(13, DayOfWeek.WEDNESDAY,
+                LocalTime.NOON.plusHours(1).plusMinutes(10));
+        Timeslot.linkNextTimeslots(Arrays.asList(firstTimeslot, followingTimeslot, overlappingFollowingTimeslot));
+        Lesson firstLesson = new Lesson(1, "Subject1", teacher, "Group1", firstTimeslot, ROOM1);
+        Lesson followingLesson = new Lesson(2, "Subject2", teacher, "Group2", followingTimeslot, ROOM1);
+        Lesson overlappingFollowingLesson = new Lesson(3, "Subject3", teacher, "Group3",
+                overlappingFollowingTimeslot, ROOM2);
+        constraintVerifier.verifyThat(TimeTableConstraintProvider::teacherTimeEfficiency)
+                .given(firstLesson, followingLesson, overlappingFollowingLesson)
+                .rewardsWith(2); // Both lessons start 0 to 30 minutes after the first one ends.
+    }
+
     @Test
     void studentGroupSubjectVariety() {
         String studentGroup = "Group1";
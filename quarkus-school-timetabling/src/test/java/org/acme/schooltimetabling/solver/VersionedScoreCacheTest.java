@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.acme.schooltimetabling.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+
+class VersionedScoreCacheTest {
+
+    @Test
+    void putScoreOnlyForLatestVersion() {
+        VersionedScoreCache<HardSoftScore> scoreCache = new VersionedScoreCache<>();
+        long version = scoreCache.getVersion();
+        assertNull(scoreCache.getScore(version));
+        scoreCache.putScore(version, HardSoftScore.of(-1, -2));
+        assertEquals(HardSoftScore.of(-1, -2), scoreCache.getScore(version));
+
+        scoreCache.startWrite();
+        scoreCache.endWrite();
+        assertNull(scoreCache.getScore(scoreCache.getVersion()));
+        // A reader that loaded the problem before the write
+        scoreCache.putScore(version, HardSoftScore.of(-3, -4));
+        assertNull(scoreCache.getScore(scoreCache.getVersion()));
+    }
+
+    @Test
+    void writeCommitsWhileLoading() {
+        VersionedScoreCache<HardSoftScore> scoreCache = new VersionedScoreCache<>();
+        scoreCache.putScore(scoreCache.getVersion(), HardSoftScore.of(-1, -2));
+        long version = scoreCache.getVersion();
+        // The reader loads the problem while a write commits
+        scoreCache.startWrite();
+        assertNull(scoreCache.getScore(version));
+        scoreCache.putScore(version, HardSoftScore.of(-3, -4));
+        scoreCache.endWrite();
+        assertNull(scoreCache.getScore(version));
+        assertNull(scoreCache.getScore(scoreCache.getVersion()));
+    }
+
+    @Test
+    void loadWhileWriteInProgress() {
+        VersionedScoreCache<HardSoftScore> scoreCache = new VersionedScoreCache<>();
+        scoreCache.putScore(scoreCache.getVersion(), HardSoftScore.of(-1, -2));
+        scoreCache.startWrite();
+        // The reader doesn't know if it loaded the problem before or after that write committed
+        long version = scoreCache.getVersion();
+        assertNull(scoreCache.getScore(version));
+        scoreCache.putScore(version, HardSoftScore.of(-3, -4));
+        assertNull(scoreCache.getScore(version));
+        scoreCache.endWrite();
+        assertNull(scoreCache.getScore(scoreCache.getVersion()));
+
+        version = scoreCache.getVersion();
+        scoreCache.putScore(version, HardSoftScore.of(-5, -6));
+        assertEquals(HardSoftScore.of(-5, -6), scoreCache.getScore(version));
+    }
+
+    @Test
+    void endWriteWithBestScore() {
+        VersionedScoreCache<HardSoftScore> scoreCache = new VersionedScoreCache<>();
+        long solutionVersion = scoreCache.getVersion();
+        scoreCache.startWrite();
+        solutionVersion = scoreCache.endWrite(solutionVersion, HardSoftScore.of(0, -10));
+        assertEquals(HardSoftScore.of(0, -10), scoreCache.getScore(scoreCache.getVersion()));
+        scoreCache.startWrite();
+        solutionVersion = scoreCache.endWrite(solutionVersion, HardSoftScore.of(0, -5));
+        assertEquals(HardSoftScore.of(0, -5), scoreCache.getScore(scoreCache.getVersion()));
+
+        // A CRUD edit that the solver doesn't know about commits while the solver writes
+        scoreCache.startWrite();
+        scoreCache.startWrite();
+        scoreCache.endWrite();
+        solutionVersion = scoreCache.endWrite(solutionVersion, HardSoftScore.of(0, -4));
+        assertEquals(VersionedScoreCache.DIVERGED_VERSION, solutionVersion);
+        assertNull(scoreCache.getScore(scoreCache.getVersion()));
+        // Stays diverged for the rest of that solver
+        scoreCache.startWrite();
+        scoreCache.endWrite(solutionVersion, HardSoftScore.of(0, -3));
+        assertNull(scoreCache.getScore(scoreCache.getVersion()));
+    }
+
+    @Test
+    void endWriteWithoutStartWrite() {
+        VersionedScoreCache<HardSoftScore> scoreCache = new VersionedScoreCache<>();
+        assertThrows(IllegalStateException.class, scoreCache::endWrite);
+    }
+
+}
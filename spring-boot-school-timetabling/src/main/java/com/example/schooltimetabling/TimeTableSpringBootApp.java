@@ -18,6 +18,7 @@ package com.example.schooltimetabling;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
@@ -25,9 +26,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.CrudRepository;
 
+import com.example.schooltimetabling.bootstrap.DemoDataBuilder;
 import com.example.schooltimetabling.domain.Lesson;
 import com.example.schooltimetabling.domain.Room;
+import com.example.schooltimetabling.domain.TimeTable;
 import com.example.schooltimetabling.domain.Timeslot;
 import com.example.schooltimetabling.persistence.LessonRepository;
 import com.example.schooltimetabling.persistence.RoomRepository;
@@ -42,6 +46,20 @@ public class TimeTableSpringBootApp {
 
     @Value("${timeTable.demoData:SMALL}")
     private DemoData demoData;
+    @Value("${timeTable.demoData.studentGroupCount:40}")
+    private int studentGroupCount;
+    @Value("${timeTable.demoData.teacherCount:60}")
+    private int teacherCount;
+    @Value("${timeTable.demoData.roomCount:40}")
+    private int roomCount;
+    @Value("${timeTable.demoData.dayCount:5}")
+    private int dayCount;
+    @Value("${timeTable.demoData.periodCount:8}")
+    private int periodCount;
+    @Value("${timeTable.demoData.seed:0}")
+    private long seed;
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
 
     @Bean
     public CommandLineRunner demoData(
@@ -52,6 +70,20 @@ public class TimeTableSpringBootApp {
             if (demoData == DemoData.NONE) {
                 return;
             }
+            if (demoData == DemoData.GENERATED) {
+                TimeTable timeTable = DemoDataBuilder.builder()
+                        .setStudentGroupCount(studentGroupCount)
+                        .setTeacherCount(teacherCount)
+                        .setRoomCount(roomCount)
+                        .setDayCount(dayCount)
+                        .setPeriodCount(periodCount)
+                        .setSeed(seed)
+                        .build();
+                saveInBatches(timeslotRepository, timeTable.getTimeslotList());
+                saveInBatches(roomRepository, timeTable.getRoomList());
+                saveInBatches(lessonRepository, timeTable.getLessonList());
+                return;
+            }
 
             timeslotRepository.save(new Timeslot(DayOfWeek.MONDAY, LocalTime.of(8, 30), LocalTime.of(9, 30)));
             timeslotRepository.save(new Timeslot(DayOfWeek.MONDAY, LocalTime.of(9, 30), LocalTime.of(10, 30)));
@@ -206,10 +238,21 @@ public class TimeTableSpringBootApp {
         };
     }
 
+    private <T> void saveInBatches(CrudRepository<T, Long> repository, List<T> entityList) {
+        // Each saveAll() call is a transaction that sends its inserts in JDBC batches
+        for (int i = 0; i < entityList.size(); i += batchSize) {
+            repository.saveAll(entityList.subList(i, Math.min(i + batchSize, entityList.size())));
+        }
+    }
+
     public enum DemoData {
         NONE,
         SMALL,
-        LARGE
+        LARGE,
+        /**
+         * Generated by the {@link DemoDataBuilder}, sized by the other {@code timeTable.demoData.*} properties.
+         */
+        GENERATED
     }
 
 }
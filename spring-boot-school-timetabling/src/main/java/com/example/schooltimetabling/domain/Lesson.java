@@ -17,23 +17,29 @@
 package com.example.schooltimetabling.domain;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToOne;
+import javax.persistence.PostLoad;
 
 import org.optaplanner.core.api.domain.entity.PlanningEntity;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
 import org.optaplanner.core.api.domain.variable.PlanningVariable;
 
+import com.example.schooltimetabling.persistence.TimeTableChangedListener;
+
 @PlanningEntity
 @Entity
+@EntityListeners(TimeTableChangedListener.class)
 public class Lesson {
 
     @PlanningId
     @Id @GeneratedValue
     private Long id;
 
+    // Interned, so the joiners of the constraints mostly find equal keys by reference instead of comparing characters
     private String subject;
     private String teacher;
     private String studentGroup;
@@ -51,9 +57,9 @@ public class Lesson {
     }
 
     public Lesson(String subject, String teacher, String studentGroup) {
-        this.subject = subject.trim();
-        this.teacher = teacher.trim();
-        this.studentGroup = studentGroup.trim();
+        this.subject = intern(subject.trim());
+        this.teacher = intern(teacher.trim());
+        this.studentGroup = intern(studentGroup.trim());
     }
 
     public Lesson(long id, String subject, String teacher, String studentGroup, Timeslot timeslot, Room room) {
@@ -63,6 +69,18 @@ public class Lesson {
         this.room = room;
     }
 
+    // Hibernate sets the fields directly, bypassing the setters
+    @PostLoad
+    void internKeys() {
+        subject = intern(subject);
+        teacher = intern(teacher);
+        studentGroup = intern(studentGroup);
+    }
+
+    private static String intern(String key) {
+        return key == null ? null : key.intern();
+    }
+
     @Override
     public String toString() {
         return subject + "(" + id + ")";
@@ -80,14 +98,26 @@ public class Lesson {
         return subject;
     }
 
+    public void setSubject(String subject) {
+        this.subject = intern(subject);
+    }
+
     public String getTeacher() {
         return teacher;
     }
 
+    public void setTeacher(String teacher) {
+        this.teacher = intern(teacher);
+    }
+
     public String getStudentGroup() {
         return studentGroup;
     }
 
+    public void setStudentGroup(String studentGroup) {
+        this.studentGroup = intern(studentGroup);
+    }
+
     public Timeslot getTimeslot() {
         return timeslot;
     }
@@ -17,13 +17,17 @@
 package com.example.schooltimetabling.domain;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 
 import org.optaplanner.core.api.domain.lookup.PlanningId;
 
+import com.example.schooltimetabling.persistence.TimeTableChangedListener;
+
 @Entity
+@EntityListeners(TimeTableChangedListener.class)
 public class Room {
 
     @PlanningId
@@ -62,4 +66,8 @@ public class Room {
         return name;
     }
 
+    public void setName(String name) {
+        this.name = name;
+    }
+
 }
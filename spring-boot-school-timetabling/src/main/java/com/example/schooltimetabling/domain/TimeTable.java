@@ -55,6 +55,7 @@ public class TimeTable {
         this.timeslotList = timeslotList;
         this.roomList = roomList;
         this.lessonList = lessonList;
+        Timeslot.linkNextTimeslots(timeslotList);
     }
 
     // ************************************************************************
@@ -65,18 +66,34 @@ public class TimeTable {
         return timeslotList;
     }
 
+    public void setTimeslotList(List<Timeslot> timeslotList) {
+        this.timeslotList = timeslotList;
+    }
+
     public List<Room> getRoomList() {
         return roomList;
     }
 
+    public void setRoomList(List<Room> roomList) {
+        this.roomList = roomList;
+    }
+
     public List<Lesson> getLessonList() {
         return lessonList;
     }
 
+    public void setLessonList(List<Lesson> lessonList) {
+        this.lessonList = lessonList;
+    }
+
     public HardSoftScore getScore() {
         return score;
     }
 
+    public void setScore(HardSoftScore score) {
+        this.score = score;
+    }
+
     public SolverStatus getSolverStatus() {
         return solverStatus;
     }
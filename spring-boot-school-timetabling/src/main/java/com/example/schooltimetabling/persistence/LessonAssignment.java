@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.schooltimetabling.persistence;
+
+import java.util.Objects;
+
+import com.example.schooltimetabling.domain.Lesson;
+
+/**
+ * The timeslot and room of a lesson, by id.
+ */
+public final class LessonAssignment {
+
+    private final Long lessonId;
+    private final Long timeslotId;
+    private final Long roomId;
+
+    public LessonAssignment(Lesson lesson) {
+        lessonId = lesson.getId();
+        timeslotId = lesson.getTimeslot() == null ? null : lesson.getTimeslot().getId();
+        roomId = lesson.getRoom() == null ? null : lesson.getRoom().getId();
+    }
+
+    public Long getLessonId() {
+        return lessonId;
+    }
+
+    public Long getTimeslotId() {
+        return timeslotId;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        LessonAssignment other = (LessonAssignment) o;
+        return lessonId.equals(other.lessonId)
+                && Objects.equals(timeslotId, other.timeslotId)
+                && Objects.equals(roomId, other.roomId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lessonId, timeslotId, roomId);
+    }
+
+}
@@ -16,60 +16,93 @@
 
 package com.example.schooltimetabling.persistence;
 
-import org.optaplanner.core.api.solver.SolverStatus;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.rest.core.annotation.HandleBeforeCreate;
-import org.springframework.data.rest.core.annotation.HandleBeforeDelete;
-import org.springframework.data.rest.core.annotation.HandleBeforeSave;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
 import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
 import org.springframework.stereotype.Component;
 
 import com.example.schooltimetabling.domain.Lesson;
 import com.example.schooltimetabling.domain.Room;
 import com.example.schooltimetabling.domain.Timeslot;
-import com.example.schooltimetabling.rest.TimeTableController;
+import com.example.schooltimetabling.solver.LessonProblemFactChange;
+import com.example.schooltimetabling.solver.ProblemChangeType;
+import com.example.schooltimetabling.solver.RoomProblemFactChange;
+import com.example.schooltimetabling.solver.TimeTableSolverService;
+import com.example.schooltimetabling.solver.TimeslotProblemFactChange;
 
 /**
- * This class ensures that during solving, no CRUD operations are allowed.
+ * Applies the CRUD operations on timeslots, rooms and lessons to the solver while it is solving,
+ * so solving continues from its current best solution instead of blocking the CRUD operation.
+ * The "after" events are fired after the CRUD transaction committed,
+ * so the solver never sees a change that is rolled back.
  */
 @Component
 @RepositoryEventHandler
 public class ProblemChangedRepositoryEventListener {
 
     @Autowired
-    private TimeTableController timeTableController;
+    private TimeTableSolverService solverService;
 
-    // TODO Future work: Give the CRUD operations "right of way", by calling something like this:
-    // before: solverManager.freeze(TIME_TABLE_ID);
-    // after: reloadProblem(TIME_TABLE_ID, timeTableRepository::findById);
+    @HandleAfterCreate
+    private void timeslotCreated(Timeslot timeslot) {
+        timeslotChanged(ProblemChangeType.ADD, timeslot);
+    }
+
+    @HandleAfterSave
+    private void timeslotSaved(Timeslot timeslot) {
+        timeslotChanged(ProblemChangeType.UPDATE, timeslot);
+    }
+
+    @HandleAfterDelete
+    private void timeslotDeleted(Timeslot timeslot) {
+        timeslotChanged(ProblemChangeType.REMOVE, timeslot);
+    }
+
+    private void timeslotChanged(ProblemChangeType changeType, Timeslot timeslot) {
+        solverService.addProblemFactChange(TimeTableRepository.SINGLETON_TIME_TABLE_ID,
+                new TimeslotProblemFactChange(changeType, timeslot));
+    }
+
+    @HandleAfterCreate
+    private void roomCreated(Room room) {
+        roomChanged(ProblemChangeType.ADD, room);
+    }
+
+    @HandleAfterSave
+    private void roomSaved(Room room) {
+        roomChanged(ProblemChangeType.UPDATE, room);
+    }
+
+    @HandleAfterDelete
+    private void roomDeleted(Room room) {
+        roomChanged(ProblemChangeType.REMOVE, room);
+    }
+
+    private void roomChanged(ProblemChangeType changeType, Room room) {
+        solverService.addProblemFactChange(TimeTableRepository.SINGLETON_TIME_TABLE_ID,
+                new RoomProblemFactChange(changeType, room));
+    }
 
-    @HandleBeforeCreate
-    @HandleBeforeSave
-    @HandleBeforeDelete
-    private void timeslotCreateSaveDelete(Timeslot timeslot) {
-        assertNotSolving();
+    @HandleAfterCreate
+    private void lessonCreated(Lesson lesson) {
+        lessonChanged(ProblemChangeType.ADD, lesson);
     }
 
-    @HandleBeforeCreate
-    @HandleBeforeSave
-    @HandleBeforeDelete
-    private void roomCreateSaveDelete(Room room) {
-        assertNotSolving();
+    @HandleAfterSave
+    private void lessonSaved(Lesson lesson) {
+        lessonChanged(ProblemChangeType.UPDATE, lesson);
     }
 
-    @HandleBeforeCreate
-    @HandleBeforeSave
-    @HandleBeforeDelete
-    private void lessonCreateSaveDelete(Lesson lesson) {
-        assertNotSolving();
+    @HandleAfterDelete
+    private void lessonDeleted(Lesson lesson) {
+        lessonChanged(ProblemChangeType.REMOVE, lesson);
     }
 
-    public void assertNotSolving() {
-        // TODO Race condition: if a timeTableSolverService.solve() call arrives concurrently,
-        // the solver might start before the CRUD transaction completes. That's not very harmful, though.
-        if (timeTableController.getSolverStatus() != SolverStatus.NOT_SOLVING) {
-            throw new IllegalStateException("The solver is solving. Please stop solving first.");
-        }
+    private void lessonChanged(ProblemChangeType changeType, Lesson lesson) {
+        solverService.addProblemFactChange(TimeTableRepository.SINGLETON_TIME_TABLE_ID,
+                new LessonProblemFactChange(changeType, lesson));
     }
 
 }
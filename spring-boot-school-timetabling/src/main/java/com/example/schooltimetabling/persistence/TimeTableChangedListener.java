@@ -0,0 +1,45 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.example.schooltimetabling.persistence;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Invalidates the cached score of the timeTable when a lesson, room or timeslot is written through JPA,
+ * such as by the CRUD REST resources or the solver, before that transaction commits.
+ * Unlike the events of the {@link ProblemChangedRepositoryEventListener},
+ * it also ends that write when the transaction rolls back.
+ */
+public class TimeTableChangedListener {
+
+    // Hibernate instantiates entity listeners through Spring, so it is autowired
+    @Autowired
+    private TimeTableScoreCache timeTableScoreCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void entityChanged(Object entity) {
+        timeTableScoreCache.startWrite();
+    }
+
+}
@@ -16,6 +16,12 @@
 
 package com.example.schooltimetabling.persistence;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -36,6 +42,8 @@ public class TimeTableRepository {
     private RoomRepository roomRepository;
     @Autowired
     private LessonRepository lessonRepository;
+    @Autowired
+    private TimeTableScoreCache timeTableScoreCache;
 
     public TimeTable findById(Long id) {
         if (!SINGLETON_TIME_TABLE_ID.equals(id)) {
@@ -49,11 +57,33 @@ public class TimeTableRepository {
                 lessonRepository.findAll());
     }
 
-    public void save(TimeTable timeTable) {
+    /**
+     * @param timeTable never null
+     * @param solutionVersion never null, the version of the score cache that the timeTable corresponds to,
+     * updated after the commit
+     * @return never null, the assignments of the lessons that changed
+     */
+    public List<LessonAssignment> save(TimeTable timeTable, AtomicLong solutionVersion) {
+        // Before any lesson is flushed, so the solver's score is cached instead of just invalidating it
+        timeTableScoreCache.startWrite(solutionVersion, timeTable.getScore());
+        Map<Long, Lesson> attachedLessonMap = new HashMap<>();
+        for (Lesson attachedLesson : lessonRepository.findAll()) {
+            attachedLessonMap.put(attachedLesson.getId(), attachedLesson);
+        }
+        List<LessonAssignment> changedAssignmentList = new ArrayList<>();
         for (Lesson lesson : timeTable.getLessonList()) {
-            // TODO this is awfully naive: optimistic locking causes issues if called by the SolverManager
-            lessonRepository.save(lesson);
+            // Only update the lessons that still exist, so a lesson that was deleted while solving isn't inserted again
+            Lesson attachedLesson = attachedLessonMap.get(lesson.getId());
+            if (attachedLesson != null) {
+                LessonAssignment assignment = new LessonAssignment(lesson);
+                if (!assignment.equals(new LessonAssignment(attachedLesson))) {
+                    attachedLesson.setTimeslot(lesson.getTimeslot());
+                    attachedLesson.setRoom(lesson.getRoom());
+                    changedAssignmentList.add(assignment);
+                }
+            }
         }
+        return changedAssignmentList;
     }
 
 }
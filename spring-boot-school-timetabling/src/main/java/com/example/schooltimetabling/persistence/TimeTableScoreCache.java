@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.example.schooltimetabling.persistence;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.schooltimetabling.solver.VersionedScoreCache;
+
+/**
+ * Holds the {@link VersionedScoreCache} of the timeTable
+ * and starts a write on it before a transaction that writes to the timeTable commits,
+ * which ends once that transaction completed.
+ */
+@Component
+public class TimeTableScoreCache {
+
+    private final VersionedScoreCache<HardSoftScore> scoreCache = new VersionedScoreCache<>();
+
+    public VersionedScoreCache<HardSoftScore> get() {
+        return scoreCache;
+    }
+
+    /**
+     * Starts a write now, before the current transaction commits, and ends it once that transaction completed,
+     * so no reader trusts a cached score while it can't tell if it loaded the old or the new data.
+     */
+    public void startWrite() {
+        startWrite(status -> scoreCache.endWrite());
+    }
+
+    /**
+     * Like {@link #startWrite()}, but also caches the score of the solver's best solution if the transaction commits.
+     * Call it before any lesson is flushed in the current transaction,
+     * so it wins over the {@link TimeTableChangedListener}.
+     * @param solutionVersion never null, the version the best solution corresponds to, updated after the commit
+     * @param bestScore never null
+     */
+    public void startWrite(AtomicLong solutionVersion, HardSoftScore bestScore) {
+        startWrite(status -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                solutionVersion.set(scoreCache.endWrite(solutionVersion.get(), bestScore));
+            } else {
+                scoreCache.endWrite();
+                solutionVersion.set(VersionedScoreCache.DIVERGED_VERSION);
+            }
+        });
+    }
+
+    private void startWrite(IntConsumer endWrite) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            scoreCache.startWrite();
+            endWrite.accept(TransactionSynchronization.STATUS_COMMITTED);
+            return;
+        }
+        // Start only one write per transaction, even if it writes many entities
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        scoreCache.startWrite();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TimeTableScoreCache.this);
+                endWrite.accept(status);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.schooltimetabling.rest;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Keeps the Server-Sent Events connections of the browsers
+ * and pushes a {@link BestSolutionEvent} to all of them.
+ * <p>
+ * Each event is serialized to JSON once, regardless of how many browsers watch the timeTable.
+ */
+@Component
+public class BestSolutionEventBroadcaster {
+
+    public static final String BEST_SOLUTION_EVENT_NAME = "bestSolution";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Set<SseEmitter> emitterSet = ConcurrentHashMap.newKeySet();
+
+    public SseEmitter register() {
+        // No timeout: the connection stays open until the browser goes away
+        SseEmitter emitter = new SseEmitter(0L);
+        emitter.onCompletion(() -> emitterSet.remove(emitter));
+        emitter.onTimeout(() -> emitterSet.remove(emitter));
+        emitter.onError(throwable -> emitterSet.remove(emitter));
+        emitterSet.add(emitter);
+        return emitter;
+    }
+
+    public void broadcast(BestSolutionEvent event) {
+        if (emitterSet.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Serializing the best solution event with solverStatus ("
+                    + event.getSolverStatus() + ") failed.", e);
+        }
+        for (SseEmitter emitter : emitterSet) {
+            try {
+                // An SseEventBuilder can only be sent once, so build one per emitter
+                emitter.send(SseEmitter.event().name(BEST_SOLUTION_EVENT_NAME).data(json));
+            } catch (IOException | IllegalStateException e) {
+                // The browser went away, the servlet container completes the emitter
+                emitterSet.remove(emitter);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void completeAll() {
+        emitterSet.forEach(SseEmitter::complete);
+        emitterSet.clear();
+    }
+
+}
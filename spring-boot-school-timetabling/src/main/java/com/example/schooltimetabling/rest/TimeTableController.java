@@ -16,18 +16,36 @@
 
 package com.example.schooltimetabling.rest;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+
 import org.optaplanner.core.api.score.ScoreManager;
 import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
-import org.optaplanner.core.api.solver.SolverManager;
 import org.optaplanner.core.api.solver.SolverStatus;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.example.schooltimetabling.domain.TimeTable;
+import com.example.schooltimetabling.persistence.LessonAssignment;
 import com.example.schooltimetabling.persistence.TimeTableRepository;
+import com.example.schooltimetabling.persistence.TimeTableScoreCache;
+import com.example.schooltimetabling.solver.CoalescingBestSolutionConsumer;
+import com.example.schooltimetabling.solver.TimeTableSolverService;
+import com.example.schooltimetabling.solver.VersionedScoreCache;
 
 @RestController
 @RequestMapping("/timeTable")
@@ -36,9 +54,23 @@ public class TimeTableController {
     @Autowired
     private TimeTableRepository timeTableRepository;
     @Autowired
-    private SolverManager<TimeTable, Long> solverManager;
+    private TimeTableSolverService solverService;
     @Autowired
     private ScoreManager<TimeTable, HardSoftScore> scoreManager;
+    @Autowired
+    private BestSolutionEventBroadcaster bestSolutionEventBroadcaster;
+    @Autowired
+    private TimeTableScoreCache timeTableScoreCache;
+
+    @Value("${timeTable.bestSolutionFlushIntervalMillis:500}")
+    private long bestSolutionFlushIntervalMillis;
+
+    private final ScheduledExecutorService bestSolutionFlushExecutor = Executors.newSingleThreadScheduledExecutor();
+
+    @PreDestroy
+    public void shutdownBestSolutionFlushExecutor() {
+        bestSolutionFlushExecutor.shutdownNow();
+    }
 
     // To try, GET http://localhost:8080/timeTable
     @GetMapping()
@@ -46,26 +78,77 @@ public class TimeTableController {
         // Get the solver status before loading the solution
         // to avoid the race condition that the solver terminates between them
         SolverStatus solverStatus = getSolverStatus();
+        // Likewise, get the version before loading the solution,
+        // so getScore() and putScore() ignore the cache if a write started in the meantime
+        VersionedScoreCache<HardSoftScore> scoreCache = timeTableScoreCache.get();
+        long version = scoreCache.getVersion();
         TimeTable solution = timeTableRepository.findById(TimeTableRepository.SINGLETON_TIME_TABLE_ID);
-        scoreManager.updateScore(solution); // Sets the score
+        HardSoftScore score = scoreCache.getScore(version);
+        if (score == null) {
+            scoreManager.updateScore(solution); // Sets the score
+            scoreCache.putScore(version, solution.getScore());
+        } else {
+            solution.setScore(score);
+        }
         solution.setSolverStatus(solverStatus);
         return solution;
     }
 
+    // Instead of polling GET /timeTable while solving, the browser keeps this connection open
+    // and receives a BestSolutionEvent with the score and the moved lessons whenever the best solution is saved.
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter listenToBestSolutionEvents() {
+        return bestSolutionEventBroadcaster.register();
+    }
+
     @PostMapping("/solve")
     public void solve() {
-        solverManager.solveAndListen(TimeTableRepository.SINGLETON_TIME_TABLE_ID,
-                timeTableRepository::findById,
-                timeTableRepository::save);
+        // The version of the database that the solver's best solution corresponds to
+        AtomicLong solutionVersion = new AtomicLong();
+        CoalescingBestSolutionConsumer<TimeTable> bestSolutionConsumer = new CoalescingBestSolutionConsumer<>(
+                bestSolution -> {
+                    // The solver already calculated the score of what it saves, so the next GET doesn't need to
+                    List<LessonAssignment> changedLessonList = timeTableRepository.save(bestSolution, solutionVersion);
+                    bestSolutionEventBroadcaster.broadcast(new BestSolutionEvent(bestSolution.getScore(),
+                            SolverStatus.SOLVING_ACTIVE, changedLessonList));
+                },
+                bestSolutionFlushIntervalMillis, bestSolutionFlushExecutor);
+        try {
+            solverService.solveAndListen(TimeTableRepository.SINGLETON_TIME_TABLE_ID,
+                    problemId -> {
+                        solutionVersion.set(timeTableScoreCache.get().getVersion());
+                        return timeTableRepository.findById(problemId);
+                    },
+                    bestSolutionConsumer,
+                    finalBestSolution -> {
+                        bestSolutionConsumer.acceptFinal(finalBestSolution);
+                        finishSolving(finalBestSolution.getScore());
+                    },
+                    exception -> {
+                        bestSolutionConsumer.cancel();
+                        // Null if the solver didn't save a best solution with the latest version
+                        finishSolving(timeTableScoreCache.get().getScore(solutionVersion.get()));
+                    });
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+        }
+    }
+
+    private void finishSolving(HardSoftScore score) {
+        // Tells the browsers to stop waiting for best solutions, also if solving failed
+        bestSolutionEventBroadcaster.broadcast(new BestSolutionEvent(score, SolverStatus.NOT_SOLVING,
+                Collections.emptyList()));
     }
 
     public SolverStatus getSolverStatus() {
-        return solverManager.getSolverStatus(TimeTableRepository.SINGLETON_TIME_TABLE_ID);
+        return solverService.getSolverStatus(TimeTableRepository.SINGLETON_TIME_TABLE_ID);
     }
 
     @PostMapping("/stopSolving")
     public void stopSolving() {
-        solverManager.terminateEarly(TimeTableRepository.SINGLETON_TIME_TABLE_ID);
+        solverService.terminateEarly(TimeTableRepository.SINGLETON_TIME_TABLE_ID);
     }
 
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.schooltimetabling.solver;
+
+import java.util.function.Function;
+
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.score.stream.Constraint;
+import org.optaplanner.core.api.score.stream.ConstraintCollectors;
+import org.optaplanner.core.api.score.stream.ConstraintFactory;
+
+import com.example.schooltimetabling.domain.Lesson;
+
+/**
+ * Same score as the {@link TimeTableConstraintProvider}, but the conflict constraints count the lessons
+ * per timeslot and room/teacher/student group, instead of matching every pair of conflicting lessons.
+ * <p>
+ * A timeslot with k lessons of one teacher still costs k*(k-1)/2 hard points,
+ * but it's a single group instead of k*(k-1)/2 pair tuples,
+ * which uses less memory and calculates faster on heavily over-constrained datasets.
+ * On feasible datasets, where most groups have a single lesson, the pairs are usually faster.
+ * <p>
+ * To use it, select it in the solver config, see {@code groupByConflictsSolverConfig.xml}.
+ */
+public class GroupByTimeTableConstraintProvider extends TimeTableConstraintProvider {
+
+    @Override
+    Constraint roomConflict(ConstraintFactory constraintFactory) {
+        // A room can accommodate at most one lesson at the same time.
+        return conflict(constraintFactory, "Room conflict", Lesson::getRoom);
+    }
+
+    @Override
+    Constraint teacherConflict(ConstraintFactory constraintFactory) {
+        // A teacher can teach at most one lesson at the same time.
+        return conflict(constraintFactory, "Teacher conflict", Lesson::getTeacher);
+    }
+
+    @Override
+    Constraint studentGroupConflict(ConstraintFactory constraintFactory) {
+        // A student can attend at most one lesson at the same time.
+        return conflict(constraintFactory, "Student group conflict", Lesson::getStudentGroup);
+    }
+
+    private static <Resource_> Constraint conflict(ConstraintFactory constraintFactory, String constraintName,
+            Function<Lesson, Resource_> resourceMapping) {
+        return constraintFactory
+                // Count the lessons ...
+                .from(Lesson.class)
+                // ... per timeslot and resource ...
+                .groupBy(Lesson::getTimeslot, resourceMapping, ConstraintCollectors.count())
+                // ... that have more than 1 lesson ...
+                .filter((timeslot, resource, lessonCount) -> lessonCount > 1)
+                // ... and penalize each pair of those lessons with a hard weight.
+                .penalize(constraintName, HardSoftScore.ONE_HARD,
+                        (timeslot, resource, lessonCount) -> lessonCount * (lessonCount - 1) / 2);
+    }
+
+}
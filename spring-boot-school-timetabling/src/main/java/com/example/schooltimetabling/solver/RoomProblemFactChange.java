@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.schooltimetabling.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+
+import com.example.schooltimetabling.domain.Lesson;
+import com.example.schooltimetabling.domain.Room;
+import com.example.schooltimetabling.domain.TimeTable;
+
+/**
+ * Applies a room that was added, updated or removed in the database to the working solution of a solver.
+ * <p>
+ * Idempotent: the solver might have loaded the problem after that change was committed.
+ */
+public class RoomProblemFactChange implements ProblemFactChange<TimeTable> {
+
+    private final ProblemChangeType changeType;
+    private final Room room;
+
+    public RoomProblemFactChange(ProblemChangeType changeType, Room room) {
+        this.changeType = changeType;
+        // Copy, because the JPA entity is still used after its transaction committed
+        this.room = copy(room);
+    }
+
+    static Room copy(Room room) {
+        return new Room(room.getId(), room.getName());
+    }
+
+    @Override
+    public void doChange(ScoreDirector<TimeTable> scoreDirector) {
+        TimeTable timeTable = scoreDirector.getWorkingSolution();
+        Room workingRoom = scoreDirector.lookUpWorkingObjectOrReturnNull(room);
+        switch (changeType) {
+            case ADD:
+                if (workingRoom != null) {
+                    return;
+                }
+                scoreDirector.beforeProblemFactAdded(room);
+                // Shallow clone the list, because the best solution might share it with the working solution
+                List<Room> addedRoomList = new ArrayList<>(timeTable.getRoomList());
+                addedRoomList.add(room);
+                timeTable.setRoomList(addedRoomList);
+                scoreDirector.afterProblemFactAdded(room);
+                break;
+            case UPDATE:
+                if (workingRoom == null || Objects.equals(workingRoom.getName(), room.getName())) {
+                    return;
+                }
+                scoreDirector.beforeProblemPropertyChanged(workingRoom);
+                workingRoom.setName(room.getName());
+                scoreDirector.afterProblemPropertyChanged(workingRoom);
+                break;
+            case REMOVE:
+                if (workingRoom == null) {
+                    return;
+                }
+                // No lesson may keep referring to it
+                for (Lesson lesson : timeTable.getLessonList()) {
+                    if (lesson.getRoom() == workingRoom) {
+                        scoreDirector.beforeVariableChanged(lesson, "room");
+                        lesson.setRoom(null);
+                        scoreDirector.afterVariableChanged(lesson, "room");
+                    }
+                }
+                scoreDirector.beforeProblemFactRemoved(workingRoom);
+                List<Room> removedRoomList = new ArrayList<>(timeTable.getRoomList());
+                removedRoomList.remove(workingRoom);
+                timeTable.setRoomList(removedRoomList);
+                scoreDirector.afterProblemFactRemoved(workingRoom);
+                break;
+            default:
+                throw new IllegalStateException("The changeType (" + changeType + ") is not implemented.");
+        }
+        scoreDirector.triggerVariableListeners();
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.schooltimetabling.solver;
+
+import org.optaplanner.core.api.score.Score;
+
+/**
+ * Remembers the score of a problem, so it is only recalculated after the problem changed.
+ * <p>
+ * Every write to the problem bumps the version twice:
+ * when it starts, before its transaction commits, and when that transaction completed.
+ * While a write is in progress, no score is cached or returned,
+ * because a reader can't tell if it loaded the data from before or after that write.
+ * A reader gets the version before loading the problem
+ * and only trusts a cached score if that version is still the latest after loading.
+ * @param <Score_> the score type
+ */
+public class VersionedScoreCache<Score_ extends Score<Score_>> {
+
+    public static final long DIVERGED_VERSION = -1L;
+
+    // Guarded by this
+    private long version = 0L;
+    private int writeCount = 0;
+    private long scoreVersion = DIVERGED_VERSION;
+    private Score_ score = null;
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Call before a write to the problem commits, for example when it is flushed.
+     * Always call {@link #endWrite()} or {@link #endWrite(long, Score)} once its transaction completed,
+     * also if it rolled back.
+     */
+    public synchronized void startWrite() {
+        writeCount++;
+        version++;
+    }
+
+    /**
+     * Call after the transaction of a write to the problem completed.
+     */
+    public synchronized void endWrite() {
+        if (writeCount == 0) {
+            throw new IllegalStateException("There is no write in progress to end at version (" + version + ").");
+        }
+        writeCount--;
+        version++;
+    }
+
+    /**
+     * Call instead of {@link #endWrite()} after a best solution of the solver committed.
+     * @param expectedVersion the version when the solver loaded the problem,
+     * or the return value of the previous call for the same solver
+     * @param bestScore never null, the score of that best solution
+     * @return the version to expect on the next call,
+     * or {@link #DIVERGED_VERSION} if another write happened that the solver doesn't know about
+     */
+    public synchronized long endWrite(long expectedVersion, Score_ bestScore) {
+        // Only the start of this write may have happened since then
+        boolean diverged = expectedVersion == DIVERGED_VERSION || version != expectedVersion + 1L;
+        endWrite();
+        if (diverged) {
+            return DIVERGED_VERSION;
+        }
+        scoreVersion = version;
+        score = bestScore;
+        return version;
+    }
+
+    /**
+     * Call after loading the problem, so it detects any write that started in the meantime.
+     * @param version the version from before the problem was loaded
+     * @return null if the score of that version isn't cached or that version is no longer the latest
+     */
+    public synchronized Score_ getScore(long version) {
+        return (writeCount == 0 && version == this.version && scoreVersion == version) ? score : null;
+    }
+
+    /**
+     * Ignored if the version is no longer the latest or a write is in progress.
+     * @param version the version from before the problem was loaded
+     * @param score never null, the score of the loaded problem
+     */
+    public synchronized void putScore(long version, Score_ score) {
+        if (writeCount == 0 && version == this.version) {
+            scoreVersion = version;
+            this.score = score;
+        }
+    }
+
+}
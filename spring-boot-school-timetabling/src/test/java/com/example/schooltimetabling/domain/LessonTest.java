@@ -0,0 +1,38 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.schooltimetabling.domain;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+class LessonTest {
+
+    @Test
+    void keysAreInterned() {
+        // Different instances, like Hibernate or Jackson create for every row or JSON object
+        Lesson lesson1 = new Lesson(new String("Math"), new String("A. Turing"), new String("9th grade"));
+        Lesson lesson2 = new Lesson();
+        lesson2.setSubject(new String("Math"));
+        lesson2.setTeacher(new String("A. Turing"));
+        lesson2.setStudentGroup(new String("9th grade"));
+        assertSame(lesson1.getSubject(), lesson2.getSubject());
+        assertSame(lesson1.getTeacher(), lesson2.getTeacher());
+        assertSame(lesson1.getStudentGroup(), lesson2.getStudentGroup());
+    }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.schooltimetabling.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.schooltimetabling.domain.Lesson;
+
+@SpringBootTest
+public class LessonRepositoryTest {
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Test
+    public void keysAreInternedOnLoad() {
+        // A new persistence context, so Hibernate creates a new String for every column of every row
+        List<Lesson> lessonList = lessonRepository.findAll();
+        assertFalse(lessonList.isEmpty());
+        for (Lesson lesson : lessonList) {
+            assertSame(lesson.getSubject().intern(), lesson.getSubject());
+            assertSame(lesson.getTeacher().intern(), lesson.getTeacher());
+            assertSame(lesson.getStudentGroup().intern(), lesson.getStudentGroup());
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.schooltimetabling.solver;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+import com.example.schooltimetabling.domain.Lesson;
+import com.example.schooltimetabling.domain.Room;
+import com.example.schooltimetabling.domain.TimeTable;
+import com.example.schooltimetabling.domain.Timeslot;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.test.api.score.stream.ConstraintVerifier;
+
+class GroupByTimeTableConstraintProviderTest {
+
+    private static final Room ROOM1 = new Room(1, "Room1");
+    private static final Room ROOM2 = new Room(2, "Room2");
+    private static final Timeslot TIMESLOT1 = new Timeslot(1, DayOfWeek.MONDAY, LocalTime.NOON);
+    private static final Timeslot TIMESLOT2 = new Timeslot(2, DayOfWeek.TUESDAY, LocalTime.NOON);
+
+    private final ConstraintVerifier<GroupByTimeTableConstraintProvider, TimeTable> constraintVerifier =
+            ConstraintVerifier.build(new GroupByTimeTableConstraintProvider(), TimeTable.class, Lesson.class);
+
+    @Test
+    void roomConflict() {
+        Lesson firstLesson = new Lesson(1, "Subject1", "Teacher1", "Group1", TIMESLOT1, ROOM1);
+        Lesson conflictingLesson = new Lesson(2, "Subject2", "Teacher2", "Group2", TIMESLOT1, ROOM1);
+        Lesson nonConflictingLesson = new Lesson(3, "Subject3", "Teacher3", "Group3", TIMESLOT2, ROOM1);
+        constraintVerifier.verifyThat(GroupByTimeTableConstraintProvider::roomConflict)
+                .given(firstLesson, conflictingLesson, nonConflictingLesson)
+                .penalizesBy(1);
+    }
+
+    @Test
+    void teacherConflict() {
+        String conflictingTeacher = "Teacher1";
+        Lesson firstLesson = new Lesson(1, "Subject1", conflictingTeacher, "Group1", TIMESLOT1, ROOM1);
+        Lesson conflictingLesson = new Lesson(2, "Subject2", conflictingTeacher, "Group2", TIMESLOT1, ROOM2);
+        Lesson nonConflictingLesson = new Lesson(3, "Subject3", "Teacher2", "Group3", TIMESLOT2, ROOM1);
+        constraintVerifier.verifyThat(GroupByTimeTableConstraintProvider::teacherConflict)
+                .given(firstLesson, conflictingLesson, nonConflictingLesson)
+                .penalizesBy(1);
+    }
+
+    @Test
+    void studentGroupConflict() {
+        String conflictingGroup = "Group1";
+        Lesson firstLesson = new Lesson(1, "Subject1", "Teacher1", conflictingGroup, TIMESLOT1, ROOM1);
+        Lesson conflictingLesson = new Lesson(2, "Subject2", "Teacher2", conflictingGroup, TIMESLOT1, ROOM2);
+        Lesson nonConflictingLesson = new Lesson(3, "Subject3", "Teacher3", "Group3", TIMESLOT2, ROOM1);
+        constraintVerifier.verifyThat(GroupByTimeTableConstraintProvider::studentGroupConflict)
+                .given(firstLesson, conflictingLesson, nonConflictingLesson)
+                .penalizesBy(1);
+    }
+
+    @Test
+    void conflictPenalizesEveryPair() {
+        // 4 lessons in the same room at the same time are 6 pairs, like the pair based TimeTableConstraintProvider
+        Lesson lesson1 = new Lesson(1, "Subject1", "Teacher1", "Group1", TIMESLOT1, ROOM1);
+        Lesson lesson2 = new Lesson(2, "Subject2", "Teacher2", "Group2", TIMESLOT1, ROOM1);
+        Lesson lesson3 = new Lesson(3, "Subject3", "Teacher3", "Group3", TIMESLOT1, ROOM1);
+        Lesson lesson4 = new Lesson(4, "Subject4", "Teacher4", "Group4", TIMESLOT1, ROOM1);
+        constraintVerifier.verifyThat(GroupByTimeTableConstraintProvider::roomConflict)
+                .given(lesson1, lesson2, lesson3, lesson4)
+                .penalizesBy(6);
+    }
+
+}
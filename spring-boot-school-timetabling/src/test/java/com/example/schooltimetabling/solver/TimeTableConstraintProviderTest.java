@@ -18,6 +18,7 @@ package com.example.schooltimetabling.solver;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.Arrays;
 
 import com.example.schooltimetabling.domain.Lesson;
 import com.example.schooltimetabling.domain.Room;
@@ -35,6 +36,10 @@ class TimeTableConstraintProviderTest {
     private static final Timeslot TIMESLOT3 = new Timeslot(3, DayOfWeek.TUESDAY, LocalTime.NOON.plusHours(1));
     private static final Timeslot TIMESLOT4 = new Timeslot(4, DayOfWeek.TUESDAY, LocalTime.NOON.plusHours(3));
 
+    static {
+        Timeslot.linkNextTimeslots(Arrays.asList(TIMESLOT1, TIMESLOT2, TIMESLOT3, TIMESLOT4));
+    }
+
     private final ConstraintVerifier<TimeTableConstraintProvider, TimeTable> constraintVerifier =
             ConstraintVerifier.build(new TimeTableConstraintProvider(), TimeTable.class, Lesson.class);
 
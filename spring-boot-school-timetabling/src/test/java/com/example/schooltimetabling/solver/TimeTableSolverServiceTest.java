@@ -0,0 +1,214 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.example.schooltimetabling.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.solver.SolverStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.schooltimetabling.domain.Lesson;
+import com.example.schooltimetabling.domain.Room;
+import com.example.schooltimetabling.domain.TimeTable;
+import com.example.schooltimetabling.domain.Timeslot;
+
+// Effectively disable this termination in favor of terminateEarly()
+@SpringBootTest(properties = "optaplanner.solver.termination.spent-limit=1h")
+public class TimeTableSolverServiceTest {
+
+    @Autowired
+    private TimeTableSolverService solverService;
+
+    @Test
+    public void crudWhileSolving() throws InterruptedException {
+        Long timeTableId = 101L;
+        BlockingQueue<TimeTable> bestSolutionQueue = new LinkedBlockingQueue<>();
+        AtomicReference<TimeTable> finalBestSolutionReference = new AtomicReference<>();
+        CountDownLatch finalLatch = new CountDownLatch(1);
+        solverService.solveAndListen(timeTableId, id -> buildInfeasibleProblem(),
+                bestSolutionQueue::add,
+                finalBestSolution -> {
+                    finalBestSolutionReference.set(finalBestSolution);
+                    finalLatch.countDown();
+                },
+                exception -> finalLatch.countDown());
+        pollBestSolution(bestSolutionQueue, 2);
+        assertEquals(SolverStatus.SOLVING_ACTIVE, solverService.getSolverStatus(timeTableId));
+
+        solverService.addProblemFactChange(timeTableId, new LessonProblemFactChange(ProblemChangeType.ADD,
+                new Lesson(3L, "Chemistry", "M. Curie", "10th grade", null, null)));
+        TimeTable bestSolution = pollBestSolution(bestSolutionQueue, 3);
+        assertSame(bestSolution.getTimeslotList().get(0), bestSolution.getLessonList().get(2).getTimeslot());
+
+        solverService.addProblemFactChange(timeTableId, new LessonProblemFactChange(ProblemChangeType.REMOVE,
+                new Lesson(1L, "Math", "M. Curie", "9th grade", null, null)));
+        pollBestSolution(bestSolutionQueue, 2);
+
+        solverService.terminateEarly(timeTableId);
+        assertTrue(finalLatch.await(60L, TimeUnit.SECONDS));
+        assertEquals(2, finalBestSolutionReference.get().getLessonList().size());
+        waitForNotSolving(timeTableId);
+    }
+
+    @Test
+    public void solveTwice() throws InterruptedException {
+        Long timeTableId = 102L;
+        CountDownLatch finalLatch = new CountDownLatch(1);
+        solverService.solveAndListen(timeTableId, id -> buildInfeasibleProblem(),
+                bestSolution -> {}, finalBestSolution -> finalLatch.countDown(), exception -> finalLatch.countDown());
+        assertThrows(IllegalStateException.class, () -> solverService.solveAndListen(timeTableId,
+                id -> buildInfeasibleProblem(), bestSolution -> {}, finalBestSolution -> {}, exception -> {}));
+
+        solverService.terminateEarly(timeTableId);
+        assertTrue(finalLatch.await(60L, TimeUnit.SECONDS));
+        waitForNotSolving(timeTableId);
+    }
+
+    @Test
+    public void terminateEarlyWhileLoadingTheProblem() throws InterruptedException {
+        Long timeTableId = 103L;
+        CountDownLatch loadingLatch = new CountDownLatch(1);
+        CountDownLatch loadedLatch = new CountDownLatch(1);
+        AtomicReference<TimeTable> finalBestSolutionReference = new AtomicReference<>();
+        CountDownLatch finalLatch = new CountDownLatch(1);
+        solverService.solveAndListen(timeTableId, id -> {
+                    loadingLatch.countDown();
+                    try {
+                        assertTrue(loadedLatch.await(60L, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(e);
+                    }
+                    return buildInfeasibleProblem();
+                },
+                bestSolution -> {},
+                finalBestSolution -> {
+                    finalBestSolutionReference.set(finalBestSolution);
+                    finalLatch.countDown();
+                },
+                exception -> finalLatch.countDown());
+        assertTrue(loadingLatch.await(60L, TimeUnit.SECONDS));
+        solverService.terminateEarly(timeTableId);
+        loadedLatch.countDown();
+
+        assertTrue(finalLatch.await(60L, TimeUnit.SECONDS));
+        // Not solved, otherwise the construction heuristic would have assigned it
+        assertNull(finalBestSolutionReference.get().getLessonList().get(0).getTimeslot());
+        waitForNotSolving(timeTableId);
+    }
+
+    @Test
+    public void addProblemFactChangeWhileLoadingTheProblem() throws InterruptedException {
+        Long timeTableId = 105L;
+        CountDownLatch loadingLatch = new CountDownLatch(1);
+        CountDownLatch loadedLatch = new CountDownLatch(1);
+        BlockingQueue<TimeTable> bestSolutionQueue = new LinkedBlockingQueue<>();
+        CountDownLatch finalLatch = new CountDownLatch(1);
+        solverService.solveAndListen(timeTableId, id -> {
+                    loadingLatch.countDown();
+                    try {
+                        assertTrue(loadedLatch.await(60L, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(e);
+                    }
+                    return buildInfeasibleProblem();
+                },
+                bestSolutionQueue::add,
+                finalBestSolution -> finalLatch.countDown(),
+                exception -> finalLatch.countDown());
+        assertTrue(loadingLatch.await(60L, TimeUnit.SECONDS));
+        // Committed after the problem was read, so the loaded problem doesn't contain it
+        solverService.addProblemFactChange(timeTableId, new LessonProblemFactChange(ProblemChangeType.ADD,
+                new Lesson(3L, "Chemistry", "M. Curie", "10th grade", null, null)));
+        loadedLatch.countDown();
+
+        pollBestSolution(bestSolutionQueue, 3);
+        solverService.terminateEarly(timeTableId);
+        assertTrue(finalLatch.await(60L, TimeUnit.SECONDS));
+        waitForNotSolving(timeTableId);
+    }
+
+    @Test
+    public void exceptionHandlerWhenLoadingTheProblemFails() throws InterruptedException {
+        Long timeTableId = 104L;
+        AtomicReference<Throwable> exceptionReference = new AtomicReference<>();
+        CountDownLatch exceptionLatch = new CountDownLatch(1);
+        solverService.solveAndListen(timeTableId, id -> {
+                    throw new IllegalStateException("Loading failed.");
+                },
+                bestSolution -> {},
+                finalBestSolution -> {},
+                exception -> {
+                    exceptionReference.set(exception);
+                    exceptionLatch.countDown();
+                });
+
+        assertTrue(exceptionLatch.await(60L, TimeUnit.SECONDS));
+        assertEquals("Loading failed.", exceptionReference.get().getMessage());
+        waitForNotSolving(timeTableId);
+    }
+
+    /**
+     * The same teacher teaches 2 lessons in the only timeslot, so the solver never finds a perfect solution.
+     */
+    private static TimeTable buildInfeasibleProblem() {
+        Timeslot timeslot = new Timeslot(1L, DayOfWeek.MONDAY, LocalTime.of(8, 30), LocalTime.of(9, 30));
+        Room room = new Room(1L, "Room A");
+        return new TimeTable(new ArrayList<>(Arrays.asList(timeslot)), new ArrayList<>(Arrays.asList(room)),
+                new ArrayList<>(Arrays.asList(
+                        new Lesson(1L, "Math", "M. Curie", "9th grade", null, null),
+                        new Lesson(2L, "Physics", "M. Curie", "9th grade", null, null))));
+    }
+
+    private static TimeTable pollBestSolution(BlockingQueue<TimeTable> bestSolutionQueue, int lessonCount)
+            throws InterruptedException {
+        while (true) {
+            TimeTable bestSolution = bestSolutionQueue.poll(60L, TimeUnit.SECONDS);
+            if (bestSolution == null) {
+                throw new IllegalStateException("No best solution with lessonCount (" + lessonCount + ") arrived.");
+            }
+            if (bestSolution.getLessonList().size() == lessonCount) {
+                return bestSolution;
+            }
+        }
+    }
+
+    private void waitForNotSolving(Long timeTableId) throws InterruptedException {
+        // The solver thread sets it right after the final consumer returns
+        while (solverService.getSolverStatus(timeTableId) != SolverStatus.NOT_SOLVING) {
+            Thread.sleep(20L);
+        }
+    }
+
+}